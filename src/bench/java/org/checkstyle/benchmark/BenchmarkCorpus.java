@@ -0,0 +1,87 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package org.checkstyle.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * The fixed set of source files which benchmarks are run on. The files are snapshots
+ * of Checkstyle sources, they are not updated along with the sources so results of
+ * different revisions stay comparable.
+ */
+public final class BenchmarkCorpus {
+
+    /** The names of the files of the corpus. */
+    private static final String[] FILE_NAMES = {
+        "IndentationCheck.java",
+        "JavadocMethodCheck.java",
+        "TreeWalker.java",
+    };
+
+    /** Prevent instantiation. */
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Returns the files of the corpus.
+     *
+     * @return the files of the corpus.
+     * @throws IllegalStateException if a file is not found.
+     */
+    public static List<File> getFiles() {
+        final List<File> result = new ArrayList<>();
+        for (String fileName : FILE_NAMES) {
+            final URL resource = BenchmarkCorpus.class.getResource("corpus/" + fileName);
+            if (resource == null) {
+                throw new IllegalStateException("Corpus file is not found: " + fileName);
+            }
+            try {
+                result.add(new File(resource.toURI()));
+            }
+            catch (URISyntaxException ex) {
+                throw new IllegalStateException("Invalid corpus file: " + fileName, ex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the texts of the files of the corpus.
+     *
+     * @return the texts of the files of the corpus.
+     * @throws IOException if a file can not be read.
+     */
+    public static List<FileText> getFileTexts() throws IOException {
+        final List<FileText> result = new ArrayList<>();
+        for (File file : getFiles()) {
+            result.add(new FileText(file, StandardCharsets.UTF_8.name()));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,107 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package org.checkstyle.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * Measures single checks run by TreeWalker on the corpus files. The parsing
+ * of the files is included, it is measured alone by {@link ParserBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CheckBenchmark {
+
+    /** The name of the check to run. */
+    @Param({
+        "AvoidStarImport",
+        "CyclomaticComplexity",
+        "FinalLocalVariable",
+        "HiddenField",
+        "Indentation",
+        "JavadocMethod",
+        "JavadocStyle",
+        "MagicNumber",
+        "NeedBraces",
+        "WhitespaceAround"
+    })
+    private String check;
+
+    /** The files of the corpus. */
+    private List<File> files;
+
+    /** The checker configured with the check. */
+    private Checker checker;
+
+    /**
+     * Creates the checker.
+     *
+     * @throws CheckstyleException if the check can not be created.
+     */
+    @Setup
+    public void setUp() throws CheckstyleException {
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(check));
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addChild(treeWalkerConfig);
+
+        files = BenchmarkCorpus.getFiles();
+        checker = new Checker();
+        checker.setModuleClassLoader(Checker.class.getClassLoader());
+        checker.configure(checkerConfig);
+    }
+
+    /** Destroys the checker. */
+    @TearDown
+    public void tearDown() {
+        checker.destroy();
+    }
+
+    /**
+     * Checks the corpus files.
+     *
+     * @return the number of violations.
+     * @throws CheckstyleException if the files can not be checked.
+     */
+    @Benchmark
+    public int process() throws CheckstyleException {
+        return checker.process(files);
+    }
+
+}
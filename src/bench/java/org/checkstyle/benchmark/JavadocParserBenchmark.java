@@ -0,0 +1,101 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package org.checkstyle.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
+
+/**
+ * Measures parsing of the javadoc comments of the corpus files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JavadocParserBenchmark {
+
+    /** The javadoc comments of the corpus files. */
+    private final List<DetailAST> javadocComments = new ArrayList<>();
+
+    /** The parser of javadoc comments. */
+    private final JavadocDetailNodeParser parser = new JavadocDetailNodeParser();
+
+    /**
+     * Collects the javadoc comments of the corpus files.
+     *
+     * @throws IOException if a file can not be read.
+     * @throws CheckstyleException if a file can not be parsed.
+     */
+    @Setup
+    public void setUp() throws IOException, CheckstyleException {
+        for (FileText fileText : BenchmarkCorpus.getFileTexts()) {
+            collectJavadocComments(JavaParser.parseFileText(fileText,
+                    JavaParser.Options.WITH_COMMENTS));
+        }
+    }
+
+    /**
+     * Parses the javadoc comments of the corpus files.
+     *
+     * @param blackhole the consumer of the parse results.
+     */
+    @Benchmark
+    public void parseJavadoc(Blackhole blackhole) {
+        for (DetailAST javadocComment : javadocComments) {
+            blackhole.consume(parser.parseJavadocAsDetailNode(javadocComment));
+        }
+    }
+
+    /**
+     * Collects the javadoc comments in the AST.
+     *
+     * @param root the root of the AST.
+     */
+    private void collectJavadocComments(DetailAST root) {
+        DetailAST node = root;
+        while (node != null) {
+            if (node.getType() == TokenTypes.BLOCK_COMMENT_BEGIN
+                    && JavadocUtil.isJavadocComment(node)) {
+                javadocComments.add(node);
+            }
+            collectJavadocComments(node.getFirstChild());
+            node = node.getNextSibling();
+        }
+    }
+
+}
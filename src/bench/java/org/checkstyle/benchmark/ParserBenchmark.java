@@ -0,0 +1,106 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package org.checkstyle.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.puppycrawl.tools.checkstyle.CompactAst;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Measures parsing of the corpus files, with and without appending of comment nodes.
+ * The difference between the two benchmarks is the cost of comment nodes. Copying of
+ * the trees into compact trees is measured on top of parsing with comment nodes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParserBenchmark {
+
+    /** The texts of the corpus files. */
+    private List<FileText> fileTexts;
+
+    /**
+     * Reads the corpus files.
+     *
+     * @throws IOException if a file can not be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        fileTexts = BenchmarkCorpus.getFileTexts();
+    }
+
+    /**
+     * Lexes and parses the corpus files.
+     *
+     * @param blackhole the consumer of the ASTs.
+     * @throws CheckstyleException if a file can not be parsed.
+     */
+    @Benchmark
+    public void parse(Blackhole blackhole) throws CheckstyleException {
+        for (FileText fileText : fileTexts) {
+            blackhole.consume(JavaParser.parse(new FileContents(fileText)));
+        }
+    }
+
+    /**
+     * Lexes and parses the corpus files and appends comment nodes to the ASTs.
+     *
+     * @param blackhole the consumer of the ASTs.
+     * @throws CheckstyleException if a file can not be parsed.
+     */
+    @Benchmark
+    public void parseWithComments(Blackhole blackhole) throws CheckstyleException {
+        for (FileText fileText : fileTexts) {
+            blackhole.consume(JavaParser.appendHiddenCommentNodes(
+                    JavaParser.parse(new FileContents(fileText))));
+        }
+    }
+
+    /**
+     * Lexes and parses the corpus files, appends comment nodes to the ASTs and copies
+     * them into compact trees.
+     *
+     * @param blackhole the consumer of the compact trees.
+     * @throws CheckstyleException if a file can not be parsed.
+     */
+    @Benchmark
+    public void parseCompact(Blackhole blackhole) throws CheckstyleException {
+        for (FileText fileText : fileTexts) {
+            blackhole.consume(CompactAst.copyOf(JavaParser.appendHiddenCommentNodes(
+                    JavaParser.parse(new FileContents(fileText))), true));
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package org.checkstyle.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.puppycrawl.tools.checkstyle.Main;
+
+/**
+ * Measures the startup of new JVMs auditing a corpus file from the command line, with
+ * and without a class data sharing archive generated by the {@code --generate-cds-archive}
+ * option of {@link Main}.
+ * The JVMs use the JDK and the class path of the benchmark, the archive requires
+ * JDK 13 or later. Archives can not be used with directories on the class path, so the
+ * directories of the class path, like {@code target/classes}, are packed into JAR files
+ * for both kinds of JVMs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    /** The option of the java command which sets the class path. */
+    private static final String CLASS_PATH_OPTION = "-cp";
+
+    /** Whether the JVMs are started with the archive. */
+    @Param({"false", "true"})
+    private boolean sharedArchive;
+
+    /** The temporary directory with the archive and the output of the JVMs. */
+    private Path directory;
+
+    /** The command which starts a JVM. */
+    private List<String> command;
+
+    /**
+     * Creates the command, generating the archive if it is used.
+     *
+     * @throws IOException if the temporary directory or the archive can not be created.
+     * @throws InterruptedException if interrupted while generating the archive.
+     */
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        directory = Files.createTempDirectory("checkstyle-startup");
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final String classPath = createClassPath();
+        command = new ArrayList<>();
+        command.add(java);
+        if (sharedArchive) {
+            final File archive = directory.resolve("checkstyle.jsa").toFile();
+            final int exitCode = new ProcessBuilder(java, CLASS_PATH_OPTION, classPath,
+                    Main.class.getName(), "--generate-cds-archive", archive.getAbsolutePath())
+                    .inheritIO()
+                    .start()
+                    .waitFor();
+            if (exitCode != 0) {
+                throw new IOException("Failed to generate archive " + archive);
+            }
+            command.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        }
+        command.add(CLASS_PATH_OPTION);
+        command.add(classPath);
+        command.add(Main.class.getName());
+        command.add("-c");
+        command.add("/sun_checks.xml");
+        command.add(BenchmarkCorpus.getFiles().get(0).getAbsolutePath());
+    }
+
+    /**
+     * Returns the class path of the benchmark with its directories packed into JAR files
+     * in the temporary directory.
+     *
+     * @return the class path of the JVMs.
+     * @throws IOException if a JAR file can not be written.
+     */
+    private String createClassPath() throws IOException {
+        final List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            final Path path = Paths.get(entry);
+            if (Files.isDirectory(path)) {
+                final Path jar = directory.resolve("classpath" + entries.size() + ".jar");
+                packDirectory(path, jar);
+                entries.add(jar.toString());
+            }
+            else {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * Packs the files of a directory into a JAR file.
+     *
+     * @param source the directory.
+     * @param jar the JAR file to write.
+     * @throws IOException if a file can not be read or the JAR file can not be written.
+     */
+    private static void packDirectory(Path source, Path jar) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(source)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        try (OutputStream output = Files.newOutputStream(jar);
+             JarOutputStream jarOutput = new JarOutputStream(output)) {
+            for (Path file : files) {
+                final StringJoiner name = new StringJoiner("/");
+                for (Path element : source.relativize(file)) {
+                    name.add(element.toString());
+                }
+                jarOutput.putNextEntry(new JarEntry(name.toString()));
+                Files.copy(file, jarOutput);
+                jarOutput.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Deletes the temporary directory.
+     *
+     * @throws IOException if a file can not be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        final File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Starts a JVM auditing the corpus file and waits for it to exit.
+     *
+     * @return the exit code of the JVM.
+     * @throws IOException if the JVM can not be started.
+     * @throws InterruptedException if interrupted while waiting for the JVM.
+     */
+    @Benchmark
+    public int start() throws IOException, InterruptedException {
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(directory.resolve("output.txt").toFile())
+                .start()
+                .waitFor();
+    }
+
+}
@@ -0,0 +1,621 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Context;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+/**
+ * Responsible for walking an abstract syntax tree and notifying interested
+ * checks at each each node.
+ * When more than one TreeWalker thread is configured, the checks are split into
+ * groups and each group walks the same tree in its own thread.
+ *
+ */
+@FileStatefulCheck
+public final class TreeWalker extends AbstractFileSetCheck implements ExternalResourceHolder {
+
+    /** Maps from token name to ordinary checks. */
+    private final Map<Integer, Set<AbstractCheck>> tokenToOrdinaryChecks =
+        new HashMap<>();
+
+    /** Maps from token name to comment checks. */
+    private final Map<Integer, Set<AbstractCheck>> tokenToCommentChecks =
+            new HashMap<>();
+
+    /** Registered ordinary checks, that don't use comment nodes. */
+    private final Set<AbstractCheck> ordinaryChecks = createNewCheckSortedSet();
+
+    /** Registered comment checks. */
+    private final Set<AbstractCheck> commentChecks = createNewCheckSortedSet();
+
+    /** The ast filters. */
+    private final Set<TreeWalkerFilter> filters = new HashSet<>();
+
+    /** The sorted set of violations. */
+    private final SortedSet<Violation> violations = new TreeSet<>();
+
+    /** Context of child components. */
+    private Context childContext;
+
+    /** A factory for creating submodules (i.e. the Checks) */
+    private ModuleFactory moduleFactory;
+
+    /** The number of threads used to walk a tree. */
+    private int threadsNumber = 1;
+
+    /** Groups of ordinary checks walking a tree concurrently, created on first use. */
+    private List<CheckGroup> ordinaryCheckGroups;
+
+    /** Groups of comment checks walking a tree concurrently, created on first use. */
+    private List<CheckGroup> commentCheckGroups;
+
+    /** Executor walking all check groups except the first one, created on first use. */
+    private ForkJoinPool executor;
+
+    /**
+     * Creates a new {@code TreeWalker} instance.
+     */
+    public TreeWalker() {
+        setFileExtensions("java");
+    }
+
+    /**
+     * Sets the module factory for creating child modules (Checks).
+     *
+     * @param moduleFactory the factory
+     */
+    public void setModuleFactory(ModuleFactory moduleFactory) {
+        this.moduleFactory = moduleFactory;
+    }
+
+    @Override
+    public void finishLocalSetup() {
+        final DefaultContext checkContext = new DefaultContext();
+        checkContext.add("severity", getSeverity());
+        checkContext.add("tabWidth", String.valueOf(getTabWidth()));
+        childContext = checkContext;
+
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            threadsNumber = ((DefaultConfiguration) configuration).getThreadModeSettings()
+                    .getTreeWalkerThreadsNumber();
+        }
+    }
+
+    /**
+     * {@inheritDoc} Creates child module.
+     *
+     * @noinspection ChainOfInstanceofChecks
+     */
+    @Override
+    public void setupChild(Configuration childConf)
+            throws CheckstyleException {
+        final String name = childConf.getName();
+        final Object module;
+
+        try {
+            module = moduleFactory.createModule(name);
+            if (module instanceof AutomaticBean) {
+                final AutomaticBean bean = (AutomaticBean) module;
+                bean.contextualize(childContext);
+                bean.configure(childConf);
+            }
+        }
+        catch (final CheckstyleException ex) {
+            throw new CheckstyleException("cannot initialize module " + name
+                    + " - " + ex.getMessage(), ex);
+        }
+        if (module instanceof AbstractCheck) {
+            final AbstractCheck check = (AbstractCheck) module;
+            check.init();
+            registerCheck(check);
+        }
+        else if (module instanceof TreeWalkerFilter) {
+            final TreeWalkerFilter filter = (TreeWalkerFilter) module;
+            filters.add(filter);
+        }
+        else {
+            throw new CheckstyleException(
+                "TreeWalker is not allowed as a parent of " + name
+                        + " Please review 'Parent Module' section for this Check in web"
+                        + " documentation if Check is standard.");
+        }
+    }
+
+    @Override
+    protected void processFiltered(File file, FileText fileText) throws CheckstyleException {
+        // check if already checked and passed the file
+        if (!ordinaryChecks.isEmpty() || !commentChecks.isEmpty()) {
+            final FileContents contents = getFileContents();
+            final DetailAST rootAST = JavaParser.parse(contents);
+            if (!ordinaryChecks.isEmpty()) {
+                walk(rootAST, contents, AstState.ORDINARY);
+            }
+            if (!commentChecks.isEmpty()) {
+                final DetailAST astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
+                walk(astWithComments, contents, AstState.WITH_COMMENTS);
+            }
+            if (filters.isEmpty()) {
+                addViolations(violations);
+            }
+            else {
+                final SortedSet<Violation> filteredViolations =
+                    getFilteredViolations(file.getAbsolutePath(), contents, rootAST);
+                addViolations(filteredViolations);
+            }
+            violations.clear();
+        }
+    }
+
+    /**
+     * Returns filtered set of {@link Violation}.
+     *
+     * @param fileName path to the file
+     * @param fileContents the contents of the file
+     * @param rootAST root AST element {@link DetailAST} of the file
+     * @return filtered set of violations
+     */
+    private SortedSet<Violation> getFilteredViolations(
+            String fileName, FileContents fileContents, DetailAST rootAST) {
+        final SortedSet<Violation> result = new TreeSet<>(violations);
+        for (Violation element : violations) {
+            final TreeWalkerAuditEvent event =
+                    new TreeWalkerAuditEvent(fileContents, fileName, element, rootAST);
+            for (TreeWalkerFilter filter : filters) {
+                if (!filter.accept(event)) {
+                    result.remove(element);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Register a check for a given configuration.
+     *
+     * @param check the check to register
+     * @throws CheckstyleException if an error occurs
+     */
+    private void registerCheck(AbstractCheck check) throws CheckstyleException {
+        final int[] tokens;
+        final Set<String> checkTokens = check.getTokenNames();
+        if (checkTokens.isEmpty()) {
+            tokens = check.getDefaultTokens();
+        }
+        else {
+            tokens = check.getRequiredTokens();
+
+            // register configured tokens
+            final int[] acceptableTokens = check.getAcceptableTokens();
+            Arrays.sort(acceptableTokens);
+            for (String token : checkTokens) {
+                final int tokenId = TokenUtil.getTokenId(token);
+                if (Arrays.binarySearch(acceptableTokens, tokenId) >= 0) {
+                    registerCheck(tokenId, check);
+                }
+                else {
+                    final String message = String.format(Locale.ROOT, "Token \"%s\" was "
+                            + "not found in Acceptable tokens list in check %s",
+                            token, check.getClass().getName());
+                    throw new CheckstyleException(message);
+                }
+            }
+        }
+        for (int element : tokens) {
+            registerCheck(element, check);
+        }
+        if (check.isCommentNodesRequired()) {
+            commentChecks.add(check);
+        }
+        else {
+            ordinaryChecks.add(check);
+        }
+    }
+
+    /**
+     * Register a check for a specified token id.
+     *
+     * @param tokenId the id of the token
+     * @param check the check to register
+     * @throws CheckstyleException if Check is misconfigured
+     */
+    private void registerCheck(int tokenId, AbstractCheck check) throws CheckstyleException {
+        if (check.isCommentNodesRequired()) {
+            tokenToCommentChecks.computeIfAbsent(tokenId, empty -> createNewCheckSortedSet())
+                    .add(check);
+        }
+        else if (TokenUtil.isCommentType(tokenId)) {
+            final String message = String.format(Locale.ROOT, "Check '%s' waits for comment type "
+                    + "token ('%s') and should override 'isCommentNodesRequired()' "
+                    + "method to return 'true'", check.getClass().getName(),
+                    TokenUtil.getTokenName(tokenId));
+            throw new CheckstyleException(message);
+        }
+        else {
+            tokenToOrdinaryChecks.computeIfAbsent(tokenId, empty -> createNewCheckSortedSet())
+                    .add(check);
+        }
+    }
+
+    /**
+     * Initiates the walk of an AST.
+     *
+     * @param ast the root AST
+     * @param contents the contents of the file the AST was generated from.
+     * @param astState state of AST.
+     */
+    private void walk(DetailAST ast, FileContents contents,
+            AstState astState) {
+        if (threadsNumber > 1) {
+            walkInParallel(ast, contents, getCheckGroups(astState));
+        }
+        else if (astState == AstState.WITH_COMMENTS) {
+            violations.addAll(walkWithChecks(ast, contents, commentChecks, tokenToCommentChecks));
+        }
+        else {
+            violations.addAll(walkWithChecks(ast, contents, ordinaryChecks, tokenToOrdinaryChecks));
+        }
+    }
+
+    /**
+     * Walks an AST concurrently, one thread per check group. The first group
+     * is walked in the current thread.
+     *
+     * @param ast the root AST
+     * @param contents the contents of the file the AST was generated from.
+     * @param groups the groups of checks to notify.
+     * @noinspection ProhibitedExceptionThrown
+     */
+    private void walkInParallel(DetailAST ast, FileContents contents, List<CheckGroup> groups) {
+        final List<CompletableFuture<SortedSet<Violation>>> futures = new ArrayList<>();
+        for (CheckGroup group : groups.subList(1, groups.size())) {
+            futures.add(CompletableFuture.supplyAsync(() -> group.walk(ast, contents),
+                    getExecutor()));
+        }
+        try {
+            violations.addAll(groups.get(0).walk(ast, contents));
+        }
+        finally {
+            // checks of other groups can not be reused until they finish the tree
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .handle((result, exception) -> null)
+                    .join();
+        }
+        try {
+            for (CompletableFuture<SortedSet<Violation>> future : futures) {
+                violations.addAll(future.join());
+            }
+        }
+        catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    /**
+     * Returns the groups of checks for the state of AST, creating them on first use.
+     *
+     * @param astState state of AST.
+     * @return the groups of checks.
+     */
+    private List<CheckGroup> getCheckGroups(AstState astState) {
+        if (ordinaryCheckGroups == null) {
+            ordinaryCheckGroups = createCheckGroups(ordinaryChecks, tokenToOrdinaryChecks);
+            commentCheckGroups = createCheckGroups(commentChecks, tokenToCommentChecks);
+        }
+        final List<CheckGroup> groups;
+        if (astState == AstState.WITH_COMMENTS) {
+            groups = commentCheckGroups;
+        }
+        else {
+            groups = ordinaryCheckGroups;
+        }
+        return groups;
+    }
+
+    /**
+     * Splits checks into groups, one group per thread at most. Checks are
+     * assigned in their deterministic order, except for the checks which
+     * have to stay in the current thread, which are always in the first group.
+     *
+     * @param checks the checks to split.
+     * @param tokenToChecks the map from token to the checks.
+     * @return non-empty groups of checks.
+     */
+    private List<CheckGroup> createCheckGroups(Set<AbstractCheck> checks,
+            Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+        final int groupsNumber = Math.min(threadsNumber, checks.size());
+        final List<CheckGroup> groups = new ArrayList<>(groupsNumber);
+        for (int index = 0; index < groupsNumber; index++) {
+            groups.add(new CheckGroup());
+        }
+        int nextGroup = 0;
+        for (AbstractCheck check : checks) {
+            if (isThreadConfined(check)) {
+                groups.get(0).checks.add(check);
+            }
+            else {
+                groups.get(nextGroup).checks.add(check);
+                nextGroup = (nextGroup + 1) % groupsNumber;
+            }
+        }
+        groups.removeIf(group -> group.checks.isEmpty());
+        for (CheckGroup group : groups) {
+            tokenToChecks.forEach(group::registerChecks);
+        }
+        return groups;
+    }
+
+    /**
+     * Returns the executor for check groups, creating it on first use.
+     *
+     * @return the executor.
+     */
+    private ForkJoinPool getExecutor() {
+        if (executor == null) {
+            executor = new ForkJoinPool(threadsNumber - 1);
+        }
+        return executor;
+    }
+
+    /**
+     * Checks whether the check has to be notified in the thread processing the file.
+     * {@link SuppressWarningsHolder} shares the found annotations with
+     * {@code SuppressWarningsFilter} through a thread local variable.
+     *
+     * @param check the check.
+     * @return true if the check can not be moved to another thread.
+     */
+    private static boolean isThreadConfined(AbstractCheck check) {
+        return check instanceof SuppressWarningsHolder;
+    }
+
+    /**
+     * Walks an AST notifying the given checks.
+     *
+     * @param ast the root AST
+     * @param contents the contents of the file the AST was generated from.
+     * @param checks the checks to notify about the beginning and the end of the tree.
+     * @param tokenToChecks the map from token to the checks to notify for the node.
+     * @return the violations found by the checks.
+     */
+    private static SortedSet<Violation> walkWithChecks(DetailAST ast, FileContents contents,
+            Set<AbstractCheck> checks, Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+        notifyBegin(ast, contents, checks);
+        processIter(ast, tokenToChecks);
+        return notifyEnd(ast, checks);
+    }
+
+    /**
+     * Notify checks that we are about to begin walking a tree.
+     *
+     * @param rootAST the root of the tree.
+     * @param contents the contents of the file the AST was generated from.
+     * @param checks the checks to notify.
+     */
+    private static void notifyBegin(DetailAST rootAST, FileContents contents,
+            Set<AbstractCheck> checks) {
+        for (AbstractCheck check : checks) {
+            check.setFileContents(contents);
+            check.clearViolations();
+            check.beginTree(rootAST);
+        }
+    }
+
+    /**
+     * Notify checks that we have finished walking a tree.
+     *
+     * @param rootAST the root of the tree.
+     * @param checks the checks to notify.
+     * @return the violations found by the checks.
+     */
+    private static SortedSet<Violation> notifyEnd(DetailAST rootAST, Set<AbstractCheck> checks) {
+        final SortedSet<Violation> result = new TreeSet<>();
+        for (AbstractCheck check : checks) {
+            check.finishTree(rootAST);
+            result.addAll(check.getViolations());
+        }
+        return result;
+    }
+
+    /**
+     * Notify checks that visiting a node.
+     *
+     * @param ast the node to notify for.
+     * @param tokenToChecks the map from token to the checks.
+     */
+    private static void notifyVisit(DetailAST ast,
+            Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+        final Collection<AbstractCheck> visitors = tokenToChecks.get(ast.getType());
+
+        if (visitors != null) {
+            for (AbstractCheck check : visitors) {
+                check.visitToken(ast);
+            }
+        }
+    }
+
+    /**
+     * Notify checks that leaving a node.
+     *
+     * @param ast
+     *        the node to notify for
+     * @param tokenToChecks the map from token to the checks.
+     */
+    private static void notifyLeave(DetailAST ast,
+            Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+        final Collection<AbstractCheck> visitors = tokenToChecks.get(ast.getType());
+
+        if (visitors != null) {
+            for (AbstractCheck check : visitors) {
+                check.leaveToken(ast);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        ordinaryChecks.forEach(AbstractCheck::destroy);
+        commentChecks.forEach(AbstractCheck::destroy);
+        super.destroy();
+    }
+
+    @Override
+    public Set<String> getExternalResourceLocations() {
+        return Stream.concat(filters.stream(),
+                Stream.concat(ordinaryChecks.stream(), commentChecks.stream()))
+            .filter(ExternalResourceHolder.class::isInstance)
+            .map(ExternalResourceHolder.class::cast)
+            .flatMap(resource -> resource.getExternalResourceLocations().stream())
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Processes a node calling interested checks at each node.
+     * Uses iterative algorithm.
+     *
+     * @param root the root of tree for process
+     * @param tokenToChecks the map from token to the checks.
+     */
+    private static void processIter(DetailAST root,
+            Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+        DetailAST curNode = root;
+        while (curNode != null) {
+            notifyVisit(curNode, tokenToChecks);
+            DetailAST toVisit = curNode.getFirstChild();
+            while (curNode != null && toVisit == null) {
+                notifyLeave(curNode, tokenToChecks);
+                toVisit = curNode.getNextSibling();
+                curNode = curNode.getParent();
+            }
+            curNode = toVisit;
+        }
+    }
+
+    /**
+     * Creates a new {@link SortedSet} with a deterministic order based on the
+     * Check's name before the default ordering.
+     *
+     * @return The new {@link SortedSet}.
+     */
+    private static SortedSet<AbstractCheck> createNewCheckSortedSet() {
+        return new TreeSet<>(
+                Comparator.<AbstractCheck, String>comparing(check -> check.getClass().getName())
+                        .thenComparing(AbstractCheck::getId,
+                                Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(AbstractCheck::hashCode));
+    }
+
+    /**
+     * Checks walking a tree together in one thread.
+     */
+    private static final class CheckGroup {
+
+        /** The checks of the group. */
+        private final Set<AbstractCheck> checks = createNewCheckSortedSet();
+
+        /** Maps from token to the checks of the group. */
+        private final Map<Integer, Set<AbstractCheck>> tokenToChecks = new HashMap<>();
+
+        /**
+         * Registers the checks of the group interested in a token.
+         *
+         * @param tokenId the id of the token.
+         * @param tokenChecks all checks interested in the token.
+         */
+        private void registerChecks(int tokenId, Set<AbstractCheck> tokenChecks) {
+            for (AbstractCheck check : tokenChecks) {
+                if (checks.contains(check)) {
+                    tokenToChecks.computeIfAbsent(tokenId, empty -> createNewCheckSortedSet())
+                            .add(check);
+                }
+            }
+        }
+
+        /**
+         * Walks an AST notifying the checks of the group.
+         *
+         * @param ast the root AST
+         * @param contents the contents of the file the AST was generated from.
+         * @return the violations found by the checks.
+         */
+        private SortedSet<Violation> walk(DetailAST ast, FileContents contents) {
+            return walkWithChecks(ast, contents, checks, tokenToChecks);
+        }
+
+    }
+
+    /**
+     * State of AST.
+     * Indicates whether tree contains certain nodes.
+     */
+    private enum AstState {
+
+        /**
+         * Ordinary tree.
+         */
+        ORDINARY,
+
+        /**
+         * AST contains comment nodes.
+         */
+        WITH_COMMENTS,
+
+    }
+
+}
@@ -0,0 +1,256 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.BatchAuditListener;
+
+/**
+ * Listener delivering audit events to another listener on a dedicated writer thread,
+ * so a slow listener does not stall the audit. The events of a file are collected
+ * until the file is finished and handed to the writer thread as one batch through
+ * a bounded queue. The audit waits while the queue is full, and the batches are
+ * delivered in the order the files were finished. {@code auditFinished} returns
+ * after all events were delivered. An audit can fail before {@code auditFinished},
+ * so the listener should be closed after the audit, which stops the writer thread.
+ */
+public final class AsyncAuditListener implements BatchAuditListener, AutoCloseable {
+
+    /** Message of the exception thrown when the audit is interrupted while waiting. */
+    private static final String INTERRUPTED_MESSAGE =
+            "Interrupted while waiting for the audit listener.";
+
+    /** Message of the exception wrapping a checked failure of the delegate. */
+    private static final String FAILURE_MESSAGE = "The audit listener failed.";
+
+    /** The listener receiving the events on the writer thread. */
+    private final AuditListener delegate;
+
+    /** Batches of events waiting for the writer thread. */
+    private final BlockingQueue<List<Runnable>> batches;
+
+    /** The events of the current file, {@code null} outside of a file. */
+    private List<Runnable> fileBatch;
+
+    /** The last batch of the current audit, compared by identity. */
+    private List<Runnable> auditEndBatch;
+
+    /** The writer thread of the current audit. */
+    private Thread writerThread;
+
+    /** The first failure of the delegate, thrown at the end of the audit. */
+    private Throwable failure;
+
+    /**
+     * Creates a new {@code AsyncAuditListener} instance.
+     *
+     * @param delegate the listener receiving the events.
+     * @param queueCapacity the number of batches which may wait for the writer thread.
+     */
+    public AsyncAuditListener(AuditListener delegate, int queueCapacity) {
+        this.delegate = delegate;
+        batches = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        failure = null;
+        writerThread = new Thread(this::deliverBatches, "checkstyle-audit-listener");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        submit(() -> delegate.auditStarted(event));
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        if (fileBatch == null) {
+            fileBatch = new ArrayList<>(1);
+        }
+        fileBatch.add(() -> delegate.auditFinished(event));
+        auditEndBatch = fileBatch;
+        fileBatch = null;
+        put(auditEndBatch);
+        joinWriterThread();
+        throwFailure();
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        fileBatch = new ArrayList<>();
+        fileBatch.add(() -> delegate.fileStarted(event));
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        submit(() -> delegate.fileFinished(event));
+        final List<Runnable> batch = fileBatch;
+        fileBatch = null;
+        put(batch);
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        submit(() -> delegate.addError(event));
+    }
+
+    @Override
+    public void addErrors(List<AuditEvent> events) {
+        if (delegate instanceof BatchAuditListener) {
+            submit(() -> ((BatchAuditListener) delegate).addErrors(events));
+        }
+        else {
+            submit(() -> events.forEach(delegate::addError));
+        }
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        submit(() -> delegate.addException(event, throwable));
+    }
+
+    /**
+     * Stops the writer thread of an audit which failed before {@code auditFinished}
+     * and discards the events which were not delivered. Does nothing after a finished
+     * audit. The listener can be used for other audits afterwards.
+     *
+     * @throws IllegalStateException if the thread is interrupted while waiting.
+     */
+    @Override
+    public void close() {
+        if (writerThread != null) {
+            writerThread.interrupt();
+            joinWriterThread();
+        }
+        batches.clear();
+        fileBatch = null;
+    }
+
+    /**
+     * Adds an event to the batch of the current file, or hands it to the writer
+     * thread at once outside of a file.
+     *
+     * @param action the delivery of the event to the delegate.
+     */
+    private void submit(Runnable action) {
+        if (fileBatch == null) {
+            final List<Runnable> batch = new ArrayList<>(1);
+            batch.add(action);
+            put(batch);
+        }
+        else {
+            fileBatch.add(action);
+        }
+    }
+
+    /**
+     * Hands a batch to the writer thread, waiting while the queue is full.
+     *
+     * @param batch the batch.
+     * @throws IllegalStateException if the thread is interrupted while waiting.
+     */
+    private void put(List<Runnable> batch) {
+        try {
+            batches.put(batch);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(INTERRUPTED_MESSAGE, ex);
+        }
+    }
+
+    /**
+     * Waits until the writer thread of the audit ends.
+     *
+     * @throws IllegalStateException if the thread is interrupted while waiting.
+     */
+    private void joinWriterThread() {
+        try {
+            writerThread.join();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(INTERRUPTED_MESSAGE, ex);
+        }
+        writerThread = null;
+    }
+
+    /**
+     * Throws the first failure of the delegate, if any. Checked exceptions, which
+     * are not declared by the listener but can still be thrown, are wrapped.
+     *
+     * @throws IllegalStateException if the delegate failed with a checked exception.
+     */
+    private void throwFailure() {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException(FAILURE_MESSAGE, failure);
+        }
+    }
+
+    /**
+     * Delivers the batches to the delegate until the end of the audit.
+     * After a failure of the delegate the remaining events are discarded, so the
+     * audit is never blocked by a full queue.
+     */
+    private void deliverBatches() {
+        try {
+            List<Runnable> batch;
+            do {
+                batch = batches.take();
+                for (Runnable action : batch) {
+                    deliver(action);
+                }
+            } while (batch != auditEndBatch);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delivers an event to the delegate, unless the delegate failed before.
+     *
+     * @param action the delivery of the event.
+     */
+    private void deliver(Runnable action) {
+        if (failure == null) {
+            try {
+                action.run();
+            }
+            // -@cs[IllegalCatch] Any failure of the delegate must reach the audit thread,
+            // otherwise the writer thread dies and the audit waits forever on a full queue.
+            catch (Throwable ex) {
+                failure = ex;
+            }
+        }
+    }
+
+}
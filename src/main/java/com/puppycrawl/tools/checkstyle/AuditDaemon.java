@@ -0,0 +1,418 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Server which runs the audits requested by clients, keeping configured checkers
+ * between the audits. It listens on the loopback interface only and processes the
+ * requests one by one. A checker is configured again when its configuration or any
+ * of its external resources changes.
+ *
+ * <p>The audits run with the permissions of the user who started the daemon, so only
+ * requests of this user are processed. The daemon writes a random secret to a file in
+ * the home directory of the user which only the user can read, and a request is
+ * rejected unless it starts with this secret.</p>
+ */
+public final class AuditDaemon implements AutoCloseable {
+
+    /** Logger for AuditDaemon. */
+    private static final Log LOG = LogFactory.getLog(AuditDaemon.class);
+
+    /** Size of the buffer copying the output of an audit. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Milliseconds a client may take to send its request before it is dropped. */
+    private static final int REQUEST_TIMEOUT = 10_000;
+
+    /** Number of random bytes of the secret of a daemon. */
+    private static final int SECRET_LENGTH = 32;
+
+    /** Directory in the home directory of the user with the secrets of the daemons. */
+    private static final String SECRET_DIRECTORY = ".checkstyle";
+
+    /** Permissions of the directory of the secrets on POSIX file systems. */
+    private static final String SECRET_DIRECTORY_PERMISSIONS = "rwx------";
+
+    /** Permissions of the files of the secrets on POSIX file systems. */
+    private static final String SECRET_FILE_PERMISSIONS = "rw-------";
+
+    /** The socket accepting requests. */
+    private final ServerSocket serverSocket;
+
+    /** The secret which requests must start with. */
+    private final byte[] secret = new byte[SECRET_LENGTH];
+
+    /** The file the secret is written to. */
+    private final Path secretFile;
+
+    /** Milliseconds a client may take to send its request. */
+    private final int requestTimeout;
+
+    /** The configured checkers by their keys. */
+    private final Map<String, CachedChecker> checkers = new HashMap<>();
+
+    /**
+     * Creates a daemon listening on the loopback interface and writes its secret.
+     *
+     * @param port the port to listen on, 0 to use any free port.
+     * @throws IOException if the port can not be used or the secret can not be written.
+     */
+    public AuditDaemon(int port) throws IOException {
+        this(port, REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Creates a daemon listening on the loopback interface with a timeout of reading
+     * requests and writes its secret. Package-visible for tests.
+     *
+     * @param port the port to listen on, 0 to use any free port.
+     * @param requestTimeout milliseconds a client may take to send its request.
+     * @throws IOException if the port can not be used or the secret can not be written.
+     */
+    AuditDaemon(int port, int requestTimeout) throws IOException {
+        this.requestTimeout = requestTimeout;
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        secretFile = getSecretFile(serverSocket.getLocalPort());
+        new SecureRandom().nextBytes(secret);
+        try {
+            writeSecret(secretFile, secret);
+        }
+        catch (IOException ex) {
+            serverSocket.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the port the daemon listens on.
+     *
+     * @return the port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Processes requests until the daemon is closed.
+     *
+     * @param handler the handler of requests.
+     */
+    public void run(RequestHandler handler) {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                processRequest(socket, handler);
+            }
+            catch (IOException ex) {
+                if (!serverSocket.isClosed()) {
+                    LOG.warn("Failed to process a request.", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a request, runs it and writes its exit status and output back.
+     * Requests without the secret of the daemon are rejected without a response, and
+     * clients which do not send their request in time are dropped, so that they do not
+     * block the requests of other clients.
+     *
+     * @param socket the socket of the request.
+     * @param handler the handler of requests.
+     * @throws IOException if the request can not be read or answered.
+     */
+    private void processRequest(Socket socket, RequestHandler handler)
+            throws IOException {
+        socket.setSoTimeout(requestTimeout);
+        final DataInputStream input = new DataInputStream(socket.getInputStream());
+        final byte[] requestSecret = new byte[SECRET_LENGTH];
+        input.readFully(requestSecret);
+        if (!MessageDigest.isEqual(secret, requestSecret)) {
+            throw new IOException("The request does not start with the secret of the daemon.");
+        }
+        final Path workingDirectory = Paths.get(input.readUTF());
+        final int argsNumber = input.readInt();
+        final List<String> args = new ArrayList<>(argsNumber);
+        for (int index = 0; index < argsNumber; index++) {
+            args.add(input.readUTF());
+        }
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final int exitStatus;
+        try (PrintStream printStream =
+                new PrintStream(output, false, StandardCharsets.UTF_8.name())) {
+            exitStatus = handler.handle(workingDirectory, args, printStream);
+        }
+
+        final DataOutputStream response = new DataOutputStream(socket.getOutputStream());
+        response.writeInt(exitStatus);
+        output.writeTo(response);
+        response.flush();
+    }
+
+    /**
+     * Returns a configured checker, creating it if there is none for the key or if any
+     * file it depends on was modified since it was created.
+     *
+     * @param key the key identifying the configuration of the checker.
+     * @param files the files the configuration is loaded from.
+     * @param factory the factory creating a configured checker.
+     * @return the configured checker.
+     * @throws CheckstyleException if the checker can not be created.
+     */
+    public Checker getChecker(String key, Collection<String> files, CheckerFactory factory)
+            throws CheckstyleException {
+        CachedChecker cachedChecker = checkers.get(key);
+        if (cachedChecker != null && !cachedChecker.isUpToDate()) {
+            checkers.remove(key);
+            cachedChecker.checker.destroy();
+            cachedChecker = null;
+        }
+        if (cachedChecker == null) {
+            final Checker checker = factory.create();
+            final List<String> locations = new ArrayList<>(files);
+            locations.addAll(checker.getExternalResourceLocations());
+            cachedChecker = new CachedChecker(checker, locations);
+            checkers.put(key, cachedChecker);
+        }
+        return cachedChecker.checker;
+    }
+
+    /**
+     * Stops accepting requests, deletes the secret and destroys the configured checkers.
+     *
+     * @throws IOException if the socket can not be closed or the secret deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        Files.deleteIfExists(secretFile);
+        checkers.values().forEach(cachedChecker -> cachedChecker.checker.destroy());
+        checkers.clear();
+    }
+
+    /**
+     * Sends a request to the daemon and copies its output. The request starts with
+     * the secret of the daemon, so it is only processed when it is sent by the user
+     * who started the daemon.
+     *
+     * @param port the port of the daemon.
+     * @param workingDirectory the directory relative paths of the request are resolved from.
+     * @param args the command line arguments of the audit.
+     * @param out the stream to copy the output of the audit to.
+     * @return the exit status of the audit.
+     * @throws IOException if the secret can not be read or the daemon can not be reached.
+     */
+    public static int sendRequest(int port, Path workingDirectory, List<String> args,
+            OutputStream out) throws IOException {
+        final byte[] secret = Files.readAllBytes(getSecretFile(port));
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final DataOutputStream request = new DataOutputStream(socket.getOutputStream());
+            request.write(secret);
+            request.writeUTF(workingDirectory.toAbsolutePath().toString());
+            request.writeInt(args.size());
+            for (String arg : args) {
+                request.writeUTF(arg);
+            }
+            request.flush();
+
+            final DataInputStream response = new DataInputStream(socket.getInputStream());
+            final int exitStatus = response.readInt();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int length = response.read(buffer);
+            while (length != -1) {
+                out.write(buffer, 0, length);
+                length = response.read(buffer);
+            }
+            out.flush();
+            return exitStatus;
+        }
+    }
+
+    /**
+     * Returns the file of the secret of the daemon listening on a port.
+     * Package-visible for tests.
+     *
+     * @param port the port of the daemon.
+     * @return the file of the secret.
+     */
+    static Path getSecretFile(int port) {
+        return Paths.get(System.getProperty("user.home"), SECRET_DIRECTORY,
+                "daemon-" + port + ".secret");
+    }
+
+    /**
+     * Writes a secret to a file which only the user can read and write. The file
+     * of a daemon which was not closed is replaced.
+     *
+     * @param file the file of the secret.
+     * @param secret the secret.
+     * @throws IOException if the secret can not be written.
+     */
+    private static void writeSecret(Path file, byte[] secret) throws IOException {
+        final Path directory = file.getParent();
+        Files.createDirectories(directory,
+                getPermissions(directory, SECRET_DIRECTORY_PERMISSIONS));
+        Files.deleteIfExists(file);
+        Files.createFile(file, getPermissions(file, SECRET_FILE_PERMISSIONS));
+        Files.write(file, secret);
+    }
+
+    /**
+     * Returns the attributes creating a file with POSIX permissions, if the file
+     * system of the file supports them. Other file systems, such as the ones of
+     * Windows, restrict the access to the home directory of the user instead.
+     *
+     * @param file the file to create.
+     * @param permissions the permissions in the format of {@code ls -l}.
+     * @return the attributes, which are empty if the file system is not POSIX.
+     */
+    private static FileAttribute<?>[] getPermissions(Path file, String permissions) {
+        FileAttribute<?>[] result = new FileAttribute<?>[0];
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            result = new FileAttribute<?>[] {
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions)),
+            };
+        }
+        return result;
+    }
+
+    /**
+     * Returns the last modification time of a file or resource.
+     *
+     * @param location the location of the file or resource.
+     * @return the last modification time, 0 if the location is not a local file.
+     */
+    private static long getLastModified(String location) {
+        long result = 0;
+        try {
+            final URI uri = CommonUtil.getUriByFilename(location);
+            if ("file".equals(uri.getScheme())) {
+                result = Paths.get(uri).toFile().lastModified();
+            }
+        }
+        catch (CheckstyleException ignored) {
+            // a missing resource is treated as never modified
+        }
+        return result;
+    }
+
+    /**
+     * Handles the requests of clients.
+     */
+    @FunctionalInterface
+    public interface RequestHandler {
+
+        /**
+         * Runs an audit requested by a client.
+         *
+         * @param workingDirectory the working directory of the client.
+         * @param args the command line arguments of the audit.
+         * @param out the stream to print the output of the audit to.
+         * @return the exit status of the audit.
+         * @throws IOException if a file could not be read or written.
+         */
+        int handle(Path workingDirectory, List<String> args, PrintStream out)
+                throws IOException;
+
+    }
+
+    /**
+     * Creates configured checkers.
+     */
+    @FunctionalInterface
+    public interface CheckerFactory {
+
+        /**
+         * Creates a configured checker.
+         *
+         * @return the configured checker.
+         * @throws CheckstyleException if the checker can not be configured.
+         */
+        Checker create() throws CheckstyleException;
+
+    }
+
+    /**
+     * A configured checker and the last modification times of the files it depends on.
+     */
+    private static final class CachedChecker {
+
+        /** The configured checker. */
+        private final Checker checker;
+
+        /** The last modification times of the files the checker depends on. */
+        private final Map<String, Long> lastModified = new HashMap<>();
+
+        /**
+         * Creates a cached checker.
+         *
+         * @param checker the configured checker.
+         * @param locations the locations of the files the checker depends on.
+         */
+        private CachedChecker(Checker checker, Collection<String> locations) {
+            this.checker = checker;
+            for (String location : locations) {
+                lastModified.put(location, getLastModified(location));
+            }
+        }
+
+        /**
+         * Checks whether none of the files the checker depends on was modified.
+         *
+         * @return true if the checker can be reused.
+         */
+        private boolean isUpToDate() {
+            return lastModified.entrySet().stream()
+                    .allMatch(entry -> getLastModified(entry.getKey()) == entry.getValue());
+        }
+
+    }
+
+}
@@ -0,0 +1,463 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Watches files and directories and audits the files again when they change.
+ * Changes are collected until no more of them arrive within the debounce delay,
+ * then only the changed files are processed by the configured checker.
+ * The listener receives only the violations which were not reported for the file by
+ * the previous audit, the violations which disappeared are printed as fixed.
+ * Violations are compared by their position, so a violation which moved to another
+ * line is reported as both new and fixed.
+ */
+public final class AuditWatcher implements AutoCloseable {
+
+    /** Logger for AuditWatcher. */
+    private static final Log LOG = LogFactory.getLog(AuditWatcher.class);
+
+    /** The service notifying about changes. */
+    private final WatchService watchService;
+
+    /** The configured checker. */
+    private final Checker checker;
+
+    /** The listener tracking violations of each file. */
+    private final IncrementalListener listener;
+
+    /** Filter of the files and directories to audit. */
+    private final Predicate<File> fileFilter;
+
+    /** The stream to print fixed violations and summaries of audits to. */
+    private final PrintStream out;
+
+    /** Time in milliseconds to wait for more changes before auditing. */
+    private final long debounceDelay;
+
+    /** Directories whose whole content is watched. */
+    private final Set<Path> directories = new HashSet<>();
+
+    /** Files which are watched without the rest of their directory. */
+    private final Set<Path> files = new HashSet<>();
+
+    /**
+     * Creates a watcher auditing files with the checker.
+     *
+     * @param checker the configured checker.
+     * @param auditListener the listener to notify about new violations.
+     * @param fileFilter filter of the files and directories to audit.
+     * @param out the stream to print fixed violations and summaries of audits to.
+     * @param debounceDelay time in milliseconds to wait for more changes before auditing.
+     * @throws IOException if the watch service can not be created.
+     */
+    public AuditWatcher(Checker checker, AuditListener auditListener,
+            Predicate<File> fileFilter, PrintStream out, long debounceDelay)
+            throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        this.checker = checker;
+        listener = new IncrementalListener(auditListener);
+        this.fileFilter = fileFilter;
+        this.out = out;
+        this.debounceDelay = debounceDelay;
+        checker.addListener(listener);
+    }
+
+    /**
+     * Starts watching a file or a directory with all its subdirectories.
+     *
+     * @param root the file or directory to watch.
+     * @throws IOException if the file or directory can not be watched.
+     */
+    public void register(File root) throws IOException {
+        final Path path = root.toPath().toAbsolutePath();
+        if (Files.isDirectory(path)) {
+            registerDirectory(path);
+        }
+        else {
+            files.add(path);
+            registerPath(path.getParent());
+        }
+    }
+
+    /**
+     * Audits the files, reporting new violations to the listener and printing
+     * the fixed ones.
+     *
+     * @param filesToProcess the files to audit.
+     * @return number of violations of ERROR level found by the audit.
+     * @throws CheckstyleException if the audit fails.
+     */
+    public int audit(List<File> filesToProcess) throws CheckstyleException {
+        final int errors = checker.process(filesToProcess);
+        printFixedViolations();
+        return errors;
+    }
+
+    /**
+     * Audits the changed files until the watcher is closed or the thread is interrupted.
+     *
+     * @throws IOException if a new directory can not be watched.
+     * @throws CheckstyleException if an audit fails.
+     */
+    public void run() throws IOException, CheckstyleException {
+        try {
+            while (true) {
+                final Set<Path> changedPaths = new TreeSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    collectChanges(key, changedPaths);
+                    key = watchService.poll(debounceDelay, TimeUnit.MILLISECONDS);
+                }
+                if (!changedPaths.isEmpty()) {
+                    auditChanges(changedPaths);
+                }
+            }
+        }
+        catch (ClosedWatchServiceException ignored) {
+            // the watcher is closed
+        }
+        catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of violations of ERROR level currently present in the audited files.
+     *
+     * @return number of violations of ERROR level.
+     */
+    public int getErrorCount() {
+        return listener.getErrorCount();
+    }
+
+    /**
+     * Stops watching and removes the listener from the checker.
+     *
+     * @throws IOException if the watch service can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        checker.removeListener(listener);
+    }
+
+    /**
+     * Collects the paths changed according to the events of the key.
+     * New directories are watched and all their files are treated as changed.
+     *
+     * @param key the key with events.
+     * @param changedPaths the collection to add changed paths to.
+     * @throws IOException if a new directory can not be watched.
+     */
+    private void collectChanges(WatchKey key, Collection<Path> changedPaths)
+            throws IOException {
+        final Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                LOG.warn("Some changes in " + directory + " were lost.");
+            }
+            else {
+                final Path path = directory.resolve((Path) event.context());
+                if (files.contains(path)) {
+                    changedPaths.add(path);
+                }
+                else if (directories.contains(directory)
+                        && fileFilter.test(path.toFile())) {
+                    if (Files.isDirectory(path)) {
+                        registerDirectory(path);
+                        try (Stream<Path> paths = Files.walk(path)) {
+                            paths.filter(Files::isRegularFile).forEach(changedPaths::add);
+                        }
+                    }
+                    else {
+                        changedPaths.add(path);
+                    }
+                }
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Audits the changed files which exist and forgets the violations of the deleted ones.
+     *
+     * @param changedPaths the changed paths.
+     * @throws CheckstyleException if the audit fails.
+     */
+    private void auditChanges(Collection<Path> changedPaths) throws CheckstyleException {
+        listener.resetCounters();
+        final List<File> filesToProcess = new ArrayList<>();
+        for (Path path : changedPaths) {
+            final File file = path.toFile();
+            if (file.isFile() && fileFilter.test(file)) {
+                filesToProcess.add(file);
+            }
+            else {
+                listener.removeFile(file.getAbsolutePath());
+            }
+        }
+        if (filesToProcess.isEmpty()) {
+            printFixedViolations();
+        }
+        else {
+            audit(filesToProcess);
+        }
+        out.println(String.format(Locale.ROOT,
+                "Audited %d changed files: %d new violations, %d fixed violations.",
+                filesToProcess.size(), listener.getNewCount(), listener.getFixedCount()));
+    }
+
+    /**
+     * Prints the violations fixed since the previous print.
+     */
+    private void printFixedViolations() {
+        for (AuditEvent event : listener.pollFixedViolations()) {
+            String position = event.getFileName() + ':' + event.getLine();
+            if (event.getColumn() > 0) {
+                position += ":" + event.getColumn();
+            }
+            out.println("[FIXED] " + position + ": " + event.getMessage());
+        }
+    }
+
+    /**
+     * Watches a directory with all its subdirectories which pass the filter.
+     *
+     * @param root the directory.
+     * @throws IOException if a directory can not be watched.
+     */
+    private void registerDirectory(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+                    throws IOException {
+                FileVisitResult result = FileVisitResult.SKIP_SUBTREE;
+                if (dir.equals(root) || fileFilter.test(dir.toFile())) {
+                    directories.add(dir);
+                    registerPath(dir);
+                    result = FileVisitResult.CONTINUE;
+                }
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Registers a directory in the watch service.
+     *
+     * @param directory the directory.
+     * @throws IOException if the directory can not be watched.
+     */
+    private void registerPath(Path directory) throws IOException {
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Listener forwarding only the violations which were not present in the previous
+     * audit of the file and collecting the violations which disappeared.
+     */
+    private static final class IncrementalListener implements AuditListener {
+
+        /** The listener to forward events to. */
+        private final AuditListener delegate;
+
+        /** Violations of the last audit of each file. */
+        private final Map<String, Set<Violation>> violations = new HashMap<>();
+
+        /** Violations of the files being audited. */
+        private final Map<String, Set<Violation>> currentViolations = new HashMap<>();
+
+        /** Violations fixed since the last poll. */
+        private final List<AuditEvent> fixedViolations = new ArrayList<>();
+
+        /** Number of new violations since the last reset. */
+        private int newCount;
+
+        /** Number of fixed violations since the last reset. */
+        private int fixedCount;
+
+        /**
+         * Creates a listener forwarding events to the delegate.
+         *
+         * @param delegate the listener to forward events to.
+         */
+        private IncrementalListener(AuditListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void auditStarted(AuditEvent event) {
+            delegate.auditStarted(event);
+        }
+
+        @Override
+        public synchronized void auditFinished(AuditEvent event) {
+            delegate.auditFinished(event);
+        }
+
+        @Override
+        public synchronized void fileStarted(AuditEvent event) {
+            currentViolations.put(event.getFileName(), new HashSet<>());
+            delegate.fileStarted(event);
+        }
+
+        @Override
+        public synchronized void fileFinished(AuditEvent event) {
+            final String fileName = event.getFileName();
+            final Set<Violation> fileViolations = currentViolations.remove(fileName);
+            final Set<Violation> previousViolations = violations.put(fileName, fileViolations);
+            if (previousViolations != null) {
+                previousViolations.removeAll(fileViolations);
+                addFixedViolations(fileName, previousViolations);
+            }
+            delegate.fileFinished(event);
+        }
+
+        @Override
+        public synchronized void addError(AuditEvent event) {
+            final String fileName = event.getFileName();
+            final Violation violation = event.getViolation();
+            currentViolations.get(fileName).add(violation);
+            final Set<Violation> previousViolations = violations.get(fileName);
+            if (previousViolations == null || !previousViolations.contains(violation)) {
+                newCount++;
+                delegate.addError(event);
+            }
+        }
+
+        @Override
+        public synchronized void addException(AuditEvent event, Throwable throwable) {
+            delegate.addException(event, throwable);
+        }
+
+        /**
+         * Forgets the violations of a file which is no longer audited, treating them as fixed.
+         *
+         * @param fileName the name of the file.
+         */
+        private synchronized void removeFile(String fileName) {
+            final Set<Violation> fileViolations = violations.remove(fileName);
+            if (fileViolations != null) {
+                addFixedViolations(fileName, fileViolations);
+            }
+        }
+
+        /**
+         * Adds fixed violations of a file.
+         *
+         * @param fileName the name of the file.
+         * @param fileViolations the fixed violations.
+         */
+        private void addFixedViolations(String fileName, Collection<Violation> fileViolations) {
+            for (Violation violation : new TreeSet<>(fileViolations)) {
+                fixedViolations.add(new AuditEvent(this, fileName, violation));
+                fixedCount++;
+            }
+        }
+
+        /**
+         * Returns the violations fixed since the last poll and forgets them.
+         *
+         * @return the fixed violations.
+         */
+        private synchronized List<AuditEvent> pollFixedViolations() {
+            final List<AuditEvent> result = new ArrayList<>(fixedViolations);
+            fixedViolations.clear();
+            return result;
+        }
+
+        /**
+         * Resets the numbers of new and fixed violations.
+         */
+        private synchronized void resetCounters() {
+            newCount = 0;
+            fixedCount = 0;
+        }
+
+        /**
+         * Returns the number of new violations since the last reset.
+         *
+         * @return the number of new violations.
+         */
+        private synchronized int getNewCount() {
+            return newCount;
+        }
+
+        /**
+         * Returns the number of fixed violations since the last reset.
+         *
+         * @return the number of fixed violations.
+         */
+        private synchronized int getFixedCount() {
+            return fixedCount;
+        }
+
+        /**
+         * Returns the number of violations of ERROR level in the last audits of the files.
+         *
+         * @return the number of violations of ERROR level.
+         */
+        private synchronized int getErrorCount() {
+            return (int) violations.values().stream()
+                    .flatMap(Set::stream)
+                    .filter(violation -> violation.getSeverityLevel() == SeverityLevel.ERROR)
+                    .count();
+        }
+
+    }
+
+}
@@ -0,0 +1,248 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Calculates the fingerprints of violations recorded in baseline files. A fingerprint
+ * is the 64-bit FNV-1a hash of the module id, or the name of the check if there is no
+ * id, the path of the file relative to the base directory, the content of the line
+ * with its whitespace normalized, and the key and arguments of the message. It does
+ * not depend on the line number and the locale, so a violation keeps its fingerprint
+ * when its line is moved.
+ *
+ * <p>A baseline file has one entry per line, which starts with the fingerprint in
+ * hexadecimal, followed by the relative path, the module id or check name and the
+ * message key, which are only written for readers. Empty lines and lines starting
+ * with {@code #} are ignored.</p>
+ */
+public final class BaselineFingerprinter {
+
+    /** The prefix of comment lines of baseline files. */
+    public static final String COMMENT_PREFIX = "#";
+
+    /** The offset basis of the FNV-1a hash of fingerprints. */
+    private static final long OFFSET_BASIS = 0xcbf2_9ce4_8422_2325L;
+
+    /** The prime of the FNV-1a hash of fingerprints. */
+    private static final long PRIME = 0x100_0000_01b3L;
+
+    /** The radix of the fingerprints in entries. */
+    private static final int BASE_16 = 16;
+
+    /** The character hashed after each part of a fingerprint. */
+    private static final char PART_SEPARATOR = '\0';
+
+    /** The separator of the fields of an entry. */
+    private static final char FIELD_SEPARATOR = ' ';
+
+    /** The pattern of whitespace, which is normalized in the content of lines. */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** The normalized absolute directory the paths of the files are relative to. */
+    private final Path baseDirectory;
+
+    /** The name of the charset of the files. */
+    private final String charset;
+
+    /**
+     * Creates a fingerprinter.
+     *
+     * @param basedir the directory the names of the files of events are relative to,
+     *     or {@code null} to use the current directory
+     * @param charset the name of the charset of the files
+     */
+    public BaselineFingerprinter(String basedir, String charset) {
+        String directory = basedir;
+        if (directory == null) {
+            directory = "";
+        }
+        baseDirectory = Paths.get(directory).toAbsolutePath().normalize();
+        this.charset = charset;
+    }
+
+    /**
+     * Calculates the fingerprint of the violation of an event.
+     *
+     * @param event the event with a violation
+     * @return the fingerprint
+     * @throws IllegalStateException if the file of the event can not be read
+     */
+    public long getFingerprint(AuditEvent event) {
+        final Path file = resolve(event.getFileName());
+        final Violation violation = event.getViolation();
+        long hash = OFFSET_BASIS;
+        hash = update(hash, getSource(event));
+        hash = update(hash, getRelativePath(file));
+        hash = update(hash, getLineContent(event, file));
+        hash = update(hash, violation.getKey());
+        final Object[] args = violation.getArgs();
+        if (args != null) {
+            for (Object arg : args) {
+                hash = update(hash, String.valueOf(arg));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Creates the entry of a baseline file for the violation of an event.
+     *
+     * @param event the event with a violation
+     * @return the entry
+     * @throws IllegalStateException if the file of the event can not be read
+     */
+    public String createEntry(AuditEvent event) {
+        return String.format(Locale.ROOT, "%016x%c%s%c%s%c%s", getFingerprint(event),
+                FIELD_SEPARATOR, getRelativePath(resolve(event.getFileName())),
+                FIELD_SEPARATOR, getSource(event),
+                FIELD_SEPARATOR, event.getViolation().getKey());
+    }
+
+    /**
+     * Parses the fingerprint of an entry of a baseline file.
+     *
+     * @param entry the entry
+     * @return the fingerprint
+     * @throws NumberFormatException if the entry does not start with a fingerprint
+     */
+    public static long parseFingerprint(String entry) {
+        String fingerprint = entry;
+        final int separator = entry.indexOf(FIELD_SEPARATOR);
+        if (separator >= 0) {
+            fingerprint = entry.substring(0, separator);
+        }
+        return Long.parseUnsignedLong(fingerprint, BASE_16);
+    }
+
+    /**
+     * Returns the module id of an event, or the name of its check if it has no id.
+     *
+     * @param event the event
+     * @return the module id or the name of the check
+     */
+    private static String getSource(AuditEvent event) {
+        String result = event.getModuleId();
+        if (result == null) {
+            result = event.getSourceName();
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the name of a file of an event against the base directory.
+     *
+     * @param fileName the name of the file
+     * @return the normalized absolute path of the file
+     */
+    private Path resolve(String fileName) {
+        return baseDirectory.resolve(fileName).normalize();
+    }
+
+    /**
+     * Returns the path of a file relative to the base directory, with {@code /}
+     * separators. The path stays absolute if the file is on another root.
+     *
+     * @param file the normalized absolute path of the file
+     * @return the relative path
+     */
+    private String getRelativePath(Path file) {
+        Path result = file;
+        if (file.getRoot().equals(baseDirectory.getRoot())) {
+            result = baseDirectory.relativize(file);
+        }
+        return result.toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Returns the content of the line of the violation of an event, trimmed and with
+     * each sequence of whitespace replaced by a space. The content of lines which are
+     * not in the file, such as line 0 of violations of the whole file, is empty.
+     *
+     * @param event the event with a violation
+     * @param file the file of the event
+     * @return the normalized content of the line
+     * @throws IllegalStateException if the file can not be read
+     */
+    private String getLineContent(AuditEvent event, Path file) {
+        FileText fileText = event.getFileText();
+        if (fileText == null) {
+            fileText = getFileText(file.toFile());
+        }
+        final int lineNo = event.getLine();
+        String result = "";
+        if (fileText != null && lineNo >= 1 && lineNo <= fileText.size()) {
+            result = WHITESPACE.matcher(fileText.get(lineNo - 1).trim()).replaceAll(" ");
+        }
+        return result;
+    }
+
+    /**
+     * Reads the text of a file, for events which do not carry the text that was
+     * audited.
+     *
+     * @param file the file
+     * @return the text of the file, or {@code null} if it is not a regular file
+     * @throws IllegalStateException if the file can not be read
+     */
+    private FileText getFileText(File file) {
+        FileText result = null;
+        // some violations can be on a directory, instead of a file
+        if (file.isFile()) {
+            try {
+                result = new FileText(file, charset);
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException(
+                        "Cannot read source file: " + file.getPath(), ex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Updates a FNV-1a hash with a part of a fingerprint.
+     *
+     * @param hash the hash
+     * @param part the part of the fingerprint
+     * @return the updated hash
+     */
+    private static long update(long hash, String part) {
+        long result = hash;
+        for (int index = 0; index < part.length(); index++) {
+            result ^= part.charAt(index);
+            result *= PRIME;
+        }
+        result ^= PART_SEPARATOR;
+        result *= PRIME;
+        return result;
+    }
+
+}
@@ -0,0 +1,123 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+/**
+ * Writes the baseline file of the violations reported by an audit, which is read by
+ * {@code BaselineFilter} to report only new violations. The entries are sorted by the
+ * paths of the files, so that changes of the baseline are easy to review. The listener
+ * has to use the base directory and the charset of the {@link Checker} it is added to.
+ * Violations rejected by the filters, including a {@code BaselineFilter}, are not written.
+ */
+public final class BaselineWriter implements AuditListener {
+
+    /** The header of baseline files. */
+    private static final String HEADER = BaselineFingerprinter.COMMENT_PREFIX
+            + " Checkstyle baseline: fingerprint, file, module and message key of each violation";
+
+    /** The length of the fingerprints at the start of the entries. */
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    /** Order of the entries by the fields after the fingerprint, then by fingerprint. */
+    private static final Comparator<String> ENTRY_ORDER =
+            Comparator.comparing((String entry) -> entry.substring(FINGERPRINT_LENGTH))
+                    .thenComparing(Comparator.naturalOrder());
+
+    /**
+     * The entries of the violations reported so far, identical violations on identical
+     * lines have one entry each.
+     */
+    private final List<String> entries = new ArrayList<>();
+
+    /** The location of the baseline file. */
+    private final String file;
+
+    /** The calculator of the fingerprints of the violations of events. */
+    private final BaselineFingerprinter fingerprinter;
+
+    /**
+     * Creates a listener writing the baseline file.
+     *
+     * @param file the location of the baseline file
+     * @param basedir the base directory of the checker, or {@code null} for the
+     *     current directory
+     * @param charset the name of the charset of the checker
+     */
+    public BaselineWriter(String file, String basedir, String charset) {
+        this.file = file;
+        fingerprinter = new BaselineFingerprinter(basedir, charset);
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        entries.clear();
+    }
+
+    /**
+     * Writes the baseline file.
+     *
+     * @param event the event
+     * @throws IllegalStateException if the baseline file can not be written
+     */
+    @Override
+    public void auditFinished(AuditEvent event) {
+        final List<String> lines = new ArrayList<>(entries);
+        lines.sort(ENTRY_ORDER);
+        lines.add(0, HEADER);
+        try {
+            Files.write(Paths.get(file), lines, StandardCharsets.UTF_8);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Unable to write baseline file " + file, ex);
+        }
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        entries.add(fingerprinter.createEntry(event));
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        // No code by default
+    }
+
+}
@@ -0,0 +1,229 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * Generates a dynamic class data sharing archive of the classes loaded by typical
+ * audits, which shortens the startup of the JVMs started with
+ * {@code -XX:SharedArchiveFile=<archive>}. The archive is dumped by a new JVM started
+ * with {@code -XX:ArchiveClassesAtExit=<archive>} and the class path of the current one.
+ * That JVM runs the command line of {@link Main} several times: it audits a built-in
+ * source file with the bundled {@code sun_checks.xml} and {@code google_checks.xml}
+ * configurations in each report format, prints its tree with javadoc and evaluates an
+ * XPath query on it. Dynamic archives require JDK 13 or later, and can be
+ * used only by the same JDK with the same class path.
+ */
+public final class CdsArchiveGenerator {
+
+    /** The resource with the source file audited to load the classes. */
+    private static final String TRAINING_INPUT = "cds-training-input.txt";
+
+    /** The name the source file is audited with. */
+    private static final String TRAINING_FILE_NAME = "TrainingInput.java";
+
+    /** The configurations the source file is audited with. */
+    private static final String[] TRAINING_CONFIGURATIONS = {
+        "/sun_checks.xml", "/google_checks.xml",
+    };
+
+    /** The name of the file the reports of the training audits are written to. */
+    private static final String TRAINING_REPORT_NAME = "report";
+
+    /** The formats of the reports of the training audits. */
+    private static final String[] TRAINING_FORMATS = {"plain", "xml", "sarif"};
+
+    /** The XPath query evaluated on the source file. */
+    private static final String TRAINING_XPATH = "//METHOD_DEF";
+
+    /**
+     * Don't create instance of this class, use the {@link #generate(File)} method instead.
+     */
+    private CdsArchiveGenerator() {
+    }
+
+    /**
+     * Entry point of the JVM which dumps the archive, runs the training audits.
+     *
+     * @param args the command line arguments, which are ignored
+     * @throws IOException if the source file can not be written or read
+     * @throws CheckstyleException if the source file can not be audited
+     **/
+    public static void main(String... args) throws IOException, CheckstyleException {
+        train();
+    }
+
+    /**
+     * Generates the archive by the training audits in a new JVM.
+     *
+     * @param archive the archive to write
+     * @throws IOException if the JVM can not be started
+     * @throws CheckstyleException if the JVM failed or was interrupted
+     */
+    public static void generate(File archive) throws IOException, CheckstyleException {
+        final Process process = new ProcessBuilder(createCommand(archive)).inheritIO().start();
+        final int exitCode;
+        try {
+            exitCode = process.waitFor();
+        }
+        catch (InterruptedException ex) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    "Interrupted while generating class data sharing archive '%s'.", archive), ex);
+        }
+        if (exitCode != 0) {
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    "Failed to generate class data sharing archive '%s', "
+                            + "the JVM exited with code %d.", archive, exitCode));
+        }
+    }
+
+    /**
+     * Creates the command which starts the JVM dumping the archive.
+     *
+     * @param archive the archive to write
+     * @return the command
+     */
+    static List<String> createCommand(File archive) {
+        final Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        return Arrays.asList(java.toString(),
+                "-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath(),
+                "-cp", System.getProperty("java.class.path"),
+                CdsArchiveGenerator.class.getName());
+    }
+
+    /**
+     * Runs the training audits over the built-in source file, copied to a temporary
+     * directory, which is deleted afterwards.
+     *
+     * @throws IOException if the source file can not be written or read
+     * @throws CheckstyleException if the source file is missing or can not be audited
+     */
+    static void train() throws IOException, CheckstyleException {
+        final Path directory = Files.createTempDirectory("checkstyle-cds");
+        final Path file = directory.resolve(TRAINING_FILE_NAME);
+        final Path report = directory.resolve(TRAINING_REPORT_NAME);
+        try {
+            copyTrainingInput(TRAINING_INPUT, file);
+            runTrainingAudits(getTrainingArguments(file, report));
+        }
+        finally {
+            Files.deleteIfExists(report);
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Copies the source file audited by the training audits from a resource.
+     * Package-visible for tests.
+     *
+     * @param resource the name of the resource relative to this class
+     * @param file the file to copy the source file to
+     * @throws IOException if the source file can not be written
+     * @throws CheckstyleException if the resource is missing
+     */
+    static void copyTrainingInput(String resource, Path file)
+            throws IOException, CheckstyleException {
+        try (InputStream input = CdsArchiveGenerator.class.getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new CheckstyleException(
+                        "Unable to find the training source file: " + resource);
+            }
+            Files.copy(input, file);
+        }
+    }
+
+    /**
+     * Runs the training audits through the command line of {@link Main}, so the archive
+     * also covers the parsing of the options and the creation of the loggers. Their
+     * output is discarded, unless an audit fails. Package-visible for tests.
+     *
+     * @param audits the command line arguments of the audits
+     * @throws IOException if a file can not be read or written
+     * @throws CheckstyleException if the arguments are invalid or an audit fails
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    static void runTrainingAudits(List<String[]> audits)
+            throws IOException, CheckstyleException {
+        final PrintStream out = System.out;
+        final PrintStream err = System.err;
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PrintStream printStream =
+                new PrintStream(output, true, StandardCharsets.UTF_8.name())) {
+            System.setOut(printStream);
+            System.setErr(printStream);
+            for (String[] args : audits) {
+                if (Main.run(args) < 0) {
+                    throw new CheckstyleException(String.format(Locale.ROOT,
+                            "Training audit %s failed:%n%s", Arrays.toString(args),
+                            new String(output.toByteArray(), StandardCharsets.UTF_8)));
+                }
+                output.reset();
+            }
+        }
+        finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+    }
+
+    /**
+     * Returns the command line arguments of the training audits. The source file is
+     * audited with each configuration and each report format, its tree is printed with
+     * javadoc and an XPath query is evaluated on it.
+     *
+     * @param file the source file
+     * @param report the file the reports are written to
+     * @return the command line arguments of the audits
+     */
+    private static List<String[]> getTrainingArguments(Path file, Path report) {
+        final String fileName = file.toString();
+        final String reportName = report.toString();
+        final List<String[]> result = new ArrayList<>();
+        for (String configuration : TRAINING_CONFIGURATIONS) {
+            for (String format : TRAINING_FORMATS) {
+                result.add(new String[] {
+                    "-c", configuration, "-f", format, "-o", reportName, fileName,
+                });
+            }
+        }
+        result.add(new String[] {"-J", fileName});
+        result.add(new String[] {"-b", TRAINING_XPATH, fileName});
+        return result;
+    }
+
+}
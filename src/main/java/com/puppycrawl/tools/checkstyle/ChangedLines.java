@@ -0,0 +1,381 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * Lines changed in each file, read from a unified diff or from a list of line ranges.
+ * The ranges of each file are merged and sorted, so a line is looked up by a binary
+ * search.
+ */
+public final class ChangedLines {
+
+    /**
+     * Pattern of the header of a hunk, capturing the line count of the old file and
+     * the first line and the line count of the new file.
+     */
+    private static final Pattern HUNK_HEADER =
+            Pattern.compile(
+                "^@@ -\\d+(?:,(?<oldCount>\\d+))? \\+(?<newStart>\\d+)(?:,(?<newCount>\\d+))? @@");
+
+    /** Pattern of a range of lines, capturing its first and last lines. */
+    private static final Pattern LINE_RANGE = Pattern.compile("(\\d+)(?:-(\\d+))?");
+
+    /** Prefix of the line with the old file name in a unified diff. */
+    private static final String OLD_FILE_PREFIX = "--- ";
+
+    /** Prefix of the line with the new file name in a unified diff. */
+    private static final String NEW_FILE_PREFIX = "+++ ";
+
+    /** Name used in a unified diff instead of the name of a missing file. */
+    private static final String NULL_FILE = "/dev/null";
+
+    /** Predicate of the files which did not change. */
+    private static final IntPredicate UNCHANGED = line -> false;
+
+    /** Changed lines by the normalized absolute paths of the files. */
+    private final Map<String, LineRanges> files;
+
+    /**
+     * Creates changed lines from the ranges of each file.
+     *
+     * @param ranges ranges as pairs of the first and last line by the paths of the files.
+     */
+    private ChangedLines(Map<String, List<int[]>> ranges) {
+        files = new HashMap<>();
+        ranges.forEach((path, fileRanges) -> files.put(path, new LineRanges(fileRanges)));
+    }
+
+    /**
+     * Reads the added and modified lines from a unified diff, such as the output of
+     * {@code git diff}. Deleted files are skipped.
+     *
+     * @param baseDirectory the directory the paths in the diff are relative to.
+     * @param reader the reader of the diff.
+     * @return the changed lines.
+     * @throws IOException if the diff can not be read.
+     */
+    public static ChangedLines fromDiff(Path baseDirectory, BufferedReader reader)
+            throws IOException {
+        final Map<String, List<int[]>> ranges = new HashMap<>();
+        String oldFile = null;
+        List<int[]> fileRanges = null;
+        String line = reader.readLine();
+        while (line != null) {
+            final Matcher hunkHeader = HUNK_HEADER.matcher(line);
+            if (line.startsWith(OLD_FILE_PREFIX)) {
+                oldFile = getFileName(line);
+            }
+            else if (line.startsWith(NEW_FILE_PREFIX)) {
+                fileRanges = getFileRanges(baseDirectory, oldFile, getFileName(line), ranges);
+            }
+            else if (hunkHeader.find()) {
+                readHunk(reader, hunkHeader, fileRanges);
+            }
+            line = reader.readLine();
+        }
+        return new ChangedLines(ranges);
+    }
+
+    /**
+     * Reads the changed lines from entries in the {@code path[:ranges]} format, where
+     * ranges are comma separated line numbers or ranges of lines like {@code 10-20}.
+     * All lines of a file without ranges are treated as changed.
+     *
+     * @param baseDirectory the directory the paths are relative to.
+     * @param entries the entries.
+     * @return the changed lines.
+     * @throws CheckstyleException if an entry has an invalid format.
+     */
+    public static ChangedLines fromRanges(Path baseDirectory, List<String> entries)
+            throws CheckstyleException {
+        final Map<String, List<int[]>> ranges = new HashMap<>();
+        for (String entry : entries) {
+            final int separator = entry.lastIndexOf(':');
+            if (separator >= 0 && separator < entry.length() - 1
+                    && Character.isDigit(entry.charAt(separator + 1))) {
+                final List<int[]> fileRanges = ranges.computeIfAbsent(
+                    getPath(baseDirectory, entry.substring(0, separator)),
+                    path -> new ArrayList<>());
+                for (String range : entry.substring(separator + 1).split(",", -1)) {
+                    fileRanges.add(parseRange(entry, range));
+                }
+            }
+            else {
+                ranges.computeIfAbsent(getPath(baseDirectory, entry), path -> new ArrayList<>())
+                    .add(new int[] {0, Integer.MAX_VALUE});
+            }
+        }
+        return new ChangedLines(ranges);
+    }
+
+    /**
+     * Checks whether a file changed.
+     *
+     * @param file the file.
+     * @return {@code true} if the file changed.
+     */
+    public boolean containsFile(File file) {
+        return files.containsKey(getPath(file.getAbsolutePath()));
+    }
+
+    /**
+     * Returns the predicate checking whether a line of a file changed.
+     * The line 0 of a changed file, used by violations of the whole file, is always
+     * treated as changed.
+     *
+     * @param fileName the name of the file.
+     * @return the predicate of the changed line numbers.
+     */
+    public IntPredicate getLines(String fileName) {
+        IntPredicate result = files.get(getPath(fileName));
+        if (result == null) {
+            result = UNCHANGED;
+        }
+        return result;
+    }
+
+    /**
+     * Reads the lines of a hunk, adding the added lines to the ranges.
+     *
+     * @param reader the reader of the diff.
+     * @param hunkHeader the matched header of the hunk.
+     * @param fileRanges the ranges of the file, {@code null} if the file is skipped.
+     * @throws IOException if the diff can not be read.
+     */
+    private static void readHunk(BufferedReader reader, Matcher hunkHeader,
+            List<int[]> fileRanges) throws IOException {
+        int oldRemaining = getLineCount(hunkHeader.group("oldCount"));
+        int newRemaining = getLineCount(hunkHeader.group("newCount"));
+        int lineNo = Integer.parseInt(hunkHeader.group("newStart"));
+        while (oldRemaining > 0 || newRemaining > 0) {
+            final String line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            if (line.startsWith("+")) {
+                if (fileRanges != null) {
+                    addLine(fileRanges, lineNo);
+                }
+                lineNo++;
+                newRemaining--;
+            }
+            else if (line.startsWith("-")) {
+                oldRemaining--;
+            }
+            else if (!line.startsWith("\\")) {
+                lineNo++;
+                oldRemaining--;
+                newRemaining--;
+            }
+        }
+    }
+
+    /**
+     * Returns the line count of a hunk header, which is 1 when omitted.
+     *
+     * @param count the count captured from the header, may be {@code null}.
+     * @return the line count.
+     */
+    private static int getLineCount(String count) {
+        int result = 1;
+        if (count != null) {
+            result = Integer.parseInt(count);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the list of ranges of the new file of a diff, skipping deleted files.
+     * The {@code b/} prefix is removed from the new file name if the old file name has
+     * the {@code a/} prefix, as in the diffs produced by git.
+     *
+     * @param baseDirectory the directory the paths are relative to.
+     * @param oldFile the name of the old file.
+     * @param newFile the name of the new file.
+     * @param ranges the ranges by the paths of the files.
+     * @return the list of ranges of the file, {@code null} if the file was deleted.
+     */
+    private static List<int[]> getFileRanges(Path baseDirectory, String oldFile,
+            String newFile, Map<String, List<int[]>> ranges) {
+        List<int[]> result = null;
+        if (!NULL_FILE.equals(newFile)) {
+            String fileName = newFile;
+            if (newFile.startsWith("b/")
+                    && (oldFile == null || NULL_FILE.equals(oldFile) || oldFile.startsWith("a/"))) {
+                fileName = newFile.substring(2);
+            }
+            result = ranges.computeIfAbsent(getPath(baseDirectory, fileName),
+                path -> new ArrayList<>());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the file name of a file header line of a diff, without the timestamp
+     * some tools append after a tab.
+     *
+     * @param line the file header line.
+     * @return the file name.
+     */
+    private static String getFileName(String line) {
+        String result = line.substring(NEW_FILE_PREFIX.length());
+        final int tab = result.indexOf('\t');
+        if (tab >= 0) {
+            result = result.substring(0, tab);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a line to the ranges, extending the last range if the line follows it.
+     *
+     * @param fileRanges the ranges.
+     * @param lineNo the line number.
+     */
+    private static void addLine(List<int[]> fileRanges, int lineNo) {
+        final int[] last;
+        if (fileRanges.isEmpty()) {
+            last = null;
+        }
+        else {
+            last = fileRanges.get(fileRanges.size() - 1);
+        }
+        if (last != null && last[1] == lineNo - 1) {
+            last[1] = lineNo;
+        }
+        else {
+            fileRanges.add(new int[] {lineNo, lineNo});
+        }
+    }
+
+    /**
+     * Parses a line number or a range of lines.
+     *
+     * @param entry the entry the range belongs to.
+     * @param range the range.
+     * @return the first and the last line of the range.
+     * @throws CheckstyleException if the range has an invalid format.
+     */
+    private static int[] parseRange(String entry, String range) throws CheckstyleException {
+        final Matcher matcher = LINE_RANGE.matcher(range);
+        if (!matcher.matches()) {
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    "Invalid line range '%s' in '%s'.", range, entry));
+        }
+        final int first = Integer.parseInt(matcher.group(1));
+        int last = first;
+        if (matcher.group(2) != null) {
+            last = Integer.parseInt(matcher.group(2));
+        }
+        return new int[] {first, last};
+    }
+
+    /**
+     * Returns the normalized absolute path of a file.
+     *
+     * @param baseDirectory the directory the file name is relative to.
+     * @param fileName the file name.
+     * @return the normalized absolute path.
+     */
+    private static String getPath(Path baseDirectory, String fileName) {
+        return baseDirectory.resolve(fileName).toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Returns the normalized path of an absolute file name.
+     *
+     * @param fileName the absolute file name.
+     * @return the normalized path.
+     */
+    private static String getPath(String fileName) {
+        return Paths.get(fileName).normalize().toString();
+    }
+
+    /**
+     * Sorted and merged ranges of the changed lines of a file.
+     */
+    private static final class LineRanges implements IntPredicate {
+
+        /** First lines of the ranges. */
+        private final int[] firstLines;
+
+        /** Last lines of the ranges. */
+        private final int[] lastLines;
+
+        /**
+         * Creates merged ranges.
+         *
+         * @param ranges ranges as pairs of the first and last line.
+         */
+        private LineRanges(List<int[]> ranges) {
+            ranges.sort(Comparator.comparingInt(range -> range[0]));
+            final int[] first = new int[ranges.size() + 1];
+            final int[] last = new int[ranges.size() + 1];
+            // line 0 is used by violations of the whole file
+            int count = 1;
+            for (int[] range : ranges) {
+                if (range[0] - 1 <= last[count - 1]) {
+                    last[count - 1] = Math.max(last[count - 1], range[1]);
+                }
+                else {
+                    first[count] = range[0];
+                    last[count] = range[1];
+                    count++;
+                }
+            }
+            firstLines = Arrays.copyOf(first, count);
+            lastLines = Arrays.copyOf(last, count);
+        }
+
+        @Override
+        public boolean test(int line) {
+            final int index = Arrays.binarySearch(firstLines, line);
+            final boolean result;
+            if (index >= 0) {
+                result = true;
+            }
+            else {
+                final int previous = -index - 2;
+                result = previous >= 0 && lastLines[previous] >= line;
+            }
+            return result;
+        }
+
+    }
+
+}
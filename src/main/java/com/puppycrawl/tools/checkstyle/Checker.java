@@ -26,12 +26,25 @@ import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,6 +54,7 @@ import org.apache.commons.logging.LogFactory;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.BatchAuditListener;
 import com.puppycrawl.tools.checkstyle.api.BeforeExecutionFileFilter;
 import com.puppycrawl.tools.checkstyle.api.BeforeExecutionFileFilterSet;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
@@ -66,6 +80,25 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Message to use when an exception occurs and should be printed as a violation. */
     public static final String EXCEPTION_MSG = "general.exception";
 
+    /**
+     * The number of files per worker thread which may be processed ahead of
+     * the file whose events are currently delivered to the listeners.
+     */
+    private static final int PENDING_FILES_PER_THREAD = 4;
+
+    /** Prefix of the message of an exception thrown while processing a file. */
+    private static final String EXCEPTION_WHILE_PROCESSING =
+            "Exception was thrown while processing ";
+
+    /** Prefix of the message of an error thrown while processing a file. */
+    private static final String ERROR_WHILE_PROCESSING = "Error was thrown while processing ";
+
+    /** The offset basis of the FNV-1a hash of file contents. */
+    private static final long CONTENT_HASH_OFFSET_BASIS = 0xcbf2_9ce4_8422_2325L;
+
+    /** The prime of the FNV-1a hash of file contents. */
+    private static final long CONTENT_HASH_PRIME = 0x100_0000_01b3L;
+
     /** Logger for Checker. */
     private final Log log;
 
@@ -79,6 +112,10 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Vector of fileset checks. */
     private final List<FileSetCheck> fileSetChecks = new ArrayList<>();
 
+    /** Maps fileset checks to the configurations they were created from. */
+    private final Map<FileSetCheck, Configuration> fileSetCheckConfigurations =
+            new HashMap<>();
+
     /** The audit event before execution file filters. */
     private final BeforeExecutionFileFilterSet beforeExecutionFileFilters =
             new BeforeExecutionFileFilterSet();
@@ -124,12 +161,24 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Cache file. **/
     private PropertyCacheFile cacheFile;
 
+    /** Whether the cache identifies unchanged files by their content. */
+    private boolean cacheByContent;
+
     /** Controls whether exceptions should halt execution or not. */
     private boolean haltOnException = true;
 
     /** The tab width for column reporting. */
     private int tabWidth = CommonUtil.DEFAULT_TAB_WIDTH;
 
+    /** The number of threads used to process files. */
+    private int checkerThreadsNumber = 1;
+
+    /** The profiler of modules, {@code null} if modules are not profiled. */
+    private ModuleProfiler profiler;
+
+    /** The changed lines to report violations on, {@code null} to report all violations. */
+    private ChangedLines changedLines;
+
     /**
      * Creates a new {@code Checker} instance.
      * The instance needs to be contextualized and configured.
@@ -149,6 +198,23 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         final Configuration configuration = getConfiguration();
         cacheFile = new PropertyCacheFile(configuration, fileName);
         cacheFile.load();
+        cacheByContent = false;
+    }
+
+    /**
+     * Sets cache file which identifies unchanged files by the hash of their content
+     * instead of their timestamp. The cache is stored in binary format and the files
+     * are stored relative to the base directory, so the cache stays valid when the
+     * sources are checked out again, even in another location.
+     *
+     * @param fileName the cache file.
+     * @throws IOException if there are some problems with file loading.
+     */
+    public void setContentCacheFile(String fileName) throws IOException {
+        final Configuration configuration = getConfiguration();
+        cacheFile = new PropertyCacheFile(configuration, fileName, true);
+        cacheFile.load();
+        cacheByContent = true;
     }
 
     /**
@@ -173,15 +239,27 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     public void destroy() {
         listeners.clear();
         fileSetChecks.clear();
+        fileSetCheckConfigurations.clear();
         beforeExecutionFileFilters.clear();
         filters.clear();
+        try {
+            persistCacheFile();
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Unable to persist cache file.", ex);
+        }
+    }
+
+    /**
+     * Writes the cache file, if it is set, and keeps the checker usable. Checkers which
+     * run many audits write it after each of them, as {@link #destroy()} is called only
+     * at the end of their life.
+     *
+     * @throws IOException if the cache file can not be written.
+     */
+    public void persistCacheFile() throws IOException {
         if (cacheFile != null) {
-            try {
-                cacheFile.persist();
-            }
-            catch (IOException ex) {
-                throw new IllegalStateException("Unable to persist cache file.", ex);
-            }
+            cacheFile.persist();
         }
     }
 
@@ -203,6 +281,15 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         this.basedir = basedir;
     }
 
+    /**
+     * Returns base directory.
+     *
+     * @return the base directory to strip off in file names, or {@code null} if it is not set
+     */
+    public String getBasedir() {
+        return basedir;
+    }
+
     @Override
     public int process(List<File> files) throws CheckstyleException {
         if (cacheFile != null) {
@@ -217,6 +304,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
 
         final List<File> targetFiles = files.stream()
                 .filter(file -> CommonUtil.matchesFileExtension(file, fileExtensions))
+                .filter(file -> changedLines == null || changedLines.containsFile(file))
                 .collect(Collectors.toList());
         processFiles(targetFiles);
 
@@ -239,7 +327,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      * @return a set of external configuration resource locations which are used by all file set
      *         checks and filters.
      */
-    private Set<String> getExternalResourceLocations() {
+    Set<String> getExternalResourceLocations() {
         return Stream.concat(fileSetChecks.stream(), filters.getFilters().stream())
             .filter(ExternalResourceHolder.class::isInstance)
             .map(ExternalResourceHolder.class::cast)
@@ -268,64 +356,424 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      *
      * @param files a list of files to process.
      * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private void processFiles(List<File> files) throws CheckstyleException {
+        if (checkerThreadsNumber > 1 && files.size() > 1) {
+            processFilesInParallel(files);
+        }
+        else {
+            processFilesSequentially(files);
+        }
+    }
+
+    /**
+     * Processes a list of files with all FileSetChecks one after another.
+     *
+     * @param files a list of files to process.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
      * @throws Error wraps any java.lang.Error happened during execution
      * @noinspection ProhibitedExceptionThrown
      */
     // -@cs[CyclomaticComplexity] no easy way to split this logic of processing the file
-    private void processFiles(List<File> files) throws CheckstyleException {
+    private void processFilesSequentially(List<File> files) throws CheckstyleException {
         for (final File file : files) {
             String fileName = null;
             try {
                 fileName = file.getAbsolutePath();
                 final long timestamp = file.lastModified();
-                if (cacheFile != null && cacheFile.isInCache(fileName, timestamp)
-                        || !acceptFileStarted(fileName)) {
+                if (!acceptFileStarted(fileName)) {
                     continue;
                 }
-                if (cacheFile != null) {
-                    cacheFile.put(fileName, timestamp);
+                final FileText fileText = readTextForCache(file);
+                final List<Violation> cachedViolations =
+                        getCachedViolations(fileName, timestamp, fileText);
+                if (cachedViolations == null) {
+                    fireFileStarted(fileName);
+                    final List<AuditEvent> events =
+                            processFile(file, fileText, fileSetChecks, Collections.emptySet());
+                    putViolationsInCache(fileName, events);
+                    fireFilteredErrors(events);
+                    fireFileFinished(fileName);
+                }
+                else if (!cachedViolations.isEmpty()) {
+                    fireFileStarted(fileName);
+                    fireFilteredErrors(
+                            createAuditEvents(fileName, cachedViolations, fileText));
+                    fireFileFinished(fileName);
                 }
-                fireFileStarted(fileName);
-                final SortedSet<Violation> fileMessages = processFile(file);
-                fireErrors(fileName, fileMessages);
-                fireFileFinished(fileName);
             }
             // -@cs[IllegalCatch] There is no other way to deliver filename that was under
             // processing. See https://github.com/checkstyle/checkstyle/issues/2285
             catch (Exception ex) {
                 if (fileName != null && cacheFile != null) {
-                    cacheFile.remove(fileName);
+                    cacheFile.remove(getCacheKey(fileName));
                 }
 
                 // We need to catch all exceptions to put a reason failure (file name) in exception
-                throw new CheckstyleException("Exception was thrown while processing "
+                throw new CheckstyleException(EXCEPTION_WHILE_PROCESSING
                         + file.getPath(), ex);
             }
             catch (Error error) {
                 if (fileName != null && cacheFile != null) {
-                    cacheFile.remove(fileName);
+                    cacheFile.remove(getCacheKey(fileName));
                 }
 
                 // We need to catch all errors to put a reason failure (file name) in error
-                throw new Error("Error was thrown while processing " + file.getPath(), error);
+                throw new Error(ERROR_WHILE_PROCESSING + file.getPath(), error);
+            }
+        }
+    }
+
+    /**
+     * Processes a list of files with all FileSetChecks on a pool of worker threads.
+     * Each worker owns its own copies of the FileSetChecks, only checks which keep
+     * a global state are shared between workers. Listeners are notified on the
+     * calling thread in the order of the files.
+     *
+     * @param files a list of files to process.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private void processFilesInParallel(List<File> files) throws CheckstyleException {
+        final Set<FileSetCheck> sharedFileSetChecks = getSharedFileSetChecks();
+        final List<List<FileSetCheck>> copies = new ArrayList<>();
+        final BlockingQueue<List<FileSetCheck>> workers = new LinkedBlockingQueue<>();
+        workers.add(fileSetChecks);
+        final ExecutorService executor = Executors.newFixedThreadPool(checkerThreadsNumber);
+        try {
+            for (int i = 1; i < checkerThreadsNumber; i++) {
+                final List<FileSetCheck> copy = createFileSetChecksCopy(sharedFileSetChecks);
+                copies.add(copy);
+                workers.add(copy);
+            }
+
+            final Queue<PendingFile> pendingFiles = new ArrayDeque<>();
+            for (final File file : files) {
+                if (!acceptFileStarted(file.getAbsolutePath())) {
+                    continue;
+                }
+                pendingFiles.add(new PendingFile(file, executor.submit(
+                    () -> auditFile(file, workers, sharedFileSetChecks))));
+                if (pendingFiles.size() > checkerThreadsNumber * PENDING_FILES_PER_THREAD) {
+                    firePendingFile(pendingFiles.remove());
+                }
+            }
+            while (!pendingFiles.isEmpty()) {
+                firePendingFile(pendingFiles.remove());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            for (final List<FileSetCheck> copy : copies) {
+                copy.stream()
+                    .filter(fsc -> !sharedFileSetChecks.contains(fsc))
+                    .forEach(fsc -> {
+                        fsc.finishProcessing();
+                        fsc.destroy();
+                    });
+            }
+        }
+    }
+
+    /**
+     * Returns the FileSetChecks which can't be copied for worker threads, either
+     * because they keep a global state or because they were not created from
+     * a configuration. Such checks are shared by all workers, one at a time.
+     *
+     * @return the FileSetChecks shared by all worker threads.
+     */
+    private Set<FileSetCheck> getSharedFileSetChecks() {
+        final Set<FileSetCheck> result = new HashSet<>();
+        for (final FileSetCheck fsc : fileSetChecks) {
+            if (!fileSetCheckConfigurations.containsKey(fsc)
+                    || fsc.getClass().isAnnotationPresent(GlobalStatefulCheck.class)) {
+                result.add(fsc);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a copy of the FileSetChecks for a worker thread.
+     *
+     * @param sharedFileSetChecks the FileSetChecks which must not be copied.
+     * @return the FileSetChecks of the worker, in the original order.
+     * @throws CheckstyleException if a FileSetCheck can not be created.
+     */
+    private List<FileSetCheck> createFileSetChecksCopy(Set<FileSetCheck> sharedFileSetChecks)
+            throws CheckstyleException {
+        final List<FileSetCheck> result = new ArrayList<>();
+        for (final FileSetCheck fsc : fileSetChecks) {
+            if (sharedFileSetChecks.contains(fsc)) {
+                result.add(fsc);
+            }
+            else {
+                final FileSetCheck copy =
+                        (FileSetCheck) createChild(fileSetCheckConfigurations.get(fsc));
+                copy.init();
+                copy.setMessageDispatcher(this);
+                copy.beginProcessing(charset);
+                result.add(copy);
             }
         }
+        return result;
     }
 
     /**
-     * Processes a file with all FileSetChecks.
+     * Processes a file on a worker thread with the FileSetChecks of the first idle
+     * worker and applies the filters to the violations found.
      *
      * @param file a file to process.
-     * @return a sorted set of violations to be logged.
+     * @param workers the FileSetChecks of idle workers.
+     * @param sharedFileSetChecks the FileSetChecks shared by all workers.
+     * @return audit events of the violations accepted by the filters,
+     *     or {@code null} if the file is up to date in cache without violations.
      * @throws CheckstyleException if error condition within Checkstyle occurs.
+     * @throws InterruptedException if the worker was interrupted.
+     */
+    private List<AuditEvent> auditFile(File file, BlockingQueue<List<FileSetCheck>> workers,
+            Set<FileSetCheck> sharedFileSetChecks)
+            throws CheckstyleException, InterruptedException {
+        final String fileName = file.getAbsolutePath();
+        final long timestamp = file.lastModified();
+        final FileText fileText = readTextForCache(file);
+        final List<Violation> cachedViolations =
+                getCachedViolations(fileName, timestamp, fileText);
+        List<AuditEvent> result = null;
+        if (cachedViolations == null) {
+            final List<FileSetCheck> checks = workers.take();
+            try {
+                result = processFile(file, fileText, checks, sharedFileSetChecks);
+                putViolationsInCache(fileName, result);
+            }
+            finally {
+                workers.add(checks);
+            }
+        }
+        else if (!cachedViolations.isEmpty()) {
+            result = createAuditEvents(fileName, cachedViolations, fileText);
+        }
+        return result;
+    }
+
+    /**
+     * Notifies listeners about a file processed by a worker thread,
+     * waiting for the worker to finish if needed.
+     *
+     * @param pendingFile the file submitted to a worker.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     * @throws Error wraps any java.lang.Error happened during execution
      * @noinspection ProhibitedExceptionThrown
      */
-    private SortedSet<Violation> processFile(File file) throws CheckstyleException {
+    private void firePendingFile(PendingFile pendingFile) throws CheckstyleException {
+        final File file = pendingFile.file;
+        final String fileName = file.getAbsolutePath();
+        Throwable failure = null;
+        try {
+            final List<AuditEvent> events = pendingFile.result.get();
+            if (events != null) {
+                fireFileStarted(fileName);
+                fireFilteredErrors(events);
+                fireFileFinished(fileName);
+            }
+        }
+        catch (ExecutionException ex) {
+            failure = ex.getCause();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failure = ex;
+        }
+        // -@cs[IllegalCatch] There is no other way to deliver filename that was under
+        // processing. See https://github.com/checkstyle/checkstyle/issues/2285
+        catch (Exception ex) {
+            failure = ex;
+        }
+        catch (Error error) {
+            if (cacheFile != null) {
+                cacheFile.remove(getCacheKey(fileName));
+            }
+            throw new Error(ERROR_WHILE_PROCESSING + file.getPath(), error);
+        }
+        if (failure != null) {
+            if (cacheFile != null) {
+                cacheFile.remove(getCacheKey(fileName));
+            }
+            if (failure instanceof Error) {
+                throw new Error(ERROR_WHILE_PROCESSING + file.getPath(), failure);
+            }
+            throw new CheckstyleException(EXCEPTION_WHILE_PROCESSING
+                    + file.getPath(), failure);
+        }
+    }
+
+    /**
+     * Reads the file when the cache identifies unchanged files by their content.
+     *
+     * @param file the file to read.
+     * @return the text of the file, or {@code null} if it is not needed or can not be read,
+     *     the latter is reported when the file is processed.
+     */
+    private FileText readTextForCache(File file) {
+        FileText result = null;
+        if (cacheByContent) {
+            try {
+                result = new FileText(file.getAbsoluteFile(), charset);
+            }
+            catch (final IOException ioe) {
+                log.debug("Unable to read file for cache.", ioe);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the violations of the file if it is unchanged since it was checked,
+     * otherwise records the file in cache.
+     *
+     * @param fileName the absolute name of the file.
+     * @param timestamp the timestamp of the file.
+     * @param fileText the text of the file, or {@code null} to use its timestamp.
+     * @return the violations of the file accepted by the filters,
+     *     or {@code null} if the file needs to be processed.
+     */
+    private List<Violation> getCachedViolations(String fileName, long timestamp,
+            FileText fileText) {
+        List<Violation> result = null;
+        if (cacheFile != null && changedLines == null) {
+            final String key = getCacheKey(fileName);
+            final long stamp;
+            if (fileText == null) {
+                stamp = timestamp;
+            }
+            else {
+                stamp = getContentHash(fileText);
+            }
+            if (cacheFile.isInCache(key, stamp)) {
+                result = cacheFile.getViolations(key, moduleClassLoader);
+            }
+            if (result == null) {
+                cacheFile.put(key, stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records in cache the violations of a processed file which were accepted
+     * by the filters. A file which failed to be processed is removed from cache.
+     *
+     * @param fileName the absolute name of the file.
+     * @param events audit events of the accepted violations.
+     */
+    private void putViolationsInCache(String fileName, List<AuditEvent> events) {
+        if (cacheFile != null && changedLines == null && !events.isEmpty()) {
+            final String key = getCacheKey(fileName);
+            final boolean failed = events.stream()
+                    .map(AuditEvent::getViolation)
+                    .anyMatch(this::isProcessingFailure);
+            if (failed) {
+                cacheFile.remove(key);
+            }
+            else {
+                cacheFile.putViolations(key, events.stream()
+                        .map(AuditEvent::getViolation)
+                        .collect(Collectors.toList()));
+            }
+        }
+    }
+
+    /**
+     * Checks whether a violation reports that a file failed to be processed.
+     *
+     * @param violation the violation to check.
+     * @return {@code true} if the violation reports a failure of Checker.
+     */
+    private boolean isProcessingFailure(Violation violation) {
+        return EXCEPTION_MSG.equals(violation.getKey())
+                && getClass().getName().equals(violation.getSourceName());
+    }
+
+    /**
+     * Creates audit events for the violations of a file restored from cache.
+     *
+     * @param fileName the absolute name of the file.
+     * @param violations the violations of the file.
+     * @param fileText the text of the file, or {@code null} if it was not read.
+     * @return audit events of the violations.
+     */
+    private List<AuditEvent> createAuditEvents(String fileName, List<Violation> violations,
+            FileText fileText) {
+        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+        final List<AuditEvent> result = new ArrayList<>();
+        for (final Violation violation : violations) {
+            result.add(new AuditEvent(this, stripped, violation, fileText));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of the file in cache, which is relative to the base
+     * directory when the cache identifies files by their content.
+     *
+     * @param fileName the absolute name of the file.
+     * @return the name of the file in cache.
+     */
+    private String getCacheKey(String fileName) {
+        String result = fileName;
+        if (cacheByContent) {
+            result = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the 64-bit FNV-1a hash of the text of a file.
+     *
+     * @param fileText the text of the file.
+     * @return the hash of the text.
+     */
+    private static long getContentHash(FileText fileText) {
+        final CharSequence text = fileText.getFullText();
+        long hash = CONTENT_HASH_OFFSET_BASIS;
+        for (int index = 0; index < text.length(); index++) {
+            hash ^= text.charAt(index);
+            hash *= CONTENT_HASH_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Processes a file with all FileSetChecks and applies the filters to the violations
+     * found. The events of the violations carry the text of the file, so that filters
+     * and listeners do not need to read the file again.
+     *
+     * @param file a file to process.
+     * @param fileText the text of the file, or {@code null} to read it.
+     * @param checks the FileSetChecks to process the file with.
+     * @param sharedFileSetChecks the FileSetChecks which may be used by other threads
+     *     at the same time.
+     * @return audit events of the violations accepted by the filters.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     * @noinspection ProhibitedExceptionThrown
+     */
+    private List<AuditEvent> processFile(File file, FileText fileText,
+            List<FileSetCheck> checks, Set<FileSetCheck> sharedFileSetChecks)
+            throws CheckstyleException {
         final SortedSet<Violation> fileMessages = new TreeSet<>();
+        FileText theText = fileText;
         try {
-            final FileText theText = new FileText(file.getAbsoluteFile(), charset);
-            for (final FileSetCheck fsc : fileSetChecks) {
-                fileMessages.addAll(fsc.process(file, theText));
+            if (theText == null) {
+                theText = new FileText(file.getAbsoluteFile(), charset);
+            }
+            for (final FileSetCheck fsc : checks) {
+                if (sharedFileSetChecks.contains(fsc)) {
+                    synchronized (fsc) {
+                        fileMessages.addAll(processWithCheck(fsc, file, theText));
+                    }
+                }
+                else {
+                    fileMessages.addAll(processWithCheck(fsc, file, theText));
+                }
             }
         }
         catch (final IOException ioe) {
@@ -352,7 +800,31 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
                     new String[] {sw.getBuffer().toString()},
                     null, getClass(), null));
         }
-        return fileMessages;
+        return filterErrors(file.getAbsolutePath(), fileMessages, theText);
+    }
+
+    /**
+     * Processes a file with a FileSetCheck, profiling the FileSetCheck if requested.
+     *
+     * @param fsc the FileSetCheck to process the file with.
+     * @param file the file to process.
+     * @param fileText the text of the file.
+     * @return the violations found by the FileSetCheck.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private SortedSet<Violation> processWithCheck(FileSetCheck fsc, File file,
+            FileText fileText) throws CheckstyleException {
+        final SortedSet<Violation> result;
+        if (profiler == null) {
+            result = fsc.process(file, fileText);
+        }
+        else {
+            final long startTime = System.nanoTime();
+            final long startAllocatedBytes = profiler.getAllocatedBytes();
+            result = fsc.process(file, fileText);
+            profiler.recordInvocation(fsc, startTime, startAllocatedBytes);
+        }
+        return result;
     }
 
     /**
@@ -390,19 +862,58 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      */
     @Override
     public void fireErrors(String fileName, SortedSet<Violation> errors) {
+        final List<AuditEvent> events = filterErrors(fileName, errors, null);
+        fireFilteredErrors(events);
+        if (cacheFile != null && !events.isEmpty()) {
+            cacheFile.remove(getCacheKey(fileName));
+        }
+    }
+
+    /**
+     * Creates audit events for the errors in a file which are accepted by the filters.
+     *
+     * @param fileName the audited file
+     * @param errors the audit errors from the file
+     * @param fileText the text of the file, or {@code null} if it is not known
+     * @return audit events of the accepted errors
+     */
+    private List<AuditEvent> filterErrors(String fileName, SortedSet<Violation> errors,
+            FileText fileText) {
         final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
-        boolean hasNonFilteredViolations = false;
+        IntPredicate lines = null;
+        if (changedLines != null) {
+            lines = changedLines.getLines(fileName);
+        }
+        final List<AuditEvent> result = new ArrayList<>();
         for (final Violation element : errors) {
-            final AuditEvent event = new AuditEvent(this, stripped, element);
-            if (filters.accept(event)) {
-                hasNonFilteredViolations = true;
-                for (final AuditListener listener : listeners) {
-                    listener.addError(event);
+            if (lines == null || lines.test(element.getLineNo())) {
+                final AuditEvent event = new AuditEvent(this, stripped, element, fileText);
+                if (filters.accept(event)) {
+                    result.add(event);
                 }
             }
         }
-        if (hasNonFilteredViolations && cacheFile != null) {
-            cacheFile.remove(fileName);
+        return result;
+    }
+
+    /**
+     * Notify all listeners about the errors in a file which were accepted by the filters.
+     * Listeners implementing {@link BatchAuditListener} receive all errors in one call.
+     *
+     * @param events audit events of the accepted errors
+     */
+    private void fireFilteredErrors(List<AuditEvent> events) {
+        if (!events.isEmpty()) {
+            for (final AuditListener listener : listeners) {
+                if (listener instanceof BatchAuditListener) {
+                    ((BatchAuditListener) listener).addErrors(events);
+                }
+                else {
+                    for (final AuditEvent event : events) {
+                        listener.addError(event);
+                    }
+                }
+            }
         }
     }
 
@@ -426,6 +937,12 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         final Locale locale = new Locale(localeLanguage, localeCountry);
         Violation.setLocale(locale);
 
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            checkerThreadsNumber = ((DefaultConfiguration) configuration)
+                    .getThreadModeSettings().getCheckerThreadsNumber();
+        }
+
         if (moduleFactory == null) {
             if (moduleClassLoader == null) {
                 throw new CheckstyleException(
@@ -445,6 +962,9 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         context.add("severity", severity.getName());
         context.add("basedir", basedir);
         context.add("tabWidth", String.valueOf(tabWidth));
+        if (profiler != null) {
+            context.add("profiler", profiler);
+        }
         childContext = context;
     }
 
@@ -456,26 +976,12 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     @Override
     protected void setupChild(Configuration childConf)
             throws CheckstyleException {
-        final String name = childConf.getName();
-        final Object child;
-
-        try {
-            child = moduleFactory.createModule(name);
-
-            if (child instanceof AutomaticBean) {
-                final AutomaticBean bean = (AutomaticBean) child;
-                bean.contextualize(childContext);
-                bean.configure(childConf);
-            }
-        }
-        catch (final CheckstyleException ex) {
-            throw new CheckstyleException("cannot initialize module " + name
-                    + " - " + ex.getMessage(), ex);
-        }
+        final Object child = createChild(childConf);
         if (child instanceof FileSetCheck) {
             final FileSetCheck fsc = (FileSetCheck) child;
             fsc.init();
             addFileSetCheck(fsc);
+            fileSetCheckConfigurations.put(fsc, childConf);
         }
         else if (child instanceof BeforeExecutionFileFilter) {
             final BeforeExecutionFileFilter filter = (BeforeExecutionFileFilter) child;
@@ -490,11 +996,38 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
             addListener(listener);
         }
         else {
-            throw new CheckstyleException(name
+            throw new CheckstyleException(childConf.getName()
                     + " is not allowed as a child in Checker");
         }
     }
 
+    /**
+     * Creates a child module and configures it.
+     *
+     * @param childConf the configuration of the child module.
+     * @return the child module.
+     * @throws CheckstyleException if the child module can not be created.
+     */
+    private Object createChild(Configuration childConf) throws CheckstyleException {
+        final String name = childConf.getName();
+        final Object child;
+
+        try {
+            child = moduleFactory.createModule(name);
+
+            if (child instanceof AutomaticBean) {
+                final AutomaticBean bean = (AutomaticBean) child;
+                bean.contextualize(childContext);
+                bean.configure(childConf);
+            }
+        }
+        catch (final CheckstyleException ex) {
+            throw new CheckstyleException("cannot initialize module " + name
+                    + " - " + ex.getMessage(), ex);
+        }
+        return child;
+    }
+
     /**
      * Adds a FileSetCheck to the list of FileSetChecks
      * that is executed in process().
@@ -563,6 +1096,29 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         this.moduleFactory = moduleFactory;
     }
 
+    /**
+     * Sets the profiler which accumulates the time spent in modules and the memory
+     * they allocate. It must be set before the checker is configured.
+     *
+     * @param profiler the profiler, {@code null} to disable profiling
+     */
+    public void setProfiler(ModuleProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Sets the changed lines. Only the changed files are processed and only the violations
+     * on the changed lines are reported, they are selected before the filters are applied.
+     * The cache is neither used nor updated while the changed lines are set, as it keeps
+     * the violations of whole files.
+     *
+     * @param changedLines the changed lines, {@code null} to process all files and report
+     *     all violations
+     */
+    public void setChangedLines(ChangedLines changedLines) {
+        this.changedLines = changedLines;
+    }
+
     /**
      * Sets locale country.
      *
@@ -597,6 +1153,15 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         this.moduleClassLoader = moduleClassLoader;
     }
 
+    /**
+     * Returns the name of the charset.
+     *
+     * @return the name of the charset of the checked files
+     */
+    public String getCharset() {
+        return charset;
+    }
+
     /**
      * Sets a named charset.
      *
@@ -639,4 +1204,28 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         }
     }
 
+    /**
+     * A file submitted to a worker thread.
+     */
+    private static final class PendingFile {
+
+        /** The file to process. */
+        private final File file;
+
+        /** The audit events of the violations accepted by the filters. */
+        private final Future<List<AuditEvent>> result;
+
+        /**
+         * Creates a new {@code PendingFile} instance.
+         *
+         * @param file the file to process.
+         * @param result the audit events of the violations accepted by the filters.
+         */
+        /* package */ PendingFile(File file, Future<List<AuditEvent>> result) {
+            this.file = file;
+            this.result = result;
+        }
+
+    }
+
 }
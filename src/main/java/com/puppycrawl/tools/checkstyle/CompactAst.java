@@ -0,0 +1,471 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+/**
+ * A compact copy of an AST. The attributes of the nodes are stored in arrays indexed
+ * by the position of the nodes in preorder, instead of in linked node objects, and
+ * nodes with the same text share a single string. The nodes are exposed through
+ * lightweight views implementing {@link DetailAST}, created with the copy so that
+ * a node is always represented by the same view. The copy is immutable and can be
+ * read from several threads.
+ */
+public final class CompactAst {
+
+    /** Index used for a missing node. */
+    private static final int NONE = -1;
+
+    /** Initial capacity of the stack of ancestors used when copying a tree. */
+    private static final int INITIAL_DEPTH = 32;
+
+    /** Types of the nodes. */
+    private final int[] types;
+
+    /** Line numbers of the nodes. */
+    private final int[] lineNumbers;
+
+    /** Column numbers of the nodes. */
+    private final int[] columnNumbers;
+
+    /** Indexes of the parents of the nodes. */
+    private final int[] parents;
+
+    /** Indexes of the previous siblings of the nodes. */
+    private final int[] previousSiblings;
+
+    /** Indexes following the last descendants of the nodes. */
+    private final int[] subtreeEnds;
+
+    /** Indexes of the texts of the nodes in the text table. */
+    private final int[] textIndexes;
+
+    /** Distinct texts of the nodes. */
+    private final String[] texts;
+
+    /** Sorted indexes of the nodes of each type, indexed by the type. */
+    private final int[][] typeIndexes;
+
+    /** Views of the nodes. */
+    private final Node[] nodes;
+
+    /**
+     * Number of nodes of some types before each index, by the set of types,
+     * computed on first use.
+     */
+    private final Map<BitSet, int[]> typeCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a compact copy of a tree.
+     *
+     * @param root the root of the tree.
+     * @param withComments whether to copy the comment nodes.
+     */
+    private CompactAst(DetailAST root, boolean withComments) {
+        final List<DetailAST> order = new ArrayList<>();
+        final DetailAST top = root.getParent();
+        for (DetailAST ast = root; ast != null; ast = getNext(ast, top, withComments)) {
+            order.add(ast);
+        }
+        final int size = order.size();
+        types = new int[size];
+        lineNumbers = new int[size];
+        columnNumbers = new int[size];
+        parents = new int[size];
+        previousSiblings = new int[size];
+        subtreeEnds = new int[size];
+        textIndexes = new int[size];
+        nodes = new Node[size];
+
+        final Map<String, Integer> textTable = new HashMap<>();
+        copyNodes(order, textTable);
+        for (int index = size - 1; index > 0; index--) {
+            final int parent = parents[index];
+            if (parent != NONE && subtreeEnds[parent] < subtreeEnds[index]) {
+                subtreeEnds[parent] = subtreeEnds[index];
+            }
+        }
+        texts = new String[textTable.size()];
+        textTable.forEach((text, textIndex) -> texts[textIndex] = text);
+        typeIndexes = createTypeIndexes(types);
+    }
+
+    /**
+     * Copies the attributes of the nodes, except for the ends of the subtrees which only
+     * cover the nodes themselves.
+     *
+     * @param order the nodes in preorder.
+     * @param textTable the indexes of the texts, filled with the texts of the nodes.
+     */
+    private void copyNodes(List<DetailAST> order, Map<String, Integer> textTable) {
+        final int[] lastChildren = new int[order.size() + 1];
+        Arrays.fill(lastChildren, NONE);
+        int[] ancestors = new int[INITIAL_DEPTH];
+        int depth = 0;
+        for (int index = 0; index < order.size(); index++) {
+            final DetailAST ast = order.get(index);
+            while (depth > 0 && order.get(ancestors[depth - 1]) != ast.getParent()) {
+                depth--;
+            }
+            int parent = NONE;
+            if (depth > 0) {
+                parent = ancestors[depth - 1];
+            }
+            types[index] = ast.getType();
+            lineNumbers[index] = ast.getLineNo();
+            columnNumbers[index] = ast.getColumnNo();
+            parents[index] = parent;
+            previousSiblings[index] = lastChildren[parent + 1];
+            lastChildren[parent + 1] = index;
+            subtreeEnds[index] = index + 1;
+            textIndexes[index] = textTable.computeIfAbsent(ast.getText(),
+                text -> textTable.size());
+            nodes[index] = new Node(index);
+            if (depth == ancestors.length) {
+                ancestors = Arrays.copyOf(ancestors, depth * 2);
+            }
+            ancestors[depth] = index;
+            depth++;
+        }
+    }
+
+    /**
+     * Creates a compact copy of a tree. The copy contains the given node, its
+     * descendants, and its following siblings with their descendants.
+     *
+     * @param root the root of the tree, may be {@code null}.
+     * @param withComments whether to copy the comment nodes, which are skipped
+     *     with their descendants otherwise.
+     * @return the root of the copy, {@code null} if the tree is empty.
+     */
+    public static DetailAST copyOf(DetailAST root, boolean withComments) {
+        DetailAST result = null;
+        if (root != null) {
+            result = new CompactAst(root, withComments).nodes[0];
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the subtree of a node of a compact copy contains a node of any of
+     * the given types. The nodes of the types are counted once per set of types,
+     * so the set must not change while the copy is used.
+     *
+     * @param ast the node, which must belong to a compact copy.
+     * @param types the token types.
+     * @return true if the subtree, including the node, contains a node of any of
+     *     the types.
+     */
+    public static boolean branchContainsAny(DetailAST ast, BitSet types) {
+        return ((Node) ast).branchContainsAny(types);
+    }
+
+    /**
+     * Checks whether a node belongs to a compact copy.
+     *
+     * @param ast the node, may be {@code null}.
+     * @return true if the node belongs to a compact copy.
+     */
+    public static boolean isCompact(DetailAST ast) {
+        return ast instanceof Node;
+    }
+
+    /**
+     * Returns the next node in preorder which is copied.
+     *
+     * @param ast the current node.
+     * @param top the parent of the root of the copied tree.
+     * @param withComments whether the comment nodes are copied.
+     * @return the next node, {@code null} if there is none.
+     */
+    private static DetailAST getNext(DetailAST ast, DetailAST top, boolean withComments) {
+        DetailAST result = getCopied(ast.getFirstChild(), withComments);
+        DetailAST node = ast;
+        while (result == null && node != top) {
+            result = getCopied(node.getNextSibling(), withComments);
+            node = node.getParent();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first node, starting with the given one and following its siblings,
+     * which is copied.
+     *
+     * @param ast the node to start with, may be {@code null}.
+     * @param withComments whether the comment nodes are copied.
+     * @return the copied node, {@code null} if there is none.
+     */
+    private static DetailAST getCopied(DetailAST ast, boolean withComments) {
+        DetailAST result = ast;
+        while (!withComments && result != null && TokenUtil.isCommentType(result.getType())) {
+            result = result.getNextSibling();
+        }
+        return result;
+    }
+
+    /**
+     * Creates the sorted indexes of the nodes of each type.
+     *
+     * @param nodeTypes the types of the nodes.
+     * @return the indexes of the nodes, indexed by the type.
+     */
+    private static int[][] createTypeIndexes(int[] nodeTypes) {
+        final int maxType = Arrays.stream(nodeTypes).max().orElse(NONE);
+        final int[] counts = new int[maxType + 1];
+        for (int type : nodeTypes) {
+            counts[type]++;
+        }
+        final int[][] result = new int[maxType + 1][];
+        for (int type = 0; type <= maxType; type++) {
+            result[type] = new int[counts[type]];
+            counts[type] = 0;
+        }
+        for (int index = 0; index < nodeTypes.length; index++) {
+            final int type = nodeTypes[index];
+            result[type][counts[type]] = index;
+            counts[type]++;
+        }
+        return result;
+    }
+
+    /**
+     * Counts the nodes of some types before each index.
+     *
+     * @param countedTypes the types to count.
+     * @return the number of nodes of the types before each index, with an additional
+     *     element for all nodes.
+     */
+    private int[] countTypes(BitSet countedTypes) {
+        final int[] result = new int[types.length + 1];
+        for (int index = 0; index < types.length; index++) {
+            result[index + 1] = result[index];
+            if (countedTypes.get(types[index])) {
+                result[index + 1]++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the view of a node.
+     *
+     * @param index the index of the node.
+     * @return the view, {@code null} if the index is {@link #NONE}.
+     */
+    private Node getNode(int index) {
+        Node result = null;
+        if (index != NONE) {
+            result = nodes[index];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the first child of a node.
+     *
+     * @param index the index of the node.
+     * @return the index of the first child, {@link #NONE} if there is none.
+     */
+    private int firstChildOf(int index) {
+        int result = NONE;
+        if (subtreeEnds[index] > index + 1) {
+            result = index + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the next sibling of a node, which follows its subtree.
+     *
+     * @param index the index of the node.
+     * @return the index of the next sibling, {@link #NONE} if there is none.
+     */
+    private int nextSiblingOf(int index) {
+        final int parent = parents[index];
+        final int limit;
+        if (parent == NONE) {
+            limit = types.length;
+        }
+        else {
+            limit = subtreeEnds[parent];
+        }
+        int result = NONE;
+        if (subtreeEnds[index] < limit) {
+            result = subtreeEnds[index];
+        }
+        return result;
+    }
+
+    /**
+     * A view of a node of a compact copy.
+     */
+    private final class Node implements DetailAST {
+
+        /** The index of the node. */
+        private final int index;
+
+        /**
+         * Creates a view of a node.
+         *
+         * @param index the index of the node.
+         */
+        private Node(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int getChildCount() {
+            int count = 0;
+            for (int child = firstChildOf(index); child != NONE; child = nextSiblingOf(child)) {
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public int getChildCount(int type) {
+            int count = 0;
+            for (int child = firstChildOf(index); child != NONE; child = nextSiblingOf(child)) {
+                if (types[child] == type) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public DetailAST getParent() {
+            return getNode(parents[index]);
+        }
+
+        @Override
+        public String getText() {
+            return texts[textIndexes[index]];
+        }
+
+        @Override
+        public int getType() {
+            return types[index];
+        }
+
+        @Override
+        public int getLineNo() {
+            return lineNumbers[index];
+        }
+
+        @Override
+        public int getColumnNo() {
+            return columnNumbers[index];
+        }
+
+        @Override
+        public DetailAST getLastChild() {
+            int result = NONE;
+            for (int child = firstChildOf(index); child != NONE; child = nextSiblingOf(child)) {
+                result = child;
+            }
+            return getNode(result);
+        }
+
+        @Override
+        public boolean branchContains(int type) {
+            boolean result = false;
+            if (type >= 0 && type < typeIndexes.length) {
+                final int[] indexes = typeIndexes[type];
+                int position = Arrays.binarySearch(indexes, index);
+                if (position < 0) {
+                    position = -position - 1;
+                }
+                result = position < indexes.length
+                        && indexes[position] < subtreeEnds[index];
+            }
+            return result;
+        }
+
+        /**
+         * Checks if the subtree of this node contains a node of any of the given types.
+         *
+         * @param branchTypes the token types.
+         * @return true if the subtree, including this node, contains a node of any of
+         *     the types.
+         */
+        private boolean branchContainsAny(BitSet branchTypes) {
+            final int[] counts = typeCounts.computeIfAbsent(branchTypes,
+                    CompactAst.this::countTypes);
+            return counts[subtreeEnds[index]] > counts[index];
+        }
+
+        @Override
+        public DetailAST getPreviousSibling() {
+            return getNode(previousSiblings[index]);
+        }
+
+        @Override
+        public DetailAST findFirstToken(int type) {
+            int result = NONE;
+            for (int child = firstChildOf(index); child != NONE; child = nextSiblingOf(child)) {
+                if (types[child] == type) {
+                    result = child;
+                    break;
+                }
+            }
+            return getNode(result);
+        }
+
+        @Override
+        public DetailAST getNextSibling() {
+            return getNode(nextSiblingOf(index));
+        }
+
+        @Override
+        public DetailAST getFirstChild() {
+            return getNode(firstChildOf(index));
+        }
+
+        @Override
+        @Deprecated
+        public int getNumberOfChildren() {
+            return getChildCount();
+        }
+
+        @Override
+        public boolean hasChildren() {
+            return subtreeEnds[index] > index + 1;
+        }
+
+        @Override
+        public String toString() {
+            return getText() + "[" + getLineNo() + "x" + getColumnNo() + "]";
+        }
+
+    }
+
+}
@@ -45,7 +45,10 @@ public final class DetailAstImpl extends CommonASTWithHiddenTokens implements De
     /** The column number. **/
     private int columnNo = NOT_INITIALIZED;
 
-    /** Number of children. */
+    /**
+     * Number of children. The tree can be read by several threads, which at worst
+     * compute the same count again, as writes of an int are atomic.
+     */
     private int childCount = NOT_INITIALIZED;
     /** The parent token. */
     private DetailAstImpl parent;
@@ -56,8 +59,11 @@ public final class DetailAstImpl extends CommonASTWithHiddenTokens implements De
      * All token types in this branch.
      * Token 'x' (where x is an int) is in this branch
      * if branchTokenTypes.get(x) is true.
+     * Volatile as the tree can be read by several threads, which must not see
+     * the set before it is filled.
      */
-    private BitSet branchTokenTypes;
+    // -@cs[IllegalToken] The set must be safely published to the other threads.
+    private volatile BitSet branchTokenTypes;
 
     @Override
     public void initialize(Token token) {
@@ -167,17 +173,19 @@ public final class DetailAstImpl extends CommonASTWithHiddenTokens implements De
 
     @Override
     public int getChildCount() {
+        int count = childCount;
         // lazy init
-        if (childCount == NOT_INITIALIZED) {
-            childCount = 0;
+        if (count == NOT_INITIALIZED) {
+            count = 0;
             AST child = getFirstChild();
 
             while (child != null) {
-                childCount += 1;
+                count += 1;
                 child = child.getNextSibling();
             }
+            childCount = count;
         }
-        return childCount;
+        return count;
     }
 
     @Override
@@ -327,21 +335,23 @@ public final class DetailAstImpl extends CommonASTWithHiddenTokens implements De
      * @return the token types that occur in the branch as a sorted set.
      */
     private BitSet getBranchTokenTypes() {
+        BitSet tokenTypes = branchTokenTypes;
         // lazy init
-        if (branchTokenTypes == null) {
-            branchTokenTypes = new BitSet();
-            branchTokenTypes.set(getType());
+        if (tokenTypes == null) {
+            tokenTypes = new BitSet();
+            tokenTypes.set(getType());
 
             // add union of all children
             DetailAstImpl child = getFirstChild();
             while (child != null) {
                 final BitSet childTypes = child.getBranchTokenTypes();
-                branchTokenTypes.or(childTypes);
+                tokenTypes.or(childTypes);
 
                 child = child.getNextSibling();
             }
+            branchTokenTypes = tokenTypes;
         }
-        return branchTokenTypes;
+        return tokenTypes;
     }
 
     @Override
@@ -349,6 +359,17 @@ public final class DetailAstImpl extends CommonASTWithHiddenTokens implements De
         return getBranchTokenTypes().get(type);
     }
 
+    /**
+     * Checks if this branch of the parse tree contains any token of the given types.
+     *
+     * @param types the token types.
+     * @return true if and only if this branch (including this node)
+     *     contains a token of any of the types.
+     */
+    public boolean branchContainsAny(BitSet types) {
+        return getBranchTokenTypes().intersects(types);
+    }
+
     @Override
     public DetailAST getPreviousSibling() {
         return previousSibling;
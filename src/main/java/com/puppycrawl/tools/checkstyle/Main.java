@@ -19,13 +19,21 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -38,6 +46,7 @@ import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -54,6 +63,9 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.utils.XpathUtil;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.MissingParameterException;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.OptionSpec;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Parameters;
@@ -89,6 +101,19 @@ public final class Main {
     /** Exit code returned when execution finishes with {@link CheckstyleException}. */
     private static final int EXIT_WITH_CHECKSTYLE_EXCEPTION_CODE = -2;
 
+    /** Message format for a root module which is not a checker. */
+    private static final String UNSUPPORTED_ROOT_MODULE =
+            "Root module '%s' can not be used with option '%s'.";
+
+    /** The name of the module suppressing the violations recorded in a baseline file. */
+    private static final String BASELINE_FILTER_MODULE = "BaselineFilter";
+
+    /** Time in milliseconds to wait for more changes of watched files before auditing. */
+    private static final long WATCH_DEBOUNCE_DELAY = 300;
+
+    /** Extension of the output files compressed with gzip. */
+    private static final String GZIP_EXTENSION = ".gz";
+
     /**
      * Client code should not create instances of this class, but use
      * {@link #main(String[])} method instead.
@@ -102,10 +127,27 @@ public final class Main {
      *
      * @param args the command line arguments.
      * @throws IOException if there is a problem with files access
-     * @noinspection UseOfSystemOutOrSystemErr, CallToPrintStackTrace, CallToSystemExit
+     * @noinspection CallToSystemExit
      **/
     public static void main(String... args) throws IOException {
+        final int exitStatus = run(args);
+        if (exitStatus != 0) {
+            System.exit(exitStatus);
+        }
+    }
 
+    /**
+     * Runs the command line without exiting the JVM, as {@link #main(String...)} does.
+     * Package-visible for the training audits of {@link CdsArchiveGenerator}, which load
+     * the classes of the command line into the class data sharing archive.
+     *
+     * @param args the command line arguments.
+     * @return the exit status, which is the number of errors found in all the files,
+     *     or a negative value if the arguments are invalid or the audit failed.
+     * @throws IOException if there is a problem with files access
+     * @noinspection UseOfSystemOutOrSystemErr, CallToPrintStackTrace
+     */
+    static int run(String... args) throws IOException {
         final CliOptions cliOptions = new CliOptions();
         final CommandLine commandLine = new CommandLine(cliOptions);
         commandLine.setUsageHelpWidth(CliOptions.HELP_WIDTH);
@@ -148,10 +190,8 @@ public final class Main {
                 // output stream might be used by validation report content
                 System.err.println(errorCounterViolation.getViolation());
             }
-            if (exitStatus != 0) {
-                System.exit(exitStatus);
-            }
         }
+        return exitStatus;
     }
 
     /**
@@ -179,32 +219,276 @@ public final class Main {
 
         final int exitStatus;
 
-        // return error if something is wrong in arguments
-        final List<File> filesToProcess = getFilesToProcess(options);
-        final List<String> messages = options.validateCli(parseResult, filesToProcess);
-        final boolean hasMessages = !messages.isEmpty();
-        if (hasMessages) {
+        if (options.daemon) {
+            exitStatus = runDaemon(parseResult, options);
+        }
+        else if (options.daemonPort != null) {
+            exitStatus = sendToDaemon(parseResult, options.daemonPort);
+        }
+        else if (options.merge) {
+            exitStatus = runMerge(parseResult, options);
+        }
+        else if (options.cdsArchive != null) {
+            exitStatus = runCdsArchiveGeneration(parseResult, options);
+        }
+        else {
+            // return error if something is wrong in arguments
+            final List<File> filesToProcess = getFilesToProcess(options);
+            final List<String> messages;
+            if (options.watch) {
+                messages = options.validateUnsupportedOptions(parseResult, filesToProcess,
+                        "Option '%s' can not be used with '" + CliOptions.WATCH_OPTION + "'.",
+                        CliOptions.OUTPUT_PATH_OPTION, CliOptions.DIFF_OPTION,
+                        CliOptions.CHANGED_LINES_OPTION);
+            }
+            else {
+                messages = options.validateCli(parseResult, filesToProcess);
+            }
+            final boolean hasMessages = !messages.isEmpty();
+            if (hasMessages) {
+                messages.forEach(System.out::println);
+                exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
+            }
+            else if (options.watch) {
+                exitStatus = runWatch(options, filesToProcess);
+            }
+            else {
+                exitStatus = runCli(options, filesToProcess);
+            }
+        }
+        return exitStatus;
+    }
+
+    /**
+     * Starts the daemon and processes audit requests until the process is stopped.
+     *
+     * @param parseResult generic access to options and parameters found on the command line
+     * @param options encapsulates options and parameters specified on the command line
+     * @return {@value #EXIT_WITH_INVALID_USER_INPUT_CODE} if other options are specified
+     * @throws IOException if the port of the daemon can not be used.
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    private static int runDaemon(ParseResult parseResult, CliOptions options)
+            throws IOException {
+        int exitStatus = 0;
+        final long daemonOptionsNumber = parseResult.matchedOptions().stream()
+                .filter(option -> option.longestName().startsWith(CliOptions.DAEMON_OPTION))
+                .count();
+        if (options.files != null || parseResult.matchedOptions().size() > daemonOptionsNumber) {
+            System.out.println("Option '--daemon' can be used only with '--daemon-port'.");
+            exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
+        }
+        else {
+            int port = 0;
+            if (options.daemonPort != null) {
+                port = options.daemonPort;
+            }
+            try (AuditDaemon daemon = new AuditDaemon(port)) {
+                System.out.println(String.format(Locale.ROOT,
+                        "Checkstyle daemon is listening on port %d.", daemon.getPort()));
+                daemon.run((dir, args, out) -> handleDaemonRequest(daemon, dir, args, out));
+            }
+        }
+        return exitStatus;
+    }
+
+    /**
+     * Merges the reports of the shards of an audit into one report.
+     *
+     * @param parseResult generic access to options and parameters found on the command line
+     * @param options encapsulates options and parameters specified on the command line
+     * @return number of violations of ERROR level in the reports
+     * @throws IOException if a report could not be read or the merged report written.
+     * @throws CheckstyleException if a report is not in the specified format.
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    private static int runMerge(ParseResult parseResult, CliOptions options)
+            throws IOException, CheckstyleException {
+        final int exitStatus;
+        final List<String> messages = options.validateMerge(parseResult);
+        if (messages.isEmpty()) {
+            final OutputStream out = getOutputStream(options.outputPath);
+            try {
+                exitStatus = ReportMerger.merge(options.format, options.files, out);
+            }
+            finally {
+                if (options.outputPath != null) {
+                    out.close();
+                }
+            }
+        }
+        else {
             messages.forEach(System.out::println);
             exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
         }
+        return exitStatus;
+    }
+
+    /**
+     * Generates a class data sharing archive by the training audits in a new JVM.
+     *
+     * @param parseResult generic access to options and parameters found on the command line
+     * @param options encapsulates options and parameters specified on the command line
+     * @return {@value #EXIT_WITH_INVALID_USER_INPUT_CODE} if other options are specified
+     * @throws IOException if the JVM could not be started.
+     * @throws CheckstyleException if the JVM failed to generate the archive.
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    private static int runCdsArchiveGeneration(ParseResult parseResult, CliOptions options)
+            throws IOException, CheckstyleException {
+        int exitStatus = 0;
+        if (options.files != null || parseResult.matchedOptions().size() > 1) {
+            System.out.println(String.format(Locale.ROOT,
+                    "Option '%s' can not be used with other options.",
+                    CliOptions.GENERATE_CDS_ARCHIVE_OPTION));
+            exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
+        }
         else {
-            exitStatus = runCli(options, filesToProcess);
+            CdsArchiveGenerator.generate(options.cdsArchive);
+        }
+        return exitStatus;
+    }
+
+    /**
+     * Sends the audit to the daemon and prints its output.
+     *
+     * @param parseResult generic access to options and parameters found on the command line
+     * @param port the port of the daemon
+     * @return the exit status of the audit
+     * @throws CheckstyleException if the daemon can not be reached.
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    private static int sendToDaemon(ParseResult parseResult, int port)
+            throws CheckstyleException {
+        final List<String> args = new ArrayList<>();
+        final Iterator<String> originalArgs = parseResult.originalArgs().iterator();
+        while (originalArgs.hasNext()) {
+            final String arg = originalArgs.next();
+            if (CliOptions.DAEMON_PORT_OPTION.equals(arg)) {
+                originalArgs.next();
+            }
+            else if (!arg.startsWith(CliOptions.DAEMON_PORT_OPTION + "=")) {
+                args.add(arg);
+            }
+        }
+        try {
+            return AuditDaemon.sendRequest(port, Paths.get(""), args, System.out);
+        }
+        catch (IOException ex) {
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    "Could not run the audit by the daemon on port %d.", port), ex);
+        }
+    }
+
+    /**
+     * Runs an audit requested from the daemon by a client.
+     * Package-visible for tests.
+     *
+     * @param daemon the daemon keeping configured checkers
+     * @param workingDirectory the working directory of the client
+     * @param args the command line arguments of the client
+     * @param out the stream to print the output of the audit to
+     * @return the exit status of the audit
+     * @throws IOException if a file could not be read or written.
+     */
+    static int handleDaemonRequest(AuditDaemon daemon, Path workingDirectory,
+            List<String> args, PrintStream out) throws IOException {
+        final CliOptions options = new CliOptions();
+        final CommandLine commandLine = new CommandLine(options);
+        commandLine.setCaseInsensitiveEnumValuesAllowed(true);
+        int exitStatus;
+        try {
+            final ParseResult parseResult = commandLine.parseArgs(args.toArray(new String[0]));
+            options.resolvePaths(workingDirectory);
+            final List<File> filesToProcess = getFilesToProcess(options);
+            final List<String> messages =
+                    options.validateUnsupportedOptions(parseResult, filesToProcess,
+                            "Option '%s' is not supported by the daemon.", "-d");
+            if (CliOptions.STANDARD_INPUT.equals(options.diff)) {
+                messages.add("Option '--diff' can not read the standard input of the daemon.");
+            }
+            if (messages.isEmpty()) {
+                exitStatus = runDaemonAudit(daemon, options, workingDirectory,
+                        filesToProcess, out);
+            }
+            else {
+                messages.forEach(out::println);
+                exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
+            }
+        }
+        catch (ParameterException ex) {
+            out.println(ex.getMessage());
+            exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
+        }
+        catch (CheckstyleException ex) {
+            ex.printStackTrace(out);
+            exitStatus = EXIT_WITH_CHECKSTYLE_EXCEPTION_CODE;
         }
         return exitStatus;
     }
 
+    /**
+     * Runs an audit with a checker kept by the daemon.
+     *
+     * @param daemon the daemon keeping configured checkers
+     * @param options user-specified options
+     * @param workingDirectory the working directory of the client
+     * @param filesToProcess the list of files whose style to check
+     * @param out the stream to print the output of the audit to if no output file is specified
+     * @return number of violations of ERROR level
+     * @throws IOException if the output file could not be written
+     * @throws CheckstyleException if the configuration can not be loaded or the audit fails
+     */
+    private static int runDaemonAudit(AuditDaemon daemon, CliOptions options,
+            Path workingDirectory, List<File> filesToProcess, PrintStream out)
+            throws IOException, CheckstyleException {
+        final List<String> files = new ArrayList<>();
+        files.add(options.configurationFile);
+        if (options.propertiesFile != null) {
+            files.add(options.propertiesFile.getPath());
+        }
+        final String key = String.join(System.lineSeparator(), files)
+                + System.lineSeparator() + options.executeIgnoredModules
+                + System.lineSeparator() + options.checkerThreadsNumber
+                + System.lineSeparator() + options.treeWalkerThreadsNumber;
+        final Checker checker = daemon.getChecker(key, files,
+                () -> createChecker(options, CliOptions.DAEMON_OPTION));
+
+        final AuditListener listener;
+        if (options.outputPath == null) {
+            listener = options.format.createListener(out,
+                    AutomaticBean.OutputStreamOptions.NONE);
+        }
+        else {
+            listener = createListener(options.format, options.outputPath);
+        }
+        checker.setChangedLines(loadChangedLines(options, workingDirectory));
+        checker.addListener(listener);
+        try {
+            final int errorCounter = checker.process(filesToProcess);
+            // the daemon may be killed before it destroys the checker
+            checker.persistCacheFile();
+            return errorCounter;
+        }
+        finally {
+            checker.removeListener(listener);
+            checker.setChangedLines(null);
+        }
+    }
+
     /**
      * Determines the files to process.
      *
      * @param options the user-specified options
-     * @return list of files to process
+     * @return list of files to process, which is empty if no files are specified
      */
     private static List<File> getFilesToProcess(CliOptions options) {
-        final List<Pattern> patternsToExclude = options.getExclusions();
-
         final List<File> result = new LinkedList<>();
-        for (File file : options.files) {
-            result.addAll(listFiles(file, patternsToExclude));
+        if (options.files != null) {
+            final List<Pattern> patternsToExclude = options.getExclusions();
+            for (File file : options.files) {
+                result.addAll(listFiles(file, patternsToExclude));
+            }
         }
         return result;
     }
@@ -335,6 +619,60 @@ public final class Main {
         return result;
     }
 
+    /**
+     * Audits the files and then audits them again whenever they change, until the thread
+     * is interrupted.
+     *
+     * @param options user-specified options
+     * @param filesToProcess the list of files whose style to check
+     * @return number of violations of ERROR level in the last audits of the files
+     * @throws IOException if the files can not be watched
+     * @throws CheckstyleException if the configuration can not be loaded or an audit fails
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    private static int runWatch(CliOptions options, List<File> filesToProcess)
+            throws IOException, CheckstyleException {
+        final Checker checker = createChecker(options, CliOptions.WATCH_OPTION);
+        final List<Pattern> patternsToExclude = options.getExclusions();
+        final AuditListener listener = createListener(options.format, null);
+        try (AuditWatcher watcher = new AuditWatcher(checker, listener,
+                file -> !isPathExcluded(file.getAbsolutePath(), patternsToExclude),
+                System.out, WATCH_DEBOUNCE_DELAY)) {
+            for (File root : options.files) {
+                watcher.register(root);
+            }
+            watcher.audit(filesToProcess);
+            watcher.run();
+            return watcher.getErrorCount();
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    /**
+     * Creates the checker configured as specified by options.
+     *
+     * @param options user-specified options
+     * @param option the option which requires the checker
+     * @return the configured checker
+     * @throws CheckstyleException if the configuration can not be loaded or its root module
+     *     is not a checker
+     */
+    private static Checker createChecker(CliOptions options, String option)
+            throws CheckstyleException {
+        final Configuration config = loadConfiguration(options);
+        final ClassLoader moduleClassLoader = Checker.class.getClassLoader();
+        final RootModule rootModule = getRootModule(config.getName(), moduleClassLoader);
+        if (!(rootModule instanceof Checker)) {
+            throw new CheckstyleException(String.format(Locale.ROOT, UNSUPPORTED_ROOT_MODULE,
+                    config.getName(), option));
+        }
+        rootModule.setModuleClassLoader(moduleClassLoader);
+        rootModule.configure(config);
+        return (Checker) rootModule;
+    }
+
     /**
      * Executes required Checkstyle actions based on passed parameters.
      *
@@ -348,38 +686,32 @@ public final class Main {
      */
     private static int runCheckstyle(CliOptions options, List<File> filesToProcess)
             throws CheckstyleException, IOException {
-        // setup the properties
-        final Properties props;
-
-        if (options.propertiesFile == null) {
-            props = System.getProperties();
-        }
-        else {
-            props = loadProperties(options.propertiesFile);
-        }
-
-        // create a configuration
-        final ThreadModeSettings multiThreadModeSettings =
-                new ThreadModeSettings(CliOptions.CHECKER_THREADS_NUMBER,
-                        CliOptions.TREE_WALKER_THREADS_NUMBER);
-
-        final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
-        if (options.executeIgnoredModules) {
-            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
-        }
-        else {
-            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
-        }
-
-        final Configuration config = ConfigurationLoader.loadConfiguration(
-                options.configurationFile, new PropertiesExpander(props),
-                ignoredModulesOptions, multiThreadModeSettings);
+        final Configuration config = loadConfiguration(options);
 
         // create RootModule object and run it
         final int errorCounter;
         final ClassLoader moduleClassLoader = Checker.class.getClassLoader();
         final RootModule rootModule = getRootModule(config.getName(), moduleClassLoader);
 
+        ModuleProfiler profiler = null;
+        if ((options.profile || options.profilePath != null) && rootModule instanceof Checker) {
+            profiler = new ModuleProfiler();
+            ((Checker) rootModule).setProfiler(profiler);
+        }
+        final ChangedLines changedLines = loadChangedLines(options, Paths.get(""));
+        if (changedLines != null) {
+            if (!(rootModule instanceof Checker)) {
+                String option = CliOptions.CHANGED_LINES_OPTION;
+                if (options.diff != null) {
+                    option = CliOptions.DIFF_OPTION;
+                }
+                throw new CheckstyleException(String.format(Locale.ROOT, UNSUPPORTED_ROOT_MODULE,
+                        config.getName(), option));
+            }
+            ((Checker) rootModule).setChangedLines(changedLines);
+        }
+        addBaselineFilter(options, config, rootModule);
+
         try {
             final AuditListener listener;
             if (options.generateXpathSuppressionsFile) {
@@ -404,17 +736,174 @@ public final class Main {
             rootModule.setModuleClassLoader(moduleClassLoader);
             rootModule.configure(config);
             rootModule.addListener(listener);
+            addBaselineWriter(options, rootModule);
 
             // run RootModule
-            errorCounter = rootModule.process(filesToProcess);
+            errorCounter = rootModule.process(selectShard(options, filesToProcess));
         }
         finally {
             rootModule.destroy();
         }
 
+        if (profiler != null) {
+            printProfile(options, profiler);
+        }
+
         return errorCounter;
     }
 
+    /**
+     * Adds the filter of the violations recorded in the baseline file specified by options
+     * to the configuration of the checker.
+     *
+     * @param options user-specified options
+     * @param config the configuration of the root module
+     * @param rootModule the root module
+     * @throws CheckstyleException if a baseline file is specified and the root module
+     *     is not a checker
+     */
+    private static void addBaselineFilter(CliOptions options, Configuration config,
+            RootModule rootModule) throws CheckstyleException {
+        if (options.baseline != null || options.writeBaseline != null) {
+            if (!(rootModule instanceof Checker)) {
+                String option = CliOptions.BASELINE_OPTION;
+                if (options.baseline == null) {
+                    option = CliOptions.WRITE_BASELINE_OPTION;
+                }
+                throw new CheckstyleException(String.format(Locale.ROOT, UNSUPPORTED_ROOT_MODULE,
+                        config.getName(), option));
+            }
+            if (options.baseline != null) {
+                final DefaultConfiguration filterConfig =
+                        new DefaultConfiguration(BASELINE_FILTER_MODULE);
+                filterConfig.addProperty("file", options.baseline.getPath());
+                ((DefaultConfiguration) config).addChild(filterConfig);
+            }
+        }
+    }
+
+    /**
+     * Adds the listener writing the baseline file specified by options to the configured
+     * checker, so that the paths of the files are relative to its base directory.
+     *
+     * @param options user-specified options
+     * @param rootModule the configured root module, a checker if the file is specified
+     */
+    private static void addBaselineWriter(CliOptions options, RootModule rootModule) {
+        if (options.writeBaseline != null) {
+            final Checker checker = (Checker) rootModule;
+            checker.addListener(new BaselineWriter(options.writeBaseline.getPath(),
+                    checker.getBasedir(), checker.getCharset()));
+        }
+    }
+
+    /**
+     * Selects the files of the shard specified by options. The paths of the files are
+     * made relative to the current directory to assign them to the shards.
+     *
+     * @param options user-specified options
+     * @param filesToProcess the files of all shards
+     * @return the files of the shard, all files if no shard is specified
+     * @throws CheckstyleException if the shard has an invalid format
+     */
+    private static List<File> selectShard(CliOptions options, List<File> filesToProcess)
+            throws CheckstyleException {
+        List<File> result = filesToProcess;
+        if (options.shard != null) {
+            result = Shard.parse(options.shard, options.shardBySize)
+                    .select(Paths.get(""), filesToProcess);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the changed lines specified by options.
+     *
+     * @param options user-specified options
+     * @param baseDirectory the directory the paths of the changed files are relative to
+     * @return the changed lines, {@code null} if no changed lines are specified
+     * @throws IOException if the diff can not be read
+     * @throws CheckstyleException if the changed lines have an invalid format
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    private static ChangedLines loadChangedLines(CliOptions options, Path baseDirectory)
+            throws IOException, CheckstyleException {
+        ChangedLines result = null;
+        if (CliOptions.STANDARD_INPUT.equals(options.diff)) {
+            // the standard input is not closed
+            final BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            result = ChangedLines.fromDiff(baseDirectory, reader);
+        }
+        else if (options.diff != null) {
+            try (BufferedReader reader = Files.newBufferedReader(
+                    baseDirectory.resolve(options.diff), StandardCharsets.UTF_8)) {
+                result = ChangedLines.fromDiff(baseDirectory, reader);
+            }
+        }
+        else if (!options.changedLines.isEmpty()) {
+            result = ChangedLines.fromRanges(baseDirectory, options.changedLines);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the configuration specified by options.
+     *
+     * @param options user-specified options
+     * @return the configuration
+     * @throws CheckstyleException
+     *         when properties file or configuration could not be loaded
+     */
+    private static Configuration loadConfiguration(CliOptions options)
+            throws CheckstyleException {
+        // setup the properties
+        final Properties props;
+
+        if (options.propertiesFile == null) {
+            props = System.getProperties();
+        }
+        else {
+            props = loadProperties(options.propertiesFile);
+        }
+
+        // create a configuration
+        final ThreadModeSettings multiThreadModeSettings =
+                new ThreadModeSettings(options.checkerThreadsNumber,
+                        options.treeWalkerThreadsNumber);
+
+        final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
+        if (options.executeIgnoredModules) {
+            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
+        }
+        else {
+            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
+        }
+
+        return ConfigurationLoader.loadConfiguration(
+                options.configurationFile, new PropertiesExpander(props),
+                ignoredModulesOptions, multiThreadModeSettings);
+    }
+
+    /**
+     * Prints the time spent in modules as a table and writes it in JSON format
+     * to the file, as requested by options.
+     *
+     * @param options user-specified options
+     * @param profiler the profiler of modules
+     * @throws IOException if the file could not be written
+     */
+    private static void printProfile(CliOptions options, ModuleProfiler profiler)
+            throws IOException {
+        if (options.profile) {
+            System.out.print(profiler.toTable());
+        }
+        if (options.profilePath != null) {
+            Files.write(options.profilePath,
+                    profiler.toJson().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
     /**
      * Loads properties from a File.
      *
@@ -497,7 +986,9 @@ public final class Main {
     }
 
     /**
-     * Create output stream or return System.out
+     * Create output stream or return System.out.
+     * The output is compressed on the fly if the output file name ends with
+     * {@code .gz}.
      *
      * @param outputPath output location
      * @return output stream
@@ -510,6 +1001,9 @@ public final class Main {
         if (outputPath == null) {
             result = System.out;
         }
+        else if (outputPath.getFileName().toString().endsWith(GZIP_EXTENSION)) {
+            result = new GZIPOutputStream(Files.newOutputStream(outputPath));
+        }
         else {
             result = Files.newOutputStream(outputPath);
         }
@@ -627,26 +1121,72 @@ public final class Main {
         /** Option name for output format. */
         private static final String OUTPUT_FORMAT_OPTION = "-f";
 
+        /** Option name for output file. */
+        private static final String OUTPUT_PATH_OPTION = "-o";
+
+        /** Option name for starting the daemon. */
+        private static final String DAEMON_OPTION = "--daemon";
+
+        /** Option name for the port of the daemon. */
+        private static final String DAEMON_PORT_OPTION = "--daemon-port";
+
+        /** Option name for the diff of the changes to audit. */
+        private static final String DIFF_OPTION = "--diff";
+
+        /** Option name for the changed lines to audit. */
+        private static final String CHANGED_LINES_OPTION = "--changed-lines";
+
+        /** Message format for a missing file. */
+        private static final String FILE_NOT_FOUND = "Could not find file '%s'.";
+
+        /** Name of the standard input used instead of a file name. */
+        private static final String STANDARD_INPUT = "-";
+
+        /** Option name for watching files. */
+        private static final String WATCH_OPTION = "--watch";
+
+        /** Option name for the shard of the files to audit. */
+        private static final String SHARD_OPTION = "--shard";
+
+        /** Option name for balancing the shards by the sizes of the files. */
+        private static final String SHARD_BY_SIZE_OPTION = "--shard-by-size";
+
+        /** Option name for merging reports. */
+        private static final String MERGE_OPTION = "--merge";
+
+        /** Option name for generating a class data sharing archive. */
+        private static final String GENERATE_CDS_ARCHIVE_OPTION = "--generate-cds-archive";
+
+        /** Option name for the baseline file of the violations to suppress. */
+        private static final String BASELINE_OPTION = "--baseline";
+
+        /** Option name for writing the baseline file of the reported violations. */
+        private static final String WRITE_BASELINE_OPTION = "--write-baseline";
+
+        /** Message format for options which can not be used together. */
+        private static final String INCOMPATIBLE_OPTIONS =
+                "Option '%s' can not be used with '%s'.";
+
+        /** Names of the options which can be used with the merge option. */
+        private static final String[] MERGE_OPTIONS = {
+            MERGE_OPTION, OUTPUT_FORMAT_OPTION, OUTPUT_PATH_OPTION,
+        };
+
         /**
-         * The checker threads number.
-         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
-         * This option has been skipped for CLI options intentionally.
-         *
-         * @noinspection CanBeFinal
+         * Names of the options which can not be used in the audits run by the daemon
+         * or with the watch option.
          */
-        private static final int CHECKER_THREADS_NUMBER = DEFAULT_THREAD_COUNT;
+        private static final String[] UNSUPPORTED_OPTIONS = {
+            "-s", "-g", "-t", "-T", "-j", "-J", "-b", "-P", "--profile-file",
+            SHARD_OPTION, SHARD_BY_SIZE_OPTION, MERGE_OPTION, DAEMON_OPTION, DAEMON_PORT_OPTION,
+            GENERATE_CDS_ARCHIVE_OPTION, BASELINE_OPTION, WRITE_BASELINE_OPTION,
+        };
 
         /**
-         * The tree walker threads number.
-         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
-         * This option has been skipped for CLI options intentionally.
-         *
-         * @noinspection CanBeFinal
+         * List of file to validate. The files are validated by {@code validateCli} and
+         * {@code validateMerge}, as they must not be specified with some options.
          */
-        private static final int TREE_WALKER_THREADS_NUMBER = DEFAULT_THREAD_COUNT;
-
-        /** List of file to validate. */
-        @Parameters(arity = "1..*", description = "One or more source files to verify")
+        @Parameters(arity = "0..*", description = "One or more source files to verify")
         private List<File> files;
 
         /** Config file location. */
@@ -656,7 +1196,9 @@ public final class Main {
         private String configurationFile;
 
         /** Output file location. */
-        @Option(names = "-o", description = "Sets the output file. Defaults to stdout.")
+        @Option(names = OUTPUT_PATH_OPTION,
+                description = "Sets the output file. Defaults to stdout."
+                        + " The output is compressed with gzip if the file name ends with .gz.")
         private Path outputPath;
 
         /** Properties file location. */
@@ -779,6 +1321,142 @@ public final class Main {
             description = "Shows Abstract Syntax Tree(AST) branches that match given XPath query.")
         private String xpath;
 
+        /**
+         * The checker threads number.
+         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
+         *
+         * @noinspection CanBeFinal
+         */
+        @Option(names = {"-C", "--checker-threads"},
+                description = "Sets the number of threads used to check files in parallel. "
+                        + "Default value is ${DEFAULT-VALUE}.")
+        private int checkerThreadsNumber = DEFAULT_THREAD_COUNT;
+
+        /**
+         * The tree walker threads number.
+         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
+         *
+         * @noinspection CanBeFinal
+         */
+        @Option(names = {"-W", "--tree-walker-threads"},
+                description = "Sets the number of threads used to run the checks of TreeWalker "
+                        + "on one file in parallel. Default value is ${DEFAULT-VALUE}.")
+        private int treeWalkerThreadsNumber = DEFAULT_THREAD_COUNT;
+
+        /** Option that controls whether to print the time spent in modules. */
+        @Option(names = {"-P", "--profile"},
+                description = "Prints the time spent in each module, the number of its "
+                        + "invocations and the memory it allocated, the most time consuming "
+                        + "modules first.")
+        private boolean profile;
+
+        /** The file to write the time spent in modules to. */
+        @Option(names = "--profile-file",
+                description = "Writes the time spent in each module, the number of its "
+                        + "invocations and the memory it allocated to the file in JSON format.")
+        private Path profilePath;
+
+        /** Option that controls whether to start the daemon. */
+        @Option(names = DAEMON_OPTION,
+                description = "Starts a daemon which keeps configured checkers in memory and "
+                        + "runs the audits sent to it with --daemon-port. The daemon listens on "
+                        + "the loopback interface on the port specified by --daemon-port, or on "
+                        + "a free port which is printed. Only the user who started the daemon "
+                        + "can send audits to it. The option can be used only with "
+                        + "--daemon-port.")
+        private boolean daemon;
+
+        /** The port of the daemon. */
+        @Option(names = DAEMON_PORT_OPTION,
+                description = "Sends the audit to the daemon listening on the port instead of "
+                        + "running it, or sets the port of the daemon started with --daemon. "
+                        + "Options -s, -g, -t, -T, -j, -J, -b, -d, -P, --merge, --shard, "
+                        + "--shard-by-size, --generate-cds-archive, --baseline, --write-baseline "
+                        + "and --profile-file can not be sent to the daemon.")
+        private Integer daemonPort;
+
+        /** Option that controls whether to audit the files again when they change. */
+        @Option(names = WATCH_OPTION,
+                description = "Audits the files and then audits the changed files again until "
+                        + "the process is stopped. Only new violations are reported by the "
+                        + "audits of changed files, the fixed ones are printed with the [FIXED] "
+                        + "prefix. Options -s, -g, -t, -T, -j, -J, -b, -o, -P, --profile-file, "
+                        + "--merge, --shard, --shard-by-size, --generate-cds-archive, --baseline "
+                        + "and --write-baseline can not be used with this option.")
+        private boolean watch;
+
+        /** The file with the unified diff of the changes to audit. */
+        @Option(names = DIFF_OPTION,
+                description = "Audits only the files changed by the unified diff, such as the "
+                        + "output of git diff, and reports only the violations on the added and "
+                        + "modified lines. The paths in the diff are relative to the current "
+                        + "directory. Use - to read the diff from the standard input.")
+        private String diff;
+
+        /**
+         * The changed lines to audit.
+         * Suppression: CanBeFinal - we use picocli and it use  reflection to manage such fields
+         *
+         * @noinspection CanBeFinal
+         */
+        @Option(names = CHANGED_LINES_OPTION,
+                description = "Audits only the specified file and reports only the violations on "
+                        + "the specified lines. The argument is the path of the file followed by "
+                        + "comma separated line numbers or ranges of lines, for example "
+                        + "Main.java:10-20,35. All lines are reported if no lines are specified. "
+                        + "The option can be repeated.")
+        private List<String> changedLines = new ArrayList<>();
+
+        /** The shard of the files to audit. */
+        @Option(names = SHARD_OPTION,
+                description = "Audits only the files of the shard, so that the audit can be "
+                        + "split between several machines. The argument is the number of the "
+                        + "shard followed by the number of shards, for example 2/8. A file is "
+                        + "assigned to a shard by the hash of its path relative to the current "
+                        + "directory.")
+        private String shard;
+
+        /** Option that controls whether to balance the shards by the sizes of the files. */
+        @Option(names = SHARD_BY_SIZE_OPTION,
+                description = "Assigns the files to the shards from the largest to the "
+                        + "smallest, each to the shard with the smallest total size so far, "
+                        + "instead of by the hash of their paths. All machines must see the "
+                        + "same files with the same sizes. Used only with --shard.")
+        private boolean shardBySize;
+
+        /** Option that controls whether to merge reports instead of auditing files. */
+        @Option(names = MERGE_OPTION,
+                description = "Merges the reports of the shards, specified instead of the files "
+                        + "to audit, into one report in the format specified by -f, which is "
+                        + "written like the report of an audit. The number of errors is the total "
+                        + "of all reports. Only -f and -o can be used with this option.")
+        private boolean merge;
+
+        /** The baseline file of the violations to suppress. */
+        @Option(names = BASELINE_OPTION,
+                description = "Suppresses the violations recorded in the baseline file, so that "
+                        + "only new violations are reported. A violation is recognized by its "
+                        + "module, the path of its file, the content of its line and its "
+                        + "message, so it is still suppressed when its line is moved.")
+        private File baseline;
+
+        /** The baseline file to write the reported violations to. */
+        @Option(names = WRITE_BASELINE_OPTION,
+                description = "Writes the violations reported by the audit to the baseline "
+                        + "file, which can be used with --baseline or the BaselineFilter module "
+                        + "to report only new violations.")
+        private File writeBaseline;
+
+        /** The class data sharing archive to generate instead of auditing files. */
+        @Option(names = GENERATE_CDS_ARCHIVE_OPTION, paramLabel = "<archive>",
+                description = "Generates a class data sharing archive of the classes loaded by "
+                        + "the bundled sun_checks.xml and google_checks.xml configurations in a "
+                        + "new JVM, which requires JDK 13 or later. JVMs of the same JDK started "
+                        + "with -XX:SharedArchiveFile=<archive> and the same class path start "
+                        + "audits faster. No other options or files can be used with this "
+                        + "option.")
+        private File cdsArchive;
+
         /**
          * Gets the list of exclusions provided through the command line arguments.
          *
@@ -794,15 +1472,127 @@ public final class Main {
             return result;
         }
 
+        /**
+         * Resolves the relative paths of options against a directory.
+         *
+         * @param directory the directory to resolve paths against
+         */
+        private void resolvePaths(Path directory) {
+            if (configurationFile != null) {
+                final Path configurationPath = directory.resolve(configurationFile);
+                if (Files.exists(configurationPath)) {
+                    configurationFile = configurationPath.toString();
+                }
+            }
+            if (propertiesFile != null) {
+                propertiesFile = directory.resolve(propertiesFile.toPath()).toFile();
+            }
+            if (outputPath != null) {
+                outputPath = directory.resolve(outputPath);
+            }
+            if (files != null) {
+                files = resolveFiles(directory, files);
+            }
+            exclude = resolveFiles(directory, exclude);
+            if (diff != null && !STANDARD_INPUT.equals(diff)) {
+                diff = directory.resolve(diff).toString();
+            }
+        }
+
+        /**
+         * Resolves relative files against a directory.
+         *
+         * @param directory the directory to resolve files against
+         * @param filesToResolve the files to resolve
+         * @return the resolved files
+         */
+        private static List<File> resolveFiles(Path directory, List<File> filesToResolve) {
+            return filesToResolve.stream()
+                    .map(file -> directory.resolve(file.toPath()).toFile())
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Validates that none of the unsupported options is specified, then validates
+         * the rest of the command line options.
+         *
+         * @param parseResult used to verify which options were specified on the command line
+         * @param filesToProcess the list of files whose style to check
+         * @param message the message format for an unsupported option
+         * @param otherUnsupportedOptions names of the unsupported options in addition to
+         *     the common ones
+         * @return list of violations
+         */
+        private List<String> validateUnsupportedOptions(ParseResult parseResult,
+                List<File> filesToProcess, String message, String... otherUnsupportedOptions) {
+            final List<String> unsupportedOptions = new ArrayList<>();
+            Collections.addAll(unsupportedOptions, UNSUPPORTED_OPTIONS);
+            Collections.addAll(unsupportedOptions, otherUnsupportedOptions);
+            final List<String> result = new ArrayList<>();
+            for (String option : unsupportedOptions) {
+                if (parseResult.hasMatchedOption(option)) {
+                    result.add(String.format(Locale.ROOT, message, option));
+                }
+            }
+            if (result.isEmpty()) {
+                result.addAll(validateCli(parseResult, filesToProcess));
+            }
+            return result;
+        }
+
+        /**
+         * Validates that files are specified, like picocli validates required parameters.
+         *
+         * @param parseResult the result of parsing the command line
+         * @throws MissingParameterException if no files are specified
+         */
+        private void validateFilesSpecified(ParseResult parseResult) {
+            if (files == null) {
+                final CommandSpec spec = parseResult.commandSpec();
+                throw new MissingParameterException(spec.commandLine(),
+                        spec.positionalParameters().get(0),
+                        "Missing required parameter: '<files>'");
+            }
+        }
+
+        /**
+         * Validates the command line options for merging reports.
+         *
+         * @param parseResult used to verify which options were specified on the command line
+         * @return list of violations
+         * @throws MissingParameterException if no files are specified
+         */
+        private List<String> validateMerge(ParseResult parseResult) {
+            validateFilesSpecified(parseResult);
+            final List<String> result = new ArrayList<>();
+            for (OptionSpec option : parseResult.matchedOptions()) {
+                final String name = option.shortestName();
+                if (!Arrays.asList(MERGE_OPTIONS).contains(name)) {
+                    result.add(String.format(Locale.ROOT,
+                            INCOMPATIBLE_OPTIONS, name, MERGE_OPTION));
+                }
+            }
+            if (result.isEmpty()) {
+                for (File file : files) {
+                    if (!file.isFile()) {
+                        result.add(String.format(Locale.ROOT, FILE_NOT_FOUND, file));
+                    }
+                }
+            }
+            return result;
+        }
+
         /**
          * Validates the user-specified command line options.
          *
          * @param parseResult used to verify if the format option was specified on the command line
          * @param filesToProcess the list of files whose style to check
          * @return list of violations
+         * @throws MissingParameterException if no files are specified
          */
         // -@cs[CyclomaticComplexity] Breaking apart will damage encapsulation
         private List<String> validateCli(ParseResult parseResult, List<File> filesToProcess) {
+            validateFilesSpecified(parseResult);
             final List<String> result = new ArrayList<>();
             final boolean hasConfigurationFile = configurationFile != null;
             final boolean hasSuppressionLineColumnNumber = suppressionLineColumnNumber != null;
@@ -858,8 +1648,62 @@ public final class Main {
         private List<String> validateOptionalCliParametersIfConfigDefined() {
             final List<String> result = new ArrayList<>();
             if (propertiesFile != null && !propertiesFile.exists()) {
-                result.add(String.format(Locale.ROOT,
-                        "Could not find file '%s'.", propertiesFile));
+                result.add(String.format(Locale.ROOT, FILE_NOT_FOUND, propertiesFile));
+            }
+            if (checkerThreadsNumber < 1) {
+                result.add("Checker threads number must be greater than zero.");
+            }
+            if (treeWalkerThreadsNumber < 1) {
+                result.add("TreeWalker threads number must be greater than zero.");
+            }
+            if (baseline != null && !baseline.exists()) {
+                result.add(String.format(Locale.ROOT, FILE_NOT_FOUND, baseline));
+            }
+            result.addAll(validateChangesOptions());
+            result.addAll(validateShardOptions());
+            return result;
+        }
+
+        /**
+         * Validates the options selecting the changes to audit.
+         *
+         * @return list of violations
+         */
+        private List<String> validateChangesOptions() {
+            final List<String> result = new ArrayList<>();
+            if (diff != null) {
+                if (!changedLines.isEmpty()) {
+                    result.add(String.format(Locale.ROOT,
+                            INCOMPATIBLE_OPTIONS, CHANGED_LINES_OPTION, DIFF_OPTION));
+                }
+                if (!STANDARD_INPUT.equals(diff) && !new File(diff).exists()) {
+                    result.add(String.format(Locale.ROOT, FILE_NOT_FOUND, diff));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Validates the options selecting the shard of the files to audit.
+         *
+         * @return list of violations
+         */
+        private List<String> validateShardOptions() {
+            final List<String> result = new ArrayList<>();
+            if (shard == null) {
+                if (shardBySize) {
+                    result.add(String.format(Locale.ROOT,
+                            "Option '%s' can be used only with '%s'.",
+                            SHARD_BY_SIZE_OPTION, SHARD_OPTION));
+                }
+            }
+            else {
+                try {
+                    Shard.parse(shard, shardBySize);
+                }
+                catch (CheckstyleException ex) {
+                    result.add(ex.getMessage());
+                }
             }
             return result;
         }
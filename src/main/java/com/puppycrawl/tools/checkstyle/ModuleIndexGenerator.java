@@ -0,0 +1,156 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.utils.ModuleReflectionUtil;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParseResult;
+
+/**
+ * This class is used in the build process to write the index of the modules of
+ * a jar, which {@link PackageObjectFactory} reads from
+ * {@value PackageObjectFactory#MODULE_INDEX_LOCATION} to find the modules by their
+ * names without searching the class path. The index lists the fully qualified names
+ * of the modules, one per line. Modules are searched in the specified packages,
+ * or in the packages of all {@code checkstyle_packages.xml} files on the class path
+ * if none are specified.
+ *
+ * @noinspection UseOfSystemOutOrSystemErr, unused, ClassIndependentOfModule
+ */
+public final class ModuleIndexGenerator {
+
+    /** Max width of the usage help message for this command. */
+    private static final int USAGE_HELP_WIDTH = 100;
+
+    /**
+     * Don't create instance of this class, use the {@link #main(String[])} method instead.
+     */
+    private ModuleIndexGenerator() {
+    }
+
+    /**
+     * Module index generator entry point.
+     *
+     * @param args the command line arguments
+     * @throws CheckstyleException if the packages can not be loaded or if there is
+     *     an IO problem
+     **/
+    public static void main(String... args) throws CheckstyleException {
+        final CliOptions cliOptions = new CliOptions();
+        final CommandLine cmd = new CommandLine(cliOptions).setUsageHelpWidth(USAGE_HELP_WIDTH);
+        try {
+            final ParseResult parseResult = cmd.parseArgs(args);
+            if (parseResult.isUsageHelpRequested()) {
+                cmd.usage(System.out);
+            }
+            else {
+                writeModuleIndex(cliOptions);
+            }
+        }
+        catch (ParameterException ex) {
+            System.err.println(ex.getMessage());
+            ex.getCommandLine().usage(System.err);
+        }
+    }
+
+    /**
+     * Writes the index of the modules found in the packages.
+     *
+     * @param options the user-specified options
+     * @throws CheckstyleException if the packages can not be loaded or the index
+     *     can not be written
+     */
+    private static void writeModuleIndex(CliOptions options) throws CheckstyleException {
+        final ClassLoader classLoader = ModuleIndexGenerator.class.getClassLoader();
+        final Collection<String> packages;
+        if (options.packages.isEmpty()) {
+            packages = PackageNamesLoader.getPackageNames(classLoader);
+        }
+        else {
+            packages = options.packages;
+        }
+        try {
+            final File parent = options.outputFile.getAbsoluteFile().getParentFile();
+            Files.createDirectories(parent.toPath());
+            try (PrintWriter writer = new PrintWriter(options.outputFile,
+                    StandardCharsets.UTF_8.name())) {
+                getModuleNames(packages, classLoader).forEach(writer::println);
+            }
+        }
+        catch (IOException ex) {
+            throw new CheckstyleException("Failed to write module index to '"
+                    + options.outputFile + "'", ex);
+        }
+    }
+
+    /**
+     * Returns the sorted fully qualified names of the modules in the packages.
+     *
+     * @param packages the packages to search
+     * @param classLoader the class loader to load the classes of the packages with
+     * @return the names of the modules
+     * @throws IOException if the class path can not be read
+     */
+    private static List<String> getModuleNames(Collection<String> packages,
+            ClassLoader classLoader) throws IOException {
+        final Set<Class<?>> modules =
+                ModuleReflectionUtil.getCheckstyleModules(packages, classLoader);
+        return modules.stream()
+                .map(Class::getCanonicalName)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Helper class encapsulating the command line options and positional parameters.
+     */
+    @Command(name = "java com.puppycrawl.tools.checkstyle.ModuleIndexGenerator",
+            mixinStandardHelpOptions = true)
+    private static class CliOptions {
+
+        /**
+         * The command line option to specify the output file.
+         */
+        @Option(names = "--destfile", required = true, description = "The output file.")
+        private File outputFile;
+
+        /**
+         * The command line positional parameters to specify the packages.
+         */
+        @Parameters(arity = "0..*", description = "The packages to search for modules.")
+        private List<String> packages = new ArrayList<>();
+    }
+}
@@ -0,0 +1,263 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractViolationReporter;
+
+/**
+ * Accumulates the time spent in modules, the number of their invocations and the
+ * memory they allocate. Modules are identified by their id, or by the simple name
+ * of their class if they have no id. The memory is measured only if the JVM
+ * supports measuring of the memory allocated by a thread. The time and the memory
+ * of a module include the time and the memory of its child modules.
+ * This class is thread safe.
+ */
+public final class ModuleProfiler {
+
+    /** Number of nanoseconds in a millisecond. */
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+
+    /** Header of the table. */
+    private static final String[] TABLE_HEADER = {
+        "Module", "Invocations", "Time (ms)", "Allocated (bytes)",
+    };
+
+    /** Format of the numeric columns of the table. */
+    private static final String TABLE_NUMBERS_FORMAT = " %12s %12s %18s%n";
+
+    /** Format of a module in JSON. */
+    private static final String JSON_MODULE_FORMAT = "    {\"module\": \"%s\", "
+            + "\"invocations\": %d, \"timeNanos\": %d, \"allocatedBytes\": %d}";
+
+    /** The statistics of modules, by the names of modules. */
+    private final Map<String, ModuleStatistics> statistics = new ConcurrentHashMap<>();
+
+    /** The bean measuring memory allocated by threads, {@code null} if not supported. */
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    /**
+     * Creates a new {@code ModuleProfiler} instance.
+     */
+    public ModuleProfiler() {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean)
+                    .isThreadAllocatedMemoryEnabled()) {
+            allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        }
+        else {
+            allocationBean = null;
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far.
+     *
+     * @return the number of bytes, or 0 if measuring of allocated memory is not supported.
+     */
+    public long getAllocatedBytes() {
+        long result = 0;
+        if (allocationBean != null) {
+            result = allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return result;
+    }
+
+    /**
+     * Records an invocation of a module which started at the given time.
+     *
+     * @param module the invoked module.
+     * @param startTime the value of {@link System#nanoTime()} when the invocation started.
+     * @param startAllocatedBytes the value of {@link #getAllocatedBytes()}
+     *     when the invocation started.
+     */
+    public void recordInvocation(Object module, long startTime, long startAllocatedBytes) {
+        final long time = System.nanoTime() - startTime;
+        final long allocatedBytes = getAllocatedBytes() - startAllocatedBytes;
+        final String moduleName = getModuleName(module);
+        ModuleStatistics moduleStatistics = statistics.get(moduleName);
+        if (moduleStatistics == null) {
+            moduleStatistics = statistics.computeIfAbsent(moduleName, ModuleStatistics::new);
+        }
+        moduleStatistics.invocations.increment();
+        moduleStatistics.time.add(time);
+        moduleStatistics.allocatedBytes.add(allocatedBytes);
+    }
+
+    /**
+     * Runs an action of a module and records the invocation.
+     *
+     * @param module the invoked module.
+     * @param action the action of the module.
+     */
+    public void profile(Object module, Runnable action) {
+        final long startTime = System.nanoTime();
+        final long startAllocatedBytes = getAllocatedBytes();
+        action.run();
+        recordInvocation(module, startTime, startAllocatedBytes);
+    }
+
+    /**
+     * Returns the statistics of all invoked modules, the most time consuming modules first.
+     *
+     * @return the statistics of modules.
+     */
+    public List<ModuleStatistics> getStatistics() {
+        final List<ModuleStatistics> result = new ArrayList<>(statistics.values());
+        result.sort(Comparator.comparing(ModuleStatistics::getTime).reversed()
+                .thenComparing(ModuleStatistics::getModuleName));
+        return result;
+    }
+
+    /**
+     * Formats the statistics of modules as a table.
+     *
+     * @return the table.
+     */
+    public String toTable() {
+        final List<ModuleStatistics> modules = getStatistics();
+        int nameWidth = TABLE_HEADER[0].length();
+        for (ModuleStatistics module : modules) {
+            nameWidth = Math.max(nameWidth, module.getModuleName().length());
+        }
+        final String format = "%-" + nameWidth + "s" + TABLE_NUMBERS_FORMAT;
+        final StringBuilder result = new StringBuilder(256);
+        result.append(String.format(Locale.ROOT, format, (Object[]) TABLE_HEADER));
+        for (ModuleStatistics module : modules) {
+            result.append(String.format(Locale.ROOT, format, module.getModuleName(),
+                    module.getInvocations(),
+                    String.format(Locale.ROOT, "%.3f", module.getTime() / NANOS_IN_MILLI),
+                    module.getAllocatedBytes()));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Formats the statistics of modules as JSON.
+     *
+     * @return the JSON document.
+     */
+    public String toJson() {
+        final List<String> modules = new ArrayList<>();
+        for (ModuleStatistics module : getStatistics()) {
+            modules.add(String.format(Locale.ROOT, JSON_MODULE_FORMAT,
+                    SarifLogger.escape(module.getModuleName()), module.getInvocations(),
+                    module.getTime(), module.getAllocatedBytes()));
+        }
+        final String separator = System.lineSeparator();
+        return "{" + separator
+                + "  \"modules\": [" + separator
+                + String.join("," + separator, modules) + separator
+                + "  ]" + separator
+                + "}" + separator;
+    }
+
+    /**
+     * Returns the name of a module in statistics.
+     *
+     * @param module the module.
+     * @return the id of the module, or the simple name of its class if it has no id.
+     */
+    private static String getModuleName(Object module) {
+        String result = null;
+        if (module instanceof AbstractViolationReporter) {
+            result = ((AbstractViolationReporter) module).getId();
+        }
+        if (result == null) {
+            result = module.getClass().getSimpleName();
+        }
+        return result;
+    }
+
+    /**
+     * The statistics of a module.
+     */
+    public static final class ModuleStatistics {
+
+        /** The name of the module. */
+        private final String moduleName;
+
+        /** The number of invocations. */
+        private final LongAdder invocations = new LongAdder();
+
+        /** The time spent in the module, in nanoseconds. */
+        private final LongAdder time = new LongAdder();
+
+        /** The number of bytes allocated by the module. */
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        /**
+         * Creates the statistics of a module.
+         *
+         * @param moduleName the name of the module.
+         */
+        private ModuleStatistics(String moduleName) {
+            this.moduleName = moduleName;
+        }
+
+        /**
+         * Returns the name of the module.
+         *
+         * @return the id of the module, or the simple name of its class if it has no id.
+         */
+        public String getModuleName() {
+            return moduleName;
+        }
+
+        /**
+         * Returns the number of invocations of the module.
+         *
+         * @return the number of invocations.
+         */
+        public long getInvocations() {
+            return invocations.sum();
+        }
+
+        /**
+         * Returns the time spent in the module.
+         *
+         * @return the time in nanoseconds.
+         */
+        public long getTime() {
+            return time.sum();
+        }
+
+        /**
+         * Returns the number of bytes allocated by the module.
+         *
+         * @return the number of bytes, or 0 if measuring of allocated memory is not supported.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+    }
+
+}
@@ -19,9 +19,15 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -94,6 +100,15 @@ public class PackageObjectFactory implements ModuleFactory {
     /** Separator to use in strings. */
     public static final String STRING_SEPARATOR = ", ";
 
+    /**
+     * Location of the module indexes on the class path, which list the fully qualified
+     * names of the modules of their jars, one per line.
+     */
+    public static final String MODULE_INDEX_LOCATION = "META-INF/checkstyle/modules.idx";
+
+    /** Prefix of the comment lines of the module indexes. */
+    private static final String MODULE_INDEX_COMMENT = "#";
+
     /** Map of Checkstyle module names to their fully qualified names. */
     private static final Map<String, String> NAME_TO_FULL_MODULE_NAME = new HashMap<>();
 
@@ -103,6 +118,9 @@ public class PackageObjectFactory implements ModuleFactory {
     /** The class loader used to load Checkstyle core and custom modules. */
     private final ClassLoader moduleClassLoader;
 
+    /** Map of indexed module names to the set of their fully qualified names. */
+    private Map<String, Set<String>> indexedNameToFullModuleNames;
+
     /** Map of third party Checkstyle module names to the set of their fully qualified names. */
     private Map<String, Set<String>> thirdPartyNameToFullModuleNames;
 
@@ -185,6 +203,10 @@ public class PackageObjectFactory implements ModuleFactory {
         // if the name is a simple class name, try to find it in maps at first
         if (!name.contains(PACKAGE_SEPARATOR)) {
             instance = createFromStandardCheckSet(name);
+            // find the name in module indexes
+            if (instance == null) {
+                instance = createFromModuleIndexes(name);
+            }
             // find the name in third party map
             if (instance == null) {
                 if (thirdPartyNameToFullModuleNames == null) {
@@ -240,6 +262,20 @@ public class PackageObjectFactory implements ModuleFactory {
         return instance;
     }
 
+    /**
+     * Create object from the module names listed in the module indexes of the class path.
+     *
+     * @param name name of module.
+     * @return instance of module if it is found in the module indexes.
+     * @throws CheckstyleException if the class fails to instantiate or there are ambiguous classes.
+     */
+    private Object createFromModuleIndexes(String name) throws CheckstyleException {
+        if (indexedNameToFullModuleNames == null) {
+            indexedNameToFullModuleNames = loadModuleIndexes(moduleClassLoader);
+        }
+        return createObjectFromMap(name, indexedNameToFullModuleNames);
+    }
+
     /**
      * Create object with the help of the supplied map.
      *
@@ -293,6 +329,56 @@ public class PackageObjectFactory implements ModuleFactory {
         return returnValue;
     }
 
+    /**
+     * Generate the map of indexed Checkstyle module names to the set of their fully qualified
+     * names from all module indexes on the class path. Only the modules in the packages of
+     * this factory are included, the same as in the map of third party modules.
+     *
+     * @param loader the class loader used to load the module indexes
+     * @return the map of indexed Checkstyle module names to the set of their fully qualified
+     *      names, empty if the indexes can not be read
+     */
+    private Map<String, Set<String>> loadModuleIndexes(ClassLoader loader) {
+        Map<String, Set<String>> returnValue = new HashMap<>();
+        try {
+            final Enumeration<URL> indexes = loader.getResources(MODULE_INDEX_LOCATION);
+            while (indexes.hasMoreElements()) {
+                readModuleIndex(indexes.nextElement(), returnValue);
+            }
+        }
+        catch (IOException ignore) {
+            returnValue = Collections.emptyMap();
+        }
+        return returnValue;
+    }
+
+    /**
+     * Adds the modules of a module index, which are in the packages of this factory,
+     * to the map of module names to the set of their fully qualified names.
+     *
+     * @param index the module index
+     * @param nameToFullModuleNames the map to add the modules to
+     * @throws IOException if the index can not be read
+     */
+    private void readModuleIndex(URL index, Map<String, Set<String>> nameToFullModuleNames)
+            throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                index.openStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                final String fullModuleName = line.trim();
+                final int separatorIndex = fullModuleName.lastIndexOf(PACKAGE_SEPARATOR);
+                if (separatorIndex > 0 && !fullModuleName.startsWith(MODULE_INDEX_COMMENT)
+                        && packages.contains(fullModuleName.substring(0, separatorIndex))) {
+                    nameToFullModuleNames.computeIfAbsent(
+                            fullModuleName.substring(separatorIndex + 1), key -> new HashSet<>())
+                            .add(fullModuleName);
+                }
+                line = reader.readLine();
+            }
+        }
+    }
+
     /**
      * Generate the map of third party Checkstyle module names to the set of their fully qualified
      * names.
@@ -895,6 +981,8 @@ public class PackageObjectFactory implements ModuleFactory {
      * Fill short-to-full module names map with modules from filters package.
      */
     private static void fillModulesFromFiltersPackage() {
+        NAME_TO_FULL_MODULE_NAME.put("BaselineFilter",
+                BASE_PACKAGE + ".filters.BaselineFilter");
         NAME_TO_FULL_MODULE_NAME.put("SeverityMatchFilter",
                 BASE_PACKAGE + ".filters.SeverityMatchFilter");
         NAME_TO_FULL_MODULE_NAME.put("SuppressWithPlainTextCommentFilter",
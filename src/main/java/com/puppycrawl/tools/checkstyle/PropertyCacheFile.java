@@ -20,7 +20,6 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectOutputStream;
@@ -28,27 +27,38 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
  * This class maintains a persistent(on file-system) store of the files
- * that have checked ok(no validation events) and their associated
- * timestamp. It is used to optimize Checkstyle between few launches.
+ * that have been checked, their associated timestamp or content hash
+ * and the violations found in them. It is used to optimize Checkstyle between few launches.
  * It is mostly useful for plugin and extensions of Checkstyle.
- * It uses a property file
+ * It uses a property file or a compact binary file
  * for storage.  A hashcode of the Configuration is stored in the
  * cache file to ensure the cache is invalidated when the
  * configuration has changed.
@@ -72,6 +82,13 @@ public final class PropertyCacheFile {
      */
     public static final String EXTERNAL_RESOURCE_KEY_PREFIX = "module-resource*?:";
 
+    /**
+     * The property prefix to use for storing the violations of a file.
+     * To avoid name clashes with the files that are checked the prefix is
+     * chosen in such a way that it cannot be a valid file name.
+     */
+    public static final String VIOLATIONS_KEY_PREFIX = "violations*?:";
+
     /** Size of default byte array for buffer. */
     private static final int BUFFER_SIZE = 1024;
 
@@ -81,6 +98,39 @@ public final class PropertyCacheFile {
     /** Default number for base 16 encoding. */
     private static final int BASE_16 = 16;
 
+    /** The first bytes of a cache file in binary format. */
+    private static final int BINARY_FORMAT_MAGIC = 0x4353_4348;
+
+    /** The version of the binary format, changed when the layout changes. */
+    private static final int BINARY_FORMAT_VERSION = 1;
+
+    /** The length of a field of violations which is {@code null}. */
+    private static final int NULL_FIELD_LENGTH = -1;
+
+    /** The separator of the length of a field of violations and its text. */
+    private static final char FIELD_LENGTH_SEPARATOR = ':';
+
+    /** The tag of arguments of violations of type {@code String}. */
+    private static final char STRING_TAG = 's';
+
+    /** The tag of arguments of violations of type {@code Integer}. */
+    private static final char INTEGER_TAG = 'i';
+
+    /** The tag of arguments of violations of type {@code Long}. */
+    private static final char LONG_TAG = 'l';
+
+    /** The tag of arguments of violations of type {@code Double}. */
+    private static final char DOUBLE_TAG = 'd';
+
+    /** The tag of arguments of violations of type {@code Boolean}. */
+    private static final char BOOLEAN_TAG = 'b';
+
+    /** The tag of arguments of violations of type {@code Character}. */
+    private static final char CHARACTER_TAG = 'c';
+
+    /** The tags of the types of arguments of violations which can be stored. */
+    private static final Map<Class<?>, Character> ARGUMENT_TYPES = createArgumentTypes();
+
     /** The details on files. **/
     private final Properties details = new Properties();
 
@@ -90,6 +140,9 @@ public final class PropertyCacheFile {
     /** File name of cache. **/
     private final String fileName;
 
+    /** Whether the cache is stored in binary format instead of a property file. */
+    private final boolean binaryFormat;
+
     /** Generated configuration hash. **/
     private String configHash;
 
@@ -101,6 +154,18 @@ public final class PropertyCacheFile {
      * @throws IllegalArgumentException when either arguments are null
      */
     public PropertyCacheFile(Configuration config, String fileName) {
+        this(config, fileName, false);
+    }
+
+    /**
+     * Creates a new {@code PropertyCacheFile} instance.
+     *
+     * @param config the current configuration, not null
+     * @param fileName the cache file
+     * @param binaryFormat whether the cache is stored in binary format
+     * @throws IllegalArgumentException when either arguments are null
+     */
+    public PropertyCacheFile(Configuration config, String fileName, boolean binaryFormat) {
         if (config == null) {
             throw new IllegalArgumentException("config can not be null");
         }
@@ -109,6 +174,23 @@ public final class PropertyCacheFile {
         }
         this.config = config;
         this.fileName = fileName;
+        this.binaryFormat = binaryFormat;
+    }
+
+    /**
+     * Creates the tags of the types of arguments of violations which can be stored.
+     *
+     * @return the tags of the types
+     */
+    private static Map<Class<?>, Character> createArgumentTypes() {
+        final Map<Class<?>, Character> types = new HashMap<>();
+        types.put(String.class, STRING_TAG);
+        types.put(Integer.class, INTEGER_TAG);
+        types.put(Long.class, LONG_TAG);
+        types.put(Double.class, DOUBLE_TAG);
+        types.put(Boolean.class, BOOLEAN_TAG);
+        types.put(Character.class, CHARACTER_TAG);
+        return Collections.unmodifiableMap(types);
     }
 
     /**
@@ -120,16 +202,21 @@ public final class PropertyCacheFile {
         // get the current config so if the file isn't found
         // the first time the hash will be added to output file
         configHash = getHashCodeBasedOnObjectContent(config);
-        final File file = new File(fileName);
-        if (file.exists()) {
-            try (InputStream inStream = Files.newInputStream(file.toPath())) {
-                details.load(inStream);
-                final String cachedConfigHash = details.getProperty(CONFIG_HASH_KEY);
-                if (!configHash.equals(cachedConfigHash)) {
-                    // Detected configuration change - clear cache
-                    reset();
+        final Path path = Paths.get(fileName);
+        if (Files.exists(path)) {
+            if (binaryFormat) {
+                loadBinary(Files.readAllBytes(path));
+            }
+            else {
+                try (InputStream inStream = Files.newInputStream(path)) {
+                    details.load(inStream);
                 }
             }
+            final String cachedConfigHash = details.getProperty(CONFIG_HASH_KEY);
+            if (!configHash.equals(cachedConfigHash)) {
+                // Detected configuration change - clear cache
+                reset();
+            }
         }
         else {
             // put the hash in the file if the file is going to be created
@@ -149,10 +236,83 @@ public final class PropertyCacheFile {
             Files.createDirectories(directory);
         }
         try (OutputStream out = Files.newOutputStream(path)) {
-            details.store(out, null);
+            if (binaryFormat) {
+                out.write(toBinary());
+            }
+            else {
+                details.store(out, null);
+            }
         }
     }
 
+    /**
+     * Reads the cache in binary format: the format magic and version followed
+     * by the number of entries and the entries as pairs of strings, each string
+     * is stored as its length and its UTF-8 bytes.
+     * A file in other format or of other version is ignored.
+     *
+     * @param content the content of the cache file.
+     */
+    private void loadBinary(byte[] content) {
+        final ByteBuffer buffer = ByteBuffer.wrap(content);
+        try {
+            if (buffer.getInt() == BINARY_FORMAT_MAGIC
+                    && buffer.getInt() == BINARY_FORMAT_VERSION) {
+                final int size = buffer.getInt();
+                for (int index = 0; index < size; index++) {
+                    final String key = readString(buffer);
+                    details.setProperty(key, readString(buffer));
+                }
+            }
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException ignored) {
+            // a truncated cache keeps the entries which were read completely
+        }
+    }
+
+    /**
+     * Reads a string of the cache in binary format.
+     *
+     * @param buffer the content of the cache file.
+     * @return the string.
+     * @throws BufferUnderflowException if the content is truncated.
+     * @throws IndexOutOfBoundsException if the length of the string is out of the content.
+     */
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        final String result = new String(buffer.array(), buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+
+    /**
+     * Converts the cache to binary format.
+     *
+     * @return the content of the cache file.
+     */
+    private byte[] toBinary() {
+        final List<byte[]> strings = new ArrayList<>();
+        for (String key : details.stringPropertyNames()) {
+            strings.add(key.getBytes(StandardCharsets.UTF_8));
+            strings.add(details.getProperty(key).getBytes(StandardCharsets.UTF_8));
+        }
+        // magic, version and number of entries
+        int size = Integer.BYTES + Integer.BYTES + Integer.BYTES;
+        for (byte[] string : strings) {
+            size += Integer.BYTES + string.length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(BINARY_FORMAT_MAGIC);
+        buffer.putInt(BINARY_FORMAT_VERSION);
+        buffer.putInt(strings.size() / 2);
+        for (byte[] string : strings) {
+            buffer.putInt(string.length);
+            buffer.put(string);
+        }
+        return buffer.array();
+    }
+
     /**
      * Resets the cache to be empty except for the configuration hash.
      */
@@ -165,8 +325,8 @@ public final class PropertyCacheFile {
      * Checks that file is in cache.
      *
      * @param uncheckedFileName the file to check
-     * @param timestamp the timestamp of the file to check
-     * @return whether the specified file has already been checked ok
+     * @param timestamp the timestamp or the content hash of the file to check
+     * @return whether the specified file has already been checked
      */
     public boolean isInCache(String uncheckedFileName, long timestamp) {
         final String lastChecked = details.getProperty(uncheckedFileName);
@@ -174,13 +334,198 @@ public final class PropertyCacheFile {
     }
 
     /**
-     * Records that a file checked ok.
+     * Records that a file has been checked, without violations.
      *
-     * @param checkedFileName name of the file that checked ok
-     * @param timestamp the timestamp of the file
+     * @param checkedFileName name of the file that has been checked
+     * @param timestamp the timestamp or the content hash of the file
      */
     public void put(String checkedFileName, long timestamp) {
         details.setProperty(checkedFileName, Long.toString(timestamp));
+        details.remove(VIOLATIONS_KEY_PREFIX + checkedFileName);
+    }
+
+    /**
+     * Records the violations of a file which is in cache. The file is removed
+     * from cache if arguments of its violations are not of the types which can be stored.
+     *
+     * @param checkedFileName name of the file
+     * @param violations the violations of the file
+     */
+    public void putViolations(String checkedFileName, List<Violation> violations) {
+        if (violations.stream().allMatch(PropertyCacheFile::isStorable)) {
+            final StringBuilder value = new StringBuilder();
+            violations.forEach(violation -> writeViolation(value, violation));
+            details.setProperty(VIOLATIONS_KEY_PREFIX + checkedFileName, value.toString());
+        }
+        else {
+            // arguments of a violation can not be stored, the file has to be checked again
+            remove(checkedFileName);
+        }
+    }
+
+    /**
+     * Retrieves the violations of a file which is in cache.
+     *
+     * @param checkedFileName name of the file
+     * @param classLoader the class loader of the sources of the violations
+     * @return the violations of the file, or {@code null} if they can not be read
+     *     and the file has to be checked again.
+     */
+    public List<Violation> getViolations(String checkedFileName, ClassLoader classLoader) {
+        final String value = details.getProperty(VIOLATIONS_KEY_PREFIX + checkedFileName);
+        List<Violation> result = Collections.emptyList();
+        if (value != null) {
+            try {
+                final FieldReader reader = new FieldReader(value);
+                result = new ArrayList<>();
+                while (reader.hasNext()) {
+                    result.add(readViolation(reader, classLoader));
+                }
+            }
+            catch (final ClassNotFoundException | IllegalArgumentException
+                    | IndexOutOfBoundsException ignored) {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether all arguments of a violation are of the types which can be stored.
+     *
+     * @param violation the violation
+     * @return {@code true} if the violation can be stored in cache
+     */
+    private static boolean isStorable(Violation violation) {
+        final Object[] args = violation.getArgs();
+        return args == null || Arrays.stream(args)
+                .allMatch(arg -> arg == null || ARGUMENT_TYPES.containsKey(arg.getClass()));
+    }
+
+    /**
+     * Writes the fields of a violation. The severity level is stored by its ordinal
+     * and the arguments by their number followed by the arguments prefixed with the
+     * tags of their types.
+     *
+     * @param value the violations of a file
+     * @param violation the violation
+     */
+    private static void writeViolation(StringBuilder value, Violation violation) {
+        writeField(value, String.valueOf(violation.getLineNo()));
+        writeField(value, String.valueOf(violation.getColumnNo()));
+        writeField(value, String.valueOf(violation.getColumnCharIndex()));
+        writeField(value, String.valueOf(violation.getTokenType()));
+        writeField(value, String.valueOf(violation.getSeverityLevel().ordinal()));
+        writeField(value, violation.getModuleId());
+        writeField(value, violation.getBundle());
+        writeField(value, violation.getKey());
+        writeField(value, violation.getSourceName());
+        writeField(value, violation.getCustomMessage());
+        final Object[] args = violation.getArgs();
+        if (args == null) {
+            writeField(value, String.valueOf(NULL_FIELD_LENGTH));
+        }
+        else {
+            writeField(value, String.valueOf(args.length));
+            for (Object arg : args) {
+                String field = null;
+                if (arg != null) {
+                    field = ARGUMENT_TYPES.get(arg.getClass()) + arg.toString();
+                }
+                writeField(value, field);
+            }
+        }
+    }
+
+    /**
+     * Writes a field of violations as its length, the separator and its text.
+     *
+     * @param value the violations of a file
+     * @param field the text of the field, can be {@code null}
+     */
+    private static void writeField(StringBuilder value, String field) {
+        if (field == null) {
+            value.append(NULL_FIELD_LENGTH).append(FIELD_LENGTH_SEPARATOR);
+        }
+        else {
+            value.append(field.length()).append(FIELD_LENGTH_SEPARATOR).append(field);
+        }
+    }
+
+    /**
+     * Reads the fields of a violation written by {@link #writeViolation}.
+     *
+     * @param reader the reader of the fields
+     * @param classLoader the class loader of the source of the violation
+     * @return the violation
+     * @throws ClassNotFoundException if the source of the violation is not found
+     * @throws IllegalArgumentException if a field is invalid
+     * @throws IndexOutOfBoundsException if the fields are truncated
+     */
+    private static Violation readViolation(FieldReader reader, ClassLoader classLoader)
+            throws ClassNotFoundException {
+        final int lineNo = reader.nextInt();
+        final int columnNo = reader.nextInt();
+        final int columnCharIndex = reader.nextInt();
+        final int tokenType = reader.nextInt();
+        final SeverityLevel severityLevel = SeverityLevel.values()[reader.nextInt()];
+        final String moduleId = reader.next();
+        final String bundle = reader.next();
+        final String key = reader.next();
+        // the source class is only loaded, it is not initialized
+        final Class<?> sourceClass = Class.forName(reader.nextNonNull(), false, classLoader);
+        final String customMessage = reader.next();
+        final int argsNumber = reader.nextInt();
+        Object[] args = null;
+        if (argsNumber != NULL_FIELD_LENGTH) {
+            // the number is not trusted to allocate the array, each argument has to be read
+            final List<Object> argsList = new ArrayList<>();
+            while (argsList.size() < argsNumber) {
+                argsList.add(readArgument(reader.next()));
+            }
+            args = argsList.toArray();
+        }
+        return new Violation(lineNo, columnNo, columnCharIndex, tokenType, bundle, key, args,
+                severityLevel, moduleId, sourceClass, customMessage);
+    }
+
+    /**
+     * Reads an argument of a violation prefixed with the tag of its type.
+     *
+     * @param field the field of the argument, can be {@code null}
+     * @return the argument
+     * @throws IllegalArgumentException if the type of the argument is unknown
+     *     or its value is invalid
+     * @throws IndexOutOfBoundsException if the field is empty
+     */
+    private static Object readArgument(String field) {
+        Object result = null;
+        if (field != null) {
+            final String text = field.substring(1);
+            switch (field.charAt(0)) {
+                case STRING_TAG:
+                    result = text;
+                    break;
+                case INTEGER_TAG:
+                    result = Integer.valueOf(text);
+                    break;
+                case LONG_TAG:
+                    result = Long.valueOf(text);
+                    break;
+                case DOUBLE_TAG:
+                    result = Double.valueOf(text);
+                    break;
+                case BOOLEAN_TAG:
+                    result = Boolean.valueOf(text);
+                    break;
+                case CHARACTER_TAG:
+                    result = text.charAt(0);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown type of argument: " + field);
+            }
+        }
+        return result;
     }
 
     /**
@@ -200,6 +545,7 @@ public final class PropertyCacheFile {
      */
     public void remove(String checkedFileName) {
         details.remove(checkedFileName);
+        details.remove(VIOLATIONS_KEY_PREFIX + checkedFileName);
     }
 
     /**
@@ -377,6 +723,79 @@ public final class PropertyCacheFile {
         return cachedHashSum != null;
     }
 
+    /**
+     * Reader of the fields of the violations of a file.
+     */
+    private static final class FieldReader {
+
+        /** The violations of a file. */
+        private final String value;
+        /** The position of the next field. */
+        private int position;
+
+        /**
+         * Creates an instance.
+         *
+         * @param value the violations of a file.
+         */
+        /* package */ FieldReader(String value) {
+            this.value = value;
+        }
+
+        /**
+         * Checks whether there are more fields.
+         *
+         * @return true if there are more fields.
+         */
+        public boolean hasNext() {
+            return position < value.length();
+        }
+
+        /**
+         * Reads the next field.
+         *
+         * @return the text of the field, can be {@code null}.
+         * @throws NumberFormatException if the length of the field is invalid.
+         * @throws IndexOutOfBoundsException if the field is truncated.
+         */
+        public String next() {
+            final int separator = value.indexOf(FIELD_LENGTH_SEPARATOR, position);
+            final int length = Integer.parseInt(value.substring(position, separator));
+            position = separator + 1;
+            String field = null;
+            if (length != NULL_FIELD_LENGTH) {
+                field = value.substring(position, position + length);
+                position += length;
+            }
+            return field;
+        }
+
+        /**
+         * Reads the next field which can not be {@code null}.
+         *
+         * @return the text of the field.
+         * @throws IllegalArgumentException if the field is {@code null}.
+         */
+        public String nextNonNull() {
+            final String field = next();
+            if (field == null) {
+                throw new IllegalArgumentException("Field can not be null at " + position);
+            }
+            return field;
+        }
+
+        /**
+         * Reads the next field as a number.
+         *
+         * @return the number.
+         * @throws NumberFormatException if the field is not a number.
+         */
+        public int nextInt() {
+            return Integer.parseInt(nextNonNull());
+        }
+
+    }
+
     /**
      * Class which represents external resource.
      */
@@ -0,0 +1,386 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * Merges the reports of the shards of an audit into one report, as if the files of all
+ * shards were audited together. The reports must be written by the logger of the output
+ * format. The header and the footer of the first report are kept, and the entries of
+ * all reports are copied between them line by line, so the memory used does not depend
+ * on the size of the reports. Reports with names ending with {@code .gz} are read as
+ * gzip compressed.
+ */
+final class ReportMerger {
+
+    /** Extension of the reports compressed with gzip. */
+    private static final String GZIP_EXTENSION = ".gz";
+
+    /** The format of the reports. */
+    private final ReportFormat format;
+
+    /** The writer of the merged report. */
+    private final PrintWriter writer;
+
+    /** The footer of the first report. */
+    private final List<String> footer = new ArrayList<>();
+
+    /** The last entry line, which is written when the next one is known. */
+    private String pendingLine;
+
+    /** The number of violations of error level. */
+    private int errorCount;
+
+    /**
+     * Creates a merger.
+     *
+     * @param format the format of the reports.
+     * @param writer the writer of the merged report.
+     */
+    private ReportMerger(ReportFormat format, PrintWriter writer) {
+        this.format = format;
+        this.writer = writer;
+    }
+
+    /**
+     * Merges the reports into one report. The output stream is flushed, but not closed.
+     *
+     * @param outputFormat the format of the reports.
+     * @param reports the reports of the shards.
+     * @param out the stream to write the merged report to.
+     * @return the number of violations of error level in the reports.
+     * @throws IOException if a report can not be read or the merged report can not be
+     *     written.
+     * @throws CheckstyleException if a report is not in the format.
+     */
+    static int merge(Main.OutputFormat outputFormat, List<File> reports, OutputStream out)
+            throws IOException, CheckstyleException {
+        final PrintWriter writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        final ReportMerger merger = new ReportMerger(ReportFormat.of(outputFormat), writer);
+        for (File report : reports) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    openReport(report), StandardCharsets.UTF_8))) {
+                merger.copyReport(report, reader);
+            }
+        }
+        merger.finish();
+        return merger.errorCount;
+    }
+
+    /**
+     * Opens a report, decompressing it if its name ends with {@code .gz}.
+     *
+     * @param report the report.
+     * @return the stream of the report.
+     * @throws IOException if the report can not be opened.
+     */
+    private static InputStream openReport(File report) throws IOException {
+        InputStream result = Files.newInputStream(report.toPath());
+        if (report.getName().endsWith(GZIP_EXTENSION)) {
+            result = new GZIPInputStream(result);
+        }
+        return result;
+    }
+
+    /**
+     * Copies the entries of a report, and its header and footer if it is the first one.
+     *
+     * @param report the report.
+     * @param reader the reader of the report.
+     * @throws IOException if the report can not be read.
+     * @throws CheckstyleException if the report is not in the format.
+     */
+    private void copyReport(File report, BufferedReader reader)
+            throws IOException, CheckstyleException {
+        final boolean first = footer.isEmpty();
+        if (!copyHeader(reader, first) || !copyEntries(reader, first)) {
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    "File '%s' is not a report in %s format.", report, format));
+        }
+    }
+
+    /**
+     * Reads the header of a report up to its last line, copying it if it is the
+     * header of the first report.
+     *
+     * @param reader the reader of the report.
+     * @param first whether it is the first report.
+     * @return true if the end of the header is found.
+     * @throws IOException if the report can not be read.
+     */
+    private boolean copyHeader(BufferedReader reader, boolean first) throws IOException {
+        String line = reader.readLine();
+        boolean headerFound = false;
+        while (line != null && !headerFound) {
+            if (first) {
+                writer.println(line);
+            }
+            headerFound = format.isHeaderEnd(line);
+            if (!headerFound) {
+                line = reader.readLine();
+            }
+        }
+        return headerFound;
+    }
+
+    /**
+     * Copies the entries following the header of a report, and keeps the footer if it
+     * is the footer of the first report.
+     *
+     * @param reader the reader of the report.
+     * @param first whether it is the first report.
+     * @return true if the start of the footer is found.
+     * @throws IOException if the report can not be read.
+     */
+    private boolean copyEntries(BufferedReader reader, boolean first) throws IOException {
+        String line = reader.readLine();
+        boolean firstEntryLine = true;
+        boolean footerFound = false;
+        while (line != null && !footerFound) {
+            final String nextLine = reader.readLine();
+            footerFound = format.isFooterStart(line, nextLine == null);
+            if (!footerFound && format.isEntryLine(line)) {
+                copyEntryLine(line, firstEntryLine);
+                firstEntryLine = false;
+            }
+            if (footerFound && first) {
+                footer.add(line);
+            }
+            line = nextLine;
+        }
+        while (line != null && first) {
+            footer.add(line);
+            line = reader.readLine();
+        }
+        return footerFound;
+    }
+
+    /**
+     * Copies a line of an entry, separating the entries of the previous reports.
+     *
+     * @param line the line.
+     * @param firstEntryLine whether it is the first entry line of its report.
+     */
+    private void copyEntryLine(String line, boolean firstEntryLine) {
+        if (pendingLine != null) {
+            writer.print(pendingLine);
+            if (firstEntryLine) {
+                writer.print(format.getReportSeparator());
+            }
+            writer.println();
+        }
+        pendingLine = line;
+        if (format.isError(line)) {
+            errorCount++;
+        }
+    }
+
+    /**
+     * Writes the last entry line and the footer of the first report.
+     */
+    private void finish() {
+        if (pendingLine == null) {
+            format.writeNoEntries(writer);
+        }
+        else {
+            writer.println(pendingLine);
+        }
+        footer.forEach(writer::println);
+        writer.flush();
+    }
+
+    /**
+     * The layouts of the reports written by the loggers.
+     */
+    private enum ReportFormat {
+
+        /** The report of {@link XMLLogger}. */
+        XML {
+            @Override
+            public boolean isHeaderEnd(String line) {
+                return line.startsWith("<checkstyle");
+            }
+
+            @Override
+            public boolean isFooterStart(String line, boolean lastLine) {
+                return "</checkstyle>".equals(line);
+            }
+
+            @Override
+            public boolean isError(String line) {
+                return line.startsWith("<error ") && line.contains(" severity=\"error\"");
+            }
+        },
+
+        /** The report of {@link SarifLogger}. */
+        SARIF {
+            @Override
+            public boolean isHeaderEnd(String line) {
+                return "\"results\": [".equals(line.trim());
+            }
+
+            @Override
+            public boolean isFooterStart(String line, boolean lastLine) {
+                return "]".equals(line.trim());
+            }
+
+            @Override
+            public boolean isEntryLine(String line) {
+                return !line.trim().isEmpty();
+            }
+
+            @Override
+            public boolean isError(String line) {
+                return "\"level\": \"error\",".equals(line.trim());
+            }
+
+            @Override
+            public String getReportSeparator() {
+                return ",";
+            }
+
+            @Override
+            public void writeNoEntries(PrintWriter output) {
+                output.println();
+            }
+        },
+
+        /** The report of {@link DefaultLogger}, whose first and last lines are localized. */
+        PLAIN {
+            @Override
+            public boolean isHeaderEnd(String line) {
+                return true;
+            }
+
+            @Override
+            public boolean isFooterStart(String line, boolean lastLine) {
+                return lastLine;
+            }
+
+            @Override
+            public boolean isError(String line) {
+                return line.startsWith("[ERROR] ");
+            }
+        };
+
+        /**
+         * Returns the layout of the reports in an output format.
+         *
+         * @param outputFormat the output format.
+         * @return the layout.
+         */
+        public static ReportFormat of(Main.OutputFormat outputFormat) {
+            final ReportFormat result;
+            switch (outputFormat) {
+                case XML:
+                    result = XML;
+                    break;
+                case SARIF:
+                    result = SARIF;
+                    break;
+                case PLAIN:
+                default:
+                    result = PLAIN;
+                    break;
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether a line is the last line of the header.
+         *
+         * @param line the line.
+         * @return true if the line is the last line of the header.
+         */
+        public abstract boolean isHeaderEnd(String line);
+
+        /**
+         * Checks whether a line is the first line of the footer.
+         *
+         * @param line the line.
+         * @param lastLine whether the line is the last line of the report.
+         * @return true if the line is the first line of the footer.
+         */
+        public abstract boolean isFooterStart(String line, boolean lastLine);
+
+        /**
+         * Checks whether a line between the header and the footer belongs to an entry.
+         *
+         * @param line the line.
+         * @return true if the line is copied.
+         */
+        public boolean isEntryLine(String line) {
+            return true;
+        }
+
+        /**
+         * Checks whether a line reports a violation of error level.
+         *
+         * @param line the line.
+         * @return true if the line reports a violation of error level.
+         */
+        public abstract boolean isError(String line);
+
+        /**
+         * Returns the text appended to the last entry line of a report which is
+         * followed by the entries of another report.
+         *
+         * @return the separator.
+         */
+        public String getReportSeparator() {
+            return "";
+        }
+
+        /**
+         * Writes what the logger writes between the header and the footer if there
+         * are no entries.
+         *
+         * @param output the writer of the merged report.
+         */
+        public void writeNoEntries(PrintWriter output) {
+            // nothing is written by default
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+    }
+
+}
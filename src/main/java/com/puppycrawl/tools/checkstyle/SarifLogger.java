@@ -19,6 +19,7 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -27,8 +28,6 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Locale;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
@@ -40,6 +39,8 @@ import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
  * Simple SARIF logger.
  * SARIF stands for the static analysis results interchange format.
  * Reference: https://sarifweb.azurewebsites.net/
+ * Results are streamed to the output as soon as they are reported, so the memory
+ * used does not depend on the number of violations.
  */
 public class SarifLogger extends AutomaticBean implements AuditListener {
 
@@ -76,17 +77,20 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
     /** The placeholder for results. */
     private static final String RESULTS_PLACEHOLDER = "${results}";
 
+    /** The separator of results. */
+    private static final String RESULTS_SEPARATOR = ",\n";
+
     /** Helper writer that allows easy encoding and printing. */
     private final PrintWriter writer;
 
     /** Close output stream in auditFinished. */
     private final boolean closeStream;
 
-    /** The results. */
-    private final List<String> results = new ArrayList<>();
+    /** Content of the report before the results. */
+    private final String reportHeader;
 
-    /** Content for the entire report. */
-    private final String report;
+    /** Content of the report after the results. */
+    private final String reportFooter;
 
     /** Content for result representing an error with source line and column. */
     private final String resultLineColumn;
@@ -100,6 +104,9 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
     /** Content for result representing an error without filename or location. */
     private final String resultErrorOnly;
 
+    /** Whether a result was written. */
+    private boolean resultWritten;
+
     /**
      * Creates a new {@code SarifLogger} instance.
      *
@@ -114,9 +121,14 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
         if (outputStreamOptions == null) {
             throw new IllegalArgumentException("Parameter outputStreamOptions can not be null");
         }
-        writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
         closeStream = outputStreamOptions == OutputStreamOptions.CLOSE;
-        report = readResource("/com/puppycrawl/tools/checkstyle/sarif/SarifReport.template");
+        final String report =
+            readResource("/com/puppycrawl/tools/checkstyle/sarif/SarifReport.template");
+        final int resultsIndex = report.indexOf(RESULTS_PLACEHOLDER);
+        reportHeader = report.substring(0, resultsIndex);
+        reportFooter = report.substring(resultsIndex + RESULTS_PLACEHOLDER.length());
         resultLineColumn =
             readResource("/com/puppycrawl/tools/checkstyle/sarif/ResultLineColumn.template");
         resultLineOnly =
@@ -132,11 +144,6 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
         // No code by default
     }
 
-    @Override
-    public void auditStarted(AuditEvent event) {
-        // No code by default
-    }
-
     /**
      * {@inheritDoc}
      * Following idea suppressions are false positives
@@ -144,12 +151,15 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
      * @noinspection DynamicRegexReplaceableByCompiledPattern
      */
     @Override
-    public void auditFinished(AuditEvent event) {
+    public void auditStarted(AuditEvent event) {
         final String version = SarifLogger.class.getPackage().getImplementationVersion();
-        final String rendered = report
-            .replace(VERSION_PLACEHOLDER, String.valueOf(version))
-            .replace(RESULTS_PLACEHOLDER, String.join(",\n", results));
-        writer.print(rendered);
+        resultWritten = false;
+        writer.print(reportHeader.replace(VERSION_PLACEHOLDER, String.valueOf(version)));
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        writer.print(reportFooter);
         if (closeStream) {
             writer.close();
         }
@@ -167,7 +177,7 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
     @Override
     public void addError(AuditEvent event) {
         if (event.getColumn() > 0) {
-            results.add(resultLineColumn
+            writeResult(resultLineColumn
                 .replace(SEVERITY_LEVEL_PLACEHOLDER, renderSeverityLevel(event.getSeverityLevel()))
                 .replace(URI_PLACEHOLDER, event.getFileName())
                 .replace(COLUMN_PLACEHOLDER, Integer.toString(event.getColumn()))
@@ -177,7 +187,7 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
             );
         }
         else {
-            results.add(resultLineOnly
+            writeResult(resultLineOnly
                 .replace(SEVERITY_LEVEL_PLACEHOLDER, renderSeverityLevel(event.getSeverityLevel()))
                 .replace(URI_PLACEHOLDER, event.getFileName())
                 .replace(LINE_PLACEHOLDER, Integer.toString(event.getLine()))
@@ -199,13 +209,13 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
         final PrintWriter printer = new PrintWriter(stringWriter);
         throwable.printStackTrace(printer);
         if (event.getFileName() == null) {
-            results.add(resultErrorOnly
+            writeResult(resultErrorOnly
                 .replace(SEVERITY_LEVEL_PLACEHOLDER, renderSeverityLevel(event.getSeverityLevel()))
                 .replace(MESSAGE_PLACEHOLDER, escape(stringWriter.toString()))
             );
         }
         else {
-            results.add(resultFileOnly
+            writeResult(resultFileOnly
                 .replace(SEVERITY_LEVEL_PLACEHOLDER, renderSeverityLevel(event.getSeverityLevel()))
                 .replace(URI_PLACEHOLDER, event.getFileName())
                 .replace(MESSAGE_PLACEHOLDER, escape(stringWriter.toString()))
@@ -223,6 +233,19 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
         // No need to implement this method in this class
     }
 
+    /**
+     * Writes a result, separating it from the previous one.
+     *
+     * @param result the rendered result.
+     */
+    private void writeResult(String result) {
+        if (resultWritten) {
+            writer.print(RESULTS_SEPARATOR);
+        }
+        writer.print(result);
+        resultWritten = true;
+    }
+
     /**
      * Render the severity level into SARIF severity level.
      *
@@ -0,0 +1,208 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * One of several shards the files of an audit are split into, so that the shards
+ * can be audited on different machines. A file belongs to the same shard on every
+ * machine, as long as the machines see the same files relative to the base directory.
+ * Files are assigned by a hash of their relative paths, or, when balanced by size,
+ * from the largest to the smallest to the shard with the smallest total size so far.
+ */
+public final class Shard {
+
+    /** Pattern of a shard, capturing its number and the number of shards. */
+    private static final Pattern SHARD_PATTERN = Pattern.compile("(\\d+)/(\\d+)");
+
+    /** Message format for a shard which is not in the number/count format. */
+    private static final String INVALID_FORMAT = "Invalid shard '%s', expected number/count.";
+
+    /** Comparator of files from the largest to the smallest, then by relative path. */
+    private static final Comparator<FileEntry> SIZE_ORDER =
+            Comparator.comparingLong((FileEntry entry) -> entry.size).reversed()
+                    .thenComparing(entry -> entry.relativePath);
+
+    /** The number of the shard, starting from 1. */
+    private final int number;
+
+    /** The number of shards. */
+    private final int count;
+
+    /** Whether the shards are balanced by the sizes of the files. */
+    private final boolean balancedBySize;
+
+    /**
+     * Creates a shard.
+     *
+     * @param number the number of the shard, starting from 1.
+     * @param count the number of shards.
+     * @param balancedBySize whether the shards are balanced by the sizes of the files.
+     */
+    private Shard(int number, int count, boolean balancedBySize) {
+        this.number = number;
+        this.count = count;
+        this.balancedBySize = balancedBySize;
+    }
+
+    /**
+     * Parses a shard in the {@code number/count} format, such as {@code 2/8}.
+     *
+     * @param value the shard.
+     * @param balancedBySize whether the shards are balanced by the sizes of the files.
+     * @return the shard.
+     * @throws CheckstyleException if the shard has an invalid format or number.
+     */
+    public static Shard parse(String value, boolean balancedBySize) throws CheckstyleException {
+        final Matcher matcher = SHARD_PATTERN.matcher(value);
+        if (!matcher.matches()) {
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    INVALID_FORMAT, value));
+        }
+        final int number;
+        final int count;
+        try {
+            number = Integer.parseInt(matcher.group(1));
+            count = Integer.parseInt(matcher.group(2));
+        }
+        catch (NumberFormatException ex) {
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    INVALID_FORMAT, value), ex);
+        }
+        if (number < 1 || number > count) {
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    "Invalid shard '%s', the number must be between 1 and %d.", value, count));
+        }
+        return new Shard(number, count, balancedBySize);
+    }
+
+    /**
+     * Selects the files belonging to this shard, in their original order.
+     *
+     * @param baseDirectory the directory the paths of the files are made relative to.
+     * @param files the files of all shards.
+     * @return the files of this shard.
+     */
+    public List<File> select(Path baseDirectory, List<File> files) {
+        final Path base = baseDirectory.toAbsolutePath().normalize();
+        final List<FileEntry> entries = new ArrayList<>(files.size());
+        for (int index = 0; index < files.size(); index++) {
+            entries.add(new FileEntry(index, files.get(index), base));
+        }
+        final boolean[] selected = new boolean[files.size()];
+        if (balancedBySize) {
+            selectBySize(entries, selected);
+        }
+        else {
+            for (FileEntry entry : entries) {
+                selected[entry.index] = getShardIndex(entry.relativePath) == number - 1;
+            }
+        }
+        final List<File> result = new ArrayList<>();
+        for (int index = 0; index < files.size(); index++) {
+            if (selected[index]) {
+                result.add(files.get(index));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Assigns the files from the largest to the smallest to the shard with the smallest
+     * total size so far, the first such shard on ties, and marks the files of this shard.
+     *
+     * @param entries the files of all shards.
+     * @param selected the marks of the files of this shard, by the original indexes.
+     */
+    private void selectBySize(List<FileEntry> entries, boolean[] selected) {
+        final List<FileEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(SIZE_ORDER);
+        final long[] sizes = new long[count];
+        for (FileEntry entry : sorted) {
+            int shardIndex = 0;
+            for (int index = 1; index < count; index++) {
+                if (sizes[index] < sizes[shardIndex]) {
+                    shardIndex = index;
+                }
+            }
+            sizes[shardIndex] += entry.size;
+            selected[entry.index] = shardIndex == number - 1;
+        }
+    }
+
+    /**
+     * Returns the index of the shard of a file by the hash of its relative path.
+     *
+     * @param relativePath the relative path of the file.
+     * @return the index of the shard, starting from 0.
+     */
+    private int getShardIndex(String relativePath) {
+        final CRC32 crc = new CRC32();
+        crc.update(relativePath.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % count);
+    }
+
+    /**
+     * A file with the attributes it is assigned to a shard by.
+     */
+    private static final class FileEntry {
+
+        /** The index of the file in the original list. */
+        private final int index;
+
+        /** The path of the file relative to the base directory, with {@code /} separators. */
+        private final String relativePath;
+
+        /** The size of the file in bytes. */
+        private final long size;
+
+        /**
+         * Creates an entry of a file.
+         *
+         * @param index the index of the file in the original list.
+         * @param file the file.
+         * @param baseDirectory the normalized absolute base directory.
+         */
+        private FileEntry(int index, File file, Path baseDirectory) {
+            this.index = index;
+            final Path path = file.toPath().toAbsolutePath().normalize();
+            String relative = path.toString();
+            if (path.getRoot().equals(baseDirectory.getRoot())) {
+                relative = baseDirectory.relativize(path).toString();
+            }
+            relativePath = relative.replace(File.separatorChar, '/');
+            size = file.length();
+        }
+
+    }
+
+}
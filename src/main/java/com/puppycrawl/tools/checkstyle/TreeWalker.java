@@ -20,16 +20,22 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,16 +50,22 @@ import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
 import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
  * Responsible for walking an abstract syntax tree and notifying interested
  * checks at each each node.
+ * When more than one TreeWalker thread is configured, the checks are split into
+ * groups and each group walks the same tree in its own thread.
  *
  */
 @FileStatefulCheck
 public final class TreeWalker extends AbstractFileSetCheck implements ExternalResourceHolder {
 
+    /** The parameter types of {@link AbstractCheck#leaveToken(DetailAST)}. */
+    private static final Class<?>[] LEAVE_TOKEN_PARAMETER_TYPES = {DetailAST.class};
+
     /** Maps from token name to ordinary checks. */
     private final Map<Integer, Set<AbstractCheck>> tokenToOrdinaryChecks =
         new HashMap<>();
@@ -80,6 +92,36 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     /** A factory for creating submodules (i.e. the Checks) */
     private ModuleFactory moduleFactory;
 
+    /** The number of threads used to walk a tree. */
+    private int threadsNumber = 1;
+
+    /** Dispatch table of ordinary checks, created on first use. */
+    private DispatchTable ordinaryDispatchTable;
+
+    /** Dispatch table of comment checks, created on first use. */
+    private DispatchTable commentDispatchTable;
+
+    /** Groups of ordinary checks walking a tree concurrently, created on first use. */
+    private List<CheckGroup> ordinaryCheckGroups;
+
+    /** Groups of comment checks walking a tree concurrently, created on first use. */
+    private List<CheckGroup> commentCheckGroups;
+
+    /**
+     * Executor walking all check groups except the first one, created on first use
+     * and shut down when the audit is finished.
+     */
+    private ForkJoinPool executor;
+
+    /** The profiler of checks, {@code null} if checks are not profiled. */
+    private ModuleProfiler profiler;
+
+    /** Control whether to skip the subtrees which contain no token of any check. */
+    private boolean skipUncheckedSubtrees;
+
+    /** Control whether to walk compact copies of the trees instead of the parsed trees. */
+    private boolean compactAst;
+
     /**
      * Creates a new {@code TreeWalker} instance.
      */
@@ -96,12 +138,47 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         this.moduleFactory = moduleFactory;
     }
 
+    /**
+     * Sets the profiler which accumulates the time spent in checks and the memory
+     * they allocate.
+     *
+     * @param profiler the profiler, {@code null} to disable profiling
+     */
+    public void setProfiler(ModuleProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Setter to control whether to skip the subtrees which contain no token of any check.
+     *
+     * @param skipUncheckedSubtrees whether to skip the subtrees
+     */
+    public void setSkipUncheckedSubtrees(boolean skipUncheckedSubtrees) {
+        this.skipUncheckedSubtrees = skipUncheckedSubtrees;
+    }
+
+    /**
+     * Setter to control whether to walk compact copies of the trees instead of the parsed
+     * trees.
+     *
+     * @param compactAst whether to walk compact copies of the trees
+     */
+    public void setCompactAst(boolean compactAst) {
+        this.compactAst = compactAst;
+    }
+
     @Override
     public void finishLocalSetup() {
         final DefaultContext checkContext = new DefaultContext();
         checkContext.add("severity", getSeverity());
         checkContext.add("tabWidth", String.valueOf(getTabWidth()));
         childContext = checkContext;
+
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            threadsNumber = ((DefaultConfiguration) configuration).getThreadModeSettings()
+                    .getTreeWalkerThreadsNumber();
+        }
     }
 
     /**
@@ -149,13 +226,20 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         // check if already checked and passed the file
         if (!ordinaryChecks.isEmpty() || !commentChecks.isEmpty()) {
             final FileContents contents = getFileContents();
-            final DetailAST rootAST = JavaParser.parse(contents);
-            if (!ordinaryChecks.isEmpty()) {
-                walk(rootAST, contents, AstState.ORDINARY);
+            final DetailAST rootAST;
+            if (compactAst) {
+                rootAST = walkCompact(contents);
             }
-            if (!commentChecks.isEmpty()) {
-                final DetailAST astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
-                walk(astWithComments, contents, AstState.WITH_COMMENTS);
+            else {
+                rootAST = JavaParser.parse(contents);
+                if (!ordinaryChecks.isEmpty()) {
+                    walk(rootAST, contents, AstState.ORDINARY);
+                }
+                if (!commentChecks.isEmpty()) {
+                    final DetailAST astWithComments =
+                            JavaParser.appendHiddenCommentNodes(rootAST);
+                    walk(astWithComments, contents, AstState.WITH_COMMENTS);
+                }
             }
             if (filters.isEmpty()) {
                 addViolations(violations);
@@ -169,6 +253,46 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         }
     }
 
+    /**
+     * Walks compact copies of the tree of a file. The tree built by the parser is
+     * only referenced while it is copied, so it can be collected before the walk.
+     *
+     * @param contents the contents of the file.
+     * @return the root of the copy passed to the filters, which contains the comment
+     *     nodes if there are comment checks.
+     * @throws CheckstyleException if the file can not be parsed.
+     */
+    private DetailAST walkCompact(FileContents contents) throws CheckstyleException {
+        final DetailAST rootAST = parseCompact(contents);
+        if (!ordinaryChecks.isEmpty()) {
+            DetailAST ordinaryAST = rootAST;
+            if (!commentChecks.isEmpty()) {
+                ordinaryAST = CompactAst.copyOf(rootAST, false);
+            }
+            walk(ordinaryAST, contents, AstState.ORDINARY);
+        }
+        if (!commentChecks.isEmpty()) {
+            walk(rootAST, contents, AstState.WITH_COMMENTS);
+        }
+        return rootAST;
+    }
+
+    /**
+     * Parses a file into a compact tree, with the comment nodes if there are comment
+     * checks.
+     *
+     * @param contents the contents of the file.
+     * @return the root of the compact tree.
+     * @throws CheckstyleException if the file can not be parsed.
+     */
+    private DetailAST parseCompact(FileContents contents) throws CheckstyleException {
+        DetailAST rootAST = JavaParser.parse(contents);
+        if (!commentChecks.isEmpty()) {
+            rootAST = JavaParser.appendHiddenCommentNodes(rootAST);
+        }
+        return CompactAst.copyOf(rootAST, true);
+    }
+
     /**
      * Returns filtered set of {@link Violation}.
      *
@@ -269,115 +393,283 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      */
     private void walk(DetailAST ast, FileContents contents,
             AstState astState) {
-        notifyBegin(ast, contents, astState);
-        processIter(ast, astState);
-        notifyEnd(ast, astState);
+        if (threadsNumber > 1) {
+            walkInParallel(ast, contents, getCheckGroups(astState));
+        }
+        else if (astState == AstState.WITH_COMMENTS) {
+            violations.addAll(walkWithChecks(ast, contents, commentChecks,
+                    getDispatchTable(astState), profiler));
+        }
+        else {
+            violations.addAll(walkWithChecks(ast, contents, ordinaryChecks,
+                    getDispatchTable(astState), profiler));
+        }
     }
 
     /**
-     * Notify checks that we are about to begin walking a tree.
+     * Returns the dispatch table of checks for the state of AST, creating it on first use.
      *
-     * @param rootAST the root of the tree.
-     * @param contents the contents of the file the AST was generated from.
      * @param astState state of AST.
+     * @return the dispatch table.
      */
-    private void notifyBegin(DetailAST rootAST, FileContents contents,
-            AstState astState) {
-        final Set<AbstractCheck> checks;
-
+    private DispatchTable getDispatchTable(AstState astState) {
+        if (ordinaryDispatchTable == null) {
+            ordinaryDispatchTable = new DispatchTable(tokenToOrdinaryChecks,
+                    skipUncheckedSubtrees);
+            commentDispatchTable = new DispatchTable(tokenToCommentChecks,
+                    skipUncheckedSubtrees);
+        }
+        final DispatchTable table;
         if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
+            table = commentDispatchTable;
         }
         else {
-            checks = ordinaryChecks;
+            table = ordinaryDispatchTable;
         }
+        return table;
+    }
 
-        for (AbstractCheck check : checks) {
-            check.setFileContents(contents);
-            check.clearViolations();
-            check.beginTree(rootAST);
+    /**
+     * Walks an AST concurrently, one thread per check group. The first group
+     * is walked in the current thread.
+     *
+     * @param ast the root AST
+     * @param contents the contents of the file the AST was generated from.
+     * @param groups the groups of checks to notify.
+     * @noinspection ProhibitedExceptionThrown
+     */
+    private void walkInParallel(DetailAST ast, FileContents contents, List<CheckGroup> groups) {
+        final List<CompletableFuture<SortedSet<Violation>>> futures = new ArrayList<>();
+        for (CheckGroup group : groups.subList(1, groups.size())) {
+            futures.add(CompletableFuture.supplyAsync(() -> group.walk(ast, contents, profiler),
+                    getExecutor()));
+        }
+        try {
+            violations.addAll(groups.get(0).walk(ast, contents, profiler));
+        }
+        finally {
+            // checks of other groups can not be reused until they finish the tree
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .handle((result, exception) -> null)
+                    .join();
+        }
+        try {
+            for (CompletableFuture<SortedSet<Violation>> future : futures) {
+                violations.addAll(future.join());
+            }
+        }
+        catch (CompletionException ex) {
+            throw getUncheckedCause(ex);
         }
     }
 
     /**
-     * Notify checks that we have finished walking a tree.
+     * Returns the exception thrown by a check of another group, so it reaches the
+     * caller as in a sequential walk. Errors are thrown as is.
      *
-     * @param rootAST the root of the tree.
-     * @param astState state of AST.
+     * @param exception the exception of the future of the group.
+     * @return the runtime exception thrown by the check.
+     * @noinspection ProhibitedExceptionThrown
      */
-    private void notifyEnd(DetailAST rootAST, AstState astState) {
-        final Set<AbstractCheck> checks;
+    private static RuntimeException getUncheckedCause(CompletionException exception) {
+        final Throwable cause = exception.getCause();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return (RuntimeException) cause;
+    }
 
+    /**
+     * Returns the groups of checks for the state of AST, creating them on first use.
+     *
+     * @param astState state of AST.
+     * @return the groups of checks.
+     */
+    private List<CheckGroup> getCheckGroups(AstState astState) {
+        if (ordinaryCheckGroups == null) {
+            ordinaryCheckGroups = createCheckGroups(ordinaryChecks, tokenToOrdinaryChecks);
+            commentCheckGroups = createCheckGroups(commentChecks, tokenToCommentChecks);
+        }
+        final List<CheckGroup> groups;
         if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
+            groups = commentCheckGroups;
         }
         else {
-            checks = ordinaryChecks;
+            groups = ordinaryCheckGroups;
         }
+        return groups;
+    }
 
+    /**
+     * Splits checks into groups, one group per thread at most. Checks are
+     * assigned in their deterministic order, except for the checks which
+     * have to stay in the current thread, which are always in the first group.
+     *
+     * @param checks the checks to split.
+     * @param tokenToChecks the map from token to the checks.
+     * @return non-empty groups of checks.
+     */
+    private List<CheckGroup> createCheckGroups(Set<AbstractCheck> checks,
+            Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+        final int groupsNumber = Math.min(threadsNumber, checks.size());
+        final List<CheckGroup> groups = new ArrayList<>(groupsNumber);
+        for (int index = 0; index < groupsNumber; index++) {
+            groups.add(new CheckGroup());
+        }
+        int nextGroup = 0;
         for (AbstractCheck check : checks) {
-            check.finishTree(rootAST);
-            violations.addAll(check.getViolations());
+            if (isThreadConfined(check)) {
+                groups.get(0).checks.add(check);
+            }
+            else {
+                groups.get(nextGroup).checks.add(check);
+                nextGroup = (nextGroup + 1) % groupsNumber;
+            }
+        }
+        groups.removeIf(group -> group.checks.isEmpty());
+        for (CheckGroup group : groups) {
+            tokenToChecks.forEach(group::registerChecks);
+            group.dispatchTable = new DispatchTable(group.tokenToChecks, skipUncheckedSubtrees);
         }
+        return groups;
     }
 
     /**
-     * Notify checks that visiting a node.
+     * Returns the executor for check groups, creating it on first use.
      *
-     * @param ast the node to notify for.
-     * @param astState state of AST.
+     * @return the executor.
      */
-    private void notifyVisit(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
+    private ForkJoinPool getExecutor() {
+        if (executor == null) {
+            executor = new ForkJoinPool(threadsNumber - 1);
+        }
+        return executor;
+    }
 
-        if (visitors != null) {
-            for (AbstractCheck check : visitors) {
-                check.visitToken(ast);
+    /**
+     * Checks whether the check has to be notified in the thread processing the file.
+     * {@link SuppressWarningsHolder} shares the found annotations with
+     * {@code SuppressWarningsFilter} through a thread local variable.
+     *
+     * @param check the check.
+     * @return true if the check can not be moved to another thread.
+     */
+    private static boolean isThreadConfined(AbstractCheck check) {
+        return check instanceof SuppressWarningsHolder;
+    }
+
+    /**
+     * Walks an AST notifying the given checks.
+     *
+     * @param ast the root AST
+     * @param contents the contents of the file the AST was generated from.
+     * @param checks the checks to notify about the beginning and the end of the tree.
+     * @param dispatchTable the checks to notify for the nodes.
+     * @param profiler the profiler of checks, {@code null} if checks are not profiled.
+     * @return the violations found by the checks.
+     */
+    private static SortedSet<Violation> walkWithChecks(DetailAST ast, FileContents contents,
+            Set<AbstractCheck> checks, DispatchTable dispatchTable, ModuleProfiler profiler) {
+        notifyBegin(ast, contents, checks, profiler);
+        processIter(ast, dispatchTable, profiler);
+        return notifyEnd(ast, checks, profiler);
+    }
+
+    /**
+     * Notify checks that we are about to begin walking a tree.
+     *
+     * @param rootAST the root of the tree.
+     * @param contents the contents of the file the AST was generated from.
+     * @param checks the checks to notify.
+     * @param profiler the profiler of checks, {@code null} if checks are not profiled.
+     */
+    private static void notifyBegin(DetailAST rootAST, FileContents contents,
+            Set<AbstractCheck> checks, ModuleProfiler profiler) {
+        for (AbstractCheck check : checks) {
+            check.setFileContents(contents);
+            check.clearViolations();
+            if (profiler == null) {
+                check.beginTree(rootAST);
+            }
+            else {
+                profiler.profile(check, () -> check.beginTree(rootAST));
             }
         }
     }
 
     /**
-     * Notify checks that leaving a node.
+     * Notify checks that we have finished walking a tree.
      *
-     * @param ast
-     *        the node to notify for
-     * @param astState state of AST.
+     * @param rootAST the root of the tree.
+     * @param checks the checks to notify.
+     * @param profiler the profiler of checks, {@code null} if checks are not profiled.
+     * @return the violations found by the checks.
      */
-    private void notifyLeave(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
+    private static SortedSet<Violation> notifyEnd(DetailAST rootAST, Set<AbstractCheck> checks,
+            ModuleProfiler profiler) {
+        final SortedSet<Violation> result = new TreeSet<>();
+        for (AbstractCheck check : checks) {
+            if (profiler == null) {
+                check.finishTree(rootAST);
+            }
+            else {
+                profiler.profile(check, () -> check.finishTree(rootAST));
+            }
+            result.addAll(check.getViolations());
+        }
+        return result;
+    }
 
+    /**
+     * Notify checks that visiting a node.
+     *
+     * @param ast the node to notify for.
+     * @param visitors the checks to notify, {@code null} if there are none.
+     * @param profiler the profiler of checks, {@code null} if checks are not profiled.
+     */
+    private static void notifyVisit(DetailAST ast, AbstractCheck[] visitors,
+            ModuleProfiler profiler) {
         if (visitors != null) {
             for (AbstractCheck check : visitors) {
-                check.leaveToken(ast);
+                if (profiler == null) {
+                    check.visitToken(ast);
+                }
+                else {
+                    profiler.profile(check, () -> check.visitToken(ast));
+                }
             }
         }
     }
 
     /**
-     * Method returns list of checks.
+     * Notify checks that leaving a node.
      *
      * @param ast
-     *            the node to notify for
-     * @param astState
-     *            state of AST.
-     * @return list of visitors
+     *        the node to notify for
+     * @param leavers the checks to notify, {@code null} if there are none.
+     * @param profiler the profiler of checks, {@code null} if checks are not profiled.
      */
-    private Collection<AbstractCheck> getListOfChecks(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors;
-        final int tokenId = ast.getType();
-
-        if (astState == AstState.WITH_COMMENTS) {
-            visitors = tokenToCommentChecks.get(tokenId);
-        }
-        else {
-            visitors = tokenToOrdinaryChecks.get(tokenId);
+    private static void notifyLeave(DetailAST ast, AbstractCheck[] leavers,
+            ModuleProfiler profiler) {
+        if (leavers != null) {
+            for (AbstractCheck check : leavers) {
+                if (profiler == null) {
+                    check.leaveToken(ast);
+                }
+                else {
+                    profiler.profile(check, () -> check.leaveToken(ast));
+                }
+            }
         }
-        return visitors;
     }
 
     @Override
     public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            // the checker may be reused for more audits, such as by the daemon
+            executor = null;
+        }
         ordinaryChecks.forEach(AbstractCheck::destroy);
         commentChecks.forEach(AbstractCheck::destroy);
         super.destroy();
@@ -395,19 +687,22 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
 
     /**
      * Processes a node calling interested checks at each node.
-     * Uses iterative algorithm.
+     * Uses iterative algorithm. Subtrees which the dispatch table does not
+     * walk are skipped.
      *
      * @param root the root of tree for process
-     * @param astState state of AST.
+     * @param dispatchTable the checks to notify for the nodes.
+     * @param profiler the profiler of checks, {@code null} if checks are not profiled.
      */
-    private void processIter(DetailAST root, AstState astState) {
+    private static void processIter(DetailAST root, DispatchTable dispatchTable,
+            ModuleProfiler profiler) {
         DetailAST curNode = root;
         while (curNode != null) {
-            notifyVisit(curNode, astState);
-            DetailAST toVisit = curNode.getFirstChild();
+            notifyVisit(curNode, dispatchTable.getVisitors(curNode.getType()), profiler);
+            DetailAST toVisit = dispatchTable.getWalkedNode(curNode.getFirstChild());
             while (curNode != null && toVisit == null) {
-                notifyLeave(curNode, astState);
-                toVisit = curNode.getNextSibling();
+                notifyLeave(curNode, dispatchTable.getLeavers(curNode.getType()), profiler);
+                toVisit = dispatchTable.getWalkedNode(curNode.getNextSibling());
                 curNode = curNode.getParent();
             }
             curNode = toVisit;
@@ -446,4 +741,211 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
 
     }
 
+    /**
+     * Checks walking a tree together in one thread.
+     */
+    private static final class CheckGroup {
+
+        /** The checks of the group. */
+        private final Set<AbstractCheck> checks = createNewCheckSortedSet();
+
+        /** Maps from token to the checks of the group. */
+        private final Map<Integer, Set<AbstractCheck>> tokenToChecks = new HashMap<>();
+
+        /** Dispatch table of the checks of the group. */
+        private DispatchTable dispatchTable;
+
+        /**
+         * Registers the checks of the group interested in a token.
+         *
+         * @param tokenId the id of the token.
+         * @param tokenChecks all checks interested in the token.
+         */
+        private void registerChecks(int tokenId, Set<AbstractCheck> tokenChecks) {
+            for (AbstractCheck check : tokenChecks) {
+                if (checks.contains(check)) {
+                    tokenToChecks.computeIfAbsent(tokenId, empty -> createNewCheckSortedSet())
+                            .add(check);
+                }
+            }
+        }
+
+        /**
+         * Walks an AST notifying the checks of the group.
+         *
+         * @param ast the root AST
+         * @param contents the contents of the file the AST was generated from.
+         * @param profiler the profiler of checks, {@code null} if checks are not profiled.
+         * @return the violations found by the checks.
+         */
+        private SortedSet<Violation> walk(DetailAST ast, FileContents contents,
+                ModuleProfiler profiler) {
+            return walkWithChecks(ast, contents, checks, dispatchTable, profiler);
+        }
+
+    }
+
+    /**
+     * Checks to notify about visiting and leaving the nodes of each token type,
+     * indexed by token type. Checks are kept in their deterministic order, and
+     * only the checks which override {@link AbstractCheck#leaveToken(DetailAST)}
+     * are notified about leaving a node. Optionally, the subtrees containing no
+     * token of the checks are not walked at all.
+     */
+    private static final class DispatchTable {
+
+        /** Checks to notify about visiting a node, {@code null} for tokens without checks. */
+        private final AbstractCheck[][] visitors;
+
+        /** Checks to notify about leaving a node, {@code null} for tokens without checks. */
+        private final AbstractCheck[][] leavers;
+
+        /** The tokens of the checks, {@code null} if all subtrees are walked. */
+        private final BitSet walkedTokenTypes;
+
+        /**
+         * Creates the dispatch table.
+         *
+         * @param tokenToChecks the map from token to the checks.
+         * @param skipUncheckedSubtrees whether to skip the subtrees which contain
+         *     no token of the checks.
+         */
+        private DispatchTable(Map<Integer, Set<AbstractCheck>> tokenToChecks,
+                boolean skipUncheckedSubtrees) {
+            final int size = tokenToChecks.keySet().stream()
+                    .mapToInt(Integer::intValue)
+                    .max()
+                    .orElse(-1) + 1;
+            visitors = new AbstractCheck[size][];
+            leavers = new AbstractCheck[size][];
+            tokenToChecks.forEach((tokenId, tokenChecks) -> {
+                visitors[tokenId] = tokenChecks.toArray(new AbstractCheck[0]);
+                final AbstractCheck[] tokenLeavers = tokenChecks.stream()
+                        .filter(DispatchTable::isLeaveTokenOverridden)
+                        .toArray(AbstractCheck[]::new);
+                if (tokenLeavers.length > 0) {
+                    leavers[tokenId] = tokenLeavers;
+                }
+            });
+            if (skipUncheckedSubtrees) {
+                walkedTokenTypes = new BitSet(size);
+                tokenToChecks.keySet().forEach(walkedTokenTypes::set);
+            }
+            else {
+                walkedTokenTypes = null;
+            }
+        }
+
+        /**
+         * Returns the first node, starting with the given one and following its siblings,
+         * whose subtree has to be walked.
+         *
+         * @param node the node to start with, may be {@code null}.
+         * @return the node to walk, {@code null} if there is none.
+         */
+        private DetailAST getWalkedNode(DetailAST node) {
+            DetailAST result = node;
+            if (walkedTokenTypes != null) {
+                while (result != null && !isWalked(result)) {
+                    result = result.getNextSibling();
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether the subtree of a node has to be walked, that is whether it
+         * contains a token of the checks. The subtrees of unknown implementations of
+         * nodes are always walked.
+         *
+         * @param node the node.
+         * @return true if the subtree has to be walked.
+         */
+        private boolean isWalked(DetailAST node) {
+            final boolean result;
+            if (node instanceof DetailAstImpl) {
+                result = ((DetailAstImpl) node).branchContainsAny(walkedTokenTypes);
+            }
+            else if (CompactAst.isCompact(node)) {
+                result = CompactAst.branchContainsAny(node, walkedTokenTypes);
+            }
+            else {
+                result = true;
+            }
+            return result;
+        }
+
+        /**
+         * Returns the checks to notify about visiting a node.
+         *
+         * @param tokenType the type of the node.
+         * @return the checks, {@code null} if there are none.
+         */
+        private AbstractCheck[] getVisitors(int tokenType) {
+            return getChecks(visitors, tokenType);
+        }
+
+        /**
+         * Returns the checks to notify about leaving a node.
+         *
+         * @param tokenType the type of the node.
+         * @return the checks, {@code null} if there are none.
+         */
+        private AbstractCheck[] getLeavers(int tokenType) {
+            return getChecks(leavers, tokenType);
+        }
+
+        /**
+         * Returns the checks of a token type in a table.
+         *
+         * @param table the table of checks indexed by token type.
+         * @param tokenType the type of token.
+         * @return the checks, {@code null} if there are none.
+         */
+        private static AbstractCheck[] getChecks(AbstractCheck[][] table, int tokenType) {
+            AbstractCheck[] result = null;
+            if (tokenType < table.length) {
+                result = table[tokenType];
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether the class of the check overrides
+         * {@link AbstractCheck#leaveToken(DetailAST)}.
+         *
+         * @param check the check.
+         * @return true if the check has to be notified about leaving a node.
+         */
+        private static boolean isLeaveTokenOverridden(AbstractCheck check) {
+            boolean result = false;
+            Class<?> clazz = check.getClass();
+            while (!result && clazz != AbstractCheck.class) {
+                result = isLeaveTokenDeclared(clazz);
+                clazz = clazz.getSuperclass();
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether the class declares {@link AbstractCheck#leaveToken(DetailAST)}.
+         *
+         * @param clazz the class of a check.
+         * @return true if the class declares the method.
+         */
+        private static boolean isLeaveTokenDeclared(Class<?> clazz) {
+            boolean result = false;
+            for (Method method : clazz.getDeclaredMethods()) {
+                if ("leaveToken".equals(method.getName())
+                        && Arrays.equals(method.getParameterTypes(),
+                                LEAVE_TOKEN_PARAMETER_TYPES)) {
+                    result = true;
+                    break;
+                }
+            }
+            return result;
+        }
+
+    }
+
 }
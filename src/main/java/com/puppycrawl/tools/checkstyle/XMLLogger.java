@@ -19,16 +19,16 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedWriter;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
@@ -41,6 +41,11 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * It outputs everything in UTF-8 (default XML encoding is UTF-8) in case
  * we want to localize error messages or simply that file names are
  * localized and takes care about escaping as well.
+ * Errors are streamed to the output as soon as they are reported, so the memory
+ * used does not depend on the number of violations. Events of a file are
+ * expected between its {@code fileStarted} and {@code fileFinished} events,
+ * as fired by {@link Checker}. Events of other files reported meanwhile are
+ * kept until the open file is finished and written in their own file sections.
  */
 // -@cs[AbbreviationAsWordInName] We can not change it as,
 // check's name is part of API (used in configurations).
@@ -64,15 +69,20 @@ public class XMLLogger
     /** The writer lock object. */
     private final Object writerLock = new Object();
 
-    /** Holds all messages for the given file. */
-    private final Map<String, FileMessages> fileMessages =
-            new ConcurrentHashMap<>();
+    /** Exceptions of the current file, written after its errors. */
+    private final List<Throwable> fileExceptions = new ArrayList<>();
+
+    /** Messages of other files reported while the current file is open. */
+    private final Map<String, FileMessages> otherFileMessages = new LinkedHashMap<>();
 
     /**
      * Helper writer that allows easy encoding and printing.
      */
     private final PrintWriter writer;
 
+    /** The name of the file whose section is open, {@code null} outside of a file. */
+    private String currentFileName;
+
     /**
      * Creates a new {@code XMLLogger} instance.
      * Sets the output to a defined stream.
@@ -82,7 +92,8 @@ public class XMLLogger
      * @throws IllegalArgumentException if outputStreamOptions is null.
      */
     public XMLLogger(OutputStream outputStream, OutputStreamOptions outputStreamOptions) {
-        writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
         if (outputStreamOptions == null) {
             throw new IllegalArgumentException("Parameter outputStreamOptions can not be null");
         }
@@ -105,51 +116,102 @@ public class XMLLogger
 
     @Override
     public void auditFinished(AuditEvent event) {
-        writer.println("</checkstyle>");
-        if (closeStream) {
-            writer.close();
-        }
-        else {
-            writer.flush();
+        synchronized (writerLock) {
+            if (currentFileName != null) {
+                writeFileClosing();
+            }
+            writer.println("</checkstyle>");
+            if (closeStream) {
+                writer.close();
+            }
+            else {
+                writer.flush();
+            }
         }
     }
 
     @Override
     public void fileStarted(AuditEvent event) {
-        fileMessages.put(event.getFileName(), new FileMessages());
+        synchronized (writerLock) {
+            if (currentFileName != null) {
+                writeFileClosing();
+            }
+            currentFileName = event.getFileName();
+            writeFileOpeningTag(currentFileName);
+        }
     }
 
     @Override
     public void fileFinished(AuditEvent event) {
         final String fileName = event.getFileName();
-        final FileMessages messages = fileMessages.get(fileName);
-
         synchronized (writerLock) {
-            writeFileMessages(fileName, messages);
+            if (fileName.equals(currentFileName)) {
+                writeFileClosing();
+            }
+            else if (currentFileName == null) {
+                writeFileMessages(fileName, new FileMessages());
+            }
+            else {
+                getOtherFileMessages(fileName);
+            }
         }
+    }
 
-        fileMessages.remove(fileName);
+    /**
+     * Prints the exceptions of the current file and closes its section.
+     */
+    private void writeFileClosing() {
+        for (Throwable exception : fileExceptions) {
+            writeException(exception);
+        }
+        fileExceptions.clear();
+        writeFileClosingTag();
+        currentFileName = null;
+        for (Map.Entry<String, FileMessages> entry : otherFileMessages.entrySet()) {
+            writeFileMessages(entry.getKey(), entry.getValue());
+        }
+        otherFileMessages.clear();
     }
 
     /**
-     * Prints the file section with all file errors and exceptions.
+     * Prints the file section with the given file errors and exceptions.
      *
      * @param fileName The file name, as should be printed in the opening file tag.
      * @param messages The file messages.
      */
     private void writeFileMessages(String fileName, FileMessages messages) {
         writeFileOpeningTag(fileName);
-        if (messages != null) {
-            for (AuditEvent errorEvent : messages.getErrors()) {
-                writeFileError(errorEvent);
-            }
-            for (Throwable exception : messages.getExceptions()) {
-                writeException(exception);
-            }
+        for (AuditEvent errorEvent : messages.getErrors()) {
+            writeFileError(errorEvent);
+        }
+        for (Throwable exception : messages.getExceptions()) {
+            writeException(exception);
         }
         writeFileClosingTag();
     }
 
+    /**
+     * Returns the messages kept for a file other than the current one.
+     *
+     * @param fileName The file name.
+     * @return the file messages.
+     */
+    private FileMessages getOtherFileMessages(String fileName) {
+        return otherFileMessages.computeIfAbsent(fileName, name -> new FileMessages());
+    }
+
+    /**
+     * Checks whether the events of the given file belong to another file than
+     * the one whose section is open.
+     *
+     * @param fileName The file name of an event.
+     * @return {@code true} if the events of the file have to be kept.
+     */
+    private boolean isOtherFile(String fileName) {
+        return fileName != null && currentFileName != null
+                && !fileName.equals(currentFileName);
+    }
+
     /**
      * Prints the "file" opening tag with the given filename.
      *
@@ -170,15 +232,14 @@ public class XMLLogger
     public void addError(AuditEvent event) {
         if (event.getSeverityLevel() != SeverityLevel.IGNORE) {
             final String fileName = event.getFileName();
-            if (fileName == null || !fileMessages.containsKey(fileName)) {
-                synchronized (writerLock) {
+            synchronized (writerLock) {
+                if (isOtherFile(fileName)) {
+                    getOtherFileMessages(fileName).addError(event);
+                }
+                else {
                     writeFileError(event);
                 }
             }
-            else {
-                final FileMessages messages = fileMessages.get(fileName);
-                messages.addError(event);
-            }
         }
     }
 
@@ -211,15 +272,17 @@ public class XMLLogger
     @Override
     public void addException(AuditEvent event, Throwable throwable) {
         final String fileName = event.getFileName();
-        if (fileName == null || !fileMessages.containsKey(fileName)) {
-            synchronized (writerLock) {
+        synchronized (writerLock) {
+            if (isOtherFile(fileName)) {
+                getOtherFileMessages(fileName).addException(throwable);
+            }
+            else if (fileName != null && fileName.equals(currentFileName)) {
+                fileExceptions.add(throwable);
+            }
+            else {
                 writeException(throwable);
             }
         }
-        else {
-            final FileMessages messages = fileMessages.get(fileName);
-            messages.addException(throwable);
-        }
     }
 
     /**
@@ -331,15 +394,15 @@ public class XMLLogger
     }
 
     /**
-     * The registered file messages.
+     * The messages of a file reported while another file is open.
      */
-    private static class FileMessages {
+    private static final class FileMessages {
 
         /** The file error events. */
-        private final List<AuditEvent> errors = Collections.synchronizedList(new ArrayList<>());
+        private final List<AuditEvent> errors = new ArrayList<>();
 
         /** The file exceptions. */
-        private final List<Throwable> exceptions = Collections.synchronizedList(new ArrayList<>());
+        private final List<Throwable> exceptions = new ArrayList<>();
 
         /**
          * Returns the file error events.
@@ -347,7 +410,7 @@ public class XMLLogger
          * @return the file error events.
          */
         public List<AuditEvent> getErrors() {
-            return Collections.unmodifiableList(errors);
+            return errors;
         }
 
         /**
@@ -365,7 +428,7 @@ public class XMLLogger
          * @return the file exceptions.
          */
         public List<Throwable> getExceptions() {
-            return Collections.unmodifiableList(exceptions);
+            return exceptions;
         }
 
         /**
@@ -19,9 +19,9 @@
 
 package com.puppycrawl.tools.checkstyle;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
@@ -40,7 +40,7 @@ public class XpathFileGeneratorAstFilter extends AutomaticBean implements TreeWa
     private static final String DELIMITER = " | \n";
 
     /** Map from {@code Violation} objects to xpath queries. */
-    private static final Map<Violation, String> MESSAGE_QUERY_MAP = new HashMap<>();
+    private static final Map<Violation, String> MESSAGE_QUERY_MAP = new ConcurrentHashMap<>();
 
     /** The distance between tab stop position. */
     private int tabWidth;
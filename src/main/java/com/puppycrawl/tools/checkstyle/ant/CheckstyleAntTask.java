@@ -43,12 +43,15 @@ import org.apache.tools.ant.types.FileSet;
 import org.apache.tools.ant.types.Path;
 import org.apache.tools.ant.types.Reference;
 
+import com.puppycrawl.tools.checkstyle.BaselineWriter;
 import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.DefaultLogger;
 import com.puppycrawl.tools.checkstyle.ModuleFactory;
 import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
 import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.Shard;
 import com.puppycrawl.tools.checkstyle.ThreadModeSettings;
 import com.puppycrawl.tools.checkstyle.XMLLogger;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
@@ -70,6 +73,9 @@ public class CheckstyleAntTask extends Task {
     /** Poor man's enum for an plain formatter. */
     private static final String E_PLAIN = "plain";
 
+    /** The name of the module suppressing the violations recorded in a baseline file. */
+    private static final String BASELINE_FILTER_MODULE = "BaselineFilter";
+
     /** Suffix for time string. */
     private static final String TIME_SUFFIX = " ms.";
 
@@ -116,6 +122,24 @@ public class CheckstyleAntTask extends Task {
      */
     private boolean executeIgnoredModules;
 
+    /** The number of threads used to check files. */
+    private int checkerThreads = 1;
+
+    /** The number of threads used to run the checks of TreeWalker on one file. */
+    private int treeWalkerThreads = 1;
+
+    /** The shard of the files to check, in the {@code number/count} format. */
+    private String shard;
+
+    /** Whether the shards are balanced by the sizes of the files. */
+    private boolean shardBySize;
+
+    /** The baseline file of the violations to suppress. */
+    private File baseline;
+
+    /** The baseline file to write the reported violations to. */
+    private File writeBaseline;
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for ANT specific attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -261,6 +285,63 @@ public class CheckstyleAntTask extends Task {
         executeIgnoredModules = omit;
     }
 
+    /**
+     * Sets the number of threads used to check files.
+     *
+     * @param checkerThreads the number of threads
+     */
+    public void setCheckerThreads(int checkerThreads) {
+        this.checkerThreads = checkerThreads;
+    }
+
+    /**
+     * Sets the number of threads used to run the checks of TreeWalker on one file.
+     *
+     * @param treeWalkerThreads the number of threads
+     */
+    public void setTreeWalkerThreads(int treeWalkerThreads) {
+        this.treeWalkerThreads = treeWalkerThreads;
+    }
+
+    /**
+     * Sets the shard of the files to check, such as {@code 2/8}. The paths of the files
+     * relative to the base directory of the project assign them to the shards.
+     *
+     * @param shard the shard in the {@code number/count} format
+     */
+    public void setShard(String shard) {
+        this.shard = shard;
+    }
+
+    /**
+     * Sets flag - whether to balance the shards by the sizes of the files instead of
+     * assigning the files by the hashes of their paths.
+     *
+     * @param shardBySize whether to balance the shards by the sizes of the files
+     */
+    public void setShardBySize(boolean shardBySize) {
+        this.shardBySize = shardBySize;
+    }
+
+    /**
+     * Sets the baseline file of the violations to suppress, which is written by
+     * the {@code writeBaseline} attribute.
+     *
+     * @param baseline the baseline file
+     */
+    public void setBaseline(File baseline) {
+        this.baseline = baseline;
+    }
+
+    /**
+     * Sets the baseline file to write the reported violations to.
+     *
+     * @param writeBaseline the baseline file
+     */
+    public void setWriteBaseline(File writeBaseline) {
+        this.writeBaseline = writeBaseline;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for Root Module's configuration attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -299,6 +380,15 @@ public class CheckstyleAntTask extends Task {
             if (config == null) {
                 throw new BuildException("Must specify 'config'.", getLocation());
             }
+            if (checkerThreads < 1) {
+                throw new BuildException("Attribute 'checkerThreads' must be greater than zero.",
+                        getLocation());
+            }
+            if (treeWalkerThreads < 1) {
+                throw new BuildException(
+                        "Attribute 'treeWalkerThreads' must be greater than zero.",
+                        getLocation());
+            }
             realExecute(version);
         }
         finally {
@@ -327,6 +417,9 @@ public class CheckstyleAntTask extends Task {
             final SeverityLevelCounter warningCounter =
                 new SeverityLevelCounter(SeverityLevel.WARNING);
             rootModule.addListener(warningCounter);
+            if (writeBaseline != null) {
+                rootModule.addListener(createBaselineWriter(rootModule));
+            }
 
             processFiles(rootModule, warningCounter, checkstyleVersion);
         }
@@ -401,7 +494,7 @@ public class CheckstyleAntTask extends Task {
         try {
             final Properties props = createOverridingProperties();
             final ThreadModeSettings threadModeSettings =
-                    ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE;
+                    new ThreadModeSettings(checkerThreads, treeWalkerThreads);
             final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
             if (executeIgnoredModules) {
                 ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
@@ -412,6 +505,9 @@ public class CheckstyleAntTask extends Task {
 
             final Configuration configuration = ConfigurationLoader.loadConfiguration(config,
                     new PropertiesExpander(props), ignoredModulesOptions, threadModeSettings);
+            if (baseline != null) {
+                addBaselineFilter(configuration, baseline);
+            }
 
             final ClassLoader moduleClassLoader =
                 Checker.class.getClassLoader();
@@ -430,6 +526,39 @@ public class CheckstyleAntTask extends Task {
         return rootModule;
     }
 
+    /**
+     * Adds the filter of the violations recorded in a baseline file to the configuration
+     * of the root module.
+     *
+     * @param configuration the configuration of the root module
+     * @param file the baseline file
+     */
+    private static void addBaselineFilter(Configuration configuration, File file) {
+        final DefaultConfiguration filterConfig =
+                new DefaultConfiguration(BASELINE_FILTER_MODULE);
+        filterConfig.addProperty("file", file.getAbsolutePath());
+        ((DefaultConfiguration) configuration).addChild(filterConfig);
+    }
+
+    /**
+     * Creates the listener writing the baseline file, with the base directory and the
+     * charset of the checker.
+     *
+     * @param rootModule the configured root module
+     * @return the listener writing the baseline file
+     * @throws BuildException if the root module is not a checker
+     */
+    private AuditListener createBaselineWriter(RootModule rootModule) {
+        if (!(rootModule instanceof Checker)) {
+            throw new BuildException(String.format(Locale.ROOT,
+                    "Root module '%s' can not be used with attribute 'writeBaseline'.",
+                    rootModule.getClass().getName()), getLocation());
+        }
+        final Checker checker = (Checker) rootModule;
+        return new BaselineWriter(writeBaseline.getAbsolutePath(), checker.getBasedir(),
+                checker.getCharset());
+    }
+
     /**
      * Create the Properties object based on the arguments specified
      * to the ANT task.
@@ -503,6 +632,7 @@ public class CheckstyleAntTask extends Task {
      * Returns the list of files (full path name) to process.
      *
      * @return the list of files included via the fileName, filesets and paths.
+     * @throws BuildException if the shard is not valid.
      */
     private List<File> getFilesToCheck() {
         final List<File> allFiles = new ArrayList<>();
@@ -519,7 +649,19 @@ public class CheckstyleAntTask extends Task {
         final List<File> filesFromPaths = scanPaths();
         allFiles.addAll(filesFromPaths);
 
-        return allFiles;
+        List<File> result = allFiles;
+        if (shard != null) {
+            try {
+                result = Shard.parse(shard, shardBySize)
+                        .select(getProject().getBaseDir().toPath(), allFiles);
+            }
+            catch (CheckstyleException ex) {
+                throw new BuildException(ex.getMessage(), ex, getLocation());
+            }
+            log("Selected " + result.size() + " of " + allFiles.size()
+                    + " files for shard " + shard, Project.MSG_VERBOSE);
+        }
+        return result;
     }
 
     /**
@@ -47,6 +47,8 @@ public final class AuditEvent
     private final String fileName;
     /** Violation associated with the event. **/
     private final Violation violation;
+    /** Text of the file the violation was found in, if it is known. **/
+    private final transient FileText fileText;
 
     /**
      * Creates a new instance.
@@ -75,9 +77,22 @@ public final class AuditEvent
      * @param violation the actual violation
      */
     public AuditEvent(Object src, String fileName, Violation violation) {
+        this(src, fileName, violation, null);
+    }
+
+    /**
+     * Creates a new {@code AuditEvent} instance.
+     *
+     * @param src source of the event
+     * @param fileName file associated with the event
+     * @param violation the actual violation
+     * @param fileText the text of the file the violation was found in
+     */
+    public AuditEvent(Object src, String fileName, Violation violation, FileText fileText) {
         super(src);
         this.fileName = fileName;
         this.violation = violation;
+        this.fileText = fileText;
     }
 
     /**
@@ -90,6 +105,16 @@ public final class AuditEvent
         return fileName;
     }
 
+    /**
+     * Returns the text of the file the violation was found in. The text is the one
+     * which was audited, so it can be used instead of reading the file again.
+     *
+     * @return the text of the file, or null if it is not known.
+     */
+    public FileText getFileText() {
+        return fileText;
+    }
+
     /**
      * Return the line number on the source file where the event occurred.
      * This may be 0 if there is no relation to a file content.
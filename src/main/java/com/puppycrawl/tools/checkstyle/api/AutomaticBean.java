@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.regex.Pattern;
 
@@ -76,6 +77,24 @@ public abstract class AutomaticBean
     /** Comma separator for StringTokenizer. */
     private static final String COMMA_SEPARATOR = ",";
 
+    /**
+     * The bean utils configured with the converters of the property types. Its converters
+     * and property descriptors are shared by all beans, they are not changed after creation.
+     */
+    private static final BeanUtilsBean BEAN_UTILS = createBeanUtilsBean();
+
+    /**
+     * The setters of the properties of each bean class, by the names of the properties.
+     * Properties without a setter here are set by {@link #BEAN_UTILS}.
+     */
+    private static final ClassValue<Map<String, PropertySetter>> PROPERTY_SETTERS =
+            new ClassValue<Map<String, PropertySetter>>() {
+                @Override
+                protected Map<String, PropertySetter> computeValue(Class<?> type) {
+                    return PropertySetter.createSetters(type, BEAN_UTILS.getConvertUtils());
+                }
+            };
+
     /** The configuration of this bean. */
     private Configuration configuration;
 
@@ -212,23 +231,28 @@ public abstract class AutomaticBean
      */
     private void tryCopyProperty(String key, Object value, boolean recheck)
             throws CheckstyleException {
-        final BeanUtilsBean beanUtils = createBeanUtilsBean();
+        final PropertySetter setter = PROPERTY_SETTERS.get(getClass()).get(key);
 
         try {
-            if (recheck) {
-                // BeanUtilsBean.copyProperties silently ignores missing setters
-                // for key, so we have to go through great lengths here to
-                // figure out if the bean property really exists.
-                final PropertyDescriptor descriptor =
-                        PropertyUtils.getPropertyDescriptor(this, key);
-                if (descriptor == null) {
-                    final String message = String.format(Locale.ROOT, "Property '%s' "
-                            + "does not exist, please check the documentation", key);
-                    throw new CheckstyleException(message);
+            if (setter == null) {
+                if (recheck) {
+                    // BeanUtilsBean.copyProperties silently ignores missing setters
+                    // for key, so we have to go through great lengths here to
+                    // figure out if the bean property really exists.
+                    final PropertyDescriptor descriptor =
+                            PropertyUtils.getPropertyDescriptor(this, key);
+                    if (descriptor == null) {
+                        final String message = String.format(Locale.ROOT, "Property '%s' "
+                                + "does not exist, please check the documentation", key);
+                        throw new CheckstyleException(message);
+                    }
                 }
+                // finally we can set the bean property
+                BEAN_UTILS.copyProperty(this, key, value);
+            }
+            else {
+                setter.set(this, value);
             }
-            // finally we can set the bean property
-            beanUtils.copyProperty(this, key, value);
         }
         catch (final InvocationTargetException | IllegalAccessException
                 | NoSuchMethodException ex) {
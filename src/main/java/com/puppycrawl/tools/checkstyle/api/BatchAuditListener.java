@@ -0,0 +1,47 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.util.List;
+
+/**
+ * Listener receiving the errors of a file from the Checker all at once.
+ * The Checker calls {@link #addErrors(List)} instead of {@link #addError(AuditEvent)}
+ * for listeners of this type, so a listener can hand over the errors of a file
+ * without a call per error. Typical events sequence is:
+ * <pre>
+ * auditStarted
+ *   (fileStarted
+ *     (addErrors)?
+ *   fileFinished )*
+ * auditFinished
+ * </pre>
+ */
+public interface BatchAuditListener
+    extends AuditListener {
+
+    /**
+     * Notify that audit errors were discovered on a specific file.
+     *
+     * @param events the details of the errors, all of the same file, never empty
+     */
+    void addErrors(List<AuditEvent> events);
+
+}
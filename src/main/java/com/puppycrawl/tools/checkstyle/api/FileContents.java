@@ -20,12 +20,12 @@
 package com.puppycrawl.tools.checkstyle.api;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.grammar.CommentListener;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
@@ -36,14 +36,8 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  */
 public final class FileContents implements CommentListener {
 
-    /**
-     * The pattern to match a single line comment containing only the comment
-     * itself -- no code.
-     */
-    private static final String MATCH_SINGLELINE_COMMENT_PAT = "^\\s*//.*$";
-    /** Compiled regexp to match a single-line comment line. */
-    private static final Pattern MATCH_SINGLELINE_COMMENT = Pattern
-            .compile(MATCH_SINGLELINE_COMMENT_PAT);
+    /** The start of a single line comment. */
+    private static final String SINGLELINE_COMMENT_START = "//";
 
     /** The file name. */
     private final String fileName;
@@ -65,6 +59,12 @@ public final class FileContents implements CommentListener {
      */
     private final Map<Integer, List<TextBlock>> clangComments = new HashMap<>();
 
+    /**
+     * Index of all comments for the intersection queries, built on the first query
+     * after the comments are reported, {@code null} until then.
+     */
+    private CommentIndex commentIndex;
+
     /**
      * Creates a new {@code FileContents} instance.
      *
@@ -130,6 +130,7 @@ public final class FileContents implements CommentListener {
         final Comment comment = new Comment(txt, startColNo, startLineNo,
                 line.length() - 1);
         cppComments.put(startLineNo, comment);
+        commentIndex = null;
     }
 
     @Override
@@ -163,6 +164,7 @@ public final class FileContents implements CommentListener {
             entries.add(comment);
             clangComments.put(startLineNo, entries);
         }
+        commentIndex = null;
 
         // Remember if possible Javadoc comment
         final String firstLine = line(startLineNo - 1);
@@ -250,7 +252,54 @@ public final class FileContents implements CommentListener {
      *         without code.
      **/
     public boolean lineIsComment(int lineNo) {
-        return MATCH_SINGLELINE_COMMENT.matcher(line(lineNo)).matches();
+        final String line = line(lineNo);
+        int index = 0;
+        while (index < line.length() && isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return line.startsWith(SINGLELINE_COMMENT_START, index)
+                && endsWithoutLineTerminator(line, index + SINGLELINE_COMMENT_START.length());
+    }
+
+    /**
+     * Checks whether a character is whitespace as {@code \s} in a regular expression.
+     *
+     * @param character the character to check
+     * @return true if the character is a space, a tab, a line feed, a vertical tab,
+     *         a form feed or a carriage return
+     */
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character >= '\t' && character <= '\r';
+    }
+
+    /**
+     * Checks whether the rest of a line matches {@code .*$} in a regular expression,
+     * that is, it contains no line terminator.
+     *
+     * @param line the line to check
+     * @param beginIndex the index the rest of the line starts at
+     * @return true if the rest of the line contains no line terminator
+     */
+    private static boolean endsWithoutLineTerminator(String line, int beginIndex) {
+        boolean result = true;
+        for (int index = beginIndex; index < line.length(); index++) {
+            if (isLineTerminator(line.charAt(index))) {
+                result = false;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a character terminates a line for a regular expression.
+     *
+     * @param character the character to check
+     * @return true if the character is a line terminator
+     */
+    private static boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r' || character == '\u0085'
+                || character == '\u2028' || character == '\u2029';
     }
 
     /**
@@ -280,11 +329,8 @@ public final class FileContents implements CommentListener {
      */
     private boolean hasIntersectionWithBlockComment(int startLineNo, int startColNo,
             int endLineNo, int endColNo) {
-        // Check C comments (all comments should be checked)
-        final Collection<List<TextBlock>> values = clangComments.values();
-        return values.stream()
-            .flatMap(List::stream)
-            .anyMatch(comment -> comment.intersects(startLineNo, startColNo, endLineNo, endColNo));
+        return getCommentIndex().hasIntersectionWithBlockComment(startLineNo, startColNo,
+                endLineNo, endColNo);
     }
 
     /**
@@ -298,18 +344,20 @@ public final class FileContents implements CommentListener {
      */
     private boolean hasIntersectionWithSingleLineComment(int startLineNo, int startColNo,
             int endLineNo, int endColNo) {
-        boolean hasIntersection = false;
-        // Check CPP comments (line searching is possible)
-        for (int lineNumber = startLineNo; lineNumber <= endLineNo;
-             lineNumber++) {
-            final TextBlock comment = cppComments.get(lineNumber);
-            if (comment != null && comment.intersects(startLineNo, startColNo,
-                    endLineNo, endColNo)) {
-                hasIntersection = true;
-                break;
-            }
+        return getCommentIndex().hasIntersectionWithSingleLineComment(startLineNo, startColNo,
+                endLineNo, endColNo);
+    }
+
+    /**
+     * Returns the index of the comments reported so far, building it if needed.
+     *
+     * @return the index of the comments
+     */
+    private CommentIndex getCommentIndex() {
+        if (commentIndex == null) {
+            commentIndex = new CommentIndex(clangComments, cppComments);
         }
-        return hasIntersection;
+        return commentIndex;
     }
 
     /**
@@ -342,4 +390,138 @@ public final class FileContents implements CommentListener {
         return fileName.endsWith("package-info.java");
     }
 
+    /**
+     * Index of the comments of a file by their lines, which answers whether a region
+     * intersects with a comment by a binary search instead of checking every comment.
+     */
+    private static final class CommentIndex {
+
+        /** Order of block comments by their starting line. */
+        private static final Comparator<TextBlock> START_LINE_ORDER =
+                Comparator.comparingInt(TextBlock::getStartLineNo);
+
+        /** The block comments sorted by their starting line. */
+        private final TextBlock[] blockComments;
+
+        /** The starting lines of the sorted block comments. */
+        private final int[] blockStartLines;
+
+        /**
+         * The greatest ending line of the sorted block comments up to and including
+         * each index, which bounds the search for comments reaching a line.
+         */
+        private final int[] blockMaxEndLines;
+
+        /** The single line comments sorted by their line. */
+        private final TextBlock[] singleLineComments;
+
+        /** The lines of the sorted single line comments. */
+        private final int[] singleLineCommentLines;
+
+        /**
+         * Creates the index of the comments.
+         *
+         * @param clangComments the block comments indexed on their first line
+         * @param cppComments the single line comments indexed on their line
+         */
+        private CommentIndex(Map<Integer, List<TextBlock>> clangComments,
+                Map<Integer, TextBlock> cppComments) {
+            blockComments = clangComments.values().stream()
+                    .flatMap(List::stream)
+                    .sorted(START_LINE_ORDER)
+                    .toArray(TextBlock[]::new);
+            blockStartLines = new int[blockComments.length];
+            blockMaxEndLines = new int[blockComments.length];
+            int maxEndLine = Integer.MIN_VALUE;
+            for (int index = 0; index < blockComments.length; index++) {
+                blockStartLines[index] = blockComments[index].getStartLineNo();
+                maxEndLine = Math.max(maxEndLine, blockComments[index].getEndLineNo());
+                blockMaxEndLines[index] = maxEndLine;
+            }
+
+            singleLineComments = cppComments.values().stream()
+                    .sorted(START_LINE_ORDER)
+                    .toArray(TextBlock[]::new);
+            singleLineCommentLines = new int[singleLineComments.length];
+            for (int index = 0; index < singleLineComments.length; index++) {
+                singleLineCommentLines[index] = singleLineComments[index].getStartLineNo();
+            }
+        }
+
+        /**
+         * Checks if the specified position intersects with a block comment.
+         * Only the comments starting no later than the end of the position are
+         * checked, from the latest to the earliest, until no earlier comment
+         * reaches the start of the position.
+         *
+         * @param startLineNo the starting line number
+         * @param startColNo the starting column number
+         * @param endLineNo the ending line number
+         * @param endColNo the ending column number
+         * @return true if the positions intersects with a block comment.
+         */
+        public boolean hasIntersectionWithBlockComment(int startLineNo, int startColNo,
+                int endLineNo, int endColNo) {
+            boolean hasIntersection = false;
+            int index = findFirstAfter(blockStartLines, endLineNo) - 1;
+            while (index >= 0 && blockMaxEndLines[index] >= startLineNo) {
+                final TextBlock comment = blockComments[index];
+                if (comment.getEndLineNo() >= startLineNo
+                        && comment.intersects(startLineNo, startColNo, endLineNo, endColNo)) {
+                    hasIntersection = true;
+                    break;
+                }
+                index--;
+            }
+            return hasIntersection;
+        }
+
+        /**
+         * Checks if the specified position intersects with a single line comment.
+         * Only the comments on the lines of the position are checked.
+         *
+         * @param startLineNo the starting line number
+         * @param startColNo the starting column number
+         * @param endLineNo the ending line number
+         * @param endColNo the ending column number
+         * @return true if the positions intersects with a single line comment.
+         */
+        public boolean hasIntersectionWithSingleLineComment(int startLineNo, int startColNo,
+                int endLineNo, int endColNo) {
+            boolean hasIntersection = false;
+            int index = findFirstAfter(singleLineCommentLines, startLineNo - 1);
+            while (index < singleLineComments.length
+                    && singleLineCommentLines[index] <= endLineNo) {
+                if (singleLineComments[index].intersects(startLineNo, startColNo,
+                        endLineNo, endColNo)) {
+                    hasIntersection = true;
+                    break;
+                }
+                index++;
+            }
+            return hasIntersection;
+        }
+
+        /**
+         * Finds the index of the first line greater than the specified one.
+         *
+         * @param lines the sorted lines
+         * @param lineNo the line number
+         * @return the index of the first greater line, or the number of lines if none
+         */
+        private static int findFirstAfter(int[] lines, int lineNo) {
+            int result = Arrays.binarySearch(lines, lineNo);
+            if (result < 0) {
+                result = -result - 1;
+            }
+            else {
+                while (result < lines.length && lines[result] == lineNo) {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+    }
+
 }
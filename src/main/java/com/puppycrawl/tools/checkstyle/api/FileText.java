@@ -19,20 +19,16 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.nio.file.Files;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -51,19 +47,17 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 public final class FileText {
 
     /**
-     * The number of characters to read in one go.
+     * The initial capacity of the positions of the line breaks.
      */
-    private static final int READ_BUFFER_SIZE = 1024;
+    private static final int LINE_BREAKS_CAPACITY = 256;
 
     /**
      * Regular expression pattern matching all line terminators.
      */
     private static final Pattern LINE_TERMINATOR = Pattern.compile("\\n|\\r\\n?");
 
-    // For now, we always keep both full text and lines array.
-    // In the long run, however, the one passed at initialization might be
-    // enough, while the other could be lazily created when requested.
-    // This would save memory but cost CPU cycles.
+    // A file read from disk keeps only its full text and the positions of the
+    // line breaks, the lines are created from the full text when requested.
 
     /**
      * The name of the file.
@@ -79,6 +73,7 @@ public final class FileText {
 
     /**
      * The lines of the file, without terminators.
+     * The elements are {@code null} until the line is requested.
      */
     private final String[] lines;
 
@@ -98,6 +93,8 @@ public final class FileText {
 
     /**
      * Copy constructor.
+     * The lines are never modified once created, so the copy shares them with
+     * the original and a line is only created once for all copies.
      *
      * @param fileText to make copy of
      */
@@ -105,13 +102,8 @@ public final class FileText {
         file = fileText.file;
         charset = fileText.charset;
         fullText = fileText.fullText;
-        lines = fileText.lines.clone();
-        if (fileText.lineBreaks == null) {
-            lineBreaks = null;
-        }
-        else {
-            lineBreaks = fileText.lineBreaks.clone();
-        }
+        lines = fileText.lines;
+        lineBreaks = fileText.lineBreaks;
     }
 
     /**
@@ -167,51 +159,73 @@ public final class FileText {
             throw new IllegalStateException(message, ex);
         }
 
-        fullText = readFile(file, decoder);
-
-        // Use the BufferedReader to break down the lines as this
-        // is about 30% faster than using the
-        // LINE_TERMINATOR.split(fullText, -1) method
-        try (BufferedReader reader = new BufferedReader(new StringReader(fullText))) {
-            final ArrayList<String> textLines = new ArrayList<>();
-            while (true) {
-                final String line = reader.readLine();
-                if (line == null) {
-                    break;
-                }
-                textLines.add(line);
-            }
-            lines = textLines.toArray(CommonUtil.EMPTY_STRING_ARRAY);
+        final byte[] bytes = readFile(file);
+        if (isAsciiCompatible(charset)) {
+            fullText = decodeAscii(bytes);
+        }
+        if (fullText == null) {
+            fullText = decoder.decode(ByteBuffer.wrap(bytes)).toString();
+            lineBreaks = createLineBreaks(fullText);
         }
+        lines = new String[lineBreaks.length - 1];
     }
 
     /**
-     * Reads file using specific decoder and returns all its content as a String.
+     * Reads all bytes of a file.
      *
      * @param inputFile File to read
-     * @param decoder Charset decoder
-     * @return File's text
+     * @return File's content
      * @throws IOException Unable to open or read the file
      * @throws FileNotFoundException when inputFile does not exists
      */
-    private static String readFile(final File inputFile, final CharsetDecoder decoder)
-            throws IOException {
+    private static byte[] readFile(final File inputFile) throws IOException {
         if (!inputFile.exists()) {
             throw new FileNotFoundException(inputFile.getPath() + " (No such file or directory)");
         }
-        final StringBuilder buf = new StringBuilder(1024);
-        final InputStream stream = Files.newInputStream(inputFile.toPath());
-        try (Reader reader = new InputStreamReader(stream, decoder)) {
-            final char[] chars = new char[READ_BUFFER_SIZE];
-            while (true) {
-                final int len = reader.read(chars);
-                if (len == -1) {
-                    break;
+        return Files.readAllBytes(inputFile.toPath());
+    }
+
+    /**
+     * Checks whether the bytes below 0x80 are decoded by a charset as ASCII characters.
+     *
+     * @param charset the charset
+     * @return {@code true} if ASCII bytes are decoded as ASCII characters
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    /**
+     * Decodes bytes if they are all ASCII characters, finding the line breaks
+     * in the same pass.
+     *
+     * @param bytes the bytes
+     * @return the text, or {@code null} if the bytes are not all ASCII characters
+     */
+    private String decodeAscii(byte[] bytes) {
+        final int length = bytes.length;
+        int[] positions = new int[LINE_BREAKS_CAPACITY];
+        int count = 1;
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            final byte value = bytes[i];
+            ascii = value >= 0;
+            if (value == '\n' || value == '\r' && (i + 1 == length || bytes[i + 1] != '\n')) {
+                if (count == positions.length) {
+                    positions = Arrays.copyOf(positions, count * 2);
                 }
-                buf.append(chars, 0, len);
+                positions[count] = i + 1;
+                count++;
             }
         }
-        return buf.toString();
+        String result = null;
+        if (ascii) {
+            result = new String(bytes, StandardCharsets.ISO_8859_1);
+            lineBreaks = toLineBreaks(positions, count, length);
+        }
+        return result;
     }
 
     /**
@@ -222,7 +236,19 @@ public final class FileText {
      * @return the line with the given number
      */
     public String get(final int lineNo) {
-        return lines[lineNo];
+        String line = lines[lineNo];
+        if (line == null) {
+            int end = lineBreaks[lineNo + 1];
+            if (end > lineBreaks[lineNo] && fullText.charAt(end - 1) == '\n') {
+                end--;
+            }
+            if (end > lineBreaks[lineNo] && fullText.charAt(end - 1) == '\r') {
+                end--;
+            }
+            line = fullText.substring(lineBreaks[lineNo], end);
+            lines[lineNo] = line;
+        }
+        return line;
     }
 
     /**
@@ -261,7 +287,11 @@ public final class FileText {
      * @return an array of all lines of the text
      */
     public String[] toLinesArray() {
-        return lines.clone();
+        final String[] result = new String[lines.length];
+        for (int lineNo = 0; lineNo < result.length; lineNo++) {
+            result[lineNo] = get(lineNo);
+        }
+        return result;
     }
 
     /**
@@ -291,22 +321,51 @@ public final class FileText {
      */
     private int[] findLineBreaks() {
         if (lineBreaks == null) {
-            final int[] lineBreakPositions = new int[size() + 1];
-            lineBreakPositions[0] = 0;
-            int lineNo = 1;
-            final Matcher matcher = LINE_TERMINATOR.matcher(fullText);
-            while (matcher.find()) {
-                lineBreakPositions[lineNo] = matcher.end();
-                lineNo++;
-            }
-            if (lineNo < lineBreakPositions.length) {
-                lineBreakPositions[lineNo] = fullText.length();
-            }
-            lineBreaks = lineBreakPositions;
+            lineBreaks = createLineBreaks(fullText);
         }
         return lineBreaks;
     }
 
+    /**
+     * Find positions of line breaks in a text.
+     *
+     * @param text the text
+     * @return an array giving the first positions of each line, followed by
+     *     the length of the text if it does not end with a line terminator.
+     */
+    private static int[] createLineBreaks(String text) {
+        int[] positions = new int[LINE_BREAKS_CAPACITY];
+        int count = 1;
+        final Matcher matcher = LINE_TERMINATOR.matcher(text);
+        while (matcher.find()) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count] = matcher.end();
+            count++;
+        }
+        return toLineBreaks(positions, count, text.length());
+    }
+
+    /**
+     * Creates the positions of line breaks from the ends of the line terminators.
+     *
+     * @param positions zero followed by the ends of the line terminators
+     * @param count the number of positions
+     * @param length the length of the text
+     * @return an array giving the first positions of each line, followed by
+     *     the length of the text if it does not end with a line terminator.
+     */
+    private static int[] toLineBreaks(int[] positions, int count, int length) {
+        int size = count;
+        if (positions[count - 1] != length) {
+            size++;
+        }
+        final int[] result = Arrays.copyOf(positions, size);
+        result[size - 1] = length;
+        return result;
+    }
+
     /**
      * Counts the lines of the text.
      *
@@ -0,0 +1,177 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.ConvertUtilsBean;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.MethodUtils;
+
+/**
+ * Sets a property of beans the same way as {@link BeanUtilsBean#copyProperty}, with
+ * the setter and the converter of the property type resolved in advance.
+ */
+final class PropertySetter {
+
+    /** The type of the setter handles, which take the bean and the value. */
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** The handle of the setter. */
+    private final MethodHandle setter;
+
+    /** The type of the property. */
+    private final Class<?> type;
+
+    /** The type of the values accepted by the setter, primitive types are boxed. */
+    private final Class<?> valueType;
+
+    /** The converter of the values to the type of the property, or {@code null}. */
+    private final Converter converter;
+
+    /**
+     * Creates a setter of a property.
+     *
+     * @param setter the handle of the setter method
+     * @param type the type of the property
+     * @param converter the converter of the values to the type of the property,
+     *     or {@code null} if values are set unchanged
+     */
+    private PropertySetter(MethodHandle setter, Class<?> type, Converter converter) {
+        // the converted array is passed as is to the setters of varargs properties
+        this.setter = setter.asFixedArity().asType(SETTER_TYPE);
+        this.type = type;
+        valueType = ConvertUtils.primitiveToWrapper(type);
+        this.converter = converter;
+    }
+
+    /**
+     * Creates the setters of the properties of a bean class, which resolve the setter
+     * method and the converter of the property type once. Only simple properties with
+     * a setter that bean utils can invoke are included, the other properties are left
+     * to bean utils.
+     *
+     * @param beanClass the bean class
+     * @param convertUtils the converters of the property types
+     * @return the setters of the properties, by the names of the properties
+     */
+    public static Map<String, PropertySetter> createSetters(Class<?> beanClass,
+            ConvertUtilsBean convertUtils) {
+        final Map<String, PropertySetter> result = new HashMap<>();
+        try {
+            for (PropertyDescriptor descriptor
+                    : Introspector.getBeanInfo(beanClass).getPropertyDescriptors()) {
+                final PropertySetter setter =
+                        createSetter(beanClass, descriptor, convertUtils);
+                if (setter != null) {
+                    result.put(descriptor.getName(), setter);
+                }
+            }
+        }
+        catch (IntrospectionException ignored) {
+            // bean utils set all properties of the class and report the errors
+            result.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Creates the setter of a property.
+     *
+     * @param beanClass the bean class
+     * @param descriptor the descriptor of the property
+     * @param convertUtils the converters of the property types
+     * @return the setter, or {@code null} if the property is left to bean utils
+     */
+    private static PropertySetter createSetter(Class<?> beanClass,
+            PropertyDescriptor descriptor, ConvertUtilsBean convertUtils) {
+        PropertySetter result = null;
+        final Method setter = getAccessibleSetter(beanClass, descriptor);
+        if (setter != null) {
+            final Class<?> type = descriptor.getPropertyType();
+            try {
+                result = new PropertySetter(MethodHandles.lookup().unreflect(setter),
+                        type, convertUtils.lookup(type));
+            }
+            catch (IllegalAccessException ignored) {
+                // bean utils invoke the setter reflectively
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the setter of a simple property, which bean utils would invoke.
+     *
+     * @param beanClass the bean class
+     * @param descriptor the descriptor of the property
+     * @return the setter, or {@code null} if it is not a simple property with
+     *     an accessible setter
+     */
+    private static Method getAccessibleSetter(Class<?> beanClass,
+            PropertyDescriptor descriptor) {
+        Method result = null;
+        if (!(descriptor instanceof IndexedPropertyDescriptor)
+                && descriptor.getWriteMethod() != null) {
+            result = MethodUtils.getAccessibleMethod(beanClass, descriptor.getWriteMethod());
+        }
+        return result;
+    }
+
+    /**
+     * Converts a value to the type of the property and sets it.
+     *
+     * @param bean the bean
+     * @param value the value
+     * @throws InvocationTargetException if the setter throws an exception
+     * @throws IllegalArgumentException if the converted value does not fit the setter
+     */
+    public void set(Object bean, Object value) throws InvocationTargetException {
+        Object converted = value;
+        if (value != null && converter != null) {
+            converted = converter.convert(type, value);
+        }
+        if (converted == null && type.isPrimitive()
+                || converted != null && !valueType.isInstance(converted)) {
+            throw new IllegalArgumentException("argument type mismatch");
+        }
+        try {
+            setter.invokeExact(bean, converted);
+        }
+        // -@cs[IllegalCatch] Reflective calls wrap all exceptions of the setter the same way.
+        catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+}
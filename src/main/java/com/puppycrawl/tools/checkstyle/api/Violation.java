@@ -37,11 +37,13 @@ import java.util.Objects;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
 import java.util.ResourceBundle.Control;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a violation that can be localised. The translations come from
  * message.properties files. The underlying implementation uses
- * java.text.MessageFormat.
+ * java.text.MessageFormat. The patterns are compiled once and the violation is
+ * formatted on first use, so it is not formatted at all if nothing asks for it.
  *
  * @noinspection SerializableHasSerializationMethods, ClassWithTooManyConstructors
  */
@@ -57,6 +59,17 @@ public final class Violation
     private static final Map<String, ResourceBundle> BUNDLE_CACHE =
         Collections.synchronizedMap(new HashMap<>());
 
+    /**
+     * A cache that maps bundle names to the compiled formats of their keys.
+     * Avoids repetitive parsing of the same patterns.
+     */
+    private static final Map<String, Map<String, MessageFormat>> FORMAT_CACHE =
+        new ConcurrentHashMap<>();
+
+    /** A cache that maps custom violations to their compiled formats. */
+    private static final Map<String, MessageFormat> CUSTOM_FORMAT_CACHE =
+        new ConcurrentHashMap<>();
+
     /** The default severity level if one is not specified. */
     private static final SeverityLevel DEFAULT_SEVERITY = SeverityLevel.ERROR;
 
@@ -97,6 +110,12 @@ public final class Violation
     /** A custom violation overriding the default violation from the bundle. */
     private final String customMessage;
 
+    /** The translated violation, formatted on first use. */
+    private transient String formattedViolation;
+
+    /** The locale the violation was formatted for. */
+    private transient Locale formattedLocale;
+
     /**
      * Creates a new {@code Violation} instance.
      *
@@ -349,6 +368,52 @@ public final class Violation
         return key;
     }
 
+    /**
+     * Gets the arguments for the translation of the violation key.
+     *
+     * @return the arguments for the translation, or {@code null} if there are none
+     */
+    public Object[] getArgs() {
+        Object[] result = null;
+        if (args != null) {
+            result = Arrays.copyOf(args, args.length);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the name of the resource bundle of the translation of the violation key.
+     *
+     * @return the name of the resource bundle
+     */
+    public String getBundle() {
+        return bundle;
+    }
+
+    /**
+     * Find a ResourceBundle for a given bundle name. Uses the classloader
+     * of the class emitting this violation, to be sure to get the correct
+     * bundle.
+     *
+     * @param bundleName the bundle name
+     * @return a ResourceBundle
+     */
+    private ResourceBundle getBundle(String bundleName) {
+        return BUNDLE_CACHE.computeIfAbsent(bundleName, name -> {
+            return ResourceBundle.getBundle(
+                name, sLocale, sourceClass.getClassLoader(), new Utf8Control());
+        });
+    }
+
+    /**
+     * Gets the custom violation overriding the translation of the violation key.
+     *
+     * @return the custom violation, or {@code null} if there is none
+     */
+    public String getCustomMessage() {
+        return customMessage;
+    }
+
     /**
      * Gets the name of the source for this Violation.
      *
@@ -376,6 +441,8 @@ public final class Violation
     /** Clears the cache. */
     public static void clearCache() {
         BUNDLE_CACHE.clear();
+        FORMAT_CACHE.clear();
+        CUSTOM_FORMAT_CACHE.clear();
     }
 
     /**
@@ -447,63 +514,70 @@ public final class Violation
     }
 
     /**
-     * Gets the translated violation.
+     * Gets the translated violation. The violation is formatted on the first call
+     * and the same string is returned afterwards, until the locale is changed.
      *
      * @return the translated violation
      */
     public String getViolation() {
-        String violation = getCustomViolation();
+        final Locale locale = sLocale;
+        String violation = formattedViolation;
+        if (violation == null || !locale.equals(formattedLocale)) {
+            final MessageFormat formatter;
+            if (customMessage == null) {
+                formatter = getFormat();
+            }
+            else {
+                formatter = CUSTOM_FORMAT_CACHE.computeIfAbsent(customMessage,
+                        Violation::createFormat);
+            }
+            // the cached formats are shared between threads and MessageFormat is not
+            // thread-safe, copying it is still much cheaper than parsing the pattern
+            violation = ((MessageFormat) formatter.clone()).format(args);
+            formattedViolation = violation;
+            formattedLocale = locale;
+        }
+        return violation;
+    }
 
-        if (violation == null) {
+    /**
+     * Returns the compiled format of the violation from the bundle.
+     *
+     * @return the compiled format
+     */
+    private MessageFormat getFormat() {
+        final Map<String, MessageFormat> formats =
+                FORMAT_CACHE.computeIfAbsent(bundle, name -> new ConcurrentHashMap<>());
+        MessageFormat formatter = formats.get(key);
+        if (formatter == null) {
             try {
                 // Important to use the default class loader, and not the one in
                 // the GlobalProperties object. This is because the class loader in
                 // the GlobalProperties is specified by the user for resolving
                 // custom classes.
                 final ResourceBundle resourceBundle = getBundle(bundle);
-                final String pattern = resourceBundle.getString(key);
-                final MessageFormat formatter = new MessageFormat(pattern, Locale.ROOT);
-                violation = formatter.format(args);
+                formatter = createFormat(resourceBundle.getString(key));
+                formats.put(key, formatter);
             }
             catch (final MissingResourceException ignored) {
                 // If the Check author didn't provide i18n resource bundles
                 // and logs audit event violations directly, this will return
-                // the author's original violation
-                final MessageFormat formatter = new MessageFormat(key, Locale.ROOT);
-                violation = formatter.format(args);
+                // the author's original violation. Such keys are not cached,
+                // as they may be built from arbitrary text.
+                formatter = createFormat(key);
             }
         }
-        return violation;
-    }
-
-    /**
-     * Returns the formatted custom violation if one is configured.
-     *
-     * @return the formatted custom violation or {@code null}
-     *          if there is no custom violation
-     */
-    private String getCustomViolation() {
-        String violation = null;
-        if (customMessage != null) {
-            final MessageFormat formatter = new MessageFormat(customMessage, Locale.ROOT);
-            violation = formatter.format(args);
-        }
-        return violation;
+        return formatter;
     }
 
     /**
-     * Find a ResourceBundle for a given bundle name. Uses the classloader
-     * of the class emitting this violation, to be sure to get the correct
-     * bundle.
+     * Compiles a pattern of a violation.
      *
-     * @param bundleName the bundle name
-     * @return a ResourceBundle
+     * @param pattern the pattern
+     * @return the compiled format
      */
-    private ResourceBundle getBundle(String bundleName) {
-        return BUNDLE_CACHE.computeIfAbsent(bundleName, name -> {
-            return ResourceBundle.getBundle(
-                name, sLocale, sourceClass.getClassLoader(), new Utf8Control());
-        });
+    private static MessageFormat createFormat(String pattern) {
+        return new MessageFormat(pattern, Locale.ROOT);
     }
 
     /**
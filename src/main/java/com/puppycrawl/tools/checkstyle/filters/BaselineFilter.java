@@ -0,0 +1,465 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.puppycrawl.tools.checkstyle.BaselineFingerprinter;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.puppycrawl.tools.checkstyle.utils.FilterUtil;
+
+/**
+ * <p>
+ * Filter {@code BaselineFilter} rejects audit events of the violations recorded in a
+ * baseline file, so that only new violations are reported when checks are added to a
+ * project with many existing violations. The baseline file is written by the
+ * {@code --write-baseline} option of the command line or the {@code writeBaseline}
+ * attribute of the ANT task.
+ * </p>
+ * <p>
+ * A violation is recorded by its fingerprint, a hash of the module id, or the name of
+ * the check if there is no id, the path of the file relative to the base directory,
+ * the content of the line with its whitespace normalized, and the key and arguments of
+ * the message. The line number is not a part of the fingerprint, so a recorded
+ * violation is still suppressed when lines are added or removed above it, while a
+ * change of the line itself makes it a new violation. Each event is looked up in a
+ * hash table of the fingerprints, so the filter does not slow down with the size of the
+ * baseline.
+ * </p>
+ * <p>
+ * Identical violations on identical lines of a file have the same fingerprint. The
+ * baseline keeps the number of violations recorded with each fingerprint, and only as
+ * many violations with the fingerprint are suppressed in each audit of the file, so
+ * a new violation on a copy of a recorded line is reported.
+ * </p>
+ * <p>
+ * Location of the file defined in {@code file} property is checked in the following order:
+ * </p>
+ * <ol>
+ * <li>
+ * as a filesystem location
+ * </li>
+ * <li>
+ * if no file found, and the location starts with either {@code http://} or {@code https://},
+ * then it is interpreted as a URL
+ * </li>
+ * <li>
+ * if no file found, then passed to the {@code ClassLoader.getResource()} method.
+ * </li>
+ * </ol>
+ * <p>
+ * BaselineFilter can suppress Checks that have Treewalker or Checker as parent module.
+ * </p>
+ * <ul>
+ * <li>
+ * Property {@code file} - Specify the location of the baseline file.
+ * Type is {@code java.lang.String}.
+ * Default value is {@code null}.
+ * </li>
+ * <li>
+ * Property {@code optional} - Control what to do when the file is not existing.
+ * If {@code optional} is set to {@code false} the file must exist, or else it
+ * ends with error. On the other hand if optional is {@code true} and file is
+ * not found, the filter accept all audit events.
+ * Type is {@code boolean}.
+ * Default value is {@code false}.
+ * </li>
+ * <li>
+ * Property {@code basedir} - Specify the directory the paths of the files
+ * in the baseline file are relative to.
+ * Type is {@code java.lang.String}.
+ * Default value is {@code the basedir property of the parent
+ * <a href="https://checkstyle.org/config.html#Checker">Checker</a> module}.
+ * </li>
+ * <li>
+ * Property {@code charset} - Specify the character encoding to use when reading the
+ * audited files.
+ * Type is {@code java.lang.String}.
+ * Default value is {@code the charset property of the parent
+ * <a href="https://checkstyle.org/config.html#Checker">Checker</a> module}.
+ * </li>
+ * </ul>
+ * <p>
+ * For example, the following configuration fragment directs the Checker to use
+ * a {@code BaselineFilter} with baseline file {@code config/baseline.txt}:
+ * </p>
+ * <pre>
+ * &lt;module name=&quot;BaselineFilter&quot;&gt;
+ *   &lt;property name=&quot;file&quot; value=&quot;config/baseline.txt&quot;/&gt;
+ * &lt;/module&gt;
+ * </pre>
+ * <p>
+ * The baseline file is written by the command line:
+ * </p>
+ * <pre>
+ * java -jar checkstyle-xxx-all.jar -c config.xml --write-baseline config/baseline.txt src
+ * </pre>
+ * <p>
+ * Parent is {@code com.puppycrawl.tools.checkstyle.Checker}
+ * </p>
+ *
+ * @since 9.0
+ */
+public class BaselineFilter extends AutomaticBean implements Filter, ExternalResourceHolder {
+
+    /** The violations suppressed in the last audit of a file by each thread. */
+    private final ThreadLocal<FileSuppressions> fileSuppressions = new ThreadLocal<>();
+    /** Specify the location of the baseline file. */
+    private String file;
+    /**
+     * Control what to do when the file is not existing. If {@code optional} is
+     * set to {@code false} the file must exist, or else it ends with error.
+     * On the other hand if optional is {@code true} and file is not found,
+     * the filter accept all audit events.
+     */
+    private boolean optional;
+    /** Specify the directory the paths of the files in the baseline file are relative to. */
+    private String basedir;
+    /** Specify the character encoding to use when reading the audited files. */
+    private String charset = StandardCharsets.UTF_8.name();
+    /** The fingerprints of the recorded violations, with the number of violations of each. */
+    private FingerprintCounts fingerprints = new FingerprintCounts();
+    /** The calculator of the fingerprints of the violations of events. */
+    private BaselineFingerprinter fingerprinter;
+
+    /**
+     * Setter to specify the location of the baseline file.
+     *
+     * @param fileName name of the baseline file.
+     */
+    public void setFile(String fileName) {
+        file = fileName;
+    }
+
+    /**
+     * Setter to control what to do when the file is not existing.
+     * If {@code optional} is set to {@code false} the file must exist, or else
+     * it ends with error. On the other hand if optional is {@code true}
+     * and file is not found, the filter accept all audit events.
+     *
+     * @param optional tells if baseline file existence is optional.
+     */
+    public void setOptional(boolean optional) {
+        this.optional = optional;
+    }
+
+    /**
+     * Setter to specify the directory the paths of the files in the baseline file
+     * are relative to.
+     *
+     * @param basedir the base directory, or {@code null} for the current directory.
+     */
+    public void setBasedir(String basedir) {
+        this.basedir = basedir;
+    }
+
+    /**
+     * Setter to specify the character encoding to use when reading the audited files.
+     *
+     * @param charset the name of the charset.
+     * @throws UnsupportedEncodingException if charset is unsupported.
+     */
+    public void setCharset(String charset) throws UnsupportedEncodingException {
+        if (!Charset.isSupported(charset)) {
+            final String message = "unsupported charset: '" + charset + "'";
+            throw new UnsupportedEncodingException(message);
+        }
+        this.charset = charset;
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        boolean result = true;
+        if (event.getViolation() != null && !fingerprints.isEmpty()) {
+            final long fingerprint = fingerprinter.getFingerprint(event);
+            final int count = fingerprints.getCount(fingerprint);
+            if (count > 0) {
+                result = !getFileSuppressions(event).suppress(fingerprint, count);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the violations suppressed in the audit of the file of an event, reusing
+     * the ones of the last event of the current thread if it is of the same audit.
+     *
+     * @param event the event with a violation.
+     * @return the suppressed violations.
+     */
+    private FileSuppressions getFileSuppressions(AuditEvent event) {
+        FileSuppressions result = fileSuppressions.get();
+        if (result == null || !result.isOfSameAudit(event)) {
+            result = new FileSuppressions(event);
+            fileSuppressions.set(result);
+        }
+        result.lastViolation = event.getViolation();
+        return result;
+    }
+
+    @Override
+    protected void finishLocalSetup() throws CheckstyleException {
+        fingerprinter = new BaselineFingerprinter(basedir, charset);
+        if (file != null && (!optional || FilterUtil.isFileExists(file))) {
+            fingerprints = loadBaseline(file);
+        }
+    }
+
+    @Override
+    public Set<String> getExternalResourceLocations() {
+        return Collections.singleton(file);
+    }
+
+    /**
+     * Loads the fingerprints of a baseline file.
+     *
+     * @param fileName the location of the baseline file.
+     * @return the fingerprints.
+     * @throws CheckstyleException if the file can not be read or has an invalid entry.
+     */
+    private static FingerprintCounts loadBaseline(String fileName) throws CheckstyleException {
+        final FingerprintCounts result = new FingerprintCounts();
+        try (InputStream stream = CommonUtil.getUriByFilename(fileName).toURL().openStream();
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            int lineNo = 1;
+            String line = reader.readLine();
+            while (line != null) {
+                final String entry = line.trim();
+                if (!entry.isEmpty() && !entry.startsWith(BaselineFingerprinter.COMMENT_PREFIX)) {
+                    result.add(parseFingerprint(entry, lineNo, fileName));
+                }
+                lineNo++;
+                line = reader.readLine();
+            }
+        }
+        catch (IOException ex) {
+            throw new CheckstyleException("Unable to read baseline file " + fileName, ex);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the fingerprint of an entry of a baseline file.
+     *
+     * @param entry the entry.
+     * @param lineNo the number of the line of the entry.
+     * @param fileName the location of the baseline file.
+     * @return the fingerprint.
+     * @throws CheckstyleException if the entry does not start with a fingerprint.
+     */
+    private static long parseFingerprint(String entry, int lineNo, String fileName)
+            throws CheckstyleException {
+        try {
+            return BaselineFingerprinter.parseFingerprint(entry);
+        }
+        catch (NumberFormatException ex) {
+            throw new CheckstyleException(String.format(Locale.ROOT,
+                    "Invalid fingerprint at line %d of baseline file %s: %s",
+                    lineNo, fileName, entry), ex);
+        }
+    }
+
+    /**
+     * The violations suppressed in an audit of a file. The violations of a file are
+     * filtered in their order, so an event of the same file and text with a violation
+     * which does not follow the last one starts another audit.
+     */
+    private static final class FileSuppressions {
+
+        /** The name of the file. */
+        private final String fileName;
+
+        /** The audited text of the file, which is not kept alive by the filter. */
+        private final WeakReference<FileText> fileText;
+
+        /** The number of violations suppressed with each fingerprint. */
+        private final Map<Long, Integer> counts = new HashMap<>();
+
+        /** The violation of the last event. */
+        private Violation lastViolation;
+
+        /**
+         * Creates the suppressions of the audit of the file of an event.
+         *
+         * @param event the first event of the audit.
+         */
+        private FileSuppressions(AuditEvent event) {
+            fileName = event.getFileName();
+            fileText = new WeakReference<>(event.getFileText());
+        }
+
+        /**
+         * Checks whether an event follows the last event in the same audit of the file.
+         *
+         * @param event the event with a violation.
+         * @return {@code true} if the event is of the same audit.
+         */
+        private boolean isOfSameAudit(AuditEvent event) {
+            return fileName.equals(event.getFileName())
+                    && fileText.get() == event.getFileText()
+                    && lastViolation.compareTo(event.getViolation()) < 0;
+        }
+
+        /**
+         * Suppresses a violation if fewer violations with its fingerprint were
+         * suppressed than recorded.
+         *
+         * @param fingerprint the fingerprint of the violation.
+         * @param recorded the number of recorded violations with the fingerprint.
+         * @return {@code true} if the violation is suppressed.
+         */
+        private boolean suppress(long fingerprint, int recorded) {
+            final int suppressed = counts.getOrDefault(fingerprint, 0);
+            final boolean result = suppressed < recorded;
+            if (result) {
+                counts.put(fingerprint, suppressed + 1);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * The numbers of violations of fingerprints stored in an open addressing hash table
+     * of primitive longs, so that large baselines take little memory and each lookup
+     * checks only a few slots. Zero marks the empty slots, so it is counted separately.
+     */
+    private static final class FingerprintCounts {
+
+        /** The initial number of slots, which is a power of two. */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /** The slots of the table, with zero in the empty ones. */
+        private long[] slots = new long[INITIAL_CAPACITY];
+
+        /** The number of violations of the fingerprint in each slot. */
+        private int[] counts = new int[INITIAL_CAPACITY];
+
+        /** The number of non-zero fingerprints in the table. */
+        private int size;
+
+        /** The number of violations of the zero fingerprint. */
+        private int zeroCount;
+
+        /**
+         * Adds a violation of a fingerprint.
+         *
+         * @param fingerprint the fingerprint.
+         */
+        private void add(long fingerprint) {
+            if (fingerprint == 0) {
+                zeroCount++;
+            }
+            else {
+                if ((size + 1) * 2 > slots.length) {
+                    resize();
+                }
+                final int index = findSlot(slots, fingerprint);
+                if (slots[index] == 0) {
+                    slots[index] = fingerprint;
+                    size++;
+                }
+                counts[index]++;
+            }
+        }
+
+        /**
+         * Returns the number of violations of a fingerprint.
+         *
+         * @param fingerprint the fingerprint.
+         * @return the number of violations, zero if the fingerprint is not recorded.
+         */
+        private int getCount(long fingerprint) {
+            final int result;
+            if (fingerprint == 0) {
+                result = zeroCount;
+            }
+            else {
+                result = counts[findSlot(slots, fingerprint)];
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether no violations are recorded.
+         *
+         * @return {@code true} if there are no fingerprints.
+         */
+        private boolean isEmpty() {
+            return size == 0 && zeroCount == 0;
+        }
+
+        /**
+         * Doubles the number of slots and inserts the fingerprints again.
+         */
+        private void resize() {
+            final long[] resizedSlots = new long[slots.length * 2];
+            final int[] resizedCounts = new int[slots.length * 2];
+            for (int index = 0; index < slots.length; index++) {
+                if (slots[index] != 0) {
+                    final int slot = findSlot(resizedSlots, slots[index]);
+                    resizedSlots[slot] = slots[index];
+                    resizedCounts[slot] = counts[index];
+                }
+            }
+            slots = resizedSlots;
+            counts = resizedCounts;
+        }
+
+        /**
+         * Finds the slot of a non-zero fingerprint in a table with empty slots left,
+         * which is the empty slot to insert it into if it is not in the table.
+         *
+         * @param table the table.
+         * @param fingerprint the fingerprint.
+         * @return the index of the slot.
+         */
+        private static int findSlot(long[] table, long fingerprint) {
+            final int mask = table.length - 1;
+            int index = Long.hashCode(fingerprint) & mask;
+            while (table[index] != 0 && table[index] != fingerprint) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+    }
+
+}
@@ -194,10 +194,50 @@ public class SuppressFilterElement
      */
     private boolean isFileNameAndModuleNameMatching(AuditEvent event) {
         return event.getFileName() != null
-                && (fileRegexp == null || fileRegexp.matcher(event.getFileName()).find())
+                && isFileNameMatching(event.getFileName())
                 && event.getViolation() != null
-                && (moduleId == null || moduleId.equals(event.getModuleId()))
-                && (checkRegexp == null || checkRegexp.matcher(event.getSourceName()).find());
+                && isModuleMatching(event.getModuleId(), event.getSourceName());
+    }
+
+    /**
+     * Returns the regexp to match file names against.
+     *
+     * @return the regexp, or {@code null} if not set.
+     */
+    Pattern getFileRegexp() {
+        return fileRegexp;
+    }
+
+    /**
+     * Is matching by file name.
+     *
+     * @param fileName the file name of an event.
+     * @return true if it is matching or not set.
+     */
+    boolean isFileNameMatching(String fileName) {
+        return fileRegexp == null || fileRegexp.matcher(fileName).find();
+    }
+
+    /**
+     * Is matching by module id and Check name.
+     *
+     * @param eventModuleId the module id of an event.
+     * @param sourceName the source name of an event.
+     * @return true if it is matching or not set.
+     */
+    boolean isModuleMatching(String eventModuleId, String sourceName) {
+        return (moduleId == null || moduleId.equals(eventModuleId))
+                && (checkRegexp == null || checkRegexp.matcher(sourceName).find());
+    }
+
+    /**
+     * Is matching by message, line and column.
+     *
+     * @param event event
+     * @return true if it is matching or not set.
+     */
+    boolean isViolationMatching(AuditEvent event) {
+        return isMessageNameMatching(event) && isLineAndColumnMatching(event);
     }
 
     /**
@@ -21,8 +21,10 @@ package com.puppycrawl.tools.checkstyle.filters;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -324,6 +326,13 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
     /** Default check format to suppress. By default the filter suppress all checks. */
     private static final String DEFAULT_CHECK_FORMAT = ".*";
 
+    /**
+     * Suppressions of the text of the file whose events were filtered last on the current
+     * thread, events of a file are usually filtered one after another. The filter is not
+     * notified when a file is finished, so the text is referenced weakly.
+     */
+    private final ThreadLocal<FileSuppressions> lastFileSuppressions = new ThreadLocal<>();
+
     /** Specify comment pattern to trigger filter to begin suppression. */
     private Pattern offCommentFormat = CommonUtil.createPattern(DEFAULT_OFF_FORMAT);
 
@@ -388,11 +397,8 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
     public boolean accept(AuditEvent event) {
         boolean accepted = true;
         if (event.getViolation() != null) {
-            final FileText fileText = getFileText(event.getFileName());
-            if (fileText != null) {
-                final List<Suppression> suppressions = getSuppressions(fileText);
-                accepted = getNearestSuppression(suppressions, event) == null;
-            }
+            final List<Suppression> suppressions = getFileSuppressions(event);
+            accepted = getNearestSuppression(suppressions, event) == null;
         }
         return accepted;
     }
@@ -402,6 +408,32 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
         // No code by default
     }
 
+    /**
+     * Returns the list of {@link Suppression} instances of the file of the given event.
+     * The audited text of the file is used if the event carries it, the suppressions
+     * of the text are retrieved only once. Otherwise the file is read.
+     *
+     * @param event the event.
+     * @return list of {@link Suppression} instances.
+     * @throws IllegalStateException if the file could not be read.
+     */
+    private List<Suppression> getFileSuppressions(AuditEvent event) {
+        FileText fileText = event.getFileText();
+        if (fileText == null) {
+            fileText = getFileText(event.getFileName());
+        }
+        List<Suppression> suppressions = Collections.emptyList();
+        if (fileText != null) {
+            FileSuppressions fileSuppressions = lastFileSuppressions.get();
+            if (fileSuppressions == null || fileSuppressions.fileText.get() != fileText) {
+                fileSuppressions = new FileSuppressions(fileText, getSuppressions(fileText));
+                lastFileSuppressions.set(fileSuppressions);
+            }
+            suppressions = fileSuppressions.suppressions;
+        }
+        return suppressions;
+    }
+
     /**
      * Returns {@link FileText} instance created based on the given file name.
      *
@@ -495,6 +527,27 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
 
     }
 
+    /** The suppressions of the text of a file. */
+    private static final class FileSuppressions {
+
+        /** The text of the file, which is not kept alive by the suppressions. */
+        private final WeakReference<FileText> fileText;
+        /** The suppressions of the text. */
+        private final List<Suppression> suppressions;
+
+        /**
+         * Creates new instance for the suppressions of the text of a file.
+         *
+         * @param fileText the text of the file.
+         * @param suppressions the suppressions of the text.
+         */
+        private FileSuppressions(FileText fileText, List<Suppression> suppressions) {
+            this.fileText = new WeakReference<>(fileText);
+            this.suppressions = suppressions;
+        }
+
+    }
+
     /** The class which represents the suppression. */
     private static final class Suppression {
 
@@ -230,8 +230,8 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
      * the filter accept all audit events.
      */
     private boolean optional;
-    /** Set of individual suppresses. */
-    private FilterSet filters = new FilterSet();
+    /** Index of the individual suppresses, which finds the ones matching an event. */
+    private SuppressionIndex index = new SuppressionIndex(new FilterSet());
 
     /**
      * Setter to specify the location of the <em>suppressions XML document</em> file.
@@ -256,12 +256,13 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
 
     @Override
     public boolean accept(AuditEvent event) {
-        return filters.accept(event);
+        return index.accept(event);
     }
 
     @Override
     protected void finishLocalSetup() throws CheckstyleException {
         if (file != null) {
+            final FilterSet filters;
             if (optional) {
                 if (FilterUtil.isFileExists(file)) {
                     filters = SuppressionsLoader.loadSuppressions(file);
@@ -273,6 +274,7 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
             else {
                 filters = SuppressionsLoader.loadSuppressions(file);
             }
+            index = new SuppressionIndex(filters);
         }
     }
 
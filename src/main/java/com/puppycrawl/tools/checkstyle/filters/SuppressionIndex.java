@@ -0,0 +1,542 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+
+/**
+ * Accepts the same audit events as a {@link FilterSet} of suppressions, without matching
+ * every {@link SuppressFilterElement} against every event. A literal text, which every
+ * file name matched by the file regexp of an element contains, is extracted from the
+ * regexp, and the elements are found by the literals contained in the file name of an
+ * event with a trie of the literals. The elements matching the file name are kept by each
+ * thread until it filters an event of another file, so that the workers of a parallel
+ * audit keep the elements of the files they process, grouped by the check name and module
+ * id they match. Only the message, line and column criteria are matched for each event.
+ * Other filters of the set are applied to each event.
+ */
+final class SuppressionIndex implements Filter {
+
+    /** The elements of the set indexed by the literals of their file regexps. */
+    private final LiteralTrie trie;
+
+    /** The elements of the set whose file regexps have no literal. */
+    private final List<SuppressFilterElement> unindexedElements = new ArrayList<>();
+
+    /** The filters of the set which are not {@link SuppressFilterElement}. */
+    private final List<Filter> otherFilters = new ArrayList<>();
+
+    /** The elements matching the file name of the last event of each thread. */
+    private final ThreadLocal<FileElements> lastFileElements = new ThreadLocal<>();
+
+    /**
+     * Creates the index of the filters of a set.
+     *
+     * @param filterSet the filters.
+     */
+    SuppressionIndex(FilterSet filterSet) {
+        final Map<String, List<SuppressFilterElement>> elementsByLiteral = new HashMap<>();
+        for (Filter filter : filterSet.getFilters()) {
+            if (filter.getClass() == SuppressFilterElement.class) {
+                final SuppressFilterElement element = (SuppressFilterElement) filter;
+                final String literal = getRequiredLiteral(element.getFileRegexp());
+                if (literal == null) {
+                    unindexedElements.add(element);
+                }
+                else {
+                    elementsByLiteral.computeIfAbsent(literal, key -> new ArrayList<>())
+                            .add(element);
+                }
+            }
+            else {
+                otherFilters.add(filter);
+            }
+        }
+        trie = new LiteralTrie(elementsByLiteral);
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        boolean result = true;
+        if (event.getFileName() != null && event.getViolation() != null) {
+            final List<SuppressFilterElement> elements = getFileElements(event.getFileName())
+                    .getElements(event.getModuleId(), event.getSourceName());
+            for (SuppressFilterElement element : elements) {
+                if (element.isViolationMatching(event)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        if (result) {
+            for (Filter filter : otherFilters) {
+                if (!filter.accept(event)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the elements matching a file name, reusing the ones of the last event of
+     * the current thread if it has the same file name.
+     *
+     * @param fileName the file name.
+     * @return the elements matching the file name.
+     */
+    private FileElements getFileElements(String fileName) {
+        FileElements result = lastFileElements.get();
+        if (result == null || !result.fileName.equals(fileName)) {
+            final List<SuppressFilterElement> elements = new ArrayList<>();
+            for (SuppressFilterElement element : trie.findElements(fileName)) {
+                if (element.isFileNameMatching(fileName)) {
+                    elements.add(element);
+                }
+            }
+            for (SuppressFilterElement element : unindexedElements) {
+                if (element.isFileNameMatching(fileName)) {
+                    elements.add(element);
+                }
+            }
+            result = new FileElements(fileName, elements);
+            lastFileElements.set(result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a literal text which every text matched by a regexp contains. The regexp is
+     * read up to the first construct which is not handled, and the longest literal text
+     * which is neither optional nor repeated is returned. Regexps with flags or
+     * alternatives are not read, since their literal texts are not required.
+     *
+     * @param regexp the regexp.
+     * @return the literal text, or {@code null} if none is found.
+     */
+    static String getRequiredLiteral(Pattern regexp) {
+        String result = null;
+        if (regexp != null && regexp.flags() == 0 && regexp.pattern().indexOf('|') == -1
+                && !regexp.pattern().contains("(?")) {
+            result = new LiteralScanner(regexp.pattern()).scan();
+        }
+        return result;
+    }
+
+    /**
+     * Reads the literal texts of a regexp without flags or alternatives.
+     */
+    private static final class LiteralScanner {
+
+        /** The characters which start a quantifier. */
+        private static final String QUANTIFIERS = "?*+{";
+
+        /** The pattern of the regexp. */
+        private final String pattern;
+
+        /** The literal text read since the last construct which is not literal. */
+        private final StringBuilder literal = new StringBuilder();
+
+        /** The longest literal text read so far. */
+        private String longest = "";
+
+        /** The index of the next construct. */
+        private int index;
+
+        /**
+         * Creates a scanner of a pattern.
+         *
+         * @param pattern the pattern.
+         */
+        private LiteralScanner(String pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * Reads the pattern up to the first construct which is not handled.
+         *
+         * @return the longest literal text, or {@code null} if none is found.
+         */
+        private String scan() {
+            boolean handled = true;
+            while (handled && index < pattern.length()) {
+                handled = scanConstruct();
+            }
+            String result = null;
+            if (!longest.isEmpty()) {
+                result = longest;
+            }
+            return result;
+        }
+
+        /**
+         * Reads the next construct.
+         *
+         * @return true if the construct is handled.
+         */
+        private boolean scanConstruct() {
+            final char chr = pattern.charAt(index);
+            boolean handled = true;
+            if (chr == '\\') {
+                handled = scanEscape();
+            }
+            else if (chr == '[') {
+                handled = skip(skipCharacterClass());
+            }
+            else if (QUANTIFIERS.indexOf(chr) >= 0) {
+                handled = skip(skipQuantifier());
+            }
+            else if (chr == '(' || chr == ')') {
+                handled = false;
+            }
+            else if (".^$".indexOf(chr) >= 0) {
+                handled = skip(index + 1);
+            }
+            else {
+                append(String.valueOf(chr), index + 1);
+            }
+            return handled;
+        }
+
+        /**
+         * Reads an escaped character or a quote.
+         *
+         * @return true if the escape is handled.
+         */
+        private boolean scanEscape() {
+            final int next = index + 1;
+            boolean handled = next < pattern.length();
+            if (handled) {
+                final char chr = pattern.charAt(next);
+                if (chr == 'Q') {
+                    handled = scanQuote(next + 1);
+                }
+                else if (Character.isLetterOrDigit(chr)) {
+                    handled = false;
+                }
+                else {
+                    append(String.valueOf(chr), next + 1);
+                }
+            }
+            return handled;
+        }
+
+        /**
+         * Reads a quote, which ends at {@code \E} or at the end of the pattern.
+         *
+         * @param start the index of the quoted text.
+         * @return true if the quote is handled.
+         */
+        private boolean scanQuote(int start) {
+            int end = pattern.indexOf("\\E", start);
+            int next = end + 2;
+            if (end == -1) {
+                end = pattern.length();
+                next = end;
+            }
+            final boolean handled = end > start;
+            if (handled) {
+                append(pattern.substring(start, end), next);
+            }
+            else {
+                // a quantifier after an empty quote applies to the text before it
+                longest = "";
+            }
+            return handled;
+        }
+
+        /**
+         * Skips a construct which is not literal.
+         *
+         * @param next the index after the construct, or -1 if it is not handled.
+         * @return true if the construct is handled.
+         */
+        private boolean skip(int next) {
+            literal.setLength(0);
+            index = next;
+            return next != -1;
+        }
+
+        /**
+         * Appends a literal text. The text ends the literal if it is followed by
+         * a quantifier, which applies to its last character.
+         *
+         * @param text the literal text.
+         * @param next the index after the text.
+         */
+        private void append(String text, int next) {
+            literal.append(text);
+            final boolean quantified = next < pattern.length()
+                    && QUANTIFIERS.indexOf(pattern.charAt(next)) >= 0;
+            if (quantified && pattern.charAt(next) != '+') {
+                literal.setLength(literal.length() - 1);
+            }
+            if (literal.length() > longest.length()) {
+                longest = literal.toString();
+            }
+            if (quantified) {
+                literal.setLength(0);
+            }
+            index = next;
+        }
+
+        /**
+         * Skips a character class, which may not contain nested classes or quotes.
+         *
+         * @return the index after the class, or -1 if the class is not handled.
+         */
+        private int skipCharacterClass() {
+            // a negation and a leading closing bracket belong to the class
+            int next = skipCharacter(index + 1, '^');
+            next = skipCharacter(next, ']');
+            int result = -1;
+            while (result == -1 && next < pattern.length()) {
+                final char chr = pattern.charAt(next);
+                if (chr == ']') {
+                    result = next + 1;
+                }
+                else if (chr == '[' || pattern.startsWith("\\Q", next)) {
+                    break;
+                }
+                else if (chr == '\\') {
+                    next += 2;
+                }
+                else {
+                    next++;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Skips a character if the pattern has it at the given position.
+         *
+         * @param position the position in the pattern.
+         * @param chr the character to skip.
+         * @return the position after the character if it is there, otherwise the position.
+         */
+        private int skipCharacter(int position, char chr) {
+            int result = position;
+            if (position < pattern.length() && pattern.charAt(position) == chr) {
+                result++;
+            }
+            return result;
+        }
+
+        /**
+         * Skips a quantifier with its lazy or possessive suffix.
+         *
+         * @return the index after the quantifier, or -1 if the quantifier is not handled.
+         */
+        private int skipQuantifier() {
+            int result = index + 1;
+            if (pattern.charAt(index) == '{') {
+                result = pattern.indexOf('}', index);
+                if (result != -1) {
+                    result++;
+                }
+            }
+            if (result != -1 && result < pattern.length()
+                    && (pattern.charAt(result) == '?' || pattern.charAt(result) == '+')) {
+                result++;
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * The elements matching a file name, grouped by the check names and module ids.
+     */
+    private static final class FileElements {
+
+        /** The file name. */
+        private final String fileName;
+
+        /** The elements matching the file name. */
+        private final List<SuppressFilterElement> elements;
+
+        /** The elements also matching a check name and a module id. */
+        private final Map<List<String>, List<SuppressFilterElement>> elementsBySource =
+                new HashMap<>();
+
+        /**
+         * Creates the elements of a file name.
+         *
+         * @param fileName the file name.
+         * @param elements the elements matching the file name.
+         */
+        private FileElements(String fileName, List<SuppressFilterElement> elements) {
+            this.fileName = fileName;
+            this.elements = elements;
+        }
+
+        /**
+         * Returns the elements also matching a module id and a check name.
+         *
+         * @param moduleId the module id, may be {@code null}.
+         * @param sourceName the check name.
+         * @return the elements matching the file name, module id and check name.
+         */
+        private List<SuppressFilterElement> getElements(String moduleId, String sourceName) {
+            List<SuppressFilterElement> result = Collections.emptyList();
+            if (!elements.isEmpty()) {
+                result = elementsBySource.computeIfAbsent(
+                        Arrays.asList(moduleId, sourceName), key -> {
+                            final List<SuppressFilterElement> matching = new ArrayList<>();
+                            for (SuppressFilterElement element : elements) {
+                                if (element.isModuleMatching(moduleId, sourceName)) {
+                                    matching.add(element);
+                                }
+                            }
+                            return matching;
+                        });
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * A trie of literal texts with the links of the Aho-Corasick algorithm, which finds
+     * all literals contained in a text with one pass over the text.
+     */
+    private static final class LiteralTrie {
+
+        /** The root node, matching the empty text. */
+        private final Node root = new Node();
+
+        /**
+         * Creates the trie of the literals.
+         *
+         * @param elementsByLiteral the elements of each literal.
+         */
+        private LiteralTrie(Map<String, List<SuppressFilterElement>> elementsByLiteral) {
+            for (Map.Entry<String, List<SuppressFilterElement>> entry
+                    : elementsByLiteral.entrySet()) {
+                Node node = root;
+                for (char chr : entry.getKey().toCharArray()) {
+                    node = node.children.computeIfAbsent(chr, key -> new Node());
+                }
+                node.elements = entry.getValue();
+            }
+            final Queue<Node> queue = new ArrayDeque<>();
+            for (Node child : root.children.values()) {
+                child.fallback = root;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                final Node node = queue.remove();
+                for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                    final Node child = entry.getValue();
+                    child.fallback = node.fallback.next(entry.getKey(), root);
+                    if (child.fallback.elements.isEmpty()) {
+                        child.output = child.fallback.output;
+                    }
+                    else {
+                        child.output = child.fallback;
+                    }
+                    queue.add(child);
+                }
+            }
+        }
+
+        /**
+         * Finds the elements of the literals contained in a text.
+         *
+         * @param text the text.
+         * @return the elements, each one once.
+         */
+        private Set<SuppressFilterElement> findElements(String text) {
+            final Set<SuppressFilterElement> result =
+                    Collections.newSetFromMap(new IdentityHashMap<>());
+            Node node = root;
+            for (int index = 0; index < text.length(); index++) {
+                node = node.next(text.charAt(index), root);
+                Node match = node;
+                if (match.elements.isEmpty()) {
+                    match = match.output;
+                }
+                while (match != null) {
+                    result.addAll(match.elements);
+                    match = match.output;
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * A node of the trie, matching the text on the path from the root.
+     */
+    private static final class Node {
+
+        /** The children by the next character. */
+        private final Map<Character, Node> children = new HashMap<>();
+
+        /** The elements of the literal ending at this node. */
+        private List<SuppressFilterElement> elements = Collections.emptyList();
+
+        /** The node of the longest proper suffix of the text which is in the trie. */
+        private Node fallback;
+
+        /** The node of the longest proper suffix of the text which is a literal. */
+        private Node output;
+
+        /**
+         * Returns the node following this one on a character, falling back to the nodes
+         * of the shorter suffixes if this node has no child for the character.
+         *
+         * @param chr the character.
+         * @param root the root node.
+         * @return the next node.
+         */
+        private Node next(char chr, Node root) {
+            Node node = this;
+            Node result = node.children.get(chr);
+            while (result == null && node != root) {
+                node = node.fallback;
+                result = node.children.get(chr);
+            }
+            if (result == null) {
+                result = root;
+            }
+            return result;
+        }
+
+    }
+
+}
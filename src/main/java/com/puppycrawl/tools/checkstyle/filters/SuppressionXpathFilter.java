@@ -508,6 +508,8 @@ import com.puppycrawl.tools.checkstyle.utils.FilterUtil;
 public class SuppressionXpathFilter extends AutomaticBean implements
         TreeWalkerFilter, ExternalResourceHolder {
 
+    /** The nodes matching the xpath queries in the file filtered last by each thread. */
+    private final ThreadLocal<XpathQueryMatches> fileMatches = new ThreadLocal<>();
     /** Specify the location of the <em>suppressions XML document</em> file. */
     private String file;
     /**
@@ -560,9 +562,13 @@ public class SuppressionXpathFilter extends AutomaticBean implements
 
     @Override
     public boolean accept(TreeWalkerAuditEvent treeWalkerAuditEvent) {
+        final XpathQueryMatches matches =
+                XpathQueryMatches.of(fileMatches.get(), treeWalkerAuditEvent.getRootAst());
+        fileMatches.set(matches);
         boolean result = true;
         for (TreeWalkerFilter filter : filters) {
-            if (!filter.accept(treeWalkerAuditEvent)) {
+            // the suppressions loader creates only xpath filter elements
+            if (!((XpathFilterElement) filter).accept(treeWalkerAuditEvent, matches)) {
                 result = false;
                 break;
             }
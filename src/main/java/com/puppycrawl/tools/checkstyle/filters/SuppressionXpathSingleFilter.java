@@ -414,6 +414,10 @@ import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
  */
 public class SuppressionXpathSingleFilter extends AutomaticBean implements
         TreeWalkerFilter {
+    /**
+     * The nodes matching the xpath query in the file filtered last by each thread.
+     */
+    private final ThreadLocal<XpathQueryMatches> fileMatches = new ThreadLocal<>();
     /**
      * XpathFilterElement instance.
      */
@@ -512,7 +516,10 @@ public class SuppressionXpathSingleFilter extends AutomaticBean implements
 
     @Override
     public boolean accept(TreeWalkerAuditEvent treeWalkerAuditEvent) {
-        return xpathFilter.accept(treeWalkerAuditEvent);
+        final XpathQueryMatches matches =
+                XpathQueryMatches.of(fileMatches.get(), treeWalkerAuditEvent.getRootAst());
+        fileMatches.set(matches);
+        return xpathFilter.accept(treeWalkerAuditEvent, matches);
     }
 
 }
@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
 import com.puppycrawl.tools.checkstyle.xpath.RootNode;
@@ -175,9 +176,22 @@ public class XpathFilterElement implements TreeWalkerFilter {
 
     @Override
     public boolean accept(TreeWalkerAuditEvent event) {
+        return accept(event, new XpathQueryMatches(event.getRootAst()));
+    }
+
+    /**
+     * Determines whether or not the event is accepted, looking the node of the event up
+     * in the memo of the nodes matching the xpath query. Filters which get many events of
+     * a file keep the memo of the file, so the query is evaluated once per file.
+     *
+     * @param event the event
+     * @param matches the memo of the AST of the event
+     * @return true if the event is accepted
+     */
+    boolean accept(TreeWalkerAuditEvent event, XpathQueryMatches matches) {
         return !isFileNameAndModuleAndModuleNameMatching(event)
                 || !isMessageNameMatching(event)
-                || !isXpathQueryMatching(event);
+                || !isXpathQueryMatching(event, matches);
     }
 
     /**
@@ -208,43 +222,40 @@ public class XpathFilterElement implements TreeWalkerFilter {
      * Is matching by xpath query.
      *
      * @param event event
+     * @param matches the memo of the AST of the event
      * @return true if it is matching or not set.
      */
-    private boolean isXpathQueryMatching(TreeWalkerAuditEvent event) {
-        boolean isMatching;
-        if (xpathExpression == null) {
-            isMatching = true;
-        }
-        else {
-            isMatching = false;
-            final List<AbstractNode> nodes = getItems(event)
-                    .stream().map(AbstractNode.class::cast).collect(Collectors.toList());
-            for (AbstractNode abstractNode : nodes) {
-                isMatching = abstractNode.getTokenType() == event.getTokenType()
-                        && abstractNode.getLineNumber() == event.getLine()
-                        && abstractNode.getColumnNumber() == event.getColumnCharIndex();
-                if (isMatching) {
-                    break;
-                }
-            }
-        }
-        return isMatching;
+    private boolean isXpathQueryMatching(TreeWalkerAuditEvent event,
+            XpathQueryMatches matches) {
+        return xpathExpression == null || matches.contains(this, event);
+    }
+
+    /**
+     * Returns list of nodes matching xpath expression in the given AST.
+     *
+     * @param rootAst the root of the AST
+     * @return list of nodes matching xpath expression in the given AST
+     */
+    List<AbstractNode> getMatchingNodes(DetailAST rootAst) {
+        return getItems(rootAst).stream()
+                .map(AbstractNode.class::cast)
+                .collect(Collectors.toList());
     }
 
     /**
-     * Returns list of nodes matching xpath expression given event.
+     * Returns list of items matching xpath expression in the given AST.
      *
-     * @param event {@code TreeWalkerAuditEvent} object
-     * @return list of nodes matching xpath expression given event
+     * @param rootAst the root of the AST
+     * @return list of items matching xpath expression in the given AST
      * @throws IllegalStateException if the xpath query could not be evaluated.
      */
-    private List<Item> getItems(TreeWalkerAuditEvent event) {
+    private List<Item> getItems(DetailAST rootAst) {
         final RootNode rootNode;
-        if (event.getRootAst() == null) {
+        if (rootAst == null) {
             rootNode = null;
         }
         else {
-            rootNode = new RootNode(event.getRootAst());
+            rootNode = new RootNode(rootAst);
         }
         final List<Item> items;
         try {
@@ -0,0 +1,172 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
+
+/**
+ * Nodes matching the xpath queries of {@link XpathFilterElement}s in the AST of one file.
+ * The query of an element is evaluated when the first event of the file is checked against
+ * it, later events only look up their line, column and token type among the matching nodes.
+ * The AST is referenced weakly, so a memo kept after its file was processed does not keep
+ * the AST alive. A memo is not thread-safe, it serves the events of one file on one thread.
+ */
+final class XpathQueryMatches {
+
+    /** Number of bits the line of a node is shifted by in the position of the node. */
+    private static final int LINE_SHIFT = 32;
+
+    /** The root of the AST. */
+    private final WeakReference<DetailAST> rootAst;
+
+    /** The nodes matching the query of each element, by the element. */
+    private final Map<XpathFilterElement, NodePositions> matchingNodes =
+            new IdentityHashMap<>();
+
+    /**
+     * Creates an empty memo of an AST.
+     *
+     * @param rootAst the root of the AST
+     */
+    XpathQueryMatches(DetailAST rootAst) {
+        this.rootAst = new WeakReference<>(rootAst);
+    }
+
+    /**
+     * Returns the memo of an AST, which is the previous memo if it was created for the
+     * same AST, or a new one otherwise.
+     *
+     * @param previous the previous memo, {@code null} if there is none
+     * @param rootAst the root of the AST
+     * @return the memo of the AST
+     */
+    static XpathQueryMatches of(XpathQueryMatches previous, DetailAST rootAst) {
+        XpathQueryMatches result = previous;
+        if (result == null || result.rootAst.get() != rootAst) {
+            result = new XpathQueryMatches(rootAst);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the node of an event matches the xpath query of an element.
+     *
+     * @param element the element with the xpath query
+     * @param event the event in the AST of this memo
+     * @return true if the node of the event matches the query
+     */
+    boolean contains(XpathFilterElement element, TreeWalkerAuditEvent event) {
+        NodePositions positions = matchingNodes.get(element);
+        if (positions == null) {
+            positions = new NodePositions(element.getMatchingNodes(event.getRootAst()));
+            matchingNodes.put(element, positions);
+        }
+        return positions.contains(event.getLine(), event.getColumnCharIndex(),
+                event.getTokenType());
+    }
+
+    /**
+     * Returns the position of a node in a file.
+     *
+     * @param node the node
+     * @return the position of the node
+     */
+    private static long getPosition(AbstractNode node) {
+        return getPosition(node.getLineNumber(), node.getColumnNumber());
+    }
+
+    /**
+     * Returns the position of a node in a file, which orders the nodes by their line
+     * and then by their column.
+     *
+     * @param lineNumber the line number of the node
+     * @param columnNumber the column number of the node
+     * @return the position of the node
+     */
+    private static long getPosition(int lineNumber, int columnNumber) {
+        return (long) lineNumber << LINE_SHIFT | Integer.toUnsignedLong(columnNumber);
+    }
+
+    /**
+     * Positions and token types of nodes, sorted by the positions.
+     */
+    private static final class NodePositions {
+
+        /** The sorted positions of the nodes. */
+        private final long[] positions;
+
+        /** The token types of the nodes, in the order of their positions. */
+        private final int[] tokenTypes;
+
+        /**
+         * Creates the positions of nodes.
+         *
+         * @param nodes the nodes
+         */
+        private NodePositions(List<AbstractNode> nodes) {
+            final List<AbstractNode> sortedNodes = new ArrayList<>(nodes);
+            sortedNodes.sort(Comparator.comparingLong(XpathQueryMatches::getPosition));
+            positions = new long[sortedNodes.size()];
+            tokenTypes = new int[sortedNodes.size()];
+            for (int index = 0; index < positions.length; index++) {
+                final AbstractNode node = sortedNodes.get(index);
+                positions[index] = getPosition(node);
+                tokenTypes[index] = node.getTokenType();
+            }
+        }
+
+        /**
+         * Checks whether there is a node of a token type at a position. Nodes at the same
+         * position, such as a definition and its modifiers, are adjacent.
+         *
+         * @param lineNumber the line number of the node
+         * @param columnNumber the column number of the node
+         * @param tokenType the token type of the node
+         * @return true if there is such node
+         */
+        private boolean contains(int lineNumber, int columnNumber, int tokenType) {
+            final long position = getPosition(lineNumber, columnNumber);
+            int index = Arrays.binarySearch(positions, position);
+            boolean result = false;
+            if (index >= 0) {
+                while (index > 0 && positions[index - 1] == position) {
+                    index--;
+                }
+                while (!result && index < positions.length && positions[index] == position) {
+                    result = tokenTypes[index] == tokenType;
+                    index++;
+                }
+            }
+            return result;
+        }
+
+    }
+
+}
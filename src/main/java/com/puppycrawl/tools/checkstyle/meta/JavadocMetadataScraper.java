@@ -94,6 +94,10 @@ public class JavadocMetadataScraper extends AbstractJavadocCheck {
     /** Java file extension. */
     private static final String JAVA_FILE_EXTENSION = ".java";
 
+    /** Link to the Checker module in default values inherited from Checker properties. */
+    private static final String CHECKER_MODULE_LINK =
+            "<a href=https://checkstyle.org/config.html#Checker>Checker</a> module";
+
     /**
      * This set contains faulty property default value which should not be written to the XML
      * metadata files.
@@ -101,8 +105,8 @@ public class JavadocMetadataScraper extends AbstractJavadocCheck {
     private static final Set<String> PROPERTIES_TO_NOT_WRITE = Collections.unmodifiableSet(
             new HashSet<>(Arrays.asList(
                     "null",
-                    "the charset property of the parent <a href=https://checkstyle.org/"
-                        + "config.html#Checker>Checker</a> module"
+                    "the charset property of the parent " + CHECKER_MODULE_LINK,
+                    "the basedir property of the parent " + CHECKER_MODULE_LINK
     )));
 
     /**
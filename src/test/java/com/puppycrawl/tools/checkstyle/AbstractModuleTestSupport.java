@@ -95,6 +95,11 @@ public abstract class AbstractModuleTestSupport extends AbstractPathTestSupport
         return new DefaultConfiguration(clazz.getName());
     }
 
+    protected static DefaultConfiguration createModuleConfig(Class<?> clazz,
+            ThreadModeSettings threadModeSettings) {
+        return new DefaultConfiguration(clazz.getName(), threadModeSettings);
+    }
+
     /**
      * Creates {@link Checker} instance based on the given {@link Configuration} instance.
      *
@@ -0,0 +1,376 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.BatchAuditListener;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
+
+public class AsyncAuditListenerTest {
+
+    private static final String FILE_NAME = "Test.java";
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testEventsOrder() {
+        final RecordingListener delegate = new RecordingListener();
+        final AsyncAuditListener listener = new AsyncAuditListener(delegate, 1);
+        listener.auditStarted(new AuditEvent(this));
+        listener.addError(createEvent(null, 1));
+        for (int file = 0; file < 10; file++) {
+            final String fileName = "File" + file + ".java";
+            listener.fileStarted(new AuditEvent(this, fileName));
+            listener.addError(createEvent(fileName, 1));
+            listener.addErrors(Arrays.asList(createEvent(fileName, 2),
+                    createEvent(fileName, 3)));
+            listener.addException(new AuditEvent(this, fileName),
+                    new IllegalStateException("exception"));
+            listener.fileFinished(new AuditEvent(this, fileName));
+        }
+        listener.auditFinished(new AuditEvent(this));
+
+        final List<String> expected = new ArrayList<>();
+        expected.add("auditStarted");
+        expected.add("addError:null:1");
+        for (int file = 0; file < 10; file++) {
+            final String fileName = "File" + file + ".java";
+            expected.addAll(Arrays.asList("fileStarted:" + fileName,
+                    "addError:" + fileName + ":1", "addError:" + fileName + ":2",
+                    "addError:" + fileName + ":3", "addException:" + fileName,
+                    "fileFinished:" + fileName));
+        }
+        expected.add("auditFinished");
+        assertWithMessage("Events should be delivered in order")
+                .that(delegate.events)
+                .containsExactlyElementsIn(expected)
+                .inOrder();
+        assertWithMessage("Events should be delivered on the writer thread")
+                .that(delegate.threads)
+                .doesNotContain(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void testBatchDelegate() {
+        final RecordingListener delegate = new RecordingBatchListener();
+        final AsyncAuditListener listener = new AsyncAuditListener(delegate, 1);
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, FILE_NAME));
+        listener.addErrors(Arrays.asList(createEvent(FILE_NAME, 1), createEvent(FILE_NAME, 2)));
+        listener.fileFinished(new AuditEvent(this, FILE_NAME));
+        listener.auditFinished(new AuditEvent(this));
+
+        assertWithMessage("Errors should be delivered as a batch")
+                .that(delegate.events)
+                .containsExactly("auditStarted", "fileStarted:" + FILE_NAME,
+                        "addErrors:" + FILE_NAME + ":2", "fileFinished:" + FILE_NAME,
+                        "auditFinished")
+                .inOrder();
+    }
+
+    @Test
+    public void testDelegateFailure() {
+        final RecordingListener delegate = new RecordingListener();
+        final AsyncAuditListener listener = new AsyncAuditListener(delegate, 1);
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, FILE_NAME));
+        listener.addError(createEvent(FILE_NAME, 0));
+        listener.fileFinished(new AuditEvent(this, FILE_NAME));
+        for (int file = 0; file < 10; file++) {
+            listener.fileStarted(new AuditEvent(this, FILE_NAME));
+            listener.fileFinished(new AuditEvent(this, FILE_NAME));
+        }
+        try {
+            listener.auditFinished(new AuditEvent(this));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Invalid line");
+        }
+        assertWithMessage("Events after the failure should be discarded")
+                .that(delegate.events)
+                .containsExactly("auditStarted", "fileStarted:" + FILE_NAME)
+                .inOrder();
+    }
+
+    @Test
+    public void testDelegateError() {
+        final RecordingListener delegate = new RecordingListener() {
+            @Override
+            public void fileStarted(AuditEvent event) {
+                throw new NoClassDefFoundError("Invalid file");
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(delegate, 1);
+        listener.auditStarted(new AuditEvent(this));
+        for (int file = 0; file < 10; file++) {
+            listener.fileStarted(new AuditEvent(this, FILE_NAME));
+            listener.addError(createEvent(FILE_NAME, 1));
+            listener.fileFinished(new AuditEvent(this, FILE_NAME));
+        }
+        try {
+            listener.auditFinished(new AuditEvent(this));
+            assertWithMessage("Error is expected").fail();
+        }
+        catch (NoClassDefFoundError ex) {
+            assertWithMessage("Invalid error message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Invalid file");
+        }
+        assertWithMessage("Events after the error should be discarded")
+                .that(delegate.events)
+                .containsExactly("auditStarted")
+                .inOrder();
+    }
+
+    @Test
+    public void testDelegateCheckedException() {
+        final IOException exception = new IOException("Invalid file");
+        final RecordingListener delegate = new RecordingListener() {
+            @Override
+            public void fileStarted(AuditEvent event) {
+                AsyncAuditListenerTest.<RuntimeException>throwUnchecked(exception);
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(delegate, 1);
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, FILE_NAME));
+        listener.fileFinished(new AuditEvent(this, FILE_NAME));
+        try {
+            listener.auditFinished(new AuditEvent(this));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (IllegalStateException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("The audit listener failed.");
+            assertWithMessage("Invalid exception cause")
+                    .that(ex.getCause())
+                    .isSameInstanceAs(exception);
+        }
+    }
+
+    @Test
+    public void testInterruptedWhileWaiting() {
+        final Thread auditThread = Thread.currentThread();
+        final RecordingListener delegate = new RecordingListener() {
+            @Override
+            public void auditFinished(AuditEvent event) {
+                while (auditThread.getState() != Thread.State.WAITING) {
+                    Thread.yield();
+                }
+                auditThread.interrupt();
+                try {
+                    // keeps the writer thread alive while the audit thread is interrupted
+                    Thread.sleep(1000);
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(delegate, 1);
+        listener.auditStarted(new AuditEvent(this));
+        try {
+            listener.auditFinished(new AuditEvent(this));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (IllegalStateException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Interrupted while waiting for the audit listener.");
+        }
+        assertWithMessage("Interrupted status should be restored")
+                .that(Thread.interrupted())
+                .isTrue();
+    }
+
+    @Test
+    public void testInterruptedWhileQueueing() {
+        final AsyncAuditListener listener =
+                new AsyncAuditListener(new RecordingListener(), 1);
+        listener.auditStarted(new AuditEvent(this));
+        Thread.currentThread().interrupt();
+        try {
+            listener.addError(createEvent(null, 1));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (IllegalStateException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Interrupted while waiting for the audit listener.");
+        }
+        assertWithMessage("Interrupted status should be restored")
+                .that(Thread.interrupted())
+                .isTrue();
+        listener.auditFinished(new AuditEvent(this));
+    }
+
+    @Test
+    public void testCloseAfterFailedAudit() throws InterruptedException {
+        final BlockingQueue<Thread> writerThreads = new LinkedBlockingQueue<>();
+        final RecordingListener delegate = new RecordingListener() {
+            @Override
+            public void auditStarted(AuditEvent event) {
+                writerThreads.add(Thread.currentThread());
+                super.auditStarted(event);
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(delegate, 1);
+        listener.auditStarted(new AuditEvent(this));
+        final Thread writerThread = writerThreads.take();
+        listener.fileStarted(new AuditEvent(this, FILE_NAME));
+        listener.addError(createEvent(FILE_NAME, 1));
+        listener.close();
+        assertWithMessage("Writer thread should be stopped")
+                .that(writerThread.isAlive())
+                .isFalse();
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.auditFinished(new AuditEvent(this));
+        listener.close();
+        assertWithMessage("Events of the failed file should be discarded")
+                .that(delegate.events)
+                .containsExactly("auditStarted", "auditStarted", "auditFinished")
+                .inOrder();
+    }
+
+    @Test
+    public void testChecker() throws Exception {
+        final File file = temporaryFolder.toPath().resolve(FILE_NAME).toFile();
+        Files.write(file.toPath(), "class Test {\n    int A_x;\n    int B_y;\n}\n"
+                .getBytes(StandardCharsets.UTF_8));
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(MemberNameCheck.class.getName()));
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addChild(treeWalkerConfig);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final RecordingListener batchListener = new RecordingBatchListener();
+        final RecordingListener plainListener = new RecordingListener();
+        checker.addListener(new AsyncAuditListener(batchListener, 1));
+        checker.addListener(plainListener);
+        final int errors = checker.process(Collections.singletonList(file));
+        checker.destroy();
+
+        assertWithMessage("Invalid number of errors")
+                .that(errors)
+                .isEqualTo(2);
+        assertWithMessage("Batch listener should receive the errors at once")
+                .that(batchListener.events)
+                .contains("addErrors:" + file.getPath() + ":2");
+        assertWithMessage("Listener should receive the errors one by one")
+                .that(plainListener.events)
+                .containsAtLeast("addError:" + file.getPath() + ":2",
+                        "addError:" + file.getPath() + ":3")
+                .inOrder();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> void throwUnchecked(Throwable throwable) throws T {
+        throw (T) throwable;
+    }
+
+    private AuditEvent createEvent(String fileName, int line) {
+        final Violation violation = new Violation(line, "messages.properties", "key", null,
+                null, null, getClass(), null);
+        return new AuditEvent(this, fileName, violation);
+    }
+
+    private static class RecordingListener implements AuditListener {
+
+        private final List<String> events = new ArrayList<>();
+
+        private final List<String> threads = new ArrayList<>();
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            recordEvent("auditStarted");
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            recordEvent("auditFinished");
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            recordEvent("fileStarted:" + event.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            recordEvent("fileFinished:" + event.getFileName());
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            if (event.getLine() == 0) {
+                throw new IllegalArgumentException("Invalid line");
+            }
+            recordEvent("addError:" + event.getFileName() + ":" + event.getLine());
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            recordEvent("addException:" + event.getFileName());
+        }
+
+        protected final void recordEvent(String event) {
+            events.add(event);
+            threads.add(Thread.currentThread().getName());
+        }
+
+    }
+
+    private static final class RecordingBatchListener extends RecordingListener
+            implements BatchAuditListener {
+
+        @Override
+        public void addErrors(List<AuditEvent> batch) {
+            recordEvent("addErrors:" + batch.get(0).getFileName() + ":" + batch.size());
+        }
+
+    }
+
+}
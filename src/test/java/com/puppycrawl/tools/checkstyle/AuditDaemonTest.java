@@ -0,0 +1,226 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AuditDaemonTest {
+
+    private static final String USER_HOME = System.getProperty("user.home");
+
+    @TempDir
+    public File temporaryFolder;
+
+    @BeforeEach
+    public void setUp() {
+        System.setProperty("user.home", temporaryFolder.getPath());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setProperty("user.home", USER_HOME);
+    }
+
+    @Test
+    public void testRequest() throws Exception {
+        final List<String> requests = new ArrayList<>();
+        try (AuditDaemon daemon = new AuditDaemon(0)) {
+            final Thread thread = new Thread(() -> {
+                daemon.run((workingDirectory, args, out) -> {
+                    requests.add(workingDirectory + " " + args);
+                    out.print("output of " + String.join(" ", args));
+                    return args.size();
+                });
+            });
+            thread.start();
+
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final int exitStatus = AuditDaemon.sendRequest(daemon.getPort(),
+                    Paths.get("dir"), Arrays.asList("-c", "config.xml"), output);
+            daemon.close();
+            thread.join();
+
+            assertWithMessage("Invalid exit status")
+                    .that(exitStatus)
+                    .isEqualTo(2);
+            assertWithMessage("Invalid output")
+                    .that(new String(output.toByteArray(), StandardCharsets.UTF_8))
+                    .isEqualTo("output of -c config.xml");
+            assertWithMessage("Invalid request")
+                    .that(requests)
+                    .containsExactly(Paths.get("dir").toAbsolutePath() + " [-c, config.xml]");
+        }
+    }
+
+    @Test
+    public void testFailedRequest() throws Exception {
+        try (AuditDaemon daemon = new AuditDaemon(0)) {
+            final Thread thread = new Thread(() -> {
+                daemon.run((workingDirectory, args, out) -> {
+                    throw new IOException("test");
+                });
+            });
+            thread.start();
+
+            final Path workingDirectory = Paths.get("");
+            try {
+                AuditDaemon.sendRequest(daemon.getPort(), workingDirectory,
+                        Collections.emptyList(), new ByteArrayOutputStream());
+                assertWithMessage("Exception is expected").fail();
+            }
+            catch (EOFException ignored) {
+                // no response is expected
+            }
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try {
+                AuditDaemon.sendRequest(daemon.getPort(), workingDirectory,
+                        Collections.emptyList(), output);
+                assertWithMessage("Exception is expected").fail();
+            }
+            catch (EOFException ignored) {
+                // the daemon should still process requests
+            }
+            daemon.close();
+            thread.join();
+        }
+    }
+
+    @Test
+    public void testRequestWithInvalidSecret() throws Exception {
+        final List<String> requests = new ArrayList<>();
+        try (AuditDaemon daemon = new AuditDaemon(0)) {
+            final Thread thread = new Thread(() -> {
+                daemon.run((workingDirectory, args, out) -> {
+                    requests.add(workingDirectory + " " + args);
+                    return 0;
+                });
+            });
+            thread.start();
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+                final DataOutputStream request = new DataOutputStream(socket.getOutputStream());
+                request.write(new byte[32]);
+                request.flush();
+                assertWithMessage("No response is expected")
+                        .that(socket.getInputStream().read())
+                        .isEqualTo(-1);
+            }
+            daemon.close();
+            thread.join();
+        }
+        assertWithMessage("Request should be rejected")
+                .that(requests)
+                .isEmpty();
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        try (AuditDaemon daemon = new AuditDaemon(0, 100)) {
+            final Thread thread = new Thread(() -> {
+                daemon.run((workingDirectory, args, out) -> 0);
+            });
+            thread.start();
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                assertWithMessage("Request should be processed after the idle client")
+                        .that(AuditDaemon.sendRequest(daemon.getPort(), Paths.get(""),
+                                Collections.emptyList(), output))
+                        .isEqualTo(0);
+                assertWithMessage("Idle client should be dropped")
+                        .that(socket.getInputStream().read())
+                        .isEqualTo(-1);
+            }
+            daemon.close();
+            thread.join();
+        }
+    }
+
+    @Test
+    public void testSecretFile() throws Exception {
+        final Path secretFile;
+        try (AuditDaemon daemon = new AuditDaemon(0)) {
+            secretFile = AuditDaemon.getSecretFile(daemon.getPort());
+            assertWithMessage("Secret file should be in the home directory")
+                    .that(secretFile.startsWith(temporaryFolder.toPath()))
+                    .isTrue();
+            assertWithMessage("Invalid length of secret")
+                    .that(Files.size(secretFile))
+                    .isEqualTo(32L);
+            if (secretFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                assertWithMessage("Secret should be readable only by the user")
+                        .that(PosixFilePermissions.toString(
+                                Files.getPosixFilePermissions(secretFile)))
+                        .isEqualTo("rw-------");
+            }
+        }
+        assertWithMessage("Secret file should be deleted")
+                .that(Files.exists(secretFile))
+                .isFalse();
+    }
+
+    @Test
+    public void testGetChecker() throws Exception {
+        final File config = new File(temporaryFolder, "config.xml");
+        assertWithMessage("File should be created")
+                .that(config.createNewFile())
+                .isTrue();
+        final List<String> files = Arrays.asList(config.getPath(), "/nonexistent.xml");
+        try (AuditDaemon daemon = new AuditDaemon(0)) {
+            final Checker checker = daemon.getChecker("key", files, Checker::new);
+            assertWithMessage("Checker should be reused")
+                    .that(daemon.getChecker("key", files, Checker::new))
+                    .isSameInstanceAs(checker);
+            assertWithMessage("Checker should be created for other key")
+                    .that(daemon.getChecker("other", files, Checker::new))
+                    .isNotSameInstanceAs(checker);
+
+            assertWithMessage("File should be modified")
+                    .that(config.setLastModified(config.lastModified() - 10_000))
+                    .isTrue();
+            assertWithMessage("Checker should be created for modified file")
+                    .that(daemon.getChecker("key", files, Checker::new))
+                    .isNotSameInstanceAs(checker);
+        }
+    }
+
+}
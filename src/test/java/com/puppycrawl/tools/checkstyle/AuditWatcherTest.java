@@ -0,0 +1,236 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean.OutputStreamOptions;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
+
+public class AuditWatcherTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    private static final long DEBOUNCE_DELAY = 200;
+
+    @TempDir
+    public File temporaryFolder;
+
+    private final ByteArrayOutputStream listenerOutput = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream watcherOutput = new ByteArrayOutputStream();
+
+    @Test
+    public void testAudit() throws Exception {
+        final File file = writeFile(new File(temporaryFolder, "Test.java"), "A_x", "b");
+        final Checker checker = createChecker();
+        try (AuditWatcher watcher = createWatcher(checker)) {
+            final int firstErrors = watcher.audit(Collections.singletonList(file));
+            assertWithMessage("Invalid number of errors")
+                    .that(firstErrors)
+                    .isEqualTo(1);
+            assertWithMessage("Invalid listener output")
+                    .that(getListenerOutput())
+                    .contains(file.getPath() + ":2:9: Name 'A_x'");
+
+            listenerOutput.reset();
+            writeFile(file, "a", "B_y");
+            watcher.audit(Collections.singletonList(file));
+            assertWithMessage("Only new violations should be reported")
+                    .that(getListenerOutput())
+                    .contains(file.getPath() + ":3:9: Name 'B_y'");
+            assertWithMessage("Old violations should not be reported")
+                    .that(getListenerOutput())
+                    .doesNotContain("A_x");
+            assertWithMessage("Fixed violations should be printed")
+                    .that(getWatcherOutput())
+                    .startsWith("[FIXED] " + file.getPath() + ":2:9: Name 'A_x'");
+            assertWithMessage("Invalid number of errors")
+                    .that(watcher.getErrorCount())
+                    .isEqualTo(1);
+
+            listenerOutput.reset();
+            watcher.audit(Collections.singletonList(file));
+            assertWithMessage("Unchanged violations should not be reported")
+                    .that(getListenerOutput())
+                    .doesNotContain("B_y");
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        final File directory = new File(temporaryFolder, "src");
+        final File file = writeFile(new File(directory, "Test.java"), "A_x", "b");
+        final Checker checker = createChecker();
+        try (AuditWatcher watcher = createWatcher(checker)) {
+            watcher.register(directory);
+            watcher.audit(Collections.singletonList(file));
+            final Future<?> watcherRun = startWatcher(watcher);
+
+            writeFile(file, "a", "B_y");
+            waitForOutput("Audited 1 changed files: 1 new violations, 1 fixed violations.");
+            final File newFile =
+                    writeFile(new File(directory, "sub/Other.java"), "C_z", "d");
+            waitForOutput("Audited 1 changed files: 1 new violations, 0 fixed violations.");
+            Files.delete(file.toPath());
+            waitForOutput("Audited 0 changed files: 0 new violations, 1 fixed violations.");
+
+            watcher.close();
+            watcherRun.get();
+            assertWithMessage("Invalid listener output")
+                    .that(getListenerOutput())
+                    .contains(newFile.getPath() + ":2:9: Name 'C_z'");
+            assertWithMessage("Invalid number of errors")
+                    .that(watcher.getErrorCount())
+                    .isEqualTo(1);
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    @Test
+    public void testRunWithFileAndFilter() throws Exception {
+        final File file = writeFile(new File(temporaryFolder, "Test.java"), "A_x", "b");
+        final File excluded =
+                writeFile(new File(temporaryFolder, "sub/Excluded.java"), "a", "b");
+        final Checker checker = createChecker();
+        try (AuditWatcher watcher = createWatcher(checker,
+                candidate -> !candidate.getName().startsWith("Excluded"))) {
+            watcher.register(file);
+            watcher.register(excluded.getParentFile());
+            final Future<?> watcherRun = startWatcher(watcher);
+
+            writeFile(new File(temporaryFolder, "Other.java"), "A_x", "b");
+            writeFile(excluded, "A_x", "b");
+            writeFile(file, "a", "b");
+            waitForOutput("Audited 1 changed files: 0 new violations, 0 fixed violations.");
+
+            watcher.close();
+            watcherRun.get();
+            assertWithMessage("Only the watched file should be audited")
+                    .that(getListenerOutput())
+                    .doesNotContain("A_x");
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    @Test
+    public void testRunInterrupted() throws Exception {
+        final Checker checker = createChecker();
+        try (AuditWatcher watcher = createWatcher(checker)) {
+            watcher.register(temporaryFolder);
+            Thread.currentThread().interrupt();
+            watcher.run();
+            assertWithMessage("Interrupted status should be restored")
+                    .that(Thread.interrupted())
+                    .isTrue();
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    private static Checker createChecker() throws CheckstyleException {
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(MemberNameCheck.class.getName()));
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addChild(treeWalkerConfig);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        return checker;
+    }
+
+    private AuditWatcher createWatcher(Checker checker) throws IOException {
+        return createWatcher(checker, file -> true);
+    }
+
+    private AuditWatcher createWatcher(Checker checker, Predicate<File> fileFilter)
+            throws IOException {
+        return new AuditWatcher(checker,
+                new DefaultLogger(listenerOutput, OutputStreamOptions.NONE), fileFilter,
+                new PrintStream(watcherOutput, true, StandardCharsets.UTF_8.name()),
+                DEBOUNCE_DELAY);
+    }
+
+    private static Future<?> startWatcher(AuditWatcher watcher) {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Future<?> result = executor.submit(() -> {
+            watcher.run();
+            return null;
+        });
+        executor.shutdown();
+        return result;
+    }
+
+    private static File writeFile(File file, String firstField, String secondField)
+            throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        final String name = file.getName().replace(".java", "");
+        final String content = "class " + name + " {\n    int " + firstField + ";\n    int "
+                + secondField + ";\n}\n";
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void waitForOutput(String expected) throws Exception {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!getWatcherOutput().contains(expected)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertWithMessage("Watcher did not print the expected output")
+                .that(getWatcherOutput())
+                .contains(expected);
+    }
+
+    private String getListenerOutput() throws IOException {
+        return listenerOutput.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private String getWatcherOutput() throws IOException {
+        return watcherOutput.toString(StandardCharsets.UTF_8.name());
+    }
+
+}
@@ -0,0 +1,122 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class BaselineWriterTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testWriteBaseline() throws IOException {
+        final File sourceA = new File(temporaryFolder, "A.java");
+        Files.write(sourceA.toPath(), Arrays.asList("class A {", "}"), StandardCharsets.UTF_8);
+        final File sourceB = new File(temporaryFolder, "B.java");
+        Files.write(sourceB.toPath(), Arrays.asList("class B {", "}"), StandardCharsets.UTF_8);
+        final File baseline = new File(temporaryFolder, "baseline.txt");
+        final BaselineWriter writer = createBaselineWriter(baseline.getPath());
+
+        writer.auditStarted(null);
+        writer.fileStarted(null);
+        writer.addError(createEvent(sourceB, 1, null));
+        writer.addError(createEvent(sourceA, 2, "id"));
+        writer.addError(createEvent(sourceA, 0, null));
+        writer.addError(createEvent(sourceB, 1, null));
+        writer.addException(null, new IllegalStateException("exception"));
+        writer.fileFinished(null);
+        writer.auditFinished(null);
+
+        final List<String> lines = Files.readAllLines(baseline.toPath(), StandardCharsets.UTF_8);
+        final BaselineFingerprinter fingerprinter =
+                new BaselineFingerprinter(temporaryFolder.getPath(), "UTF-8");
+        assertWithMessage("Invalid baseline file")
+                .that(lines)
+                .containsExactly("# Checkstyle baseline: fingerprint, file, module and message"
+                        + " key of each violation",
+                    fingerprinter.createEntry(createEvent(sourceA, 0, null)),
+                    fingerprinter.createEntry(createEvent(sourceA, 2, "id")),
+                    fingerprinter.createEntry(createEvent(sourceB, 1, null)),
+                    fingerprinter.createEntry(createEvent(sourceB, 1, null)))
+                .inOrder();
+        assertWithMessage("Invalid entry")
+                .that(lines.get(2))
+                .endsWith(" A.java id key");
+        assertWithMessage("Invalid entry")
+                .that(lines.get(3))
+                .endsWith(" B.java " + BaselineWriterTest.class.getName() + " key");
+    }
+
+    @Test
+    public void testWriteEmptyBaseline() throws IOException {
+        final File baseline = new File(temporaryFolder, "baseline.txt");
+        final BaselineWriter writer = createBaselineWriter(baseline.getPath());
+
+        writer.auditStarted(null);
+        writer.auditFinished(null);
+
+        assertWithMessage("Baseline file should contain only the header")
+                .that(Files.readAllLines(baseline.toPath(), StandardCharsets.UTF_8))
+                .hasSize(1);
+    }
+
+    @Test
+    public void testUnwritableBaseline() {
+        final String fileName = temporaryFolder.getPath();
+        final BaselineWriter writer = createBaselineWriter(fileName);
+        writer.auditStarted(null);
+
+        try {
+            writer.auditFinished(null);
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (IllegalStateException ex) {
+            assertWithMessage("Invalid error message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Unable to write baseline file " + fileName);
+        }
+    }
+
+    private AuditEvent createEvent(File source, int lineNo, String moduleId) {
+        final Violation violation = new Violation(lineNo, 1, null, "key", null,
+                SeverityLevel.ERROR, moduleId, getClass(), null);
+        return new AuditEvent(this, source.getName(), violation);
+    }
+
+    private BaselineWriter createBaselineWriter(String fileName) {
+        return new BaselineWriter(fileName, temporaryFolder.getPath(), "UTF-8");
+    }
+
+}
@@ -0,0 +1,128 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import org.itsallcode.io.Capturable;
+import org.itsallcode.junit.sysextensions.SystemErrGuard;
+import org.itsallcode.junit.sysextensions.SystemErrGuard.SysErr;
+import org.itsallcode.junit.sysextensions.SystemOutGuard;
+import org.itsallcode.junit.sysextensions.SystemOutGuard.SysOut;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+@ExtendWith({SystemErrGuard.class, SystemOutGuard.class})
+public class CdsArchiveGeneratorTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @BeforeEach
+    public void setUp(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        systemErr.captureMuted();
+        systemOut.captureMuted();
+    }
+
+    @Test
+    public void testIsProperUtilsClass() throws ReflectiveOperationException {
+        assertWithMessage("Constructor is not private")
+                .that(TestUtil.isUtilsClassHasPrivateConstructor(CdsArchiveGenerator.class, false))
+                .isTrue();
+    }
+
+    @Test
+    public void testCreateCommand() {
+        final File archive = new File(temporaryFolder, "checkstyle.jsa");
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java")
+                .toString();
+
+        assertWithMessage("Invalid command")
+                .that(CdsArchiveGenerator.createCommand(archive))
+                .containsExactly(java, "-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath(),
+                        "-cp", System.getProperty("java.class.path"),
+                        CdsArchiveGenerator.class.getName())
+                .inOrder();
+    }
+
+    @Test
+    public void testTraining(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws Exception {
+        CdsArchiveGenerator.main();
+
+        assertWithMessage("Unexpected error log")
+                .that(systemErr.getCapturedData())
+                .isEmpty();
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .isEmpty();
+    }
+
+    @Test
+    public void testMissingTrainingInput() throws Exception {
+        final Path file = temporaryFolder.toPath().resolve("Input.java");
+        try {
+            CdsArchiveGenerator.copyTrainingInput("nonexistent.txt", file);
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Unable to find the training source file: nonexistent.txt");
+        }
+        assertWithMessage("File should not be created")
+                .that(Files.exists(file))
+                .isFalse();
+    }
+
+    @Test
+    public void testFailedTrainingAudit(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        try {
+            CdsArchiveGenerator.runTrainingAudits(
+                    Collections.singletonList(new String[] {"--unknown"}));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .startsWith("Training audit [--unknown] failed:" + System.lineSeparator()
+                            + "Unknown option: '--unknown'");
+        }
+        assertWithMessage("Unexpected error log")
+                .that(systemErr.getCapturedData())
+                .isEmpty();
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .isEmpty();
+    }
+
+}
@@ -0,0 +1,236 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.checks.naming.AbstractNameCheck.MSG_INVALID_PATTERN;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
+import com.puppycrawl.tools.checkstyle.internal.testmodules.DebugAuditAdapter;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+public class ChangedLinesTest extends AbstractModuleTestSupport {
+
+    private static final Path BASE_DIRECTORY = Paths.get("base").toAbsolutePath();
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/checker";
+    }
+
+    @Test
+    public void testFromDiff() throws IOException {
+        final ChangedLines changedLines = readDiff(
+                "diff --git a/src/A.java b/src/A.java",
+                "index 066838f..f01337b 100644",
+                "--- a/src/A.java",
+                "+++ b/src/A.java",
+                "@@ -1,4 +1,5 @@",
+                " class A {",
+                "-    int b;",
+                "+    int c;",
+                "+    int d;",
+                "     int e;",
+                " }",
+                "@@ -10 +11,2 @@",
+                "--- removed line",
+                "+++ added line",
+                "+    int f;",
+                "\\ No newline at end of file",
+                "diff --git a/src/B.java b/src/B.java",
+                "deleted file mode 100644",
+                "--- a/src/B.java",
+                "+++ /dev/null",
+                "@@ -1,2 +0,0 @@",
+                "-class B {",
+                "-}");
+
+        assertWithMessage("Invalid changed lines")
+                .that(getChangedLines(changedLines, "src/A.java"))
+                .containsExactly(0, 2, 3, 11, 12)
+                .inOrder();
+        assertWithMessage("Deleted file should not be changed")
+                .that(changedLines.containsFile(new File(BASE_DIRECTORY.toFile(), "src/B.java")))
+                .isFalse();
+        assertWithMessage("Changed file should be found")
+                .that(changedLines.containsFile(
+                        new File(BASE_DIRECTORY.toFile(), "src/../src/A.java")))
+                .isTrue();
+    }
+
+    @Test
+    public void testFromDiffWithoutPrefixes() throws IOException {
+        final ChangedLines changedLines = readDiff(
+                "--- /dev/null\t2021-01-01 00:00:00.000000000 +0000",
+                "+++ b/New.java\t2021-01-01 00:00:00.000000000 +0000",
+                "@@ -0,0 +1 @@",
+                "+class New {}",
+                "--- Old.java",
+                "+++ Old.java",
+                "@@ -5,0 +6 @@",
+                "+    int a;");
+
+        assertWithMessage("Invalid changed lines of new file")
+                .that(getChangedLines(changedLines, "New.java"))
+                .containsExactly(0, 1)
+                .inOrder();
+        assertWithMessage("Invalid changed lines of modified file")
+                .that(getChangedLines(changedLines, "Old.java"))
+                .containsExactly(0, 6)
+                .inOrder();
+    }
+
+    @Test
+    public void testFromDiffWithHunkWithoutFile() throws IOException {
+        final ChangedLines changedLines = readDiff(
+                "@@ -1 +1 @@",
+                "-class A {}",
+                "+class B {}");
+
+        assertWithMessage("Hunk without file should be ignored")
+                .that(getChangedLines(changedLines, "A.java"))
+                .isEmpty();
+    }
+
+    @Test
+    public void testFromDiffWithTruncatedHunk() throws IOException {
+        final ChangedLines changedLines = readDiff(
+                "--- a/A.java",
+                "+++ b/A.java",
+                "@@ -1,3 +1,3 @@",
+                "+class A {}");
+
+        assertWithMessage("Invalid changed lines")
+                .that(getChangedLines(changedLines, "A.java"))
+                .containsExactly(0, 1)
+                .inOrder();
+    }
+
+    @Test
+    public void testFromRanges() throws CheckstyleException {
+        final ChangedLines changedLines = ChangedLines.fromRanges(BASE_DIRECTORY,
+                Arrays.asList("A.java:5-7,2,6-9", "A.java:12", "B.java", "C.java:"));
+
+        assertWithMessage("Invalid changed lines")
+                .that(getChangedLines(changedLines, "A.java"))
+                .containsExactly(0, 2, 5, 6, 7, 8, 9, 12)
+                .inOrder();
+        assertWithMessage("All lines should be changed")
+                .that(changedLines.getLines(BASE_DIRECTORY.resolve("B.java").toString())
+                        .test(Integer.MAX_VALUE))
+                .isTrue();
+        assertWithMessage("All lines should be changed")
+                .that(getChangedLines(changedLines, "C.java:"))
+                .hasSize(20);
+        assertWithMessage("Unknown file should not be changed")
+                .that(getChangedLines(changedLines, "D.java"))
+                .isEmpty();
+    }
+
+    @Test
+    public void testFromRangesWithWholeFileAndRanges() throws CheckstyleException {
+        final ChangedLines changedLines = ChangedLines.fromRanges(BASE_DIRECTORY,
+                Arrays.asList("A.java", "A.java:5"));
+        final IntPredicate lines =
+                changedLines.getLines(BASE_DIRECTORY.resolve("A.java").toString());
+
+        assertWithMessage("All lines should be changed")
+                .that(getChangedLines(changedLines, "A.java"))
+                .hasSize(20);
+        assertWithMessage("All lines should be changed")
+                .that(lines.test(Integer.MAX_VALUE))
+                .isTrue();
+    }
+
+    @Test
+    public void testFromRangesWithInvalidRange() {
+        try {
+            ChangedLines.fromRanges(BASE_DIRECTORY,
+                    Collections.singletonList("A.java:5-"));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Invalid line range '5-' in 'A.java:5-'.");
+        }
+    }
+
+    @Test
+    public void testChecker() throws Exception {
+        final DefaultConfiguration typeNameConfig = createModuleConfig(TypeNameCheck.class);
+        typeNameConfig.addProperty("format", "^Changed$");
+        final Checker checker = createChecker(typeNameConfig);
+        final DebugAuditAdapter auditAdapter = new DebugAuditAdapter();
+        checker.addListener(auditAdapter);
+        final String filePath = getPath("InputChecker.java");
+        final String otherFilePath = getPath("InputCheckerClearDetailAstLazyLoadCache.java");
+        checker.setChangedLines(ChangedLines.fromRanges(BASE_DIRECTORY,
+                Arrays.asList(filePath + ":4-5", otherFilePath + ":1")));
+        final String[] expected = {
+            "5:7: " + getCheckMessage(TypeNameCheck.class, MSG_INVALID_PATTERN,
+                    "InputCheckerInner", "^Changed$"),
+        };
+        verify(checker, filePath, filePath, expected);
+        assertWithMessage("Changed file should be processed")
+                .that(auditAdapter.getNumFilesStarted())
+                .isEqualTo(1);
+
+        checker.setChangedLines(ChangedLines.fromRanges(BASE_DIRECTORY,
+                Collections.singletonList(otherFilePath)));
+        verify(checker, filePath, filePath, CommonUtil.EMPTY_STRING_ARRAY);
+        assertWithMessage("Unchanged file should not be processed")
+                .that(auditAdapter.getNumFilesStarted())
+                .isEqualTo(1);
+    }
+
+    private static ChangedLines readDiff(String... lines) throws IOException {
+        final String diff = String.join("\n", lines);
+        try (BufferedReader reader = new BufferedReader(new StringReader(diff))) {
+            return ChangedLines.fromDiff(BASE_DIRECTORY, reader);
+        }
+    }
+
+    private static List<Integer> getChangedLines(ChangedLines changedLines, String fileName) {
+        final IntPredicate lines =
+                changedLines.getLines(BASE_DIRECTORY.resolve(fileName).toString());
+        return IntStream.range(0, 20)
+                .filter(lines)
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+}
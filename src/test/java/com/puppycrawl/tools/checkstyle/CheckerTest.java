@@ -81,6 +81,7 @@ import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
 import com.puppycrawl.tools.checkstyle.checks.TranslationCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionFilter;
 import com.puppycrawl.tools.checkstyle.internal.testmodules.DebugAuditAdapter;
 import com.puppycrawl.tools.checkstyle.internal.testmodules.DebugFilter;
@@ -929,6 +930,152 @@ public class CheckerTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testContentCache() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkerConfig = createRootConfig(null);
+        checkerConfig.addProperty("basedir", temporaryFolder.getPath());
+        checkerConfig.addProperty("contentCacheFile", cacheFile.getPath());
+        final File file = new File(temporaryFolder, "InputCheckerContentCache.java");
+        Files.write(file.toPath(), "class A {}".getBytes(StandardCharsets.UTF_8));
+        final String fileStarted = "fileStarted InputCheckerContentCache.java";
+
+        assertTrue(auditFiles(checkerConfig, file).contains(fileStarted),
+                "File should be audited on first run");
+
+        assertTrue(file.setLastModified(file.lastModified() + 10_000),
+                "Unable to change timestamp");
+        assertFalse(auditFiles(checkerConfig, file).contains(fileStarted),
+                "File with the same content should not be audited");
+
+        Files.write(file.toPath(), "class B {}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(auditFiles(checkerConfig, file).contains(fileStarted),
+                "File with changed content should be audited");
+
+        final PropertyCacheFile cache =
+                new PropertyCacheFile(checkerConfig, cacheFile.getPath(), true);
+        cache.load();
+        assertNotNull(cache.get("InputCheckerContentCache.java"),
+                "File should be stored relative to base directory");
+    }
+
+    @Test
+    public void testContentCacheWithViolation() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkerConfig =
+                createRootConfig(createModuleConfig(DummyFileSetViolationCheck.class));
+        checkerConfig.addProperty("basedir", temporaryFolder.getPath());
+        checkerConfig.addProperty("contentCacheFile", cacheFile.getPath());
+        final File file = new File(temporaryFolder, "InputCheckerContentCache.java");
+        Files.write(file.toPath(), "class A {}".getBytes(StandardCharsets.UTF_8));
+
+        final List<String> events = auditFiles(checkerConfig, file);
+        assertTrue(events.contains("addError InputCheckerContentCache.java:1 test"),
+                "File should have violation");
+        assertEquals(events, auditFiles(checkerConfig, file),
+                "Violations should be replayed from cache");
+
+        final PropertyCacheFile cache =
+                new PropertyCacheFile(checkerConfig, cacheFile.getPath(), true);
+        cache.load();
+        assertEquals(1, cache.getViolations("InputCheckerContentCache.java",
+                getClass().getClassLoader()).size(),
+                "Violation should be in cache");
+    }
+
+    @Test
+    public void testFilterReceivesFileText() throws Exception {
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(createRootConfig(createModuleConfig(DummyFileSetViolationCheck.class)));
+        final List<FileText> fileTexts = new ArrayList<>();
+        checker.addFilter(event -> fileTexts.add(event.getFileText()));
+        final File file = File.createTempFile("file", ".java", temporaryFolder);
+        checker.process(Collections.singletonList(file));
+
+        assertEquals(1, fileTexts.size(), "Filter should be called once");
+        assertEquals(file.getAbsoluteFile(), fileTexts.get(0).getFile(),
+                "Event should have the text of the audited file");
+    }
+
+    @Test
+    public void testCacheWithViolationInMultiThreadMode() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("configuration", new ThreadModeSettings(2, 1));
+        checkerConfig.addChild(createModuleConfig(DummyFileSetViolationCheck.class));
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        final File first = File.createTempFile("first", ".java", temporaryFolder);
+        final File second = File.createTempFile("second", ".java", temporaryFolder);
+
+        final List<String> events = auditFiles(checkerConfig, first, second);
+        assertEquals(Arrays.asList("auditStarted",
+                "fileStarted " + first.getPath(), "addError " + first.getPath() + ":1 test",
+                "fileFinished " + first.getPath(),
+                "fileStarted " + second.getPath(), "addError " + second.getPath() + ":1 test",
+                "fileFinished " + second.getPath(),
+                "auditFinished"), events, "Both files should be audited on first run");
+
+        final PropertyCacheFile cache = new PropertyCacheFile(checkerConfig, cacheFile.getPath());
+        cache.load();
+        assertEquals(1, cache.getViolations(first.getPath(), getClass().getClassLoader()).size(),
+                "Violation should be in cache");
+        assertEquals(events, auditFiles(checkerConfig, first, second),
+                "Violations should be replayed from cache");
+    }
+
+    @Test
+    public void testContentCacheInMultiThreadMode() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("configuration", new ThreadModeSettings(2, 1));
+        checkerConfig.addProperty("contentCacheFile", cacheFile.getPath());
+        final File first = File.createTempFile("first", ".java", temporaryFolder);
+        final File second = File.createTempFile("second", ".java", temporaryFolder);
+
+        final List<String> events = auditFiles(checkerConfig, first, second);
+        assertEquals(Arrays.asList("auditStarted",
+                "fileStarted " + first.getPath(), "fileFinished " + first.getPath(),
+                "fileStarted " + second.getPath(), "fileFinished " + second.getPath(),
+                "auditFinished"), events, "Both files should be audited on first run");
+        assertEquals(Arrays.asList("auditStarted", "auditFinished"),
+                auditFiles(checkerConfig, first, second),
+                "Files should not be audited on second run");
+    }
+
+    @Test
+    public void testProfiler() throws Exception {
+        final DefaultConfiguration hiddenFieldConfig = createModuleConfig(HiddenFieldCheck.class);
+        hiddenFieldConfig.addProperty("id", "hiddenField");
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(hiddenFieldConfig);
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+
+        final ModuleProfiler profiler = new ModuleProfiler();
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.setProfiler(profiler);
+        checker.configure(createRootConfig(treeWalkerConfig));
+        try {
+            checker.process(Arrays.asList(new File(getPath("InputChecker.java")),
+                    new File(getPath("InputCheckerClearDetailAstLazyLoadCache.java"))));
+        }
+        finally {
+            checker.destroy();
+        }
+
+        final List<ModuleProfiler.ModuleStatistics> statistics = profiler.getStatistics();
+        assertWithMessage("Invalid profiled modules")
+                .that(statistics.stream()
+                        .map(ModuleProfiler.ModuleStatistics::getModuleName)
+                        .collect(Collectors.toList()))
+                .containsExactly("TreeWalker", "hiddenField", "MemberNameCheck");
+        assertWithMessage("TreeWalker should process both files")
+                .that(statistics.get(0).getInvocations())
+                .isEqualTo(2);
+    }
+
     @Test
     public void testHaltOnException() throws Exception {
         final DefaultConfiguration checkConfig =
@@ -1447,6 +1594,97 @@ public class CheckerTest extends AbstractModuleTestSupport {
         checker.destroy();
     }
 
+    @Test
+    public void testParallelProcessingKeepsOrderOfEvents() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final File file = new File(temporaryFolder, "Input" + i + ".java");
+            final StringBuilder content = new StringBuilder(64);
+            content.append("public class Input").append(i).append(" {\n");
+            for (int j = 0; j < i; j++) {
+                content.append("    private int field").append(j).append(";\n");
+            }
+            content.append('}');
+            if (i % 2 == 0) {
+                content.append('\n');
+            }
+            Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+
+        final List<String> sequential = processWithThreads(files, 1);
+        final List<String> parallel = processWithThreads(files, 3);
+
+        assertEquals(sequential, parallel, "Listeners should be notified in the same order");
+        assertTrue(sequential.size() > files.size() * 2, "Violations are expected");
+    }
+
+    @Test
+    public void testParallelProcessingWithException() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(CheckWhichThrowsError.class);
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(checkConfig);
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("configuration", new ThreadModeSettings(2, 1));
+        checkerConfig.addChild(treeWalkerConfig);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+
+        final String filePath = getPath("InputChecker.java");
+        try {
+            checker.process(Arrays.asList(new File(filePath), new File(filePath)));
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Exception was thrown while processing " + filePath, ex.getMessage(),
+                    "Error message is not expected");
+            assertEquals(IndexOutOfBoundsException.class, ex.getCause().getClass(),
+                    "Cause is not expected");
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    private static List<String> auditFiles(Configuration checkerConfig, File... files)
+            throws Exception {
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final RecordingAuditListener listener = new RecordingAuditListener();
+        checker.addListener(listener);
+        checker.process(Arrays.asList(files));
+        // invoke destroy to persist cache
+        checker.destroy();
+        return listener.getEvents();
+    }
+
+    private static List<String> processWithThreads(List<File> files, int threads)
+            throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(HiddenFieldCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(CheckWhichDoesNotRequireCommentNodes.class));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("configuration", new ThreadModeSettings(threads, 1));
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(NewlineAtEndOfFileCheck.class));
+        checkerConfig.addChild(createModuleConfig(TranslationCheck.class));
+
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final RecordingAuditListener listener = new RecordingAuditListener();
+        checker.addListener(listener);
+        try {
+            checker.process(files);
+        }
+        finally {
+            checker.destroy();
+        }
+        return listener.getEvents();
+    }
+
     public static class DummyFilter implements Filter {
 
         @Override
@@ -1700,6 +1938,47 @@ public class CheckerTest extends AbstractModuleTestSupport {
 
     }
 
+    public static final class RecordingAuditListener implements AuditListener {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            events.add("auditStarted");
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            events.add("auditFinished");
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            events.add("fileStarted " + event.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            events.add("fileFinished " + event.getFileName());
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            events.add("addError " + event.getFileName() + ":" + event.getLine()
+                    + " " + event.getMessage());
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            events.add("addException " + event.getFileName());
+        }
+
+        public List<String> getEvents() {
+            return Collections.unmodifiableList(events);
+        }
+
+    }
+
     public static class VerifyPositionAfterTabFileSet extends AbstractFileSetCheck {
 
         @Override
@@ -0,0 +1,258 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+public class CompactAstTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/compactast";
+    }
+
+    @Test
+    public void testCopyWithComments() throws Exception {
+        final DetailAST root = parse(JavaParser.Options.WITH_COMMENTS);
+        final DetailAST copy = CompactAst.copyOf(root, true);
+
+        assertSameTree(root, copy);
+        assertWithMessage("Copy should contain comments")
+                .that(copy.getNextSibling().getNextSibling()
+                        .branchContains(TokenTypes.BLOCK_COMMENT_BEGIN))
+                .isTrue();
+    }
+
+    @Test
+    public void testCopyWithoutComments() throws Exception {
+        final DetailAST copy =
+                CompactAst.copyOf(parse(JavaParser.Options.WITH_COMMENTS), false);
+
+        assertSameTree(parse(JavaParser.Options.WITHOUT_COMMENTS), copy);
+        assertWithMessage("Copy should not contain comments")
+                .that(copy.getNextSibling().getNextSibling()
+                        .branchContains(TokenTypes.SINGLE_LINE_COMMENT))
+                .isFalse();
+    }
+
+    @Test
+    public void testCopyOfCompactTree() throws Exception {
+        final DetailAST root = parse(JavaParser.Options.WITH_COMMENTS);
+        final DetailAST copy = CompactAst.copyOf(CompactAst.copyOf(root, true), false);
+
+        assertSameTree(parse(JavaParser.Options.WITHOUT_COMMENTS), copy);
+    }
+
+    @Test
+    public void testCopyOfSubtree() throws Exception {
+        final DetailAST objectBlock = parse(JavaParser.Options.WITHOUT_COMMENTS)
+                .getNextSibling().getNextSibling()
+                .findFirstToken(TokenTypes.OBJBLOCK);
+        final DetailAST field = objectBlock.findFirstToken(TokenTypes.VARIABLE_DEF);
+        final DetailAST copy = CompactAst.copyOf(field, false);
+
+        assertWithMessage("Copy should start with the given node")
+                .that(copy.toString())
+                .isEqualTo(field.toString());
+        assertWithMessage("Copy should not contain the parent")
+                .that(copy.getParent())
+                .isNull();
+        assertWithMessage("Copy should contain the following siblings")
+                .that(copy.getNextSibling().getType())
+                .isEqualTo(TokenTypes.VARIABLE_DEF);
+        assertWithMessage("Copy should end with the last sibling")
+                .that(getSiblingCount(copy))
+                .isEqualTo(getSiblingCount(field));
+    }
+
+    @Test
+    public void testCopyOfNull() {
+        assertWithMessage("Copy of an empty tree should be empty")
+                .that(CompactAst.copyOf(null, true))
+                .isNull();
+    }
+
+    @Test
+    public void testSharedTexts() throws Exception {
+        final DetailAST copy =
+                CompactAst.copyOf(parse(JavaParser.Options.WITHOUT_COMMENTS), false);
+        final DetailAST objectBlock = copy.getNextSibling().getNextSibling()
+                .findFirstToken(TokenTypes.OBJBLOCK);
+        final DetailAST firstModifiers = objectBlock.findFirstToken(TokenTypes.VARIABLE_DEF)
+                .getFirstChild();
+        final DetailAST secondModifiers = objectBlock.findFirstToken(TokenTypes.VARIABLE_DEF)
+                .getNextSibling().getFirstChild();
+
+        assertWithMessage("Nodes with equal texts should share the text")
+                .that(secondModifiers.getFirstChild().getText())
+                .isSameInstanceAs(firstModifiers.getFirstChild().getText());
+    }
+
+    @Test
+    public void testSameView() throws Exception {
+        final DetailAST copy =
+                CompactAst.copyOf(parse(JavaParser.Options.WITHOUT_COMMENTS), false);
+        final DetailAST child = copy.getFirstChild();
+
+        assertWithMessage("Node should be represented by the same view")
+                .that(child.getParent())
+                .isSameInstanceAs(copy);
+        assertWithMessage("Node should be represented by the same view")
+                .that(copy.getNextSibling().getPreviousSibling())
+                .isSameInstanceAs(copy);
+    }
+
+    @Test
+    public void testBranchContainsAny() throws Exception {
+        final DetailAST copy =
+                CompactAst.copyOf(parse(JavaParser.Options.WITHOUT_COMMENTS), false);
+        final DetailAST classDef = copy.getNextSibling().getNextSibling();
+        final BitSet types = new BitSet();
+        types.set(TokenTypes.ENUM_CONSTANT_DEF);
+        types.set(TokenTypes.LITERAL_FOR);
+
+        assertWithMessage("Class should contain the types")
+                .that(CompactAst.branchContainsAny(classDef, types))
+                .isTrue();
+        assertWithMessage("Import should not contain the types")
+                .that(CompactAst.branchContainsAny(copy.getNextSibling(), types))
+                .isFalse();
+        assertWithMessage("Node should be compact")
+                .that(CompactAst.isCompact(copy))
+                .isTrue();
+        assertWithMessage("Parsed node should not be compact")
+                .that(CompactAst.isCompact(parse(JavaParser.Options.WITHOUT_COMMENTS)))
+                .isFalse();
+    }
+
+    @Test
+    public void testBranchContainsUnknownType() throws Exception {
+        final DetailAST copy =
+                CompactAst.copyOf(parse(JavaParser.Options.WITHOUT_COMMENTS), false);
+
+        assertWithMessage("Unknown type should not be contained")
+                .that(copy.branchContains(-1))
+                .isFalse();
+        assertWithMessage("Unknown type should not be contained")
+                .that(copy.branchContains(Integer.MAX_VALUE))
+                .isFalse();
+    }
+
+    private static int getSiblingCount(DetailAST ast) {
+        int count = 0;
+        for (DetailAST sibling = ast.getNextSibling(); sibling != null;
+                sibling = sibling.getNextSibling()) {
+            count++;
+        }
+        return count;
+    }
+
+    private DetailAST parse(JavaParser.Options options) throws Exception {
+        return JavaParser.parseFile(new File(getPath("InputCompactAst.java")), options);
+    }
+
+    /**
+     * Checks that a copy has the same nodes as a tree, comparing the nodes in preorder.
+     *
+     * @param expected the tree.
+     * @param actual the copy.
+     */
+    @SuppressWarnings("deprecation")
+    private static void assertSameTree(DetailAST expected, DetailAST actual) {
+        DetailAST expectedNode = expected;
+        DetailAST actualNode = actual;
+        while (expectedNode != null) {
+            assertSameNode(expectedNode, actualNode);
+            if (expectedNode.hasChildren()) {
+                expectedNode = expectedNode.getFirstChild();
+                actualNode = actualNode.getFirstChild();
+            }
+            else {
+                while (expectedNode != null && expectedNode.getNextSibling() == null) {
+                    expectedNode = expectedNode.getParent();
+                    actualNode = actualNode.getParent();
+                }
+                if (expectedNode != null) {
+                    expectedNode = expectedNode.getNextSibling();
+                    actualNode = actualNode.getNextSibling();
+                }
+            }
+        }
+        assertWithMessage("Copy should not have more nodes")
+                .that(actualNode)
+                .isNull();
+    }
+
+    /**
+     * Checks that a node of a copy has the same attributes as a node of a tree.
+     *
+     * @param expected the node of the tree.
+     * @param actual the node of the copy.
+     */
+    @SuppressWarnings("deprecation")
+    private static void assertSameNode(DetailAST expected, DetailAST actual) {
+        final String message = "Invalid node " + expected;
+        assertWithMessage(message)
+                .that(actual.toString())
+                .isEqualTo(expected.toString());
+        assertWithMessage(message)
+                .that(actual.getType())
+                .isEqualTo(expected.getType());
+        assertWithMessage(message)
+                .that(actual.getChildCount())
+                .isEqualTo(expected.getChildCount());
+        assertWithMessage(message)
+                .that(actual.getNumberOfChildren())
+                .isEqualTo(expected.getChildCount());
+        assertWithMessage(message)
+                .that(actual.getChildCount(TokenTypes.IDENT))
+                .isEqualTo(expected.getChildCount(TokenTypes.IDENT));
+        assertWithMessage(message)
+                .that(actual.hasChildren())
+                .isEqualTo(expected.hasChildren());
+        assertWithMessage(message)
+                .that(String.valueOf(actual.getLastChild()))
+                .isEqualTo(String.valueOf(expected.getLastChild()));
+        assertWithMessage(message)
+                .that(String.valueOf(actual.getPreviousSibling()))
+                .isEqualTo(String.valueOf(expected.getPreviousSibling()));
+        assertWithMessage(message)
+                .that(String.valueOf(actual.getParent()))
+                .isEqualTo(String.valueOf(expected.getParent()));
+        for (int type : TokenUtil.getAllTokenIds()) {
+            assertWithMessage(message)
+                    .that(actual.branchContains(type))
+                    .isEqualTo(expected.branchContains(type));
+            assertWithMessage(message)
+                    .that(String.valueOf(actual.findFirstToken(type)))
+                    .isEqualTo(String.valueOf(expected.findFirstToken(type)));
+        }
+    }
+
+}
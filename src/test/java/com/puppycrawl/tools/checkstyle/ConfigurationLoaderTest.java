@@ -101,17 +101,14 @@ public class ConfigurationLoaderTest extends AbstractPathTestSupport {
         final PropertiesExpander propertiesExpander = new PropertiesExpander(props);
         final String configPath = getPath("InputConfigurationLoaderChecks.xml");
         final ThreadModeSettings multiThreadModeSettings =
-            new ThreadModeSettings(4, 2);
+            new ThreadModeSettings(4, 1);
 
-        try {
-            ConfigurationLoader.loadConfiguration(
+        final DefaultConfiguration config =
+            (DefaultConfiguration) ConfigurationLoader.loadConfiguration(
                 configPath, propertiesExpander, multiThreadModeSettings);
-            fail("An exception is expected");
-        }
-        catch (IllegalArgumentException ex) {
-            assertEquals("Multi thread mode for Checker module is not implemented",
-                ex.getMessage(), "Invalid exception message");
-        }
+
+        assertEquals(multiThreadModeSettings, config.getThreadModeSettings(),
+            "Invalid thread mode");
     }
 
     @Test
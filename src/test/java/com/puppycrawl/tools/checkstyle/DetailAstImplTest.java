@@ -281,6 +281,23 @@ public class DetailAstImplTest extends AbstractModuleTestSupport {
         assertFalse(root.branchContains(TokenTypes.OBJBLOCK), "invalid result");
     }
 
+    @Test
+    public void testBranchContainsAny() {
+        final DetailAstImpl root = createToken(null, TokenTypes.CLASS_DEF);
+        final DetailAstImpl modifiers = createToken(root, TokenTypes.MODIFIERS);
+        createToken(modifiers, TokenTypes.LITERAL_PUBLIC);
+        final BitSet types = new BitSet();
+        types.set(TokenTypes.OBJBLOCK);
+
+        assertWithMessage("invalid result")
+                .that(root.branchContainsAny(types))
+                .isFalse();
+        types.set(TokenTypes.LITERAL_PUBLIC);
+        assertWithMessage("invalid result")
+                .that(root.branchContainsAny(types))
+                .isTrue();
+    }
+
     private static DetailAstImpl createToken(DetailAstImpl root, int type) {
         final DetailAstImpl result = new DetailAstImpl();
         result.setType(type);
@@ -33,9 +33,12 @@ import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
@@ -43,13 +46,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import org.itsallcode.io.Capturable;
 import org.itsallcode.junit.sysextensions.ExitGuard;
@@ -57,6 +63,7 @@ import org.itsallcode.junit.sysextensions.SystemErrGuard;
 import org.itsallcode.junit.sysextensions.SystemErrGuard.SysErr;
 import org.itsallcode.junit.sysextensions.SystemOutGuard;
 import org.itsallcode.junit.sysextensions.SystemOutGuard.SysOut;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -79,28 +86,87 @@ public class MainTest {
             + "Try 'checkstyle --help' for more information.%n");
 
     private static final String USAGE = String.format(Locale.ROOT,
-          "Usage: checkstyle [-dEghjJtTV] [-b=<xpath>] [-c=<configurationFile>] "
+          "Usage: checkstyle [-dEghjJPtTV] [--daemon] [--merge] [--shard-by-size] [--watch] "
+                  + "[-b=<xpath>]%n"
+                  + "                  [--baseline=<baseline>] [-c=<configurationFile>] "
+                  + "[-C=<checkerThreadsNumber>]%n"
+                  + "                  [--daemon-port=<daemonPort>] [--diff=<diff>] "
                   + "[-f=<format>]%n"
-                  + "                  [-o=<outputPath>] [-p=<propertiesFile>] "
+                  + "                  [--generate-cds-archive=<archive>] [-o=<outputPath>] "
+                  + "[-p=<propertiesFile>]%n"
+                  + "                  [--profile-file=<profilePath>] "
                   + "[-s=<suppressionLineColumnNumber>]%n"
-                  + "                  [-w=<tabWidth>] [-e=<exclude>]... [-x=<excludeRegex>]... "
-                  + "<files>...%n"
+                  + "                  [--shard=<shard>] [-w=<tabWidth>] "
+                  + "[-W=<treeWalkerThreadsNumber>]%n"
+                  + "                  [--write-baseline=<writeBaseline>] "
+                  + "[--changed-lines=<changedLines>]...%n"
+                  + "                  [-e=<exclude>]... [-x=<excludeRegex>]... [<files>...]%n"
                   + "Checkstyle verifies that the specified source code files adhere to the"
                   + " specified rules. By default%n"
                   + "violations are reported to standard out in plain format. Checkstyle requires"
                   + " a configuration XML%n"
                   + "file that configures the checks to apply.%n"
-                  + "      <files>...            One or more source files to verify%n"
+                  + "      [<files>...]          One or more source files to verify%n"
                   + "  -b, --branch-matching-xpath=<xpath>%n"
                   + "                            Shows Abstract Syntax Tree(AST) branches that"
                   + " match given XPath query.%n"
+                  + "      --baseline=<baseline> Suppresses the violations recorded in the "
+                  + "baseline file, so that only%n"
+                  + "                              new violations are reported. A violation is "
+                  + "recognized by its module,%n"
+                  + "                              the path of its file, the content of its "
+                  + "line and its message, so it%n"
+                  + "                              is still suppressed when its line is moved.%n"
                   + "  -c=<configurationFile>    Specifies the location of the file that defines"
                   + " the configuration%n"
                   + "                              modules. The location can either be a"
                   + " filesystem location, or a name%n"
                   + "                              passed to the ClassLoader.getResource()"
                   + " method.%n"
+                  + "  -C, --checker-threads=<checkerThreadsNumber>%n"
+                  + "                            Sets the number of threads used to check "
+                  + "files in parallel. Default%n"
+                  + "                              value is 1.%n"
+                  + "      --changed-lines=<changedLines>%n"
+                  + "                            Audits only the specified file and reports "
+                  + "only the violations on the%n"
+                  + "                              specified lines. The argument is the path "
+                  + "of the file followed by%n"
+                  + "                              comma separated line numbers or ranges of "
+                  + "lines, for example Main.%n"
+                  + "                              java:10-20,35. All lines are reported if no "
+                  + "lines are specified. The%n"
+                  + "                              option can be repeated.%n"
                   + "  -d, --debug               Prints all debug logging of CheckStyle utility.%n"
+                  + "      --daemon              Starts a daemon which keeps configured "
+                  + "checkers in memory and runs the%n"
+                  + "                              audits sent to it with --daemon-port. The "
+                  + "daemon listens on the%n"
+                  + "                              loopback interface on the port specified by "
+                  + "--daemon-port, or on a%n"
+                  + "                              free port which is printed. Only the user "
+                  + "who started the daemon can%n"
+                  + "                              send audits to it. The option can be used "
+                  + "only with --daemon-port.%n"
+                  + "      --daemon-port=<daemonPort>%n"
+                  + "                            Sends the audit to the daemon listening on "
+                  + "the port instead of running%n"
+                  + "                              it, or sets the port of the daemon started "
+                  + "with --daemon. Options -s,%n"
+                  + "                              -g, -t, -T, -j, -J, -b, -d, -P, --merge, "
+                  + "--shard, --shard-by-size,%n"
+                  + "                              --generate-cds-archive, --baseline, "
+                  + "--write-baseline and%n"
+                  + "                              --profile-file can not be sent to the "
+                  + "daemon.%n"
+                  + "      --diff=<diff>         Audits only the files changed by the unified "
+                  + "diff, such as the output%n"
+                  + "                              of git diff, and reports only the "
+                  + "violations on the added and%n"
+                  + "                              modified lines. The paths in the diff are "
+                  + "relative to the current%n"
+                  + "                              directory. Use - to read the diff from the "
+                  + "standard input.%n"
                   + "  -e, --exclude=<exclude>   Directory/file to exclude from CheckStyle. The"
                   + " path can be the full,%n"
                   + "                              absolute path, or relative to the current"
@@ -123,6 +189,17 @@ public class MainTest {
                   + "                              printed out. Used only with -c option. Output"
                   + " location can be%n"
                   + "                              specified with -o option.%n"
+                  + "      --generate-cds-archive=<archive>%n"
+                  + "                            Generates a class data sharing archive of "
+                  + "the classes loaded by the%n"
+                  + "                              bundled sun_checks.xml and google_checks.xml "
+                  + "configurations in a new%n"
+                  + "                              JVM, which requires JDK 13 or later. JVMs of "
+                  + "the same JDK started%n"
+                  + "                              with -XX:SharedArchiveFile=<archive> and the "
+                  + "same class path start%n"
+                  + "                              audits faster. No other options or files can "
+                  + "be used with this option.%n"
                   + "  -h, --help                Show this help message and exit.%n"
                   + "  -j, --javadocTree         Prints Parse Tree of the Javadoc comment. The"
                   + " file have to contain only%n"
@@ -130,8 +207,8 @@ public class MainTest {
                   + " '/**' and '*/' at the%n"
                   + "                              beginning and at the end respectively. The"
                   + " option cannot be used%n"
-                  + "                              other options and requires exactly one file"
-                  + " to run on to be specified.%n"
+                  + "                              other options and requires exactly one file to"
+                  + " run on to be specified.%n"
                   + "  -J, --treeWithJavadoc     Prints Abstract Syntax Tree(AST) with Javadoc"
                   + " nodes and comment nodes%n"
                   + "                              of the checked file. Attention that line number"
@@ -142,8 +219,27 @@ public class MainTest {
                   + " option cannot be used with%n"
                   + "                              other options and requires exactly one file to"
                   + " run on to be specified.%n"
-                  + "  -o=<outputPath>           Sets the output file. Defaults to stdout.%n"
+                  + "      --merge               Merges the reports of the shards, specified "
+                  + "instead of the files to%n"
+                  + "                              audit, into one report in the format "
+                  + "specified by -f, which is%n"
+                  + "                              written like the report of an audit. The "
+                  + "number of errors is the%n"
+                  + "                              total of all reports. Only -f and -o can be "
+                  + "used with this option.%n"
+                  + "  -o=<outputPath>           Sets the output file. Defaults to stdout. The "
+                  + "output is compressed with%n"
+                  + "                              gzip if the file name ends with .gz.%n"
                   + "  -p=<propertiesFile>       Sets the property files to load.%n"
+                  + "  -P, --profile             Prints the time spent in each module, the "
+                  + "number of its invocations and%n"
+                  + "                              the memory it allocated, the most time "
+                  + "consuming modules first.%n"
+                  + "      --profile-file=<profilePath>%n"
+                  + "                            Writes the time spent in each module, the "
+                  + "number of its invocations and%n"
+                  + "                              the memory it allocated to the file in JSON "
+                  + "format.%n"
                   + "  -s=<suppressionLineColumnNumber>%n"
                   + "                            Prints xpath suppressions at the file's line and"
                   + " column position.%n"
@@ -163,6 +259,21 @@ public class MainTest {
                   + " but might result in%n"
                   + "                              undesirable matching and suppress other"
                   + " issues.%n"
+                  + "      --shard=<shard>       Audits only the files of the shard, so that "
+                  + "the audit can be split%n"
+                  + "                              between several machines. The argument is "
+                  + "the number of the shard%n"
+                  + "                              followed by the number of shards, for "
+                  + "example 2/8. A file is assigned%n"
+                  + "                              to a shard by the hash of its path relative "
+                  + "to the current directory.%n"
+                  + "      --shard-by-size       Assigns the files to the shards from the "
+                  + "largest to the smallest, each%n"
+                  + "                              to the shard with the smallest total size "
+                  + "so far, instead of by the%n"
+                  + "                              hash of their paths. All machines must see "
+                  + "the same files with the%n"
+                  + "                              same sizes. Used only with --shard.%n"
                   + "  -t, --tree                Prints Abstract Syntax Tree(AST) of the checked"
                   + " file. The option cannot%n"
                   + "                              be used other options and requires exactly one"
@@ -177,6 +288,28 @@ public class MainTest {
                   + "  -w, --tabWidth=<tabWidth> Sets the length of the tab character. Used only"
                   + " with -s option. Default%n"
                   + "                              value is 8.%n"
+                  + "  -W, --tree-walker-threads=<treeWalkerThreadsNumber>%n"
+                  + "                            Sets the number of threads used to run the "
+                  + "checks of TreeWalker on one%n"
+                  + "                              file in parallel. Default value is 1.%n"
+                  + "      --watch               Audits the files and then audits the changed "
+                  + "files again until the%n"
+                  + "                              process is stopped. Only new violations are "
+                  + "reported by the audits of%n"
+                  + "                              changed files, the fixed ones are printed "
+                  + "with the [FIXED] prefix.%n"
+                  + "                              Options -s, -g, -t, -T, -j, -J, -b, -o, -P, "
+                  + "--profile-file, --merge,%n"
+                  + "                              --shard, --shard-by-size, "
+                  + "--generate-cds-archive, --baseline and%n"
+                  + "                              --write-baseline can not be used with this "
+                  + "option.%n"
+                  + "      --write-baseline=<writeBaseline>%n"
+                  + "                            Writes the violations reported by the audit "
+                  + "to the baseline file, which%n"
+                  + "                              can be used with --baseline or the "
+                  + "BaselineFilter module to report%n"
+                  + "                              only new violations.%n"
                   + "  -x, --exclude-regexp=<excludeRegex>%n"
                   + "                            Directory/file pattern to exclude from CheckStyle."
                   + " Multiple excludes%n"
@@ -188,6 +321,8 @@ public class MainTest {
 
     private static final String EOL = System.lineSeparator();
 
+    private static final String USER_HOME = System.getProperty("user.home");
+
     @TempDir
     public File temporaryFolder;
 
@@ -247,6 +382,11 @@ public class MainTest {
         }
     }
 
+    @AfterEach
+    public void tearDown() {
+        System.setProperty("user.home", USER_HOME);
+    }
+
     @Test
     public void testIsProperUtilsClass() throws ReflectiveOperationException {
         assertTrue(
@@ -272,9 +412,6 @@ public class MainTest {
 
     @Test
     public void testWrongArgument(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
-        // need to specify a file:
-        // <files> is defined as a required positional param;
-        // picocli verifies required parameters before checking unknown options
         assertExitWithStatus(-1, () -> invokeMain("-q", "file"));
         final String usage = "Unknown option: '-q'" + EOL + SHORT_USAGE;
         assertEquals("", systemOut.getCapturedData(), "Unexpected output log");
@@ -285,9 +422,9 @@ public class MainTest {
     public void testWrongArgumentMissingFiles(@SysErr Capturable systemErr,
             @SysOut Capturable systemOut) {
         assertExitWithStatus(-1, () -> invokeMain("-q"));
-        // files is defined as a required positional param;
-        // picocli verifies required parameters before checking unknown options
-        final String usage = "Missing required parameter: '<files>'" + EOL + SHORT_USAGE;
+        // files are validated after parsing, as they are not required with some options,
+        // so unknown options are reported first
+        final String usage = "Unknown option: '-q'" + EOL + SHORT_USAGE;
         assertEquals("", systemOut.getCapturedData(), "Unexpected output log");
         assertEquals(usage, systemErr.getCapturedData(), "Unexpected system error log");
     }
@@ -391,6 +528,16 @@ public class MainTest {
         assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
     }
 
+    @Test
+    public void testGzipOutput() throws IOException {
+        final File outputFile = new File(temporaryFolder, "result.xml.gz");
+        Main.main("-c", getPath("InputMainConfig-classname.xml"), "-f", "xml",
+                "-o", outputFile.getPath(), getPath("InputMain.java"));
+        final byte[] content = Files.readAllBytes(outputFile.toPath());
+        assertEquals(GZIPInputStream.GZIP_MAGIC, Byte.toUnsignedInt(content[0])
+                | Byte.toUnsignedInt(content[1]) << Byte.SIZE, "Output should be compressed");
+    }
+
     /**
      * This test method is created only to cover
      * pitest mutation survival at Main#getOutputStreamOptions.
@@ -831,6 +978,556 @@ public class MainTest {
         assertEquals(0, result.size(), "Invalid result size");
     }
 
+    @Test
+    public void testExistingDirectoryWithViolationsInMultiThreadMode(
+            @SysErr Capturable systemErr, @SysOut Capturable systemOut) throws IOException {
+        final int allowedLength = 170;
+        final String msgKey = "maxLen.file";
+        final String bundle = "com.puppycrawl.tools.checkstyle.checks.sizes.messages";
+
+        Main.main("-c", getPath("InputMainConfig-filelength.xml"), "-C", "4",
+                getPath(""));
+        final String expectedPath = getFilePath("") + File.separator;
+        final String violation = new Violation(1, bundle, msgKey,
+                new Integer[] {172, allowedLength}, null, getClass(), null).getViolation();
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                "[WARN] " + expectedPath + "InputMainComplexityOverflow.java:1: "
+                        + violation + " [FileLength]",
+                auditFinishMessage.getViolation()),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testInvalidCheckerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname.xml"), "-C", "0",
+                    getPath("InputMain.java"));
+        });
+        assertEquals("Checker threads number must be greater than zero."
+                + System.lineSeparator(), systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testTreeWalkerMultiThreadMode(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws IOException {
+        Main.main("-c", getPath("InputMainConfig-classname.xml"), "-W", "2",
+                getPath("InputMain.java"));
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                auditFinishMessage.getViolation()),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testInvalidTreeWalkerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname.xml"), "-W", "0",
+                    getPath("InputMain.java"));
+        });
+        assertEquals("TreeWalker threads number must be greater than zero."
+                + System.lineSeparator(), systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testProfile(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws IOException {
+        final File profileFile = new File(temporaryFolder, "profile.json");
+        Main.main("-c", getPath("InputMainConfig-classname.xml"), "-P",
+                "--profile-file", profileFile.getPath(), getPath("InputMain.java"));
+        final String[] lines = systemOut.getCapturedData().split(System.lineSeparator());
+        assertEquals(auditFinishMessage.getViolation(), lines[1], "Unexpected output log");
+        assertTrue(lines[2].startsWith("Module "), "Profile header is expected");
+        assertEquals(5, lines.length, "Profile of all modules is expected");
+        final String profile = new String(Files.readAllBytes(profileFile.toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(profile.contains("\"module\": \"TypeNameCheck\", \"invocations\": 4,"),
+                "Profile of check is expected");
+        assertTrue(profile.contains("\"module\": \"TreeWalker\", \"invocations\": 1,"),
+                "Profile of TreeWalker is expected");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testProfileWithCustomRootModule(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws IOException {
+        TestRootModuleChecker.reset();
+        Main.main("-c", getPath("InputMainConfig-custom-root-module.xml"), "-P",
+                getPath("InputMain.java"));
+        assertEquals("", systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+        assertTrue(TestRootModuleChecker.isProcessed(), "Invalid checker state");
+    }
+
+    @Test
+    public void testDaemon(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws Exception {
+        try (AuditDaemon daemon = createDaemon()) {
+            final Thread thread = startDaemon(daemon);
+            final Path workingDirectory = Paths.get("").toAbsolutePath();
+            final String relativePath = workingDirectory
+                    .relativize(Paths.get(getFilePath("InputMain.java"))).toString();
+            Main.main("--daemon-port", String.valueOf(daemon.getPort()),
+                    "-c", getPath("InputMainConfig-classname.xml"), relativePath);
+            Main.main("--daemon-port=" + daemon.getPort(),
+                    "-c", getPath("InputMainConfig-classname.xml"), relativePath);
+            daemon.close();
+            thread.join();
+        }
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                auditFinishMessage.getViolation(), auditStartMessage.getViolation(),
+                auditFinishMessage.getViolation()),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testDaemonWithUnsupportedOption(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        try (AuditDaemon daemon = createDaemon()) {
+            final Thread thread = startDaemon(daemon);
+            assertExitWithStatus(-1, () -> {
+                invokeMain("--daemon-port", String.valueOf(daemon.getPort()),
+                        "-t", getPath("InputMain.java"));
+            });
+            daemon.close();
+            thread.join();
+        }
+        assertEquals("Option '-t' is not supported by the daemon." + System.lineSeparator(),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testHandleDaemonRequestWithUnknownOption() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AuditDaemon daemon = createDaemon();
+             PrintStream printStream = new PrintStream(out, true, StandardCharsets.UTF_8.name())) {
+            final int status = Main.handleDaemonRequest(daemon, Paths.get(""),
+                    Arrays.asList("--unknown", getPath("InputMain.java")), printStream);
+            assertEquals(-1, status, "Unexpected status");
+        }
+        assertEquals("Unknown option: '--unknown'" + System.lineSeparator(),
+                out.toString(StandardCharsets.UTF_8.name()), "Unexpected output log");
+    }
+
+    @Test
+    public void testHandleDaemonRequestWithoutFiles() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AuditDaemon daemon = createDaemon();
+             PrintStream printStream = new PrintStream(out, true, StandardCharsets.UTF_8.name())) {
+            final int status = Main.handleDaemonRequest(daemon, Paths.get(""),
+                    Arrays.asList("-c", getPath("InputMainConfig-classname.xml")), printStream);
+            assertEquals(-1, status, "Unexpected status");
+        }
+        assertEquals("Missing required parameter: '<files>'" + System.lineSeparator(),
+                out.toString(StandardCharsets.UTF_8.name()), "Unexpected output log");
+    }
+
+    @Test
+    public void testHandleDaemonRequestPersistsCacheFile() throws Exception {
+        final File cacheFile = new File(temporaryFolder, "cache.properties");
+        final File config = new File(temporaryFolder, "config.xml");
+        Files.write(config.toPath(), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE module PUBLIC \"-//Checkstyle//DTD Checkstyle Configuration 1.3//EN\""
+                + " \"https://checkstyle.org/dtds/configuration_1_3.dtd\">\n"
+                + "<module name=\"Checker\">\n"
+                + "    <property name=\"cacheFile\" value=\"" + cacheFile.getPath() + "\"/>\n"
+                + "</module>\n").getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AuditDaemon daemon = createDaemon();
+             PrintStream printStream = new PrintStream(out, true, StandardCharsets.UTF_8.name())) {
+            final int status = Main.handleDaemonRequest(daemon, Paths.get(""),
+                    Arrays.asList("-c", config.getPath(), getPath("InputMain.java")),
+                    printStream);
+            assertEquals(0, status, "Unexpected status");
+            assertTrue(cacheFile.exists(), "Cache file should be written after the request");
+        }
+    }
+
+    @Test
+    public void testDaemonWithCustomRootModule(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        try (AuditDaemon daemon = createDaemon()) {
+            final Thread thread = startDaemon(daemon);
+            assertExitWithStatus(-2, () -> {
+                invokeMain("--daemon-port", String.valueOf(daemon.getPort()), "-c",
+                        getPath("InputMainConfig-custom-root-module.xml"),
+                        getPath("InputMain.java"));
+            });
+            daemon.close();
+            thread.join();
+        }
+        assertTrue(systemOut.getCapturedData().contains("can not be used with option '--daemon'."),
+                "Unexpected output log");
+    }
+
+    @Test
+    public void testDaemonNotRunning(@SysErr Capturable systemErr) throws IOException {
+        final int port;
+        try (AuditDaemon daemon = createDaemon()) {
+            port = daemon.getPort();
+        }
+        assertExitWithStatus(-2, () -> {
+            invokeMain("--daemon-port", String.valueOf(port), "-c",
+                    getPath("InputMainConfig-classname.xml"), getPath("InputMain.java"));
+        });
+        assertTrue(systemErr.getCapturedData().contains(
+                "Could not run the audit by the daemon on port " + port),
+                "Unexpected system error log");
+    }
+
+    @Test
+    public void testDaemonWithOtherOptions(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> {
+            invokeMain("--daemon", "-c", getPath("InputMainConfig-classname.xml"));
+        });
+        assertEquals("Option '--daemon' can be used only with '--daemon-port'."
+                + System.lineSeparator(), systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testWatch(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws Exception {
+        final Thread thread = new Thread(() -> {
+            invokeMain("--watch", "-c", getPath("InputMainConfig-classname.xml"),
+                    getPath("InputMain.java"));
+        });
+        thread.start();
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!systemOut.getCapturedData().contains(auditFinishMessage.getViolation())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        thread.interrupt();
+        thread.join();
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                auditFinishMessage.getViolation()),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testWatchWithUnsupportedOption(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> {
+            invokeMain("--watch", "-c", getPath("InputMainConfig-classname.xml"),
+                    "-o", "output.txt", getPath("InputMain.java"));
+        });
+        assertEquals("Option '-o' can not be used with '--watch'." + System.lineSeparator(),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testDiff(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws Exception {
+        final String relativePath = Paths.get("").toAbsolutePath()
+                .relativize(Paths.get(getFilePath("InputMain.java"))).toString();
+        final File diff = new File(temporaryFolder, "changes.diff");
+        Files.write(diff.toPath(), Arrays.asList(
+                "--- a/" + relativePath,
+                "+++ b/" + relativePath,
+                "@@ -5 +5 @@",
+                "-class Inner {",
+                "+class InputMainInner {"));
+        assertExitWithStatus(1, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname2-error.xml"),
+                    "--diff", diff.getPath(), getPath(""));
+        });
+        final Violation invalidPatternMessageMainInner = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMainInner", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                "[ERROR] " + getFilePath("InputMain.java") + ":5:7: "
+                        + invalidPatternMessageMainInner.getViolation() + " [TypeName]",
+                auditFinishMessage.getViolation()),
+                systemOut.getCapturedData(), "Unexpected output log");
+        final Violation errorCounterOneMessage = new Violation(1,
+                Definitions.CHECKSTYLE_BUNDLE, Main.ERROR_COUNTER,
+                new String[] {String.valueOf(1)}, null, getClass(), null);
+        assertEquals(addEndOfLine(errorCounterOneMessage.getViolation()),
+                systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testDiffFromStandardInput(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        final InputStream systemIn = System.in;
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+        try {
+            Main.main("-c", getPath("InputMainConfig-classname2-error.xml"),
+                    "--diff", "-", getPath("InputMain.java"));
+        }
+        finally {
+            System.setIn(systemIn);
+        }
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                auditFinishMessage.getViolation()),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testChangedLines(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws IOException {
+        assertExitWithStatus(1, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname2-error.xml"),
+                    "--changed-lines", getPath("InputMain.java") + ":1-3",
+                    getPath("InputMain.java"));
+        });
+        final Violation invalidPatternMessageMain = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMain", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                "[ERROR] " + getFilePath("InputMain.java") + ":3:14: "
+                        + invalidPatternMessageMain.getViolation() + " [TypeName]",
+                auditFinishMessage.getViolation()),
+                systemOut.getCapturedData(), "Unexpected output log");
+        final Violation errorCounterOneMessage = new Violation(1,
+                Definitions.CHECKSTYLE_BUNDLE, Main.ERROR_COUNTER,
+                new String[] {String.valueOf(1)}, null, getClass(), null);
+        assertEquals(addEndOfLine(errorCounterOneMessage.getViolation()),
+                systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testChangedLinesWithCustomRootModule(@SysErr Capturable systemErr) {
+        assertExitWithStatus(-2, () -> {
+            invokeMain("-c", getPath("InputMainConfig-custom-root-module.xml"),
+                    "--changed-lines", getPath("InputMain.java"), getPath("InputMain.java"));
+        });
+        assertTrue(systemErr.getCapturedData().contains(
+                "can not be used with option '--changed-lines'."),
+                "Unexpected system error log");
+    }
+
+    @Test
+    public void testDiffWithInvalidOptions(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String diff = new File(temporaryFolder, "missing.diff").getPath();
+        assertExitWithStatus(-1, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname.xml"), "--diff", diff,
+                    "--changed-lines", getPath("InputMain.java"), getPath("InputMain.java"));
+        });
+        assertEquals(addEndOfLine("Option '--changed-lines' can not be used with '--diff'.",
+                "Could not find file '" + diff + "'."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testWriteBaselineAndBaseline(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws IOException {
+        final File baseline = new File(temporaryFolder, "baseline.txt");
+        assertExitWithStatus(2, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname2-error.xml"),
+                    "--write-baseline", baseline.getPath(), getPath("InputMain.java"));
+        });
+        assertEquals(3, Files.readAllLines(baseline.toPath()).size(),
+                "Baseline file should contain the header and two violations");
+        systemOut.captureMuted();
+        systemErr.captureMuted();
+        Main.main("-c", getPath("InputMainConfig-classname2-error.xml"),
+                "--baseline", baseline.getPath(), getPath("InputMain.java"));
+        assertEquals(noViolationsOutput, systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testMissingBaseline(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String baseline = new File(temporaryFolder, "missing.txt").getPath();
+        assertExitWithStatus(-1, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname.xml"), "--baseline", baseline,
+                    getPath("InputMain.java"));
+        });
+        assertEquals(addEndOfLine("Could not find file '" + baseline + "'."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testWriteBaselineWithWatch(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String baseline = new File(temporaryFolder, "baseline.txt").getPath();
+        assertExitWithStatus(-1, () -> {
+            invokeMain("--watch", "-c", getPath("InputMainConfig-classname.xml"),
+                    "--write-baseline", baseline, getPath("InputMain.java"));
+        });
+        assertEquals(addEndOfLine("Option '--write-baseline' can not be used with '--watch'."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testBaselineWithCustomRootModule(@SysErr Capturable systemErr) {
+        final String baseline = new File(temporaryFolder, "baseline.txt").getPath();
+        assertExitWithStatus(-2, () -> {
+            invokeMain("-c", getPath("InputMainConfig-custom-root-module.xml"),
+                    "--write-baseline", baseline, getPath("InputMain.java"));
+        });
+        assertTrue(systemErr.getCapturedData().contains(
+                "can not be used with option '--write-baseline'."),
+                "Unexpected system error log");
+    }
+
+    @Test
+    public void testShardAndMerge(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws IOException {
+        final String firstReport = new File(temporaryFolder, "shard1.txt").getPath();
+        final String thirdReport = new File(temporaryFolder, "shard3.txt").getPath();
+        assertEquals(1, Main.run("-c", getPath("InputMainConfig-classname2-error.xml"),
+                "--shard", "1/4", "-o", firstReport,
+                getPath("InputMain.java"), getPath("InputMain1.java")),
+                "Unexpected exit status of the first shard");
+        assertEquals(2, Main.run("-c", getPath("InputMainConfig-classname2-error.xml"),
+                "--shard", "3/4", "-o", thirdReport,
+                getPath("InputMain.java"), getPath("InputMain1.java")),
+                "Unexpected exit status of the third shard");
+        systemErr.captureMuted();
+        assertExitWithStatus(3, () -> {
+            invokeMain("--merge", firstReport, thirdReport);
+        });
+        final Violation invalidPatternMessageMain1 = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMain1", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        final Violation invalidPatternMessageMain = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMain", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        final Violation invalidPatternMessageMainInner = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMainInner", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                "[ERROR] " + getFilePath("InputMain1.java") + ":3:14: "
+                        + invalidPatternMessageMain1.getViolation() + " [TypeName]",
+                "[ERROR] " + getFilePath("InputMain.java") + ":3:14: "
+                        + invalidPatternMessageMain.getViolation() + " [TypeName]",
+                "[ERROR] " + getFilePath("InputMain.java") + ":5:7: "
+                        + invalidPatternMessageMainInner.getViolation() + " [TypeName]",
+                auditFinishMessage.getViolation()),
+                systemOut.getCapturedData(), "Unexpected output log");
+        final Violation errorCounterThreeMessage = new Violation(1,
+                Definitions.CHECKSTYLE_BUNDLE, Main.ERROR_COUNTER,
+                new String[] {String.valueOf(3)}, null, getClass(), null);
+        assertEquals(addEndOfLine(errorCounterThreeMessage.getViolation()),
+                systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testEmptyShard(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws IOException {
+        Main.main("-c", getPath("InputMainConfig-classname2-error.xml"),
+                "--shard", "2/4", getPath("InputMain.java"), getPath("InputMain1.java"));
+        assertEquals(noViolationsOutput, systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testShardWithInvalidNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname.xml"), "--shard", "0/2",
+                    getPath("InputMain.java"));
+        });
+        assertEquals(addEndOfLine("Invalid shard '0/2', the number must be between 1 and 2."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testShardBySizeWithoutShard(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> {
+            invokeMain("-c", getPath("InputMainConfig-classname.xml"), "--shard-by-size",
+                    getPath("InputMain.java"));
+        });
+        assertEquals(addEndOfLine("Option '--shard-by-size' can be used only with '--shard'."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testMergeWithConfig(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String report = new File(temporaryFolder, "missing.xml").getPath();
+        assertExitWithStatus(-1, () -> {
+            invokeMain("--merge", "-c", getPath("InputMainConfig-classname.xml"), report);
+        });
+        assertEquals(addEndOfLine("Option '-c' can not be used with '--merge'."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testMergeMissingReport(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String report = new File(temporaryFolder, "missing.xml").getPath();
+        assertExitWithStatus(-1, () -> {
+            invokeMain("--merge", "-f", "xml", report);
+        });
+        assertEquals(addEndOfLine("Could not find file '" + report + "'."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testMergeInvalidReport(@SysErr Capturable systemErr) {
+        assertExitWithStatus(-2, () -> {
+            invokeMain("--merge", "-f", "xml", getPath("InputMain.java"));
+        });
+        assertTrue(systemErr.getCapturedData().contains(
+                "is not a report in xml format."), "Unexpected system error log");
+    }
+
+    @Test
+    public void testMergeWithoutFiles(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertExitWithStatus(-1, () -> invokeMain("--merge", "-f", "xml"));
+        final String usage = "Missing required parameter: '<files>'" + EOL + SHORT_USAGE;
+        assertEquals("", systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals(usage, systemErr.getCapturedData(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testGenerateCdsArchiveWithOtherOptions(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String archive = new File(temporaryFolder, "checkstyle.jsa").getPath();
+        assertExitWithStatus(-1, () -> {
+            invokeMain("--generate-cds-archive", archive, "-f", "xml");
+        });
+        assertEquals(addEndOfLine(
+                "Option '--generate-cds-archive' can not be used with other options."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+        assertFalse(new File(archive).exists(), "Archive should not be generated");
+    }
+
+    @Test
+    public void testGenerateCdsArchiveWithFiles(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String archive = new File(temporaryFolder, "checkstyle.jsa").getPath();
+        assertExitWithStatus(-1, () -> {
+            invokeMain("--generate-cds-archive", archive, getPath("InputMain.java"));
+        });
+        assertEquals(addEndOfLine(
+                "Option '--generate-cds-archive' can not be used with other options."),
+                systemOut.getCapturedData(), "Unexpected output log");
+        assertEquals("", systemErr.getCapturedData(), "Unexpected system error log");
+        assertFalse(new File(archive).exists(), "Archive should not be generated");
+    }
+
     @Test
     public void testFileReferenceDuringException(@SysErr Capturable systemErr) {
         // We put xml as source to cause parse exception
@@ -1569,6 +2266,26 @@ public class MainTest {
         assertTrue(listener instanceof DefaultLogger, "listener is DefaultLogger");
     }
 
+    /**
+     * Creates a daemon which writes its secret to the temporary folder, used as the
+     * home directory of the user until the end of the test.
+     *
+     * @return the daemon
+     * @throws IOException if the daemon can not be created
+     */
+    private AuditDaemon createDaemon() throws IOException {
+        System.setProperty("user.home", temporaryFolder.getPath());
+        return new AuditDaemon(0);
+    }
+
+    private static Thread startDaemon(AuditDaemon daemon) {
+        final Thread thread = new Thread(() -> {
+            daemon.run((dir, args, out) -> Main.handleDaemonRequest(daemon, dir, args, out));
+        });
+        thread.start();
+        return thread;
+    }
+
     /**
      * Helper method to run {@link Main#main(String...)} as {@link Runnable}.
      *
@@ -0,0 +1,143 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.itsallcode.io.Capturable;
+import org.itsallcode.junit.sysextensions.SystemErrGuard;
+import org.itsallcode.junit.sysextensions.SystemErrGuard.SysErr;
+import org.itsallcode.junit.sysextensions.SystemOutGuard;
+import org.itsallcode.junit.sysextensions.SystemOutGuard.SysOut;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+@ExtendWith({SystemErrGuard.class, SystemOutGuard.class})
+public class ModuleIndexGeneratorTest {
+
+    private static final String FOO_PACKAGE =
+            "com.puppycrawl.tools.checkstyle.packageobjectfactory.foo";
+
+    private static final String BAR_PACKAGE =
+            "com.puppycrawl.tools.checkstyle.packageobjectfactory.bar";
+
+    @TempDir
+    public File temporaryFolder;
+
+    @BeforeEach
+    public void setUp(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        systemErr.captureMuted();
+        systemOut.captureMuted();
+    }
+
+    @Test
+    public void testIsProperUtilsClass() throws ReflectiveOperationException {
+        assertWithMessage("Constructor is not private")
+                .that(TestUtil.isUtilsClassHasPrivateConstructor(ModuleIndexGenerator.class, false))
+                .isTrue();
+    }
+
+    @Test
+    public void testModuleIndexOfPackages(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        final File index = new File(temporaryFolder,
+                PackageObjectFactory.MODULE_INDEX_LOCATION);
+        ModuleIndexGenerator.main("--destfile", index.getPath(), FOO_PACKAGE, BAR_PACKAGE);
+
+        assertWithMessage("Invalid module index")
+                .that(Files.readAllLines(index.toPath(), StandardCharsets.UTF_8))
+                .containsExactly(BAR_PACKAGE + ".FooCheck", FOO_PACKAGE + ".FooCheck")
+                .inOrder();
+        assertWithMessage("Unexpected error log")
+                .that(systemErr.getCapturedData())
+                .isEmpty();
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .isEmpty();
+    }
+
+    @Test
+    public void testModuleIndexOfRegisteredPackages() throws Exception {
+        final File index = new File(temporaryFolder, "modules.idx");
+        ModuleIndexGenerator.main("--destfile", index.getPath());
+
+        final List<String> modules = Files.readAllLines(index.toPath(), StandardCharsets.UTF_8);
+        assertWithMessage("Index must contain the modules of the registered packages")
+                .that(modules)
+                .containsAtLeast(Checker.class.getName(), TreeWalker.class.getName(),
+                        "com.puppycrawl.tools.checkstyle.checks.coding.EmptyStatementCheck");
+        assertWithMessage("Index must not contain classes which are not modules")
+                .that(modules)
+                .doesNotContain(PackageObjectFactory.class.getName());
+        assertWithMessage("Index must be sorted")
+                .that(modules)
+                .isInOrder();
+    }
+
+    @Test
+    public void testNoDestfileSpecified(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        ModuleIndexGenerator.main(FOO_PACKAGE);
+
+        assertWithMessage("Unexpected error log")
+                .that(systemErr.getCapturedData())
+                .startsWith("Missing required option: '--destfile=<outputFile>'");
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .isEmpty();
+    }
+
+    @Test
+    public void testHelp(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws Exception {
+        ModuleIndexGenerator.main("-h");
+
+        assertWithMessage("Unexpected output log")
+                .that(systemOut.getCapturedData())
+                .startsWith("Usage: java com.puppycrawl.tools.checkstyle.ModuleIndexGenerator");
+        assertWithMessage("Unexpected error log")
+                .that(systemErr.getCapturedData())
+                .isEmpty();
+    }
+
+    @Test
+    public void testDestfileNotWritable() {
+        try {
+            ModuleIndexGenerator.main("--destfile", temporaryFolder.getPath(), FOO_PACKAGE);
+            assertWithMessage("Exception was expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid error message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Failed to write module index to '" + temporaryFolder + "'");
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.ModuleProfiler.ModuleStatistics;
+import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
+
+public class ModuleProfilerTest {
+
+    @Test
+    public void testRecordInvocation() {
+        final ModuleProfiler profiler = new ModuleProfiler();
+        final TypeNameCheck check = new TypeNameCheck();
+        final List<String> actions = new ArrayList<>();
+        profiler.recordInvocation(check, System.nanoTime(), profiler.getAllocatedBytes());
+        profiler.profile(check, () -> actions.add("run"));
+
+        assertWithMessage("Action should be run")
+                .that(actions)
+                .containsExactly("run");
+        final List<ModuleStatistics> statistics = profiler.getStatistics();
+        assertWithMessage("Invalid number of modules")
+                .that(statistics)
+                .hasSize(1);
+        assertWithMessage("Invalid module name")
+                .that(statistics.get(0).getModuleName())
+                .isEqualTo("TypeNameCheck");
+        assertWithMessage("Invalid number of invocations")
+                .that(statistics.get(0).getInvocations())
+                .isEqualTo(2);
+        assertWithMessage("Time should not be negative")
+                .that(statistics.get(0).getTime())
+                .isAtLeast(0);
+        assertWithMessage("Allocated bytes should not be negative")
+                .that(statistics.get(0).getAllocatedBytes())
+                .isAtLeast(0);
+    }
+
+    @Test
+    public void testModuleId() {
+        final ModuleProfiler profiler = new ModuleProfiler();
+        final MemberNameCheck check = new MemberNameCheck();
+        check.setId("memberName");
+        profiler.recordInvocation(check, System.nanoTime(), 0);
+        profiler.recordInvocation(new MemberNameCheck(), System.nanoTime(), 0);
+        profiler.recordInvocation(new Object(), System.nanoTime(), 0);
+
+        assertWithMessage("Modules should be distinguished by id")
+                .that(profiler.getStatistics().stream()
+                        .map(ModuleStatistics::getModuleName)
+                        .collect(Collectors.toList()))
+                .containsExactly("memberName", "MemberNameCheck", "Object");
+    }
+
+    @Test
+    public void testStatisticsOrder() {
+        final ModuleProfiler profiler = new ModuleProfiler();
+        final long now = System.nanoTime();
+        profiler.recordInvocation(new TypeNameCheck(), now, 0);
+        profiler.recordInvocation(new MemberNameCheck(), now - 1_000_000_000L, 0);
+
+        assertWithMessage("The most time consuming module should be first")
+                .that(profiler.getStatistics().stream()
+                        .map(ModuleStatistics::getModuleName)
+                        .collect(Collectors.toList()))
+                .containsExactly("MemberNameCheck", "TypeNameCheck")
+                .inOrder();
+    }
+
+    @Test
+    public void testToTable() {
+        final ModuleProfiler profiler = new ModuleProfiler();
+        profiler.recordInvocation(new TypeNameCheck(), System.nanoTime(), 0);
+
+        final String[] lines = profiler.toTable().split(System.lineSeparator());
+        assertWithMessage("Invalid number of lines")
+                .that(lines)
+                .hasLength(2);
+        assertWithMessage("Invalid header")
+                .that(lines[0])
+                .matches("Module +Invocations +Time \\(ms\\) +Allocated \\(bytes\\)");
+        assertWithMessage("Invalid row")
+                .that(lines[1])
+                .matches("TypeNameCheck +1 +\\d+\\.\\d{3} +\\d+");
+    }
+
+    @Test
+    public void testToJson() {
+        final ModuleProfiler profiler = new ModuleProfiler();
+        final TypeNameCheck check = new TypeNameCheck();
+        check.setId("type\"Name");
+        profiler.recordInvocation(check, System.nanoTime(), 0);
+
+        final String json = profiler.toJson();
+        assertWithMessage("Invalid start of JSON")
+                .that(json)
+                .startsWith("{" + System.lineSeparator() + "  \"modules\": [");
+        assertWithMessage("Invalid module in JSON")
+                .that(json)
+                .contains("{\"module\": \"type\\\"Name\", \"invocations\": 1, \"timeNanos\": ");
+    }
+
+}
@@ -30,14 +30,20 @@ import static com.puppycrawl.tools.checkstyle.PackageObjectFactory.STRING_SEPARA
 import static com.puppycrawl.tools.checkstyle.PackageObjectFactory.UNABLE_TO_INSTANTIATE_EXCEPTION_MESSAGE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -45,6 +51,8 @@ import java.util.Optional;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
@@ -59,6 +67,9 @@ import com.puppycrawl.tools.checkstyle.internal.utils.CheckUtil;
  */
 public class PackageObjectFactoryTest {
 
+    @TempDir
+    public File temporaryFolder;
+
     private final PackageObjectFactory factory = new PackageObjectFactory(
             BASE_PACKAGE, Thread.currentThread().getContextClassLoader());
 
@@ -230,6 +241,69 @@ public class PackageObjectFactoryTest {
         }
     }
 
+    @Test
+    public void testCreateObjectFromModuleIndex() throws Exception {
+        final String barPackage = BASE_PACKAGE + ".packageobjectfactory.bar";
+        final String fooPackage = BASE_PACKAGE + ".packageobjectfactory.foo";
+        final ClassLoader classLoader = createModuleIndexClassLoader(
+                "# modules of foo",
+                "",
+                fooPackage + ".FooCheck",
+                "java.lang.String");
+        final PackageObjectFactory objectFactory = new PackageObjectFactory(
+                new LinkedHashSet<>(Arrays.asList(barPackage, fooPackage)), classLoader);
+
+        assertEquals(fooPackage + ".FooCheck",
+                objectFactory.createModule("FooCheck").getClass().getCanonicalName(),
+                "Indexed module must be created even if its name is ambiguous on class path");
+        assertEquals(fooPackage + ".FooCheck",
+                objectFactory.createModule("Foo").getClass().getCanonicalName(),
+                "Indexed module must be found without the check suffix");
+        assertNull(Whitebox.getInternalState(objectFactory, "thirdPartyNameToFullModuleNames"),
+                "Class path must not be searched for indexed modules");
+        assertEquals(Collections.singletonMap("FooCheck",
+                Collections.singleton(fooPackage + ".FooCheck")),
+                Whitebox.getInternalState(objectFactory, "indexedNameToFullModuleNames"),
+                "Modules outside of the packages must not be indexed");
+    }
+
+    @Test
+    public void testCreateObjectNotInModuleIndex() throws Exception {
+        final String barPackage = BASE_PACKAGE + ".packageobjectfactory.bar";
+        final String fooPackage = BASE_PACKAGE + ".packageobjectfactory.foo";
+        final ClassLoader classLoader = createModuleIndexClassLoader(barPackage + ".FooCheck");
+        final PackageObjectFactory objectFactory = new PackageObjectFactory(
+                Collections.singleton(fooPackage), classLoader);
+
+        assertEquals(fooPackage + ".FooCheck",
+                objectFactory.createModule("FooCheck").getClass().getCanonicalName(),
+                "Module not in the index must be found on class path");
+    }
+
+    @Test
+    public void testCreateObjectWithUnreadableModuleIndex() throws Exception {
+        final String fooPackage = BASE_PACKAGE + ".packageobjectfactory.foo";
+        final ClassLoader classLoader = new ClassLoader(
+                Thread.currentThread().getContextClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                if (PackageObjectFactory.MODULE_INDEX_LOCATION.equals(name)) {
+                    throw new IOException("test");
+                }
+                return super.getResources(name);
+            }
+        };
+        final PackageObjectFactory objectFactory = new PackageObjectFactory(
+                Collections.singleton(fooPackage), classLoader);
+
+        assertEquals(fooPackage + ".FooCheck",
+                objectFactory.createModule("FooCheck").getClass().getCanonicalName(),
+                "Module must be found on class path if the index can not be read");
+        assertEquals(Collections.emptyMap(),
+                Whitebox.getInternalState(objectFactory, "indexedNameToFullModuleNames"),
+                "Module index must be empty if it can not be read");
+    }
+
     @Test
     public void testCreateObjectFromFullModuleNamesWithCantInstantiateException() {
         final String package1 = BASE_PACKAGE + ".wrong1";
@@ -393,6 +467,25 @@ public class PackageObjectFactoryTest {
                 "Invalid simple check name");
     }
 
+    private ClassLoader createModuleIndexClassLoader(String... lines) throws IOException {
+        final File index = new File(temporaryFolder, "modules.idx");
+        Files.write(index.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+        final URL indexUrl = index.toURI().toURL();
+        return new ClassLoader(Thread.currentThread().getContextClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                final Enumeration<URL> result;
+                if (PackageObjectFactory.MODULE_INDEX_LOCATION.equals(name)) {
+                    result = Collections.enumeration(Collections.singleton(indexUrl));
+                }
+                else {
+                    result = super.getResources(name);
+                }
+                return result;
+            }
+        };
+    }
+
     private static final class FailConstructorFileSet extends AbstractFileSetCheck {
 
         private FailConstructorFileSet() {
@@ -33,20 +33,28 @@ import java.io.File;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.powermock.reflect.Whitebox;
 
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class PropertyCacheFileTest extends AbstractPathTestSupport {
@@ -241,6 +249,182 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
         Files.delete(Paths.get(filePath));
     }
 
+    @Test
+    public void testBinaryFormat() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath, true);
+        cache.load();
+        cache.put("myFile", 1);
+        cache.persist();
+
+        final PropertyCacheFile loadedCache = new PropertyCacheFile(config, filePath, true);
+        loadedCache.load();
+        assertTrue(loadedCache.isInCache("myFile", 1), "File should be in cache");
+        assertEquals(cache.get(PropertyCacheFile.CONFIG_HASH_KEY),
+                loadedCache.get(PropertyCacheFile.CONFIG_HASH_KEY), "Invalid config hash");
+
+        final PropertyCacheFile propertiesCache = new PropertyCacheFile(config, filePath);
+        propertiesCache.load();
+        assertFalse(propertiesCache.isInCache("myFile", 1),
+                "Binary cache should not be read as properties");
+    }
+
+    @Test
+    public void testBinaryFormatWithOtherContent() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile propertiesCache = new PropertyCacheFile(config, filePath);
+        propertiesCache.load();
+        propertiesCache.put("myFile", 1);
+        propertiesCache.persist();
+
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath, true);
+        cache.load();
+        assertFalse(cache.isInCache("myFile", 1), "Property file should not be read as binary");
+        assertNotNull(cache.get(PropertyCacheFile.CONFIG_HASH_KEY),
+                "Config hash key should not be null");
+    }
+
+    @Test
+    public void testBinaryFormatTruncated() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        final PropertyCacheFile cache = new PropertyCacheFile(config, file.getPath(), true);
+        cache.load();
+        cache.put("myFile", 1);
+        cache.persist();
+        final byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(content, content.length - 1));
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, file.getPath(), true);
+        loadedCache.load();
+        assertNotNull(loadedCache.get(PropertyCacheFile.CONFIG_HASH_KEY),
+                "Config hash key should not be null");
+    }
+
+    @Test
+    public void testViolations() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath, true);
+        cache.load();
+        cache.put("myFile", 1);
+        assertEquals(Collections.emptyList(),
+                cache.getViolations("myFile", getClass().getClassLoader()),
+                "File without violations should have no violations in cache");
+        final List<Violation> violations = Collections.singletonList(new Violation(1,
+                Definitions.CHECKSTYLE_BUNDLE, "general.exception",
+                new String[] {"message"}, null, getClass(), null));
+        cache.putViolations("myFile", violations);
+        cache.persist();
+
+        final PropertyCacheFile loadedCache = new PropertyCacheFile(config, filePath, true);
+        loadedCache.load();
+        assertEquals(violations, loadedCache.getViolations("myFile",
+                getClass().getClassLoader()),
+                "Invalid violations in cache");
+        loadedCache.put("myFile", 2);
+        assertEquals(Collections.emptyList(), loadedCache.getViolations("myFile",
+                getClass().getClassLoader()),
+                "Violations should be removed when file is put in cache");
+        loadedCache.putViolations("myFile", violations);
+        loadedCache.remove("myFile");
+        assertNull(loadedCache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile"),
+                "Violations should be removed when file is removed from cache");
+    }
+
+    @Test
+    public void testViolationsWithAllFields() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        cache.put("myFile", 1);
+        final List<Violation> violations = Arrays.asList(
+                new Violation(1, 2, 3, 4, "bundle", "key",
+                        new Object[] {"text:1:", 5, 6L, 7.5, true, 'c', null, ""},
+                        SeverityLevel.WARNING, "id", getClass(), "custom {0}"),
+                new Violation(8, 0, 0, 0, null, "other", null,
+                        SeverityLevel.INFO, null, Violation.class, null));
+        cache.putViolations("myFile", violations);
+        cache.persist();
+
+        final PropertyCacheFile loadedCache = new PropertyCacheFile(config, filePath);
+        loadedCache.load();
+        assertEquals(violations, loadedCache.getViolations("myFile",
+                getClass().getClassLoader()), "Invalid violations in cache");
+    }
+
+    @Test
+    public void testViolationsNotSerializable() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        cache.put("myFile", 1);
+        cache.putViolations("myFile", Collections.singletonList(new Violation(1,
+                Definitions.CHECKSTYLE_BUNDLE, "general.exception",
+                new Object[] {new Object()}, null, getClass(), null)));
+        assertNull(cache.get("myFile"),
+                "File with not serializable violations should be removed from cache");
+    }
+
+    @Test
+    public void testViolationsCorrupted() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+        final PropertyCacheFile cache = new PropertyCacheFile(config, file.getPath());
+        cache.load();
+        cache.persist();
+        Files.write(file.toPath(), Collections.singletonList(
+                PropertyCacheFile.VIOLATIONS_KEY_PREFIX.replace(":", "\\:")
+                        + "myFile=corrupted"), StandardCharsets.ISO_8859_1,
+                StandardOpenOption.APPEND);
+
+        final PropertyCacheFile loadedCache = new PropertyCacheFile(config, file.getPath());
+        loadedCache.load();
+        assertNotNull(loadedCache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile"),
+                "Violations should be loaded");
+        assertNull(loadedCache.getViolations("myFile",
+                getClass().getClassLoader()),
+                "Corrupted violations should not be read");
+    }
+
+    @Test
+    public void testViolationsInvalid() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        cache.put("myFile", 1);
+        cache.putViolations("myFile", Collections.singletonList(new Violation(1,
+                Definitions.CHECKSTYLE_BUNDLE, "general.exception",
+                new String[] {"message"}, null, getClass(), null)));
+        final String className = getClass().getName();
+        assertEquals(createViolationFields("1", "3", className, "smessage"),
+                cache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile"),
+                "Invalid fields of violations");
+
+        final String[] invalidValues = {
+            "rO0ABXNyABNqYXZhLnV0aWwuQXJyYXlMaXN0",
+            createViolationFields("1", "3", className, "smessage").replaceAll(".$", ""),
+            createViolationFields("one", "3", className, "smessage"),
+            createViolationFields("1", "9", className, "smessage"),
+            createViolationFields("1", "3", className + "Unknown", "smessage"),
+            createViolationFields("1", "3", className, "xmessage"),
+            createViolationFields("1", "3", className, "i1.5"),
+        };
+        for (String invalidValue : invalidValues) {
+            final Properties details = Whitebox.getInternalState(cache, "details");
+            details.setProperty(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile",
+                    invalidValue);
+            assertNull(cache.getViolations("myFile", getClass().getClassLoader()),
+                    "Invalid violations should not be read: " + invalidValue);
+        }
+    }
+
     @Test
     public void testChangeInConfig() throws Exception {
         final DefaultConfiguration config = new DefaultConfiguration("myConfig");
@@ -284,4 +468,32 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
         assertEquals(1, detailsAfterChangeInConfig.size(), "Invalid cache size");
     }
 
+    /**
+     * Creates the fields of a violation without module id and custom message
+     * as they are stored in cache.
+     *
+     * @param lineNo the line number
+     * @param severity the ordinal of the severity level
+     * @param className the name of the source class
+     * @param argument the only argument prefixed with the tag of its type
+     * @return the fields of the violation
+     */
+    private static String createViolationFields(String lineNo, String severity,
+            String className, String argument) {
+        return createField(lineNo) + "1:01:01:0" + createField(severity) + "-1:"
+                + createField(Definitions.CHECKSTYLE_BUNDLE)
+                + createField("general.exception") + createField(className) + "-1:1:1"
+                + createField(argument);
+    }
+
+    /**
+     * Creates a field of violations as it is stored in cache.
+     *
+     * @param text the text of the field
+     * @return the length of the text, the separator and the text
+     */
+    private static String createField(String text) {
+        return text.length() + ":" + text;
+    }
+
 }
@@ -0,0 +1,156 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.internal.utils.CloseAndFlushTestByteArrayOutputStream;
+
+public class ReportMergerTest extends AbstractPathTestSupport {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/reportmerger";
+    }
+
+    @Test
+    public void testMergeXml() throws Exception {
+        verifyMerge(Main.OutputFormat.XML, 2, "ExpectedReportMerger.xml",
+                "InputReportMergerFirst.xml", "InputReportMergerEmpty.xml",
+                "InputReportMergerSecond.xml");
+    }
+
+    @Test
+    public void testMergeSarif() throws Exception {
+        verifyMerge(Main.OutputFormat.SARIF, 1, "ExpectedReportMerger.sarif",
+                "InputReportMergerFirst.sarif", "InputReportMergerEmpty.sarif",
+                "InputReportMergerSecond.sarif");
+    }
+
+    @Test
+    public void testMergePlain() throws Exception {
+        verifyMerge(Main.OutputFormat.PLAIN, 2, "ExpectedReportMerger.txt",
+                "InputReportMergerFirst.txt", "InputReportMergerEmpty.txt",
+                "InputReportMergerSecond.txt");
+    }
+
+    @Test
+    public void testMergeEmptyReports() throws Exception {
+        verifyMerge(Main.OutputFormat.XML, 0, "InputReportMergerEmpty.xml",
+                "InputReportMergerEmpty.xml", "InputReportMergerEmpty.xml");
+        verifyMerge(Main.OutputFormat.SARIF, 0, "InputReportMergerEmpty.sarif",
+                "InputReportMergerEmpty.sarif", "InputReportMergerEmpty.sarif");
+        verifyMerge(Main.OutputFormat.PLAIN, 0, "InputReportMergerEmpty.txt",
+                "InputReportMergerEmpty.txt");
+    }
+
+    @Test
+    public void testMergeCompressedReports() throws Exception {
+        final List<File> reports = new ArrayList<>();
+        for (String name : new String[] {"InputReportMergerFirst.xml",
+            "InputReportMergerSecond.xml"}) {
+            final File report = new File(temporaryFolder, name + ".gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(report.toPath()))) {
+                out.write(Files.readAllBytes(Paths.get(getPath(name))));
+            }
+            reports.add(report);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final int errorCount = ReportMerger.merge(Main.OutputFormat.XML, reports, out);
+        assertWithMessage("Invalid error count")
+                .that(errorCount)
+                .isEqualTo(2);
+        assertWithMessage("Invalid merged report")
+                .that(toLfLineEnding(out.toString(StandardCharsets.UTF_8.name())))
+                .isEqualTo(readFile(getPath("ExpectedReportMerger.xml")));
+    }
+
+    @Test
+    public void testOutputStreamIsNotClosed() throws Exception {
+        final CloseAndFlushTestByteArrayOutputStream out =
+                new CloseAndFlushTestByteArrayOutputStream();
+        final List<File> reports = new ArrayList<>();
+        reports.add(new File(getPath("InputReportMergerFirst.txt")));
+        ReportMerger.merge(Main.OutputFormat.PLAIN, reports, out);
+        assertWithMessage("Output stream must not be closed")
+                .that(out.getCloseCount())
+                .isEqualTo(0);
+        assertWithMessage("Output stream must be flushed")
+                .that(out.getFlushCount())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    public void testInvalidReport() throws Exception {
+        verifyInvalidReport(Main.OutputFormat.XML, "InputReportMergerInvalid.xml", "xml");
+        verifyInvalidReport(Main.OutputFormat.SARIF, "InputReportMergerFirst.xml", "sarif");
+    }
+
+    private void verifyInvalidReport(Main.OutputFormat format, String name, String formatName)
+            throws IOException {
+        final List<File> reports = new ArrayList<>();
+        reports.add(new File(getPath(name)));
+        try {
+            ReportMerger.merge(format, reports, new ByteArrayOutputStream());
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("File '" + reports.get(0) + "' is not a report in "
+                            + formatName + " format.");
+        }
+    }
+
+    private void verifyMerge(Main.OutputFormat format, int expectedErrorCount,
+            String expected, String... names) throws Exception {
+        final List<File> reports = new ArrayList<>();
+        for (String name : names) {
+            reports.add(new File(getPath(name)));
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final int errorCount = ReportMerger.merge(format, reports, out);
+        assertWithMessage("Invalid error count")
+                .that(errorCount)
+                .isEqualTo(expectedErrorCount);
+        assertWithMessage("Invalid merged report")
+                .that(toLfLineEnding(out.toString(StandardCharsets.UTF_8.name())))
+                .isEqualTo(readFile(getPath(expected)));
+    }
+
+}
@@ -175,6 +175,60 @@ public class SarifLoggerTest extends AbstractModuleTestSupport {
         verifyContent(getPath("ExpectedSarifLoggerDoubleException.sarif"), outStream);
     }
 
+    @Test
+    public void testAddErrorsAndExceptions() throws IOException {
+        final SarifLogger logger = new SarifLogger(outStream,
+                AutomaticBean.OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        final AuditEvent ev = new AuditEvent(this, "Test.java", new Violation(1, 1,
+                "messages.properties", "ruleId", null, SeverityLevel.ERROR, null,
+                getClass(), "found an error"));
+        final AuditEvent ev2 = new AuditEvent(this, "Test.java", new Violation(2, 0,
+                "messages.properties", "ruleId2", null, SeverityLevel.WARNING, null,
+                getClass(), "found another error"));
+        final AuditEvent ev3 = new AuditEvent(this, "Test2.java", null);
+        final AuditEvent ev4 = new AuditEvent(this, null, null);
+        final AuditEvent ev5 = new AuditEvent(this, "Test3.java", new Violation(3, 5,
+                "messages.properties", "ruleId3", null, SeverityLevel.INFO, null,
+                getClass(), "found a third error"));
+        logger.fileStarted(ev);
+        logger.addError(ev);
+        logger.addError(ev2);
+        logger.fileFinished(ev);
+        logger.fileStarted(ev3);
+        logger.addException(ev3, new TestException("msg", new RuntimeException("msg")));
+        logger.fileFinished(ev3);
+        logger.addException(ev4, new TestException("msg2", new RuntimeException("msg2")));
+        logger.fileStarted(ev5);
+        logger.addError(ev5);
+        logger.fileFinished(ev5);
+        logger.auditFinished(null);
+        verifyContent(getPath("ExpectedSarifLoggerErrorsAndExceptions.sarif"), outStream);
+    }
+
+    @Test
+    public void testTwoAudits() throws IOException {
+        final SarifLogger logger = new SarifLogger(outStream,
+                AutomaticBean.OutputStreamOptions.NONE);
+        final Violation violation =
+                new Violation(1, 1,
+                        "messages.properties", "ruleId", null, SeverityLevel.ERROR, null,
+                        getClass(), "found an error");
+        final AuditEvent ev = new AuditEvent(this, "Test.java", violation);
+        logger.auditStarted(null);
+        logger.fileStarted(ev);
+        logger.addError(ev);
+        logger.fileFinished(ev);
+        logger.auditFinished(null);
+        logger.auditStarted(null);
+        logger.fileStarted(ev);
+        logger.addError(ev);
+        logger.fileFinished(ev);
+        logger.auditFinished(null);
+        outStream.close();
+        verifyContent(getPath("ExpectedSarifLoggerTwoAudits.sarif"), outStream);
+    }
+
     @Test
     public void testLineOnly() throws IOException {
         final SarifLogger logger = new SarifLogger(outStream,
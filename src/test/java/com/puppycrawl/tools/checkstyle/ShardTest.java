@@ -0,0 +1,191 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+public class ShardTest {
+
+    @TempDir
+    public Path temporaryFolder;
+
+    @Test
+    public void testInvalidFormat() {
+        for (String value : new String[] {"", "1", "1/", "/2", "a/2", "-1/2", "1/2/3",
+            "1/99999999999"}) {
+            try {
+                Shard.parse(value, false);
+                assertWithMessage("Exception is expected for " + value).fail();
+            }
+            catch (CheckstyleException ex) {
+                assertWithMessage("Invalid exception message")
+                        .that(ex.getMessage())
+                        .isEqualTo("Invalid shard '" + value + "', expected number/count.");
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidNumber() {
+        for (String value : new String[] {"0/2", "3/2", "0/0"}) {
+            try {
+                Shard.parse(value, false);
+                assertWithMessage("Exception is expected for " + value).fail();
+            }
+            catch (CheckstyleException ex) {
+                assertWithMessage("Invalid exception message")
+                        .that(ex.getMessage())
+                        .isEqualTo("Invalid shard '" + value
+                                + "', the number must be between 1 and " + value.charAt(2) + ".");
+            }
+        }
+    }
+
+    @Test
+    public void testSingleShard() throws Exception {
+        final List<File> files = createFiles(10, 20, 30);
+        assertWithMessage("Single shard must contain all files")
+                .that(Shard.parse("1/1", false).select(temporaryFolder, files))
+                .containsExactlyElementsIn(files)
+                .inOrder();
+        assertWithMessage("Single shard must contain all files")
+                .that(Shard.parse("1/1", true).select(temporaryFolder, files))
+                .containsExactlyElementsIn(files)
+                .inOrder();
+    }
+
+    @Test
+    public void testHashPartition() throws Exception {
+        final int[] sizes = new int[40];
+        Arrays.fill(sizes, 1);
+        final List<File> files = createFiles(sizes);
+        assertPartition(files, false);
+    }
+
+    @Test
+    public void testHashDependsOnRelativePathOnly() throws Exception {
+        final List<File> files = createFiles(1, 1, 1, 1, 1, 1, 1, 1);
+        final Path copyDirectory = Files.createDirectory(temporaryFolder.resolve("copy"));
+        final List<File> copies = createFiles(copyDirectory, 2, 2, 2, 2, 2, 2, 2, 2);
+        for (int number = 1; number <= 3; number++) {
+            final Shard shard = Shard.parse(number + "/3", false);
+            final List<String> expected = getNames(shard.select(temporaryFolder, files));
+            assertWithMessage("Shard must depend only on the relative paths")
+                    .that(getNames(shard.select(copyDirectory, copies)))
+                    .isEqualTo(expected);
+            assertWithMessage("Shard must be deterministic")
+                    .that(getNames(shard.select(temporaryFolder, files)))
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testSizePartition() throws Exception {
+        final List<File> files = createFiles(10, 70, 20, 40, 30, 50, 60);
+        assertPartition(files, true);
+        assertWithMessage("Invalid first shard")
+                .that(getNames(Shard.parse("1/3", true).select(temporaryFolder, files)))
+                .containsExactly("File0", "File1", "File2")
+                .inOrder();
+        assertWithMessage("Invalid second shard")
+                .that(getNames(Shard.parse("2/3", true).select(temporaryFolder, files)))
+                .containsExactly("File4", "File6")
+                .inOrder();
+        assertWithMessage("Invalid third shard")
+                .that(getNames(Shard.parse("3/3", true).select(temporaryFolder, files)))
+                .containsExactly("File3", "File5")
+                .inOrder();
+    }
+
+    @Test
+    public void testSizePartitionTiesByPath() throws Exception {
+        final List<File> files = createFiles(5, 5, 5, 5);
+        final List<File> reversed = new ArrayList<>(files);
+        Collections.reverse(reversed);
+        final Shard shard = Shard.parse("1/2", true);
+        assertWithMessage("Files of equal sizes must be assigned by path")
+                .that(getNames(shard.select(temporaryFolder, files)))
+                .containsExactly("File0", "File2")
+                .inOrder();
+        assertWithMessage("Order of files must not change the assignment")
+                .that(getNames(shard.select(temporaryFolder, reversed)))
+                .containsExactly("File2", "File0")
+                .inOrder();
+    }
+
+    private void assertPartition(List<File> files, boolean balancedBySize)
+            throws CheckstyleException {
+        final int count = 4;
+        final List<File> union = new ArrayList<>();
+        for (int number = 1; number <= count; number++) {
+            final List<File> selected = Shard.parse(number + "/" + count, balancedBySize)
+                    .select(temporaryFolder, files);
+            for (File file : selected) {
+                assertWithMessage("File must be in one shard only: " + file)
+                        .that(union)
+                        .doesNotContain(file);
+            }
+            union.addAll(selected);
+        }
+        assertWithMessage("Shards must contain all files")
+                .that(union)
+                .containsExactlyElementsIn(files);
+    }
+
+    private List<File> createFiles(int... sizes) throws IOException {
+        return createFiles(temporaryFolder, sizes);
+    }
+
+    private static List<File> createFiles(Path directory, int... sizes) throws IOException {
+        final List<File> result = new ArrayList<>();
+        for (int index = 0; index < sizes.length; index++) {
+            final char[] content = new char[sizes[index]];
+            Arrays.fill(content, 'a');
+            final Path file = directory.resolve("File" + index);
+            Files.write(file, new String(content).getBytes(StandardCharsets.UTF_8));
+            result.add(file.toFile());
+        }
+        return result;
+    }
+
+    private static List<String> getNames(List<File> files) {
+        final List<String> result = new ArrayList<>();
+        for (File file : files) {
+            result.add(file.getName());
+        }
+        return result;
+    }
+
+}
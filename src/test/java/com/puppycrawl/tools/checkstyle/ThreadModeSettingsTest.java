@@ -22,7 +22,6 @@ package com.puppycrawl.tools.checkstyle;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.Set;
 
@@ -41,16 +40,10 @@ public class ThreadModeSettingsTest {
 
     @Test
     public void testResolveCheckerInMultiThreadMode() {
-        final ThreadModeSettings configuration = new ThreadModeSettings(2, 2);
+        final ThreadModeSettings configuration = new ThreadModeSettings(2, 1);
 
-        try {
-            configuration.resolveName(ThreadModeSettings.CHECKER_MODULE_NAME);
-            fail("An exception is expected");
-        }
-        catch (IllegalArgumentException ex) {
-            assertEquals("Multi thread mode for Checker module is not implemented",
-                    ex.getMessage(), "Invalid exception message");
-        }
+        final String name = configuration.resolveName(ThreadModeSettings.CHECKER_MODULE_NAME);
+        assertEquals(ThreadModeSettings.CHECKER_MODULE_NAME, name, "Invalid name resolved");
     }
 
     @Test
@@ -62,17 +55,11 @@ public class ThreadModeSettingsTest {
     }
 
     @Test
-    public void testResolveTreeWalker() {
+    public void testResolveTreeWalkerInMultiThreadMode() {
         final ThreadModeSettings configuration = new ThreadModeSettings(2, 2);
 
-        try {
-            configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
-            fail("Exception is expected");
-        }
-        catch (IllegalArgumentException ex) {
-            assertEquals("Multi thread mode for TreeWalker module is not implemented",
-                    ex.getMessage(), "Invalid exception message");
-        }
+        final String name = configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
+        assertEquals(ThreadModeSettings.TREE_WALKER_MODULE_NAME, name, "Invalid name resolved");
     }
 
     @Test
@@ -31,6 +31,7 @@ import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -46,9 +47,12 @@ import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.Context;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.checks.ArrayTypeStyleCheck;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
 import com.puppycrawl.tools.checkstyle.checks.blocks.LeftCurlyCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.EmptyStatementCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
@@ -60,6 +64,7 @@ import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAfterCheck;
 import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAroundCheck;
+import com.puppycrawl.tools.checkstyle.filters.SuppressWarningsFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressWithNearbyCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathFilter;
@@ -421,6 +426,213 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
                 expected);
     }
 
+    @Test
+    public void testInheritedLeaveToken() throws Exception {
+        final DefaultConfiguration checkConfig =
+                createModuleConfig(InheritedLeaveTokenCheck.class);
+        LeaveTokenCheck.resetCounters();
+
+        verify(checkConfig, getPath("InputTreeWalker.java"));
+        assertEquals(2, LeaveTokenCheck.getVisitCount(), "Invalid number of visits");
+        assertEquals(2, LeaveTokenCheck.getLeaveCount(), "Invalid number of leaves");
+    }
+
+    @Test
+    public void testSkipUncheckedSubtrees() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addProperty("skipUncheckedSubtrees", "true");
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(InheritedLeaveTokenCheck.class));
+        LeaveTokenCheck.resetCounters();
+
+        final String[] expected = {
+            "4:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "I",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "6:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "J",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "9:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "P",
+                    "^[a-z][a-zA-Z0-9]*$"),
+        };
+
+        verify(createRootConfig(treeWalkerConfig),
+                getPath("InputTreeWalkerSuppressionCommentFilter.java"),
+                expected);
+        assertEquals(1, LeaveTokenCheck.getVisitCount(), "Invalid number of visits");
+        assertEquals(1, LeaveTokenCheck.getLeaveCount(), "Invalid number of leaves");
+    }
+
+    @Test
+    public void testSkipUncheckedSubtreesInMultiThreadMode() throws Exception {
+        final DefaultConfiguration treeWalkerConfig =
+                createModuleConfig(TreeWalker.class, new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addProperty("skipUncheckedSubtrees", "true");
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TypeNameCheck.class));
+
+        final String[] expected = {
+            "4:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "I",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "6:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "J",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "9:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "P",
+                    "^[a-z][a-zA-Z0-9]*$"),
+        };
+
+        verify(createRootConfig(treeWalkerConfig),
+                getPath("InputTreeWalkerSuppressionCommentFilter.java"),
+                expected);
+    }
+
+    @Test
+    public void testCompactAst() throws Exception {
+        final DefaultConfiguration filterConfig =
+                createModuleConfig(SuppressionCommentFilter.class);
+        filterConfig.addProperty("checkCPP", "false");
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addProperty("compactAst", "true");
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(JavadocParagraphCheck.class));
+        treeWalkerConfig.addChild(filterConfig);
+
+        final String[] expected = {
+            "4:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "I",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "9:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "P",
+                    "^[a-z][a-zA-Z0-9]*$"),
+        };
+
+        verify(createRootConfig(treeWalkerConfig),
+                getPath("InputTreeWalkerSuppressionCommentFilter.java"),
+                expected);
+    }
+
+    @Test
+    public void testCompactAstWithSkipUncheckedSubtrees() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addProperty("compactAst", "true");
+        treeWalkerConfig.addProperty("skipUncheckedSubtrees", "true");
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(InheritedLeaveTokenCheck.class));
+        LeaveTokenCheck.resetCounters();
+
+        final String[] expected = {
+            "4:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "I",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "6:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "J",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "9:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "P",
+                    "^[a-z][a-zA-Z0-9]*$"),
+        };
+
+        verify(createRootConfig(treeWalkerConfig),
+                getPath("InputTreeWalkerSuppressionCommentFilter.java"),
+                expected);
+        assertEquals(1, LeaveTokenCheck.getVisitCount(), "Invalid number of visits");
+        assertEquals(1, LeaveTokenCheck.getLeaveCount(), "Invalid number of leaves");
+    }
+
+    @Test
+    public void testMultiThreadMode() throws Exception {
+        final DefaultConfiguration filterConfig =
+                createModuleConfig(SuppressionCommentFilter.class);
+        filterConfig.addProperty("checkCPP", "false");
+
+        final DefaultConfiguration treeWalkerConfig =
+                createModuleConfig(TreeWalker.class, new ThreadModeSettings(1, 3));
+        treeWalkerConfig.addChild(createModuleConfig(ConstantNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TypeNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(WhitespaceAroundCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(JavadocParagraphCheck.class));
+        treeWalkerConfig.addChild(filterConfig);
+
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+
+        final String[] expected = {
+            "9:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "P",
+                    "^[a-z][a-zA-Z0-9]*$"),
+            "4:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "I",
+                    "^[a-z][a-zA-Z0-9]*$"),
+        };
+
+        verify(checkerConfig,
+                getPath("InputTreeWalkerSuppressionCommentFilter.java"),
+                expected);
+    }
+
+    @Test
+    public void testMultiThreadModeWithSuppressWarningsHolder() throws Exception {
+        final DefaultConfiguration treeWalkerConfig =
+                createModuleConfig(TreeWalker.class, new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(createModuleConfig(ArrayTypeStyleCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(SuppressWarningsHolder.class));
+
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(SuppressWarningsFilter.class));
+
+        final String[] expected = {
+            "6:17: " + getCheckMessage(MemberNameCheck.class, "name.invalidPattern", "J",
+                    "^[a-z][a-zA-Z0-9]*$"),
+        };
+
+        verify(checkerConfig,
+                getPath("InputTreeWalkerSuppressWarnings.java"),
+                expected);
+    }
+
+    @Test
+    public void testMultiThreadModeWithExceptionInCheck() throws Exception {
+        final TreeWalker treeWalker = createMultiThreadTreeWalker(false);
+        final File file = new File(temporaryFolder, "file.java");
+        final FileText fileText = new FileText(file, Arrays.asList("class A {}"));
+        treeWalker.setFileContents(new FileContents(fileText));
+        try {
+            treeWalker.processFiltered(file, fileText);
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Check failed", ex.getMessage(), "Invalid exception message");
+        }
+        finally {
+            treeWalker.destroy();
+        }
+    }
+
+    @Test
+    public void testMultiThreadModeWithErrorInCheck() throws Exception {
+        final TreeWalker treeWalker = createMultiThreadTreeWalker(true);
+        final File file = new File(temporaryFolder, "file.java");
+        final FileText fileText = new FileText(file, Arrays.asList("class A {}"));
+        treeWalker.setFileContents(new FileContents(fileText));
+        try {
+            treeWalker.processFiltered(file, fileText);
+            fail("Error is expected");
+        }
+        // -@cs[IllegalCatchExtended] Testing for catch Error is part of 100% coverage.
+        catch (Error error) {
+            assertEquals("Check failed", error.getMessage(), "Invalid error message");
+        }
+        finally {
+            treeWalker.destroy();
+        }
+    }
+
+    @Test
+    public void testMultiThreadModeInRepeatedAudits() throws Exception {
+        final DefaultConfiguration treeWalkerConfig =
+                createModuleConfig(TreeWalker.class, new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(createModuleConfig(ArrayTypeStyleCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        final Checker checker = createChecker(createRootConfig(treeWalkerConfig));
+        final List<File> files = Collections.singletonList(
+                new File(getPath("InputTreeWalkerSuppressWarnings.java")));
+
+        assertEquals(2, checker.process(files), "Invalid number of errors in first audit");
+        // the executor of the check groups is shut down at the end of each audit
+        assertEquals(2, checker.process(files), "Invalid number of errors in second audit");
+    }
+
     @Test
     public void testFinishLocalSetupFullyInitialized() {
         final TreeWalker treeWalker = new TreeWalker();
@@ -529,6 +741,28 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         verify(checkerConfig, filePath, expected);
     }
 
+    /**
+     * Creates a TreeWalker with two threads, the failing check is run
+     * in the second thread.
+     *
+     * @param error whether the check throws an error instead of an exception
+     * @return the TreeWalker
+     * @throws Exception if an error occurs
+     */
+    private static TreeWalker createMultiThreadTreeWalker(boolean error) throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        treeWalker.configure(new DefaultConfiguration(TreeWalker.class.getName(),
+                new ThreadModeSettings(1, 2)));
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            new HashSet<>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.setupChild(createModuleConfig(RequiredTokenIsEmptyIntArray.class));
+        final DefaultConfiguration checkConfig = createModuleConfig(ThrowingCheck.class);
+        checkConfig.addProperty("error", String.valueOf(error));
+        treeWalker.setupChild(checkConfig);
+        return treeWalker;
+    }
+
     public static class BadJavaDocCheck extends AbstractCheck {
 
         @Override
@@ -642,4 +876,86 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
 
     }
 
+    public static final class ThrowingCheck extends AbstractCheck {
+
+        private boolean error;
+
+        public void setError(boolean error) {
+            this.error = error;
+        }
+
+        @Override
+        public int[] getDefaultTokens() {
+            return getRequiredTokens();
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return getRequiredTokens();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            if (error) {
+                throw new Error("Check failed");
+            }
+            throw new IllegalStateException("Check failed");
+        }
+
+    }
+
+    public static class LeaveTokenCheck extends AbstractCheck {
+
+        private static int visitCount;
+
+        private static int leaveCount;
+
+        @Override
+        public int[] getDefaultTokens() {
+            return getRequiredTokens();
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return getRequiredTokens();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            visitCount++;
+        }
+
+        @Override
+        public void leaveToken(DetailAST ast) {
+            leaveCount++;
+        }
+
+        public static void resetCounters() {
+            visitCount = 0;
+            leaveCount = 0;
+        }
+
+        public static int getVisitCount() {
+            return visitCount;
+        }
+
+        public static int getLeaveCount() {
+            return leaveCount;
+        }
+
+    }
+
+    public static final class InheritedLeaveTokenCheck extends LeaveTokenCheck {
+    }
+
 }
@@ -351,6 +351,61 @@ public class XMLLoggerTest extends AbstractXmlTestSupport {
         verifyXml(getPath("ExpectedXMLLoggerError.xml"), outStream, violation.getViolation());
     }
 
+    @Test
+    public void testAuditFinishedWithOpenFile() throws Exception {
+        final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        final AuditEvent fileStartedEvent = new AuditEvent(this, "Test.java");
+        logger.fileStarted(fileStartedEvent);
+        logger.auditFinished(null);
+        verifyXml(getPath("ExpectedXMLLogger.xml"), outStream);
+    }
+
+    @Test
+    public void testFileStartedWithOpenFile() throws Exception {
+        final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        logger.fileStarted(new AuditEvent(this, "Other.java"));
+        final AuditEvent fileStartedEvent = new AuditEvent(this, "Test.java");
+        logger.fileStarted(fileStartedEvent);
+        logger.fileFinished(fileStartedEvent);
+        logger.auditFinished(null);
+        verifyXml(getPath("ExpectedXMLLoggerTwoFiles.xml"), outStream);
+    }
+
+    @Test
+    public void testAddErrorOfOtherFile() throws Exception {
+        final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        final AuditEvent fileStartedEvent = new AuditEvent(this, "Test.java");
+        logger.fileStarted(fileStartedEvent);
+        final Violation violation =
+                new Violation(1, 1,
+                        "messages.properties", "key", null, SeverityLevel.ERROR, null,
+                        getClass(), null);
+        logger.addError(new AuditEvent(this, "Other.java", violation));
+        logger.addException(new AuditEvent(this, "Other.java", violation),
+                new TestException("msg", new RuntimeException("msg")));
+        logger.fileFinished(new AuditEvent(this, "Third.java"));
+        logger.addError(new AuditEvent(this, "Test.java", violation));
+        logger.fileFinished(fileStartedEvent);
+        logger.auditFinished(null);
+        verifyXml(getPath("ExpectedXMLLoggerErrorOfOtherFile.xml"), outStream,
+                violation.getViolation());
+    }
+
+    @Test
+    public void testFileFinishedWithoutOpenFile() throws Exception {
+        final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        logger.fileFinished(new AuditEvent(this, "Other.java"));
+        final AuditEvent fileStartedEvent = new AuditEvent(this, "Test.java");
+        logger.fileStarted(fileStartedEvent);
+        logger.fileFinished(fileStartedEvent);
+        logger.auditFinished(null);
+        verifyXml(getPath("ExpectedXMLLoggerTwoFiles.xml"), outStream);
+    }
+
     @Test
     public void testNullOutputStreamOptions() {
         try {
@@ -25,10 +25,12 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.tools.ant.BuildException;
@@ -38,6 +40,7 @@ import org.apache.tools.ant.types.Path;
 import org.apache.tools.ant.types.Reference;
 import org.apache.tools.ant.types.resources.FileResource;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
@@ -62,6 +65,9 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
     private static final String NOT_EXISTING_FILE = "target/not_existing.xml";
     private static final String FAILURE_PROPERTY_VALUE = "myValue";
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/ant/checkstyleanttask/";
@@ -319,6 +325,167 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
         }
     }
 
+    @Test
+    public final void testCheckerThreads() throws IOException {
+        final List<String> expected = runWithCheckerThreads(1);
+        final List<String> actual = runWithCheckerThreads(2);
+
+        assertWithMessage("Output of parallel run differs from expected")
+                .that(actual)
+                .isEqualTo(expected);
+        assertWithMessage("Output should contain violations")
+                .that(actual.size())
+                .isGreaterThan(2);
+    }
+
+    private List<String> runWithCheckerThreads(int checkerThreads) throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        final FileSet fileSet = new FileSet();
+        fileSet.setDir(new File(getPath("")));
+        fileSet.setIncludes("InputCheckstyleAntTask*.java");
+        antTask.addFileset(fileSet);
+        antTask.setCheckerThreads(checkerThreads);
+        antTask.setFailOnViolation(false);
+        final CheckstyleAntTask.Formatter formatter = new CheckstyleAntTask.Formatter();
+        final File outputFile = new File("target/log-threads-" + checkerThreads + ".txt");
+        formatter.setTofile(outputFile);
+        final CheckstyleAntTask.FormatterType formatterType = new CheckstyleAntTask.FormatterType();
+        formatterType.setValue("plain");
+        formatter.setType(formatterType);
+        antTask.addFormatter(formatter);
+        antTask.execute();
+        return FileUtils.readLines(outputFile, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public final void testShard() throws IOException {
+        final List<File> allFiles = runWithShard(null, false);
+        final List<File> shardFiles = new ArrayList<>();
+        shardFiles.addAll(runWithShard("1/2", false));
+        shardFiles.addAll(runWithShard("2/2", false));
+
+        assertWithMessage("Shards should contain all files once")
+                .that(shardFiles)
+                .containsExactlyElementsIn(allFiles);
+    }
+
+    @Test
+    public final void testShardBySize() throws IOException {
+        final List<File> allFiles = runWithShard(null, false);
+        final List<File> firstShard = runWithShard("1/2", true);
+        final List<File> secondShard = runWithShard("2/2", true);
+        final List<File> shardFiles = new ArrayList<>(firstShard);
+        shardFiles.addAll(secondShard);
+
+        assertWithMessage("Shards should contain all files once")
+                .that(shardFiles)
+                .containsExactlyElementsIn(allFiles);
+        assertWithMessage("Largest file should be in the first shard")
+                .that(firstShard.stream().map(File::getName).collect(Collectors.toList()))
+                .contains("InputCheckstyleAntTaskError.java");
+    }
+
+    private List<File> runWithShard(String shard, boolean shardBySize) throws IOException {
+        TestRootModuleChecker.reset();
+        final CheckstyleAntTask antTask = getCheckstyleAntTask(CUSTOM_ROOT_CONFIG_FILE);
+        final FileSet fileSet = new FileSet();
+        fileSet.setDir(new File(getPath("")));
+        fileSet.setIncludes("InputCheckstyleAntTask*.java");
+        antTask.addFileset(fileSet);
+        antTask.setShard(shard);
+        antTask.setShardBySize(shardBySize);
+        antTask.execute();
+        return TestRootModuleChecker.getFilesToCheck();
+    }
+
+    @Test
+    public final void testInvalidShard() throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.setShard("3/2");
+        try {
+            antTask.execute();
+            assertWithMessage("Exception is expected")
+                    .fail();
+        }
+        catch (BuildException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Invalid shard '3/2', the number must be between 1 and 2.");
+        }
+    }
+
+    @Test
+    public final void testWriteBaselineAndBaseline() throws IOException {
+        final File baseline = new File(temporaryFolder, "baseline.txt");
+        final CheckstyleAntTask writeTask = getCheckstyleAntTask();
+        writeTask.setFile(new File(getPath(VIOLATED_INPUT)));
+        writeTask.setFailOnViolation(false);
+        writeTask.setWriteBaseline(baseline);
+        writeTask.execute();
+
+        assertWithMessage("Baseline file should contain the header and the violations")
+                .that(Files.readAllLines(baseline.toPath()).size())
+                .isGreaterThan(1);
+
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.setFile(new File(getPath(VIOLATED_INPUT)));
+        antTask.setBaseline(baseline);
+        antTask.execute();
+    }
+
+    @Test
+    public final void testWriteBaselineWithCustomRootModule() throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask(CUSTOM_ROOT_CONFIG_FILE);
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.setWriteBaseline(new File(temporaryFolder, "baseline.txt"));
+        try {
+            antTask.execute();
+            assertWithMessage("Exception is expected")
+                    .fail();
+        }
+        catch (BuildException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Root module '" + TestRootModuleChecker.class.getName()
+                            + "' can not be used with attribute 'writeBaseline'.");
+        }
+    }
+
+    @Test
+    public final void testInvalidCheckerThreads() throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.setCheckerThreads(0);
+        try {
+            antTask.execute();
+            assertWithMessage("Exception is expected")
+                    .fail();
+        }
+        catch (BuildException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Attribute 'checkerThreads' must be greater than zero.");
+        }
+    }
+
+    @Test
+    public final void testInvalidTreeWalkerThreads() throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.setTreeWalkerThreads(0);
+        try {
+            antTask.execute();
+            assertWithMessage("Exception is expected")
+                    .fail();
+        }
+        catch (BuildException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Attribute 'treeWalkerThreads' must be greater than zero.");
+        }
+    }
+
     @Test
     public final void testMaxErrors() throws IOException {
         TestRootModuleChecker.reset();
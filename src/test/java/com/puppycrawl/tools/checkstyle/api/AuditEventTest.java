@@ -21,6 +21,9 @@ package com.puppycrawl.tools.checkstyle.api;
 
 import static com.google.common.truth.Truth.assertWithMessage;
 
+import java.io.File;
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 
 public class AuditEventTest {
@@ -76,5 +79,21 @@ public class AuditEventTest {
         assertWithMessage("invalid source name")
                 .that(event.getSourceName())
                 .isEqualTo("com.puppycrawl.tools.checkstyle.api.AuditEventTest");
+        assertWithMessage("invalid file text")
+                .that(event.getFileText())
+                .isNull();
+    }
+
+    @Test
+    public void testFileText() {
+        final Violation message = new Violation(1, "bundle", "key", null, "moduleId",
+                getClass(), null);
+        final FileText fileText = new FileText(new File("fileName"),
+                Collections.singletonList("class A {}"));
+        final AuditEvent event = new AuditEvent(getClass(), "fileName", message, fileText);
+
+        assertWithMessage("invalid file text")
+                .that(event.getFileText())
+                .isSameInstanceAs(fileText);
     }
 }
@@ -25,6 +25,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.apache.commons.beanutils.ConversionException;
@@ -176,6 +177,59 @@ public class AutomaticBeanTest {
         }
     }
 
+    @Test
+    public void testContextualizeNullForPrimitive() {
+        final TestBean testBean = new TestBean();
+        final DefaultContext context = new DefaultContext();
+        context.add("val", null);
+        try {
+            testBean.contextualize(context);
+            assertWithMessage("IllegalArgumentException is expected")
+                    .fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception cause, should be: IllegalArgumentException")
+                    .that(ex)
+                    .hasCauseThat()
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertWithMessage("Invalid exception message")
+                    .that(ex)
+                    .hasMessageThat()
+                    .isEqualTo("illegal value 'null' for property 'val'");
+        }
+    }
+
+    @Test
+    public void testConfigureNotAccessibleBean() {
+        final NotAccessibleBean bean = new NotAccessibleBean();
+        final DefaultConfiguration config = new DefaultConfiguration("bean");
+        config.addProperty("value", "someValue");
+        try {
+            bean.configure(config);
+            assertWithMessage("CheckstyleException is expected")
+                    .fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex)
+                    .hasMessageThat()
+                    .isEqualTo("Cannot set property 'value' to 'someValue'");
+        }
+    }
+
+    @Test
+    public void testPropertySettersAreCached() {
+        final ClassValue<Map<String, ?>> propertySetters =
+                Whitebox.getInternalState(AutomaticBean.class, "PROPERTY_SETTERS");
+        final Map<String, ?> setters = propertySetters.get(TestBean.class);
+        assertWithMessage("Setters should be resolved once per class")
+                .that(propertySetters.get(TestBean.class))
+                .isSameInstanceAs(setters);
+        assertWithMessage("Invalid properties with setters")
+                .that(setters.keySet())
+                .containsExactly("exceptionalMethod", "val", "wrong");
+    }
+
     @Test
     public void testTestBean() {
         final TestBean testBean = new TestBean();
@@ -328,6 +382,22 @@ public class AutomaticBeanTest {
 
     }
 
+    /**
+     * This class is not public, so its setters are not accessible to reflection.
+     */
+    private static final class NotAccessibleBean extends AutomaticBean {
+
+        public void setValue(String value) {
+            // not accessible
+        }
+
+        @Override
+        protected void finishLocalSetup() {
+            // No code by default
+        }
+
+    }
+
     /**
      * This class has to be public for reflection to access the methods.
      */
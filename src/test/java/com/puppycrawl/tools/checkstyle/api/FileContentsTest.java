@@ -27,6 +27,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
 import org.powermock.reflect.Whitebox;
@@ -77,6 +78,20 @@ public class FileContentsTest {
                 .isTrue();
     }
 
+    @Test
+    public void testLineIsCommentLikePattern() {
+        final Pattern pattern = Pattern.compile("^\\s*//.*$");
+        final String[] lines = {"", "/", "//", "\t\f // a", "\u000B" + "//", "\u00A0" + "//",
+            "a // b", "/ /", "// a" + "\u2028", "// a" + "\u2028" + "b", "// a\r\n", "// a\n\r",
+            "\r\n//"};
+        for (String line : lines) {
+            assertWithMessage("Invalid result for " + line)
+                    .that(new FileContents(new FileText(new File("filename"),
+                            Collections.singletonList(line))).lineIsComment(0))
+                    .isEqualTo(pattern.matcher(line).matches());
+        }
+    }
+
     @Test
     public void testDeprecatedAbbreviatedMethod() {
         // just to make UT coverage 100%
@@ -230,6 +245,64 @@ public class FileContentsTest {
                 .isFalse();
     }
 
+    @Test
+    public void testHasIntersectionWithEnclosingBlockComment() {
+        final String[] lines = new String[12];
+        Arrays.fill(lines, "                    ");
+        final FileContents fileContents = new FileContents(
+                new FileText(new File("filename"), Arrays.asList(lines)));
+        fileContents.reportBlockComment(1, 0, 10, 2);
+        fileContents.reportBlockComment(3, 4, 3, 8);
+        fileContents.reportBlockComment(5, 4, 5, 8);
+
+        assertWithMessage("Should return true when an earlier comment encloses the position")
+                .that(fileContents.hasIntersectionWithComment(7, 0, 7, 3))
+                .isTrue();
+        assertWithMessage("Should return true when the position is at the end of a comment")
+                .that(fileContents.hasIntersectionWithComment(10, 2, 11, 0))
+                .isTrue();
+        assertWithMessage("Should return false when the position is after all comments")
+                .that(fileContents.hasIntersectionWithComment(10, 3, 12, 5))
+                .isFalse();
+    }
+
+    @Test
+    public void testHasIntersectionWithCommentReportedAfterQuery() {
+        final FileContents fileContents = new FileContents(new FileText(new File("filename"),
+                Arrays.asList("  /* */    ", "  int a; // b", "   ")));
+
+        assertWithMessage("Should return false when there are no comments")
+                .that(fileContents.hasIntersectionWithComment(1, 0, 3, 2))
+                .isFalse();
+        fileContents.reportSingleLineComment(2, 9);
+        assertWithMessage("Should return true for a single line comment reported later")
+                .that(fileContents.hasIntersectionWithComment(2, 10, 2, 11))
+                .isTrue();
+        assertWithMessage("Should return false before a single line comment")
+                .that(fileContents.hasIntersectionWithComment(1, 8, 2, 8))
+                .isFalse();
+        fileContents.reportBlockComment(1, 2, 1, 6);
+        assertWithMessage("Should return true for a block comment reported later")
+                .that(fileContents.hasIntersectionWithComment(1, 4, 1, 4))
+                .isTrue();
+    }
+
+    @Test
+    public void testHasIntersectionWithSingleLineComments() {
+        final FileContents fileContents = new FileContents(new FileText(new File("filename"),
+                Arrays.asList("a; // b", "c;", "d; // e", "f; // g")));
+        fileContents.reportSingleLineComment(1, 3);
+        fileContents.reportSingleLineComment(3, 3);
+        fileContents.reportSingleLineComment(4, 3);
+
+        assertWithMessage("Should return true when a comment is inside the position")
+                .that(fileContents.hasIntersectionWithComment(2, 0, 4, 1))
+                .isTrue();
+        assertWithMessage("Should return false between comments")
+                .that(fileContents.hasIntersectionWithComment(2, 0, 3, 2))
+                .isFalse();
+    }
+
     @Test
     public void testReportJavadocComment() {
         final FileContents fileContents = new FileContents(
@@ -26,11 +26,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
@@ -38,6 +40,9 @@ import com.puppycrawl.tools.checkstyle.internal.utils.CheckUtil;
 
 public class FileTextTest extends AbstractPathTestSupport {
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/api/filetext";
@@ -110,9 +115,9 @@ public class FileTextTest extends AbstractPathTestSupport {
         final String filepath = getPath("InputFileTextImportControl.xml");
         final FileText fileText = new FileText(new File(filepath), charset.name());
         final FileText copy = new FileText(fileText);
-        assertWithMessage("LineBreaks not null")
+        assertWithMessage("LineBreaks should be found while reading the file")
                 .that((Object) Whitebox.getInternalState(copy, "lineBreaks"))
-                .isNull();
+                .isNotNull();
         final LineColumn lineColumn = copy.lineColumn(100);
         assertWithMessage("Invalid line")
                 .that(lineColumn.getLine())
@@ -190,4 +195,75 @@ public class FileTextTest extends AbstractPathTestSupport {
                 .isEqualTo(lineBreaks);
     }
 
+    @Test
+    public void testLineTerminators() throws IOException {
+        final FileText fileText = readFile("a\r\nb\rc\n\nd", StandardCharsets.UTF_8);
+        assertWithMessage("Invalid line count")
+                .that(fileText.size())
+                .isEqualTo(5);
+        assertWithMessage("Invalid line")
+                .that(fileText.get(3))
+                .isEmpty();
+        assertWithMessage("Invalid lines")
+                .that(fileText.toLinesArray())
+                .isEqualTo(new String[] {"a", "b", "c", "", "d"});
+        assertWithMessage("Invalid line column")
+                .that(fileText.lineColumn(8))
+                .isEqualTo(new LineColumn(5, 0));
+    }
+
+    @Test
+    public void testTrailingLineTerminator() throws IOException {
+        final FileText fileText = readFile("a\r\n\r", StandardCharsets.ISO_8859_1);
+        assertWithMessage("Invalid lines")
+                .that(fileText.toLinesArray())
+                .isEqualTo(new String[] {"a", ""});
+        assertWithMessage("Empty file should have no lines")
+                .that(readFile("", StandardCharsets.UTF_8).size())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void testNonAsciiText() throws IOException {
+        final String nonAscii = "\u00e9\u0153";
+        final FileText utf8Text = readFile(nonAscii + "\nb" + nonAscii, StandardCharsets.UTF_8);
+        assertWithMessage("Invalid lines")
+                .that(utf8Text.toLinesArray())
+                .isEqualTo(new String[] {nonAscii, "b" + nonAscii});
+        final FileText utf16Text = readFile("a\nb", StandardCharsets.UTF_16);
+        assertWithMessage("Invalid lines")
+                .that(utf16Text.toLinesArray())
+                .isEqualTo(new String[] {"a", "b"});
+    }
+
+    @Test
+    public void testLargeFile() throws IOException {
+        final StringBuilder text = new StringBuilder(1_100_000);
+        while (text.length() < 1_050_000) {
+            text.append("line ").append(text.length()).append('\n');
+        }
+        final FileText fileText = readFile(text.toString(), StandardCharsets.UTF_8);
+        assertWithMessage("Invalid full text")
+                .that(fileText.getFullText().toString())
+                .isEqualTo(text.toString());
+        assertWithMessage("Invalid line")
+                .that(fileText.get(1))
+                .isEqualTo("line 12");
+    }
+
+    @Test
+    public void testCopySharesLines() throws IOException {
+        final FileText fileText = readFile("a\nb", StandardCharsets.UTF_8);
+        final FileText copy = new FileText(fileText);
+        assertWithMessage("Line should be created once for all copies")
+                .that(copy.get(1))
+                .isSameInstanceAs(fileText.get(1));
+    }
+
+    private FileText readFile(String text, Charset charset) throws IOException {
+        final File file = new File(temporaryFolder, "Input.txt");
+        Files.write(file.toPath(), text.getBytes(charset));
+        return new FileText(file, charset.name());
+    }
+
 }
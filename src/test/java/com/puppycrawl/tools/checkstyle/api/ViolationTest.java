@@ -28,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
@@ -35,6 +36,7 @@ import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Map;
@@ -130,6 +132,32 @@ public class ViolationTest {
                 violation.getSourceName(), "Invalid source name");
     }
 
+    @Test
+    public void testGetArgs() {
+        final Object[] args = {"arg", 1};
+        final Violation violation = new Violation(1, "bundle", "key", args, "module",
+                Violation.class, null);
+        final Object[] actual = violation.getArgs();
+        actual[0] = "changed";
+
+        assertWithMessage("Invalid args")
+                .that(violation.getArgs())
+                .asList()
+                .containsExactly("arg", 1)
+                .inOrder();
+        assertNull(new Violation(1, "bundle", "key", null, "module", Violation.class, null)
+                .getArgs(), "Args should be null");
+    }
+
+    @Test
+    public void testGetBundleAndCustomMessage() {
+        final Violation violation = new Violation(1, "bundle", "key", null, "module",
+                Violation.class, "custom");
+
+        assertEquals("bundle", violation.getBundle(), "Invalid bundle");
+        assertEquals("custom", violation.getCustomMessage(), "Invalid custom message");
+    }
+
     @Test
     public void testMessageInEnglish() {
         final Violation violation = createSampleViolation();
@@ -314,6 +342,79 @@ public class ViolationTest {
         assertEquals(0, bundleCache.size(), "Invalid bundle cache size");
     }
 
+    @Test
+    public void testViolationFormattedOnce() {
+        Violation.setLocale(Locale.ROOT);
+        final Violation violation = createSampleViolation();
+
+        assertSame(violation.getViolation(), violation.getViolation(),
+                "Violation should be formatted once");
+    }
+
+    @Test
+    public void testViolationFormattedAgainForOtherLocale() {
+        Violation.setLocale(Locale.ROOT);
+        final Violation violation = createSampleViolation();
+
+        assertEquals("Empty statement.", violation.getViolation(), "Invalid violation");
+        Violation.setLocale(Locale.FRENCH);
+        assertEquals("Instruction vide.", violation.getViolation(), "Invalid violation");
+        Violation.setLocale(Locale.ROOT);
+        assertEquals("Empty statement.", violation.getViolation(), "Invalid violation");
+    }
+
+    @Test
+    public void testFormatCache() {
+        Violation.setLocale(Locale.ROOT);
+        final Violation violation1 = createSampleViolationWithLine(1);
+        final Violation violation2 = createSampleViolationWithLine(2);
+
+        assertEquals("Empty statement.", violation1.getViolation(), "Invalid violation");
+        assertEquals("Empty statement.", violation2.getViolation(), "Invalid violation");
+
+        final Map<String, Map<String, MessageFormat>> formatCache =
+                Whitebox.getInternalState(Violation.class, "FORMAT_CACHE");
+
+        assertEquals(1, formatCache.size(), "Invalid format cache size");
+        assertEquals(1, formatCache.get("com.puppycrawl.tools.checkstyle.checks.coding.messages")
+                .size(), "Invalid format cache size");
+
+        Violation.setLocale(Locale.CHINA);
+
+        assertEquals(0, formatCache.size(), "Invalid format cache size");
+    }
+
+    @Test
+    public void testCustomFormatCache() {
+        final Violation violation = new Violation(1, 1,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "empty.statement",
+                new Object[] {"x"}, "module", Violation.class, "Custom {0}");
+
+        assertEquals("Custom x", violation.getViolation(), "Invalid violation");
+
+        final Map<String, MessageFormat> customFormatCache =
+                Whitebox.getInternalState(Violation.class, "CUSTOM_FORMAT_CACHE");
+
+        assertEquals(1, customFormatCache.size(), "Invalid custom format cache size");
+        assertTrue(customFormatCache.containsKey("Custom {0}"),
+                "Custom violation should be cached");
+    }
+
+    @Test
+    public void testMissingKeyNotCached() {
+        final Violation violation = new Violation(1, 1,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "Missing {0}",
+                new Object[] {"key"}, "module", Violation.class, null);
+
+        assertEquals("Missing key", violation.getViolation(), "Invalid violation");
+
+        final Map<String, Map<String, MessageFormat>> formatCache =
+                Whitebox.getInternalState(Violation.class, "FORMAT_CACHE");
+
+        assertTrue(formatCache.get("com.puppycrawl.tools.checkstyle.checks.coding.messages")
+                .isEmpty(), "Missing key should not be cached");
+    }
+
     @Test
     public void testTokenType() {
         final Violation violation1 = new Violation(1, 1, TokenTypes.CLASS_DEF,
@@ -0,0 +1,325 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.BaselineFingerprinter;
+import com.puppycrawl.tools.checkstyle.BaselineWriter;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class BaselineFilterTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testAcceptRecordedViolation() throws Exception {
+        final File source = writeSource("class A {", "    int a;", "}");
+        final File baseline = writeBaseline(createEvent(source, 2, "a"));
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+
+        assertWithMessage("Recorded violation should be rejected")
+                .that(filter.accept(createEvent(source, 2, "a")))
+                .isFalse();
+        assertWithMessage("Violation with other arguments should be accepted")
+                .that(filter.accept(createEvent(source, 2, "b")))
+                .isTrue();
+        assertWithMessage("Violation on another line should be accepted")
+                .that(filter.accept(createEvent(source, 1, "a")))
+                .isTrue();
+        assertWithMessage("Event without violation should be accepted")
+                .that(filter.accept(new AuditEvent(this, source.getName(), null)))
+                .isTrue();
+    }
+
+    @Test
+    public void testAcceptMovedViolation() throws Exception {
+        final File source = writeSource("class A {", "    int a;", "}");
+        final File baseline = writeBaseline(createEvent(source, 2, "a"));
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+
+        Files.write(source.toPath(), Arrays.asList("// header", "class A {", "", "  int  a;", "}"),
+                StandardCharsets.UTF_8);
+
+        assertWithMessage("Recorded violation should be rejected when its line is moved")
+                .that(filter.accept(createEvent(source, 4, "a")))
+                .isFalse();
+        assertWithMessage("Violation on a line with other content should be accepted")
+                .that(filter.accept(createEvent(source, 2, "a")))
+                .isTrue();
+    }
+
+    @Test
+    public void testAcceptEventWithFileText() throws Exception {
+        final File source = writeSource("class A {", "    int a;", "}");
+        final File baseline = writeBaseline(createEvent(source, 2, "a"));
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+        final FileText fileText = new FileText(source, "UTF-8");
+
+        Files.write(source.toPath(), Arrays.asList("class A {", "    int b;", "}"),
+                StandardCharsets.UTF_8);
+        final Violation violation = new Violation(2, 1, null, "key", new Object[] {"a"},
+                SeverityLevel.ERROR, null, getClass(), null);
+        final AuditEvent event = new AuditEvent(this, source.getName(), violation, fileText);
+
+        assertWithMessage("Recorded violation should be rejected for the audited text")
+                .that(filter.accept(event))
+                .isFalse();
+        assertWithMessage("Violation should be accepted for the changed file")
+                .that(filter.accept(createEvent(source, 2, "a")))
+                .isTrue();
+    }
+
+    @Test
+    public void testAcceptCopyOfRecordedViolation() throws Exception {
+        final File source = writeSource("class A {", "    int a;", "    int a;", "}");
+        final File baseline = writeBaseline(createEvent(source, 2, "a"));
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+
+        assertWithMessage("Recorded violation should be rejected")
+                .that(filter.accept(createEvent(source, 2, "a")))
+                .isFalse();
+        assertWithMessage("Violation on a copy of the recorded line should be accepted")
+                .that(filter.accept(createEvent(source, 3, "a")))
+                .isTrue();
+    }
+
+    @Test
+    public void testAcceptRecordedViolationsOnIdenticalLines() throws Exception {
+        final File source = writeSource("class A {", "    int a;", "    int a;", "    int a;",
+                "}");
+        final File baseline = writeBaseline(createEvent(source, 2, "a"),
+                createEvent(source, 3, "a"));
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+
+        assertWithMessage("First recorded violation should be rejected")
+                .that(filter.accept(createEvent(source, 2, "a")))
+                .isFalse();
+        assertWithMessage("Second recorded violation should be rejected")
+                .that(filter.accept(createEvent(source, 3, "a")))
+                .isFalse();
+        assertWithMessage("Third violation with the same fingerprint should be accepted")
+                .that(filter.accept(createEvent(source, 4, "a")))
+                .isTrue();
+    }
+
+    @Test
+    public void testAcceptRecordedViolationInNextAudit() throws Exception {
+        final File source = writeSource("class A {", "    int a;", "}");
+        final File baseline = writeBaseline(createEvent(source, 2, "a"));
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+        final Violation violation = new Violation(2, 1, "bundle", "key", new Object[] {"a"},
+                SeverityLevel.ERROR, null, getClass(), null);
+
+        assertWithMessage("Recorded violation should be rejected")
+                .that(filter.accept(createEvent(source, 2, "a")))
+                .isFalse();
+        assertWithMessage("Recorded violation should be rejected in the next audit")
+                .that(filter.accept(createEvent(source, 2, "a")))
+                .isFalse();
+        assertWithMessage("Recorded violation should be rejected for the audited text")
+                .that(filter.accept(new AuditEvent(this, source.getName(), violation,
+                        new FileText(source, "UTF-8"))))
+                .isFalse();
+        assertWithMessage("Recorded violation should be rejected for the next audited text")
+                .that(filter.accept(new AuditEvent(this, source.getName(), violation,
+                        new FileText(source, "UTF-8"))))
+                .isFalse();
+    }
+
+    @Test
+    public void testAcceptAbsoluteFileName() throws Exception {
+        final File source = writeSource("class A {}");
+        final File baseline = writeBaseline(createEvent(source, 1, "a"));
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+        final Violation violation = new Violation(1, null, "key", new Object[] {"a"},
+                SeverityLevel.ERROR, null, getClass(), null);
+        final AuditEvent event = new AuditEvent(this, source.getAbsolutePath(), violation);
+
+        assertWithMessage("Recorded violation should be rejected for absolute file name")
+                .that(filter.accept(event))
+                .isFalse();
+    }
+
+    @Test
+    public void testManyFingerprints() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        lines.add("# comment");
+        lines.add("");
+        for (int i = 0; i < 1000; i++) {
+            lines.add(String.format(Locale.ROOT, "%016x A.java Check key", i * 31L));
+        }
+        final File source = writeSource("class A {}");
+        final long fingerprint = new BaselineFingerprinter(temporaryFolder.getPath(), "UTF-8")
+                .getFingerprint(createEvent(source, 1, "a"));
+        lines.add(String.format(Locale.ROOT, "%016x A.java Check key", fingerprint));
+        final File baseline = new File(temporaryFolder, "baseline.txt");
+        Files.write(baseline.toPath(), lines, StandardCharsets.UTF_8);
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+
+        assertWithMessage("Recorded violation should be rejected")
+                .that(filter.accept(createEvent(source, 1, "a")))
+                .isFalse();
+        assertWithMessage("Violation should be accepted when it is not recorded")
+                .that(filter.accept(createEvent(source, 1, "b")))
+                .isTrue();
+    }
+
+    @Test
+    public void testEmptyBaseline() throws Exception {
+        final File source = writeSource("class A {}");
+        final File baseline = writeBaseline();
+        final BaselineFilter filter = createBaselineFilter(baseline.getPath(), false);
+
+        assertWithMessage("Violation should be accepted with an empty baseline")
+                .that(filter.accept(createEvent(source, 1, "a")))
+                .isTrue();
+    }
+
+    @Test
+    public void testNullFile() throws Exception {
+        final File source = writeSource("class A {}");
+        final BaselineFilter filter = createBaselineFilter(null, false);
+
+        assertWithMessage("Violation should be accepted without baseline file")
+                .that(filter.accept(createEvent(source, 1, "a")))
+                .isTrue();
+    }
+
+    @Test
+    public void testNonExistentFileWithTrueOptional() throws Exception {
+        final String fileName = new File(temporaryFolder, "missing.txt").getPath();
+        final BaselineFilter filter = createBaselineFilter(fileName, true);
+        final File source = writeSource("class A {}");
+
+        assertWithMessage("Violation should be accepted when optional file is missing")
+                .that(filter.accept(createEvent(source, 1, "a")))
+                .isTrue();
+    }
+
+    @Test
+    public void testNonExistentFileWithFalseOptional() {
+        final String fileName = new File(temporaryFolder, "missing.txt").getPath();
+        try {
+            createBaselineFilter(fileName, false);
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid error message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Unable to find: " + fileName);
+        }
+    }
+
+    @Test
+    public void testInvalidFingerprint() throws Exception {
+        final File baseline = new File(temporaryFolder, "baseline.txt");
+        Files.write(baseline.toPath(), Arrays.asList("# comment", "0123 A.java Check key",
+                "invalid A.java Check key"), StandardCharsets.UTF_8);
+        final String fileName = baseline.getPath();
+        try {
+            createBaselineFilter(fileName, false);
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid error message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Invalid fingerprint at line 3 of baseline file " + fileName
+                            + ": invalid A.java Check key");
+        }
+    }
+
+    @Test
+    public void testUnsupportedCharset() {
+        final BaselineFilter filter = new BaselineFilter();
+        try {
+            filter.setCharset("UNKNOWN-CHARSET");
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (UnsupportedEncodingException ex) {
+            assertWithMessage("Invalid error message")
+                    .that(ex.getMessage())
+                    .isEqualTo("unsupported charset: 'UNKNOWN-CHARSET'");
+        }
+    }
+
+    @Test
+    public void testGetExternalResourceLocations() {
+        final BaselineFilter filter = new BaselineFilter();
+        filter.setFile("baseline.txt");
+
+        assertWithMessage("Invalid external resource locations")
+                .that(filter.getExternalResourceLocations())
+                .containsExactly("baseline.txt");
+    }
+
+    private File writeSource(String... lines) throws IOException {
+        final File source = new File(temporaryFolder, "A.java");
+        Files.write(source.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+        return source;
+    }
+
+    private AuditEvent createEvent(File source, int lineNo, String arg) {
+        final Violation violation = new Violation(lineNo, 1, "bundle", "key", new Object[] {arg},
+                SeverityLevel.ERROR, null, getClass(), null);
+        return new AuditEvent(this, source.getName(), violation);
+    }
+
+    private File writeBaseline(AuditEvent... events) {
+        final File baseline = new File(temporaryFolder, "baseline.txt");
+        final BaselineWriter writer = new BaselineWriter(baseline.getPath(),
+                temporaryFolder.getPath(), "UTF-8");
+        writer.auditStarted(null);
+        for (AuditEvent event : events) {
+            writer.addError(event);
+        }
+        writer.auditFinished(null);
+        return baseline;
+    }
+
+    private BaselineFilter createBaselineFilter(String fileName, boolean optional)
+            throws CheckstyleException {
+        final BaselineFilter filter = new BaselineFilter();
+        filter.setFile(fileName);
+        filter.setOptional(optional);
+        filter.setBasedir(temporaryFolder.getPath());
+        filter.finishLocalSetup();
+        return filter;
+    }
+
+}
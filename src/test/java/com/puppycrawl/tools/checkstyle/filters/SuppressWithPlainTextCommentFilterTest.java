@@ -23,17 +23,22 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import static com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck.MSG_CONTAINS_TAB;
 import static com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck.MSG_FILE_CONTAINS_TAB;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
@@ -41,6 +46,7 @@ import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Violation;
@@ -54,6 +60,9 @@ public class SuppressWithPlainTextCommentFilterTest extends AbstractModuleTestSu
 
     private static final String MSG_REGEXP_EXCEEDED = "regexp.exceeded";
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/filters/suppresswithplaintextcommentfilter";
@@ -725,6 +734,42 @@ public class SuppressWithPlainTextCommentFilterTest extends AbstractModuleTestSu
         assertTrue(filter.accept(event), "filter should accept directory");
     }
 
+    @Test
+    public void testFilterWithChangedFile() throws IOException {
+        final File file = new File(temporaryFolder, "InputChangedFile.java");
+        Files.write(file.toPath(), Arrays.asList("// CHECKSTYLE:OFF", "class A {}"),
+                StandardCharsets.UTF_8);
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+        final AuditEvent event = new AuditEvent(this, file.getPath(), new Violation(2, 1,
+                "bundle", "key", null, SeverityLevel.ERROR, "moduleId", getClass(),
+                "customMessage"));
+
+        assertFalse(filter.accept(event), "filter should suppress event");
+        assertFalse(filter.accept(event), "filter should suppress event again");
+
+        // same length and possibly same modification time
+        Files.write(file.toPath(), Arrays.asList("// CHECKSTYLE:ON ", "class A {}"),
+                StandardCharsets.UTF_8);
+        assertTrue(filter.accept(event), "filter should accept event of changed file");
+    }
+
+    @Test
+    public void testFilterWithFileTextOfEvent() {
+        final File file = new File(temporaryFolder, "InputNotExisting.java");
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+        final Violation violation = new Violation(2, 1, "bundle", "key", null,
+                SeverityLevel.ERROR, "moduleId", getClass(), "customMessage");
+        final AuditEvent event = new AuditEvent(this, file.getPath(), violation,
+                new FileText(file, Arrays.asList("// CHECKSTYLE:OFF", "class A {}")));
+
+        assertFalse(filter.accept(event), "filter should suppress event");
+        assertFalse(filter.accept(event), "filter should suppress event again");
+
+        final AuditEvent changedEvent = new AuditEvent(this, file.getPath(), violation,
+                new FileText(file, Arrays.asList("// CHECKSTYLE:ON ", "class A {}")));
+        assertTrue(filter.accept(changedEvent), "filter should accept event of changed text");
+    }
+
     private void verifySuppressed(String fileNameWithExtension, String[] violationMessages,
                                   Configuration... childConfigs) throws Exception {
         final DefaultConfiguration checkerConfig = createRootConfig(null);
@@ -0,0 +1,170 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.powermock.reflect.Whitebox;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class SuppressionIndexTest {
+
+    private static final String[] FILE_NAMES = {
+        "src/main/java/Foo.java", "src/test/java/FooTest.java", "gen/Bar.java",
+        "src/main/java/a/b/Baz.java", "x/generated/Y.java", "FooFoo.java", "aaab.java",
+    };
+
+    private static final String[] FILE_PATTERNS = {
+        null, "Foo\\.java$", "[\\\\/]generated[\\\\/]", "Test\\.java", "\\QBaz.java\\E", ".*",
+        "a+b", "aa?b", "FooFoo", "(main|test)", "src/main", "^gen/", "Ba[rz]", "java$",
+    };
+
+    private static final String[] CHECK_PATTERNS = {null, "String", "Integer$", "java"};
+
+    private static final String[] MODULE_IDS = {null, "id1", "id2"};
+
+    private static final Class<?>[] SOURCES = {String.class, Integer.class, Long.class};
+
+    private static final String[] MESSAGES = {null, "message", "other"};
+
+    private static final String[] EVENT_MESSAGES = {"message", "other message", "text"};
+
+    private static final String[] LINES = {null, "1", "2-3"};
+
+    @Test
+    public void testRequiredLiteral() {
+        final String[][] cases = {
+            {"Foo\\.java$", "Foo.java"},
+            {"[\\\\/]generated[\\\\/]", "generated"},
+            {"[]a]bc[^]d]", "bc"},
+            {".*Test\\.java", "Test.java"},
+            {"\\QFoo.java\\E", "Foo.java"},
+            {"\\QFoo", "Foo"},
+            {"ab?c", "a"},
+            {"abc+d", "abc"},
+            {"ab{2}cd", "cd"},
+            {"ab*?c", "a"},
+            {"x\\dyz", "x"},
+            {"src/(main)/Foo", "src/"},
+            {"ab\\Q\\E*", null},
+            {"(main|test)/Foo", null},
+            {"(?i)Foo", null},
+            {"^$", null},
+            {"[a[b]]xyz", null},
+        };
+        for (String[] testCase : cases) {
+            assertWithMessage("Invalid literal of " + testCase[0])
+                    .that(SuppressionIndex.getRequiredLiteral(Pattern.compile(testCase[0])))
+                    .isEqualTo(testCase[1]);
+        }
+        assertWithMessage("Regexp with flags must have no literal")
+                .that(SuppressionIndex.getRequiredLiteral(
+                        Pattern.compile("Foo", Pattern.CASE_INSENSITIVE)))
+                .isNull();
+        assertWithMessage("Missing regexp must have no literal")
+                .that(SuppressionIndex.getRequiredLiteral(null))
+                .isNull();
+    }
+
+    @Test
+    public void testAcceptsSameEventsAsFilterSet() {
+        final Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            final FilterSet filterSet = new FilterSet();
+            final int size = random.nextInt(20);
+            for (int count = 0; count < size; count++) {
+                filterSet.addFilter(new SuppressFilterElement(
+                        getRandom(random, FILE_PATTERNS), getRandom(random, CHECK_PATTERNS),
+                        getRandom(random, MESSAGES), getRandom(random, MODULE_IDS),
+                        getRandom(random, LINES), null));
+            }
+            if (random.nextBoolean()) {
+                filterSet.addFilter(event -> event.getLine() != 3);
+            }
+            final SuppressionIndex index = new SuppressionIndex(filterSet);
+            for (int count = 0; count < 100; count++) {
+                final AuditEvent event = createRandomEvent(random);
+                assertWithMessage("Index must accept the same events as " + filterSet)
+                        .that(index.accept(event))
+                        .isEqualTo(filterSet.accept(event));
+            }
+        }
+    }
+
+    @Test
+    public void testFileElementsOfEachThread() throws Exception {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(new SuppressFilterElement("Foo\\.java$", null, null, null, null,
+                null));
+        final SuppressionIndex index = new SuppressionIndex(filterSet);
+        final Violation violation = new Violation(1, 0, "", "", null, null, String.class, "");
+        final AuditEvent fooEvent = new AuditEvent(this, "src/main/java/Foo.java", violation);
+        final AuditEvent barEvent = new AuditEvent(this, "gen/Bar.java", violation);
+        final ThreadLocal<?> lastFileElements =
+                Whitebox.getInternalState(index, "lastFileElements");
+        assertWithMessage("Event of suppressed file must be rejected")
+                .that(index.accept(fooEvent))
+                .isFalse();
+        final Object fileElements = lastFileElements.get();
+        assertWithMessage("Event of other file must be accepted by other thread")
+                .that(CompletableFuture.supplyAsync(() -> index.accept(barEvent)).get())
+                .isTrue();
+        assertWithMessage("Event of suppressed file must be rejected")
+                .that(index.accept(fooEvent))
+                .isFalse();
+        assertWithMessage("Elements of the file must be kept by the thread")
+                .that(lastFileElements.get())
+                .isSameInstanceAs(fileElements);
+    }
+
+    @Test
+    public void testAcceptEventWithoutViolation() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(new SuppressFilterElement((String) null, null, null, null, null, null));
+        final SuppressionIndex index = new SuppressionIndex(filterSet);
+        assertWithMessage("Event without file name must be accepted")
+                .that(index.accept(new AuditEvent(this)))
+                .isTrue();
+        assertWithMessage("Event without violation must be accepted")
+                .that(index.accept(new AuditEvent(this, "Foo.java")))
+                .isTrue();
+    }
+
+    private static AuditEvent createRandomEvent(Random random) {
+        final Violation violation = new Violation(1 + random.nextInt(3), 0, "", "", null,
+                getRandom(random, MODULE_IDS), getRandom(random, SOURCES),
+                getRandom(random, EVENT_MESSAGES));
+        return new AuditEvent(SuppressionIndexTest.class, getRandom(random, FILE_NAMES),
+                violation);
+    }
+
+    private static <T> T getRandom(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+}
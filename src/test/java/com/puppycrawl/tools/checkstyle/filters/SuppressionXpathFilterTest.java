@@ -152,8 +152,10 @@ public class SuppressionXpathFilterTest extends AbstractModuleTestSupport {
     @Test
     public void testEqualsAndHashCode() {
         final EqualsVerifierReport ev = EqualsVerifier.forClass(SuppressionXpathFilter.class)
+                .withPrefabValues(XpathQueryMatches.class,
+                    new XpathQueryMatches(null), new XpathQueryMatches(null))
                 .usingGetClass()
-                .withIgnoredFields("file", "optional", "configuration")
+                .withIgnoredFields("file", "optional", "configuration", "fileMatches")
                 .suppress(Warning.NONFINAL_FIELDS).report();
         assertWithMessage("Error: " + ev.getMessage())
                 .that(ev.isSuccessful())
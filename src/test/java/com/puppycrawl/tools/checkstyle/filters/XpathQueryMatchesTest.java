@@ -0,0 +1,125 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class XpathQueryMatchesTest extends AbstractModuleTestSupport {
+
+    private File file;
+    private FileContents fileContents;
+    private DetailAST rootAst;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = new File(getPath("InputXpathFilterElementSuppressByXpath.java"));
+        fileContents = new FileContents(new FileText(file,
+                StandardCharsets.UTF_8.name()));
+        rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+    }
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/filters/xpathfilterelement";
+    }
+
+    @Test
+    public void testOfSameAst() {
+        final XpathQueryMatches matches = new XpathQueryMatches(rootAst);
+        assertWithMessage("Memo of the same AST should be reused")
+                .that(XpathQueryMatches.of(matches, rootAst))
+                .isSameInstanceAs(matches);
+    }
+
+    @Test
+    public void testOfOtherAst() throws Exception {
+        final XpathQueryMatches matches = new XpathQueryMatches(rootAst);
+        final DetailAST otherRootAst =
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        assertWithMessage("Memo of another AST should be replaced")
+                .that(XpathQueryMatches.of(matches, otherRootAst))
+                .isNotSameInstanceAs(matches);
+        assertWithMessage("Memo should be created")
+                .that(XpathQueryMatches.of(null, rootAst))
+                .isNotNull();
+    }
+
+    @Test
+    public void testNodesAtSamePosition() {
+        final XpathFilterElement element = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null,
+                "//METHOD_DEF | //METHOD_DEF/MODIFIERS | //METHOD_DEF/MODIFIERS/LITERAL_PRIVATE");
+        final XpathQueryMatches matches = new XpathQueryMatches(rootAst);
+        assertWithMessage("Method should match")
+                .that(matches.contains(element, getEvent(4, 4, TokenTypes.METHOD_DEF)))
+                .isTrue();
+        assertWithMessage("Modifier at the position of the method should match")
+                .that(matches.contains(element, getEvent(4, 4, TokenTypes.LITERAL_PRIVATE)))
+                .isTrue();
+        assertWithMessage("Other token at the position of the method should not match")
+                .that(matches.contains(element, getEvent(4, 4, TokenTypes.CLASS_DEF)))
+                .isFalse();
+        assertWithMessage("Token at other position should not match")
+                .that(matches.contains(element, getEvent(5, 8, TokenTypes.METHOD_DEF)))
+                .isFalse();
+    }
+
+    @Test
+    public void testMatchingOfFilterElement() {
+        final XpathFilterElement element = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null,
+                "//VARIABLE_DEF[./IDENT[@text='pi']]");
+        final XpathQueryMatches matches = new XpathQueryMatches(rootAst);
+        final TreeWalkerAuditEvent eventOne = getEvent(5, 8, TokenTypes.VARIABLE_DEF);
+        final TreeWalkerAuditEvent eventTwo = getEvent(10, 4, TokenTypes.VARIABLE_DEF);
+        assertWithMessage("Event should be rejected")
+                .that(element.accept(eventOne, matches))
+                .isFalse();
+        assertWithMessage("Event should be accepted")
+                .that(element.accept(eventTwo, matches))
+                .isTrue();
+        assertWithMessage("Event should be rejected again")
+                .that(element.accept(eventOne, matches))
+                .isFalse();
+    }
+
+    private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType) {
+        final Violation message =
+                new Violation(line, column, tokenType, "", "", null, null, null,
+                        getClass(), null);
+        return new TreeWalkerAuditEvent(fileContents, file.getName(), message, rootAst);
+    }
+
+}
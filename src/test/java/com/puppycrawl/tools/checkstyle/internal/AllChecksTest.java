@@ -30,6 +30,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -84,6 +85,9 @@ public class AllChecksTest extends AbstractModuleTestSupport {
     private static final Map<String, Set<String>> GOOGLE_TOKENS_IN_CONFIG_TO_IGNORE =
             new HashMap<>();
     private static final Set<String> INTERNAL_MODULES;
+    // checkstyle has no baseline of violations to suppress
+    private static final Set<String> MODULES_NOT_IN_CHECKSTYLE_CONFIG =
+            Collections.singleton("BaselineFilter");
 
     static {
         // checkstyle
@@ -371,6 +375,7 @@ public class AllChecksTest extends AbstractModuleTestSupport {
         final Set<String> moduleNames = CheckUtil.getSimpleNames(CheckUtil.getCheckstyleModules());
 
         moduleNames.removeAll(INTERNAL_MODULES);
+        moduleNames.removeAll(MODULES_NOT_IN_CHECKSTYLE_CONFIG);
         moduleNames.stream().filter(check -> !modulesReferencedInConfig.contains(check))
             .forEach(check -> {
                 final String errorMessage = String.format(Locale.ROOT,
@@ -518,6 +523,7 @@ public class AllChecksTest extends AbstractModuleTestSupport {
         final Set<String> configChecks = CheckUtil.getConfigCheckStyleModules();
         final Set<String> moduleNames = CheckUtil.getSimpleNames(CheckUtil.getCheckstyleModules());
         moduleNames.removeAll(INTERNAL_MODULES);
+        moduleNames.removeAll(MODULES_NOT_IN_CHECKSTYLE_CONFIG);
         for (String moduleName : moduleNames) {
             assertTrue(configChecks.contains(moduleName),
                     "checkstyle_checks.xml is missing module: " + moduleName);
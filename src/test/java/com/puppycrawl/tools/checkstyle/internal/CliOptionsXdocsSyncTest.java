@@ -55,7 +55,7 @@ public class CliOptionsXdocsSyncTest {
         final Set<String> cmdOptions = getListById(sections.item(2), "CLI_Options");
         for (String option : cmdOptions) {
             final String text = option.trim().replaceAll("\\s+", " ");
-            cmdDesc.put(text.substring(0, 2), text.substring(text.indexOf(" - ") + 3));
+            cmdDesc.put(text.split("[ ,]", 2)[0], text.substring(text.indexOf(" - ") + 3));
         }
 
         final Class<?> cliOptions = Class.forName("com.puppycrawl.tools.checkstyle"
@@ -97,6 +97,7 @@ public class CliOptionsXdocsSyncTest {
         final Set<String> shortParamsMain = commandLine.getCommandSpec().options()
                         .stream()
                         .map(OptionSpec::shortestName)
+                        .filter(name -> name.length() == 2)
                         .collect(Collectors.toSet());
         final Set<String> longParamsMain = commandLine.getCommandSpec().options()
                         .stream()
@@ -110,6 +110,7 @@ public class XdocsPagesTest {
             "name=\"SeverityMatchFilter\"",
             "name=\"SuppressWithPlainTextCommentFilter\"",
             "name=\"SuppressionFilter\"",
+            "name=\"BaselineFilter\"",
             "name=\"SuppressionSingleFilter\"",
             "name=\"SuppressWarningsFilter\"",
             "name=\"BeforeExecutionExclusionFileFilter\"",
@@ -135,8 +136,11 @@ public class XdocsPagesTest {
             "Checker.classloader",
             "Checker.moduleClassLoader",
             "Checker.moduleFactory",
+            "Checker.profiler",
+            "Checker.changedLines",
             "TreeWalker.classLoader",
             "TreeWalker.moduleFactory",
+            "TreeWalker.profiler",
             "TreeWalker.cacheFile",
             "TreeWalker.upChild",
             "SuppressWithNearbyCommentFilter.fileContents",
@@ -149,6 +153,8 @@ public class XdocsPagesTest {
             // loads string into memory similar to file
             "Header.header",
             "RegexpHeader.header",
+            // loads cache file into memory, stored in the same field as cacheFile
+            "Checker.contentCacheFile",
             // deprecated fields
             "JavadocMethod.minLineCount",
             "JavadocMethod.allowMissingJavadoc",
@@ -231,6 +237,10 @@ public class XdocsPagesTest {
     private static final Set<String> GOOGLE_MODULES = Collections.unmodifiableSet(
         new HashSet<>(CheckUtil.getConfigGoogleStyleModules()));
 
+    // modules which are not used by any of the configurations, as checkstyle has no baseline
+    private static final List<String> MODULES_WITHOUT_USAGE_EXAMPLE =
+        Collections.singletonList("BaselineFilter");
+
     @Test
     public void testAllChecksPresentOnAvailableChecksPage() throws Exception {
         final String availableChecks = new String(Files.readAllBytes(AVAILABLE_CHECKS_PATH), UTF_8);
@@ -427,7 +437,8 @@ public class XdocsPagesTest {
             throws IOException, CheckstyleException {
         // can't process non-existent examples, or out of context snippets
         if (!code.contains("com.mycompany") && !code.contains("checkstyle-packages")
-                && !code.contains("MethodLimit") && !code.contains("<suppress ")
+                && !code.contains("MethodLimit") && !code.contains("config/baseline.txt")
+                && !code.contains("<suppress ")
                 && !code.contains("<suppress-xpath ")
                 && !code.contains("<import-control ")
                 && !unserializedSource.startsWith("<property ")
@@ -563,6 +574,10 @@ public class XdocsPagesTest {
                 validatePropertySection(fileName, sectionName, null, instance);
                 subSectionPos++;
             }
+            if (subSectionPos == 3 && !"Example of Usage".equals(subSectionName)
+                    && MODULES_WITHOUT_USAGE_EXAMPLE.contains(sectionName)) {
+                subSectionPos++;
+            }
             if (subSectionPos == 4 && !"Violation Messages".equals(subSectionName)) {
                 validateViolationSection(fileName, sectionName, null, instance);
                 subSectionPos++;
@@ -1106,6 +1121,9 @@ public class XdocsPagesTest {
             else if ("charset".equals(propertyName)) {
                 result = "the charset property of the parent Checker module";
             }
+            else if (!"Checker".equals(sectionName) && "basedir".equals(propertyName)) {
+                result = "the basedir property of the parent Checker module";
+            }
             else if ("PropertyCacheFile".equals(fieldClass.getSimpleName())) {
                 result = "null (no cache file)";
             }
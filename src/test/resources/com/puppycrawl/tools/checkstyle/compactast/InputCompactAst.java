@@ -0,0 +1,22 @@
+package com.puppycrawl.tools.checkstyle.compactast;
+
+import java.util.List;
+
+/**
+ * Javadoc of the class.
+ */
+public class InputCompactAst {
+    // comment before a field
+    private int first;
+    private int second; /* comment after a field */
+
+    public int sum(List<Integer> values) {
+        int result = first + second;
+        for (int value : values) {
+            result += value; // trailing comment
+        }
+        return result;
+    }
+
+    enum Kind { FIRST, SECOND }
+}
@@ -0,0 +1,7 @@
+package com.puppycrawl.tools.checkstyle.treewalker;
+
+public class InputTreeWalkerSuppressWarnings {
+    @SuppressWarnings("membername")
+    private int I;
+    private int J;
+}